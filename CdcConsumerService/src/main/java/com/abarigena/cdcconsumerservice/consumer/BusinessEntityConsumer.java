@@ -92,7 +92,14 @@ public class BusinessEntityConsumer {
                 case "c": // CREATE
                 case "u": // UPDATE
                 case "r": // READ (Initial snapshot)
-                    if (debeziumEvent.getAfter() != null) {
+                    if (debeziumEvent.getAfter() != null && debeziumEvent.getAfter().get("deleted_at") != null) {
+                        // Мягко удаленная задача убирается из поиска сразу, восстановление проиндексирует ее снова
+                        Object id = debeziumEvent.getAfter().get("id");
+                        if (id != null) {
+                            openSearchSyncService.deleteEntity(entityType, String.valueOf(id));
+                            log.info("🗑️ Сущность {} с ID {} помечена удаленной и убрана из OpenSearch", entityType, id);
+                        }
+                    } else if (debeziumEvent.getAfter() != null) {
                         // Используем типизированный метод для лучшей обработки данных
                         openSearchSyncService.indexEntityTyped(entityType, debeziumEvent.getAfter());
                         String operationName = switch (operation) {
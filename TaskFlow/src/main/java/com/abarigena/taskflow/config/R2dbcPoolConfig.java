@@ -0,0 +1,187 @@
+package com.abarigena.taskflow.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Раздельные пулы R2DBC для чтения и записи.
+ * <p>
+ * Медленные списочные запросы больше не могут занять все соединения, нужные записи: каждый пул
+ * настраивается отдельно (taskflow.r2dbc.read-pool / write-pool), а {@link ReadWriteRoutingConnectionFactory}
+ * выбирает пул по признаку readOnly текущей транзакции. Пул чтения может состоять из потоковых реплик
+ * ({@link ReplicaConnectionFactory}).
+ * <p>
+ * Метрики пулов: gauges r2dbc.pool.acquired / allocated / idle / pending / max.allocated / max.pending с тегом
+ * name=write публикует автоконфигурация Actuator, для реплик (name=read-N) они регистрируются здесь;
+ * время ожидания соединения пишется в гистограмму r2dbc.pool.acquire с тегами name и outcome.
+ */
+@Configuration
+public class R2dbcPoolConfig {
+
+    private static final String ACQUIRE_TIMER = "r2dbc.pool.acquire";
+
+    private final R2dbcProperties r2dbcProperties;
+
+    public R2dbcPoolConfig(R2dbcProperties r2dbcProperties) {
+        this.r2dbcProperties = r2dbcProperties;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool writeConnectionFactory(
+            @Value("${taskflow.r2dbc.write-pool.url:${spring.r2dbc.url}}") String url,
+            @Value("${taskflow.r2dbc.write-pool.initial-size:2}") int initialSize,
+            @Value("${taskflow.r2dbc.write-pool.max-size:10}") int maxSize,
+            @Value("${taskflow.r2dbc.write-pool.max-idle-time:10m}") Duration maxIdleTime,
+            @Value("${taskflow.r2dbc.write-pool.max-acquire-time:5s}") Duration maxAcquireTime) {
+        return pool("write", url, initialSize, maxSize, maxIdleTime, maxAcquireTime);
+    }
+
+    /**
+     * Пул чтения: по пулу на каждую реплику из taskflow.r2dbc.read-pool.urls (через запятую), с учетом отставания
+     * реплик и откатом на пул записи. Метрики пулов реплик публикуются с тегом name=read-N.
+     */
+    @Bean
+    public ReplicaConnectionFactory readConnectionFactory(
+            @Qualifier("writeConnectionFactory") ConnectionPool writePool,
+            MeterRegistry meterRegistry,
+            @Value("${taskflow.r2dbc.read-pool.urls:${spring.r2dbc.url}}") List<String> urls,
+            @Value("${taskflow.r2dbc.read-pool.initial-size:2}") int initialSize,
+            @Value("${taskflow.r2dbc.read-pool.max-size:10}") int maxSize,
+            @Value("${taskflow.r2dbc.read-pool.max-idle-time:10m}") Duration maxIdleTime,
+            @Value("${taskflow.r2dbc.read-pool.max-acquire-time:5s}") Duration maxAcquireTime,
+            @Value("${taskflow.r2dbc.replica.max-lag:2s}") Duration maxLag,
+            @Value("${taskflow.r2dbc.replica.max-receipt-age:1m}") Duration maxReceiptAge,
+            @Value("${taskflow.r2dbc.replica.lag-check-interval:1s}") Duration lagCheckInterval) {
+        List<ReplicaConnectionFactory.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "read-" + i;
+            ConnectionPool pool = pool(name, urls.get(i).trim(), initialSize, maxSize, maxIdleTime, maxAcquireTime);
+            new ConnectionPoolMetrics(pool, name, Tags.empty()).bindTo(meterRegistry);
+            replicas.add(new ReplicaConnectionFactory.Replica(name, pool,
+                    new AcquireTimingConnectionFactory(pool, name, meterRegistry)));
+        }
+        return new ReplicaConnectionFactory(replicas,
+                new AcquireTimingConnectionFactory(writePool, "write", meterRegistry), maxLag, maxReceiptAge,
+                lagCheckInterval, meterRegistry);
+    }
+
+    /**
+     * Основная ConnectionFactory приложения (репозитории, DatabaseClient, транзакции).
+     */
+    @Bean
+    @Primary
+    public ConnectionFactory connectionFactory(@Qualifier("writeConnectionFactory") ConnectionPool writePool,
+                                               @Qualifier("readConnectionFactory") ReplicaConnectionFactory read,
+                                               MeterRegistry meterRegistry) {
+        ConnectionFactory write = new AcquireTimingConnectionFactory(writePool, "write", meterRegistry);
+
+        ReadWriteRoutingConnectionFactory routing = new ReadWriteRoutingConnectionFactory();
+        routing.setTargetConnectionFactories(Map.of(
+                ReadWriteRoutingConnectionFactory.Route.WRITE, write,
+                ReadWriteRoutingConnectionFactory.Route.READ, read));
+        routing.setDefaultTargetConnectionFactory(write);
+        return routing;
+    }
+
+    /**
+     * Менеджер транзакций с именем, которое использовалось автоконфигурацией Spring Boot,
+     * чтобы явные ссылки @Transactional(transactionManager = "connectionFactoryTransactionManager") продолжали работать.
+     */
+    @Bean
+    @Primary
+    public ReactiveTransactionManager connectionFactoryTransactionManager(ConnectionFactory connectionFactory) {
+        return new ReadOnlyRoutingTransactionManager(connectionFactory);
+    }
+
+    private ConnectionPool pool(String name, String url, int initialSize, int maxSize,
+                                Duration maxIdleTime, Duration maxAcquireTime) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (r2dbcProperties.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, r2dbcProperties.getUsername());
+        }
+        if (r2dbcProperties.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, r2dbcProperties.getPassword());
+        }
+        r2dbcProperties.getProperties().forEach((key, value) -> options.option(Option.valueOf(key), value));
+
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name(name)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .maxAcquireTime(maxAcquireTime)
+                .build();
+        return new ConnectionPool(configuration);
+    }
+
+    /**
+     * Обертка пула, измеряющая время от запроса соединения до его выдачи (включая ожидание в очереди pending).
+     */
+    private static final class AcquireTimingConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+        private final ConnectionPool pool;
+        private final Timer success;
+        private final Timer failure;
+
+        private AcquireTimingConnectionFactory(ConnectionPool pool, String name, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.success = acquireTimer(name, "success", meterRegistry);
+            this.failure = acquireTimer(name, "failure", meterRegistry);
+        }
+
+        private static Timer acquireTimer(String name, String outcome, MeterRegistry meterRegistry) {
+            return Timer.builder(ACQUIRE_TIMER)
+                    .description("Time spent waiting for an R2DBC connection from the pool")
+                    .tag("name", name)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public Publisher<? extends Connection> create() {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return pool.create()
+                        .doOnSuccess(connection -> success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                        .doOnError(error -> failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+            });
+        }
+
+        @Override
+        public ConnectionFactoryMetadata getMetadata() {
+            return pool.getMetadata();
+        }
+
+        @Override
+        public ConnectionFactory unwrap() {
+            return pool;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.abarigena.taskflow.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2dbcTransactionManager, передающий признак readOnly в маршрутизацию соединений.
+ * <p>
+ * Стандартный менеджер получает соединение в doBegin раньше, чем отмечает транзакцию как read-only
+ * в синхронизации, поэтому {@link ReadWriteRoutingConnectionFactory} узнает о readOnly из контекста Reactor.
+ */
+public class ReadOnlyRoutingTransactionManager extends R2dbcTransactionManager {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReadOnlyRoutingTransactionManager(ConnectionFactory connectionFactory) {
+        super(connectionFactory);
+    }
+
+    @Override
+    protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                 TransactionDefinition definition) {
+        return super.doBegin(synchronizationManager, transaction, definition)
+                .contextWrite(context -> context.put(ReadWriteRoutingConnectionFactory.READ_ONLY_KEY, definition.isReadOnly()));
+    }
+}
@@ -0,0 +1,106 @@
+package com.abarigena.taskflow.config;
+
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ConnectionFactory, выбирающая пул соединений по типу операции.
+ * <p>
+ * Соединение берется из пула чтения, если:
+ * <ul>
+ *     <li>открывается транзакция {@code @Transactional(readOnly = true)} - флаг кладет в контекст
+ *     {@link ReadOnlyRoutingTransactionManager} до получения соединения;</li>
+ *     <li>метод выполняется в пустой read-only области {@code @Transactional(readOnly = true, propagation = SUPPORTS)} -
+ *     флаг берется из синхронизации текущей транзакции.</li>
+ * </ul>
+ * Все остальное, включая запросы вне транзакций, идет в пул записи. Запросы клиента, недавно выполнившего
+ * запись ({@link ReadYourWritesWebFilter}), тоже идут в пул записи, чтобы он не прочитал устаревшую реплику.
+ * Открытие read-write транзакции отмечается в {@link #WRITE_OBSERVED_KEY}: по этой отметке фильтр открывает
+ * окно read-your-writes, а последующие соединения того же запроса берутся из пула записи.
+ */
+public class ReadWriteRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    /**
+     * Ключ контекста Reactor с признаком read-only операции.
+     */
+    public static final String READ_ONLY_KEY = ReadWriteRoutingConnectionFactory.class.getName() + ".READ_ONLY";
+
+    /**
+     * Ключ контекста Reactor: все соединения операции берутся из пула записи (read-your-writes).
+     */
+    public static final String PRIMARY_PINNED_KEY = ReadWriteRoutingConnectionFactory.class.getName() + ".PRIMARY_PINNED";
+
+    /**
+     * Ключ контекста Reactor с {@link AtomicBoolean}: выставляется, когда операция открыла read-write транзакцию
+     * или иначе записала в primary ({@link #markWrite(ContextView)}).
+     */
+    public static final String WRITE_OBSERVED_KEY = ReadWriteRoutingConnectionFactory.class.getName() + ".WRITE_OBSERVED";
+
+    public enum Route {
+        READ,
+        WRITE
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> {
+            if (context.getOrDefault(PRIMARY_PINNED_KEY, false) || isWriteObserved(context)) {
+                return Mono.just(Route.WRITE);
+            }
+            Boolean readOnly = context.getOrDefault(READ_ONLY_KEY, null);
+            if (readOnly != null) {
+                // Признак кладет ReadOnlyRoutingTransactionManager при открытии транзакции
+                if (!readOnly) {
+                    markWrite(context);
+                }
+                return Mono.just(readOnly ? Route.READ : Route.WRITE);
+            }
+            return TransactionSynchronizationManager.forCurrentTransaction()
+                    .map(synchronization -> {
+                        if (!synchronization.isSynchronizationActive()) {
+                            return Route.WRITE;
+                        }
+                        if (synchronization.isCurrentTransactionReadOnly()) {
+                            return Route.READ;
+                        }
+                        markWrite(context);
+                        return Route.WRITE;
+                    })
+                    .onErrorResume(NoTransactionException.class, e -> Mono.just(Route.WRITE));
+        });
+    }
+
+    /**
+     * Выполняет операцию на primary независимо от readOnly. Нужно, когда результат живет дольше запроса
+     * (например, заполняет кэш на весь TTL) и не должен браться из отстающей реплики.
+     *
+     * @param operation Операция с базой.
+     * @return Та же операция с закреплением соединений за пулом записи.
+     */
+    public static <T> Mono<T> onPrimary(Mono<T> operation) {
+        return operation.contextWrite(context -> context.put(PRIMARY_PINNED_KEY, true));
+    }
+
+    /**
+     * Отмечает в контексте запроса запись в primary, выполненную в обход маршрутизации
+     * (например, прямым соединением из пула записи).
+     *
+     * @param context Контекст Reactor текущей операции.
+     */
+    public static void markWrite(ContextView context) {
+        AtomicBoolean written = context.getOrDefault(WRITE_OBSERVED_KEY, null);
+        if (written != null) {
+            written.set(true);
+        }
+    }
+
+    private static boolean isWriteObserved(ContextView context) {
+        AtomicBoolean written = context.getOrDefault(WRITE_OBSERVED_KEY, null);
+        return written != null && written.get();
+    }
+}
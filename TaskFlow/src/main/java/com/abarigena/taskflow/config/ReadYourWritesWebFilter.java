@@ -0,0 +1,88 @@
+package com.abarigena.taskflow.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Окно read-your-writes после записи клиента.
+ * <p>
+ * Запросом с записью считается запрос, открывший read-write транзакцию (или иначе записавший в primary) -
+ * это отмечает {@link ReadWriteRoutingConnectionFactory}. HTTP-метод не важен: GraphQL-запросы и поиск
+ * через POST только читают и окно не открывают. Успешный запрос с записью возвращает время окончания окна
+ * в cookie и в заголовке {@value #HEADER_NAME}; клиенты с bearer-токеном без cookie присылают этот заголовок
+ * в следующих запросах. Пока окно не истекло, все запросы клиента читают из primary, а не из реплики,
+ * которая могла еще не получить его изменения. Значение дальше окна от текущего времени игнорируется,
+ * поэтому клиент не может закрепиться на primary дольше окна.
+ */
+@Component
+public class ReadYourWritesWebFilter implements WebFilter {
+
+    static final String COOKIE_NAME = "TF_PRIMARY_UNTIL";
+
+    static final String HEADER_NAME = "X-TF-Primary-Until";
+
+    private final Duration window;
+
+    public ReadYourWritesWebFilter(@Value("${taskflow.r2dbc.read-your-writes-window:5s}") Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long now = System.currentTimeMillis();
+        AtomicBoolean written = new AtomicBoolean();
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            HttpStatusCode status = response.getStatusCode();
+            if (written.get() && (status == null || !status.isError())) {
+                String until = String.valueOf(now + window.toMillis());
+                response.addCookie(ResponseCookie.from(COOKIE_NAME, until)
+                        .maxAge(window)
+                        .path("/")
+                        .httpOnly(true)
+                        .sameSite("Lax")
+                        .build());
+                response.getHeaders().set(HEADER_NAME, until);
+            }
+            return Mono.empty();
+        });
+
+        boolean pinned = isWithinWindow(exchange.getRequest(), now);
+        return chain.filter(exchange)
+                .contextWrite(context -> {
+                    context = context.put(ReadWriteRoutingConnectionFactory.WRITE_OBSERVED_KEY, written);
+                    return pinned ? context.put(ReadWriteRoutingConnectionFactory.PRIMARY_PINNED_KEY, true) : context;
+                });
+    }
+
+    private boolean isWithinWindow(ServerHttpRequest request, long now) {
+        HttpCookie cookie = request.getCookies().getFirst(COOKIE_NAME);
+        return isWithinWindow(cookie != null ? cookie.getValue() : null, now)
+                || isWithinWindow(request.getHeaders().getFirst(HEADER_NAME), now);
+    }
+
+    private boolean isWithinWindow(String value, long now) {
+        if (value == null) {
+            return false;
+        }
+        try {
+            long until = Long.parseLong(value.trim());
+            return until > now && until <= now + window.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
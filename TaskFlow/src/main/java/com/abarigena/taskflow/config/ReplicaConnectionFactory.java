@@ -0,0 +1,150 @@
+package com.abarigena.taskflow.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ConnectionFactory пула чтения: распределяет соединения по потоковым репликам с учетом их отставания.
+ * <p>
+ * Отставание каждой реплики периодически измеряется запросом к ней самой. Соединение выдает
+ * следующая по кругу реплика, отставание которой известно и не превышает порога; если таких нет
+ * (реплика недоступна, отстает или еще не измерена), чтение уходит на primary.
+ * Если в списке реплик указан сам primary, его отставание всегда равно нулю. Реплика, потерявшая
+ * соединение с primary, считается отстающей независимо от того, успела ли она применить полученный WAL.
+ */
+@Slf4j
+public class ReplicaConnectionFactory implements ConnectionFactory {
+
+    /**
+     * Отставание в секундах: 0 для primary и для реплики, применившей весь полученный WAL,
+     * иначе время с момента последней примененной транзакции. NaN, если WAL receiver не в состоянии streaming
+     * или давно ($1 секунд) не получал сообщений от primary: у отключенной реплики receive и replay LSN
+     * совпадают, и без этой проверки она выглядела бы догнавшей.
+     */
+    static final String LAG_SQL = "select case"
+            + " when not pg_is_in_recovery() then 0"
+            + " when not exists (select 1 from pg_stat_wal_receiver where status = 'streaming'"
+            + " and last_msg_receipt_time > now() - make_interval(secs => $1)) then 'NaN'"
+            + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)"
+            + " end::float8";
+
+    /**
+     * Реплика для чтения.
+     *
+     * @param name              Имя для метрик и логов.
+     * @param pool              Пул соединений реплики (для измерения отставания и освобождения ресурсов).
+     * @param connectionFactory ConnectionFactory, через которую выдаются соединения приложению.
+     */
+    public record Replica(String name, ConnectionPool pool, ConnectionFactory connectionFactory) {
+    }
+
+    private final List<ReplicaState> replicas;
+    private final ConnectionFactory primary;
+    private final double maxLagSeconds;
+    private final double maxReceiptAgeSeconds;
+    private final Duration checkInterval;
+    private final Counter fallbacks;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private Disposable lagChecks;
+
+    public ReplicaConnectionFactory(List<Replica> replicas, ConnectionFactory primary, Duration maxLag,
+                                    Duration maxReceiptAge, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.replicas = replicas.stream().map(ReplicaState::new).toList();
+        this.primary = primary;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.maxReceiptAgeSeconds = maxReceiptAge.toMillis() / 1000.0;
+        this.checkInterval = checkInterval;
+        this.fallbacks = Counter.builder("r2dbc.replica.fallback")
+                .description("Read connections served by the primary because no replica was within the lag threshold")
+                .register(meterRegistry);
+        this.replicas.forEach(state -> Gauge.builder("r2dbc.replica.lag", state, s -> s.lagSeconds)
+                .description("Replication lag of a read replica, NaN while unknown")
+                .baseUnit("seconds")
+                .tag("name", state.replica.name())
+                .register(meterRegistry));
+    }
+
+    @PostConstruct
+    public void start() {
+        lagChecks = Flux.interval(Duration.ZERO, checkInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Flux.fromIterable(replicas).flatMap(this::measureLag))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void dispose() {
+        if (lagChecks != null) {
+            lagChecks.dispose();
+        }
+        replicas.forEach(state -> state.replica.pool().dispose());
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaState state = replicas.get((start + i) % size);
+            if (state.lagSeconds <= maxLagSeconds) {
+                return state.replica.connectionFactory().create();
+            }
+        }
+        fallbacks.increment();
+        return primary.create();
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return primary.getMetadata();
+    }
+
+    private Mono<Void> measureLag(ReplicaState state) {
+        return Mono.usingWhen(state.replica.pool().create(),
+                        connection -> Mono.from(connection.createStatement(LAG_SQL).bind("$1", maxReceiptAgeSeconds).execute())
+                                .flatMap(result -> Mono.from(result.map((row, metadata) -> row.get(0, Double.class)))),
+                        Connection::close)
+                .timeout(checkInterval)
+                .doOnNext(lag -> state.lagSeconds = lag)
+                .onErrorResume(e -> {
+                    if (!Double.isNaN(state.lagSeconds)) {
+                        log.warn("Replica '{}' is unavailable, reads fall back to primary: {}",
+                                state.replica.name(), e.getMessage());
+                    }
+                    state.lagSeconds = Double.NaN;
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Последнее измеренное отставание реплики; NaN - неизвестно (не измерено или реплика недоступна).
+     */
+    private static final class ReplicaState {
+
+        private final Replica replica;
+        private volatile double lagSeconds = Double.NaN;
+
+        private ReplicaState(Replica replica) {
+            this.replica = replica;
+        }
+    }
+}
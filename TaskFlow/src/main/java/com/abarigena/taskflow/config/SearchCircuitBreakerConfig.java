@@ -0,0 +1,58 @@
+package com.abarigena.taskflow.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker перед OpenSearch.
+ * <p>
+ * Размыкается, когда в скользящем окне последних вызовов доля ошибок (включая таймауты) или доля медленных
+ * вызовов превышает порог; пока он разомкнут, поиск обслуживает Postgres, а OpenSearch не получает запросов.
+ * По истечении паузы несколько пробных вызовов решают, вернуться ли к OpenSearch.
+ * Состояние и счетчики публикуются метриками resilience4j.circuitbreaker.* с тегом name=opensearch.
+ */
+@Configuration
+public class SearchCircuitBreakerConfig {
+
+    public static final String OPENSEARCH = "opensearch";
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${taskflow.search.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${taskflow.search.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${taskflow.search.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${taskflow.search.circuit-breaker.slow-call-duration:1s}") Duration slowCallDuration,
+            @Value("${taskflow.search.circuit-breaker.slow-call-rate-threshold:50}") float slowCallRateThreshold,
+            @Value("${taskflow.search.circuit-breaker.open-duration:30s}") Duration openDuration,
+            @Value("${taskflow.search.circuit-breaker.half-open-calls:5}") int halfOpenCalls) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .waitDurationInOpenState(openDuration)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public CircuitBreaker openSearchCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return circuitBreakerRegistry.circuitBreaker(OPENSEARCH);
+    }
+}
@@ -33,7 +33,8 @@ public class SecurityConfig {
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers("/auth/**").permitAll()
-                        .pathMatchers("/actuator/**").permitAll()
+                        .pathMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")  // Метрики и прочие эндпоинты - только администраторам
                         .pathMatchers("/graphql", "/graphiql/**").permitAll()  // Разрешаем доступ к GraphQL
                         .anyExchange().authenticated()
                 )
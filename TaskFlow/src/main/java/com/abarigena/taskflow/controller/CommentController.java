@@ -1,13 +1,16 @@
 package com.abarigena.taskflow.controller;
 
 import com.abarigena.taskflow.dto.CommentDto;
+import com.abarigena.taskflow.dto.CommentView;
+import com.abarigena.taskflow.dto.KeysetPage;
+import com.abarigena.taskflow.serviceSQL.PageTotalService;
 import com.abarigena.taskflow.serviceSQL.CommentService;
+import com.abarigena.taskflow.utility.KeysetCursor;
+import com.abarigena.taskflow.utility.PageParams;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
@@ -19,6 +22,7 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class CommentController {
     private final CommentService commentService;
+    private final PageTotalService pageTotalService;
 
     /**
      * Находит все комментарии для указанной задачи с использованием пагинации и сортировки.
@@ -35,16 +39,53 @@ public class CommentController {
                                             @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
         log.info("Запрос на получение всех комментариев для задачи ID: {}", taskId);
 
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         return commentService.findAllByTaskId(taskId, pageable);
     }
 
+    /**
+     * Находит комментарии для указанной задачи с keyset-пагинацией (новые первыми).
+     * @param taskId идентификатор задачи
+     * @param after курсор последнего комментария предыдущей страницы (пустой для первой страницы)
+     * @param size количество элементов на странице (не более 100)
+     * @return моно страницы DTO комментариев
+     */
+    @GetMapping(value = "/{taskId}/comments", params = {"after", "!view"})
+    public Mono<KeysetPage<CommentDto>> findAllByTaskIdAfter(@PathVariable Long taskId,
+                                                             @RequestParam("after") String after,
+                                                             @RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("Запрос на получение комментариев для задачи ID {} после курсора", taskId);
+        PageParams.keysetSize(size);
+
+        return KeysetPage.withTotal(commentService.findByTaskIdAfter(taskId, KeysetCursor.decode(after), size + 1)
+                    .collectList()
+                    .map(comments -> KeysetPage.of(comments, size,
+                            comment -> new KeysetCursor(comment.getCreatedAt(), comment.getId()))),
+                pageTotalService.countCommentsByTaskId(taskId));
+    }
+
+    /**
+     * Находит комментарии для указанной задачи вместе с авторами (имя и фамилия) одним запросом, с keyset-пагинацией.
+     * @param taskId идентификатор задачи
+     * @param after курсор последнего комментария предыдущей страницы (пустой или отсутствует для первой страницы)
+     * @param size количество элементов на странице (не более 100)
+     * @return моно страницы комментариев с авторами
+     */
+    @GetMapping(value = "/{taskId}/comments", params = "view=with-author")
+    public Mono<KeysetPage<CommentView>> findViewsByTaskId(@PathVariable Long taskId,
+                                                           @RequestParam(value = "after", required = false) String after,
+                                                           @RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("Запрос на получение комментариев с авторами для задачи ID {}", taskId);
+        PageParams.keysetSize(size);
+
+        return KeysetPage.withTotal(commentService.findViewsByTaskIdAfter(taskId, KeysetCursor.decode(after), size + 1)
+                    .collectList()
+                    .map(comments -> KeysetPage.of(comments, size,
+                            comment -> new KeysetCursor(comment.getCreatedAt(), comment.getId()))),
+                pageTotalService.countCommentsByTaskId(taskId));
+    }
+
     /**
      * Создает новый комментарий.
      * @param commentDto DTO комментария
@@ -85,7 +85,7 @@ public class DocumentFileController {
     @GetMapping("/tasks/{taskId}/documents")
     public Flux<DocumentFile> getDocumentsForTask(@PathVariable Long taskId) {
         log.info("Запрос списка документов для задачи ID: {}", taskId);
-        return taskRepository.existsById(taskId)
+        return taskRepository.existsByIdAndDeletedAtIsNull(taskId)
                 .flatMapMany(exists -> {
                     if (!exists) {
                         return Flux.error(new ResourceNotFoundException("Task", "id", taskId));
@@ -2,11 +2,10 @@ package com.abarigena.taskflow.controller;
 
 import com.abarigena.taskflow.serviceNoSQL.EventLogService;
 import com.abarigena.taskflow.storeNoSQL.entity.EventLog;
+import com.abarigena.taskflow.utility.PageParams;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -32,12 +31,7 @@ public class EventLogController {
             @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
 
         log.info("Received request to get all event logs: page={}, size={}, sort={}", page, size, sort);
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
         return eventLogService.getAllEventLogs(pageable);
     }
 
@@ -0,0 +1,139 @@
+package com.abarigena.taskflow.controller;
+
+import com.abarigena.taskflow.dto.CommentDto;
+import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.serviceSQL.CommentService;
+import com.abarigena.taskflow.serviceSQL.TaskService;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.utility.CsvRows;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Потоковый экспорт задач и комментариев в NDJSON или CSV.
+ * <p>
+ * Ответ пишется по мере чтения курсора из базы: следующая порция строк запрашивается только после того,
+ * как клиент принял предыдущую, поэтому выгрузка любого размера занимает постоянный объем памяти.
+ * Формат выбирается параметром {@code format=csv}, по умолчанию - NDJSON. Диапазон createdFrom/createdTo
+ * ограничивает чтение месячными секциями таблиц за этот период.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final String TASKS_CSV_HEADER = CsvRows.line("id", "title", "description", "status", "priority",
+            "deadline", "createdAt", "updatedAt", "version", "assignedUserId", "projectId");
+    private static final String COMMENTS_CSV_HEADER = CsvRows.line("id", "context", "taskId", "userId",
+            "createdAt", "updatedAt");
+
+    private final TaskService taskService;
+    private final CommentService commentService;
+
+    /**
+     * Выгружает задачи в NDJSON.
+     * @param projectId идентификатор проекта (необязательно)
+     * @param status статус задачи (необязательно)
+     * @param createdFrom начало диапазона времени создания включительно (необязательно)
+     * @param createdTo конец диапазона времени создания не включительно (необязательно)
+     * @return поток DTO задач, по одному JSON-объекту на строку
+     */
+    @GetMapping(value = "/api/tasks/export", params = "format!=csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Flux<TaskDto> exportTasks(@RequestParam(value = "projectId", required = false) Long projectId,
+                                     @RequestParam(value = "status", required = false) Task.Status status,
+                                     @RequestParam(value = "createdFrom", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                     @RequestParam(value = "createdTo", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        log.info("Запрос на экспорт задач в NDJSON, проект: {}, статус: {}", projectId, status);
+        return taskService.exportTasks(projectId, status, createdFrom, createdTo);
+    }
+
+    /**
+     * Выгружает задачи в CSV.
+     * @param projectId идентификатор проекта (необязательно)
+     * @param status статус задачи (необязательно)
+     * @param createdFrom начало диапазона времени создания включительно (необязательно)
+     * @param createdTo конец диапазона времени создания не включительно (необязательно)
+     * @return поток строк CSV с заголовком
+     */
+    @GetMapping(value = "/api/tasks/export", params = "format=csv", produces = TEXT_CSV_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public ResponseEntity<Flux<String>> exportTasksCsv(@RequestParam(value = "projectId", required = false) Long projectId,
+                                                       @RequestParam(value = "status", required = false) Task.Status status,
+                                                       @RequestParam(value = "createdFrom", required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                                       @RequestParam(value = "createdTo", required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        log.info("Запрос на экспорт задач в CSV, проект: {}, статус: {}", projectId, status);
+        Flux<String> rows = taskService.exportTasks(projectId, status, createdFrom, createdTo)
+                .map(task -> CsvRows.line(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                        task.getPriority(), task.getDeadline(), task.getCreatedAt(), task.getUpdatedAt(),
+                        task.getVersion(), task.getAssignedUserId(), task.getProjectId()));
+        return csv("tasks.csv", TASKS_CSV_HEADER, rows);
+    }
+
+    /**
+     * Выгружает комментарии ко всем задачам проекта в NDJSON.
+     * @param id идентификатор проекта
+     * @param createdFrom начало диапазона времени создания включительно (необязательно)
+     * @param createdTo конец диапазона времени создания не включительно (необязательно)
+     * @return поток DTO комментариев, по одному JSON-объекту на строку
+     */
+    @GetMapping(value = "/api/projects/{id}/comments/export", params = "format!=csv",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Flux<CommentDto> exportProjectComments(@PathVariable Long id,
+                                                  @RequestParam(value = "createdFrom", required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                                  @RequestParam(value = "createdTo", required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        log.info("Запрос на экспорт комментариев проекта ID: {} в NDJSON", id);
+        return commentService.exportCommentsByProjectId(id, createdFrom, createdTo);
+    }
+
+    /**
+     * Выгружает комментарии ко всем задачам проекта в CSV.
+     * @param id идентификатор проекта
+     * @param createdFrom начало диапазона времени создания включительно (необязательно)
+     * @param createdTo конец диапазона времени создания не включительно (необязательно)
+     * @return поток строк CSV с заголовком
+     */
+    @GetMapping(value = "/api/projects/{id}/comments/export", params = "format=csv", produces = TEXT_CSV_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public ResponseEntity<Flux<String>> exportProjectCommentsCsv(@PathVariable Long id,
+                                                                 @RequestParam(value = "createdFrom", required = false)
+                                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                                                 @RequestParam(value = "createdTo", required = false)
+                                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        log.info("Запрос на экспорт комментариев проекта ID: {} в CSV", id);
+        Flux<String> rows = commentService.exportCommentsByProjectId(id, createdFrom, createdTo)
+                .map(comment -> CsvRows.line(comment.getId(), comment.getContext(), comment.getTaskId(),
+                        comment.getUserId(), comment.getCreatedAt(), comment.getUpdatedAt()));
+        return csv("project-" + id + "-comments.csv", COMMENTS_CSV_HEADER, rows);
+    }
+
+    /**
+     * Заголовок CSV добавляется только после первого сигнала выгрузки: ошибка до первой строки
+     * (например, проект не найден) еще не зафиксировала ответ и обрабатывается как обычная ошибка.
+     */
+    private static ResponseEntity<Flux<String>> csv(String filename, String header, Flux<String> rows) {
+        Flux<String> body = rows.switchOnFirst((first, flux) -> first.isOnError() ? flux : flux.startWith(header));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                .body(body);
+    }
+}
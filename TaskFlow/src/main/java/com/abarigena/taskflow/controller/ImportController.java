@@ -0,0 +1,79 @@
+package com.abarigena.taskflow.controller;
+
+import com.abarigena.taskflow.dto.ImportResult;
+import com.abarigena.taskflow.serviceSQL.ImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Массовый импорт задач и пользователей из CSV или NDJSON.
+ * <p>
+ * Тело запроса читается построчно и потоком передается в Postgres командой COPY на одном соединении,
+ * поэтому импорт десятков тысяч строк не занимает пул соединений и не держит файл в памяти.
+ * CSV начинается с заголовка из имен полей (как в CSV-экспорте), NDJSON содержит по объекту на строку.
+ * Ответ - отчет с числом загруженных строк и причинами отклонения остальных.
+ */
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+@Slf4j
+public class ImportController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ImportService importService;
+
+    /**
+     * Импортирует задачи из CSV.
+     * @param lines строки файла: заголовок (title, projectId обязательны; description, status, priority,
+     *              deadline, createdAt, assignedUserId) и строки данных
+     * @return моно с отчетом об импорте
+     */
+    @PostMapping(value = "/tasks", consumes = TEXT_CSV_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
+    public Mono<ImportResult> importTasksCsv(@RequestBody Flux<String> lines) {
+        log.info("Request received for CSV import of tasks");
+        return importService.importTasks(lines, ImportService.Format.CSV);
+    }
+
+    /**
+     * Импортирует задачи из NDJSON.
+     * @param lines строки файла, по объекту задачи на строку
+     * @return моно с отчетом об импорте
+     */
+    @PostMapping(value = "/tasks", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
+    public Mono<ImportResult> importTasksNdjson(@RequestBody Flux<String> lines) {
+        log.info("Request received for NDJSON import of tasks");
+        return importService.importTasks(lines, ImportService.Format.NDJSON);
+    }
+
+    /**
+     * Импортирует пользователей из CSV.
+     * @param lines строки файла: заголовок (firstName, lastName, email обязательны; role, active, passwordHash)
+     *              и строки данных
+     * @return моно с отчетом об импорте
+     */
+    @PostMapping(value = "/users", consumes = TEXT_CSV_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ImportResult> importUsersCsv(@RequestBody Flux<String> lines) {
+        log.info("Request received for CSV import of users");
+        return importService.importUsers(lines, ImportService.Format.CSV);
+    }
+
+    /**
+     * Импортирует пользователей из NDJSON.
+     * @param lines строки файла, по объекту пользователя на строку
+     * @return моно с отчетом об импорте
+     */
+    @PostMapping(value = "/users", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ImportResult> importUsersNdjson(@RequestBody Flux<String> lines) {
+        log.info("Request received for NDJSON import of users");
+        return importService.importUsers(lines, ImportService.Format.NDJSON);
+    }
+}
@@ -2,11 +2,10 @@ package com.abarigena.taskflow.controller;
 
 import com.abarigena.taskflow.serviceNoSQL.LogEntryService;
 import com.abarigena.taskflow.storeNoSQL.entity.LogEntry;
+import com.abarigena.taskflow.utility.PageParams;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 
@@ -31,12 +30,7 @@ public class LogEntryController {
                                      @RequestParam(value = "size", defaultValue = "10") int size,
                                      @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
 
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         return logEntryService.getAllLogs(pageable);
     }
@@ -54,12 +48,7 @@ public class LogEntryController {
                                          @RequestParam(value = "page", defaultValue = "0") int page,
                                          @RequestParam(value = "size", defaultValue = "10") int size,
                                          @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         return logEntryService.getLogsByLevel(level, pageable);
     }
@@ -1,14 +1,23 @@
 package com.abarigena.taskflow.controller;
 
+import com.abarigena.taskflow.dto.KeysetPage;
+import com.abarigena.taskflow.dto.ProjectDeletionDto;
 import com.abarigena.taskflow.dto.ProjectDto;
+import com.abarigena.taskflow.dto.ProjectMembersRequest;
+import com.abarigena.taskflow.dto.ProjectMembershipChange;
+import com.abarigena.taskflow.dto.ProjectSummary;
+import com.abarigena.taskflow.dto.ProjectTaskStatsDto;
 import com.abarigena.taskflow.dto.UserDto;
+import com.abarigena.taskflow.serviceSQL.PageTotalService;
 import com.abarigena.taskflow.serviceSQL.ProjectService;
+import com.abarigena.taskflow.utility.EntityTags;
+import com.abarigena.taskflow.utility.KeysetCursor;
+import com.abarigena.taskflow.utility.PageParams;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,12 +25,17 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/projects")
 @RequiredArgsConstructor
 @Slf4j
 public class ProjectController {
+    private static final int MAX_MEMBERS_PER_REQUEST = 1000;
+
     private final ProjectService projectService;
+    private final PageTotalService pageTotalService;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
@@ -32,22 +46,54 @@ public class ProjectController {
     ) {
         log.info("Request received for getting all projects. Page: {}, Size: {}, Sort: {}", page, size, sort);
 
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         return projectService.getAllProjects(pageable);
     }
 
+    @GetMapping(params = {"view=summary", "!after"})
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Flux<ProjectSummary> getAllProjectSummaries(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort
+    ) {
+        log.info("Request received for getting project summaries. Page: {}, Size: {}, Sort: {}", page, size, sort);
+
+        Pageable pageable = PageParams.pageable(page, size, sort);
+
+        return projectService.getAllProjectSummaries(pageable);
+    }
+
+    @GetMapping(params = "after")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Mono<KeysetPage<ProjectDto>> getAllProjectsAfter(
+            @RequestParam("after") String after,
+            @RequestParam(value = "size", defaultValue = "10") int size
+    ) {
+        log.info("Request received for getting all projects after cursor. Size: {}", size);
+        PageParams.keysetSize(size);
+
+        return KeysetPage.withTotal(projectService.getAllProjectsAfter(KeysetCursor.decode(after), size + 1)
+                    .collectList()
+                    .map(projects -> KeysetPage.of(projects, size,
+                            project -> new KeysetCursor(project.getCreatedAt(), project.getId()))),
+                pageTotalService.countAllProjects());
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
     public Mono<ResponseEntity<ProjectDto>> getProjectById(@PathVariable Long id) {
         log.info("Request received for getting project with id: {}", id);
         return projectService.getProjectById(id)
-                .map(ResponseEntity::ok);
+                .map(project -> EntityTags.ok(project, project.getVersion()));
+    }
+
+    @GetMapping("/{id}/stats")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Mono<ProjectTaskStatsDto> getProjectStats(@PathVariable Long id) {
+        log.info("Request received for getting task stats of project with id: {}", id);
+        return projectService.getProjectStats(id);
     }
 
     @PostMapping
@@ -60,18 +106,33 @@ public class ProjectController {
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
-    public Mono<ResponseEntity<ProjectDto>> updateProject(@PathVariable Long id, @Valid @RequestBody ProjectDto projectDto) {
+    public Mono<ResponseEntity<ProjectDto>> updateProject(@PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                          @Valid @RequestBody ProjectDto projectDto) {
         log.info("Request received for updating project with id: {}", id);
+        Long expectedVersion = EntityTags.versionOf(ifMatch);
+        if (expectedVersion != null) {
+            projectDto.setVersion(expectedVersion);
+        }
         return projectService.updateProject(id, projectDto)
-                .map(ResponseEntity::ok);
+                .map(project -> EntityTags.ok(project, project.getVersion()));
     }
 
     @DeleteMapping("/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
     @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
-    public Mono<Void> deleteProject(@PathVariable Long id) {
+    public Mono<ResponseEntity<ProjectDeletionDto>> deleteProject(@PathVariable Long id) {
         log.info("Request received for deleting project with id: {}", id);
-        return projectService.deleteProject(id);
+        return projectService.deleteProject(id)
+                .map(deletion -> ResponseEntity.accepted()
+                        .header(HttpHeaders.LOCATION, "/api/projects/" + id + "/deletion")
+                        .body(deletion));
+    }
+
+    @GetMapping("/{id}/deletion")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
+    public Mono<ProjectDeletionDto> getProjectDeletion(@PathVariable Long id) {
+        log.info("Request received for getting deletion progress of project with id: {}", id);
+        return projectService.getProjectDeletion(id);
     }
 
     @PostMapping("/{projectId}/users/{userId}")
@@ -90,6 +151,33 @@ public class ProjectController {
         return projectService.deleteUserFromProject(projectId, userId);
     }
 
+    @PostMapping("/{projectId}/users")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
+    public Mono<ProjectMembershipChange> addUsersToProject(@PathVariable Long projectId,
+                                                           @Valid @RequestBody ProjectMembersRequest request) {
+        log.info("Request received to add {} users to project {}", request.getUserIds().size(), projectId);
+        return projectService.addUsersToProject(projectId, request.getUserIds());
+    }
+
+    @DeleteMapping(value = "/{projectId}/users", params = "userIds")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
+    public Mono<ProjectMembershipChange> removeUsersFromProject(@PathVariable Long projectId,
+                                                                @RequestParam List<Long> userIds) {
+        log.info("Request received to remove {} users from project {}", userIds.size(), projectId);
+        if (userIds.size() > MAX_MEMBERS_PER_REQUEST) {
+            return Mono.error(new IllegalArgumentException("At most " + MAX_MEMBERS_PER_REQUEST + " users per request"));
+        }
+        return projectService.deleteUsersFromProject(projectId, userIds);
+    }
+
+    @GetMapping("/{projectId}/users/{userId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Mono<ResponseEntity<Void>> checkUserInProject(@PathVariable Long projectId, @PathVariable Long userId) {
+        log.info("Request received to check user {} in project {}", userId, projectId);
+        return projectService.isUserInProject(projectId, userId)
+                .map(member -> member ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{projectId}/users")
     @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
     public Flux<UserDto> getUsersInProject(
@@ -106,18 +194,42 @@ public class ProjectController {
             @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
 
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         log.info("Request received for getting projects by owner id: {}, Pageable: {}", ownerId, pageable);
 
         return projectService.getProjectsByOwnerId(ownerId, pageable);
     }
 
+    @GetMapping(value = "/owner/{ownerId}", params = {"view=summary", "!after"})
+    public Flux<ProjectSummary> getProjectSummariesByOwnerId(
+            @PathVariable Long ownerId,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
+
+        Pageable pageable = PageParams.pageable(page, size, sort);
+
+        log.info("Request received for getting project summaries by owner id: {}, Pageable: {}", ownerId, pageable);
+
+        return projectService.getProjectSummariesByOwnerId(ownerId, pageable);
+    }
+
+    @GetMapping(value = "/owner/{ownerId}", params = "after")
+    public Mono<KeysetPage<ProjectDto>> getProjectsByOwnerIdAfter(
+            @PathVariable Long ownerId,
+            @RequestParam("after") String after,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("Request received for getting projects by owner id {} after cursor", ownerId);
+        PageParams.keysetSize(size);
+
+        return KeysetPage.withTotal(projectService.getProjectsByOwnerIdAfter(ownerId, KeysetCursor.decode(after), size + 1)
+                    .collectList()
+                    .map(projects -> KeysetPage.of(projects, size,
+                            project -> new KeysetCursor(project.getCreatedAt(), project.getId()))),
+                pageTotalService.countProjectsByOwnerId(ownerId));
+    }
+
     @GetMapping("/member/{userId}")
     public Flux<ProjectDto> getProjectsByUserId(
             @PathVariable Long userId,
@@ -125,15 +237,25 @@ public class ProjectController {
             @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
 
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         log.info("Request received for getting projects for user member id: {}, Pageable: {}", userId, pageable);
 
         return projectService.getProjectsByUserId(userId, pageable);
     }
+
+    @GetMapping(value = "/member/{userId}", params = "after")
+    public Mono<KeysetPage<ProjectDto>> getProjectsByUserIdAfter(
+            @PathVariable Long userId,
+            @RequestParam("after") String after,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("Request received for getting projects for user member id {} after cursor", userId);
+        PageParams.keysetSize(size);
+
+        return KeysetPage.withTotal(projectService.getProjectsByUserIdAfter(userId, KeysetCursor.decode(after), size + 1)
+                    .collectList()
+                    .map(projects -> KeysetPage.of(projects, size,
+                            project -> new KeysetCursor(project.getCreatedAt(), project.getId()))),
+                pageTotalService.countProjectsByUserId(userId));
+    }
 }
@@ -1,6 +1,6 @@
 package com.abarigena.taskflow.controller;
 
-import com.abarigena.taskflow.serviceNoSQL.OpenSearchService;
+import com.abarigena.taskflow.service.SearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -10,7 +10,8 @@ import java.util.Map;
 
 /**
  * Контроллер для полнотекстового поиска в OpenSearch
- * Реализует API для поиска задач, комментариев и проектов согласно Task-11
+ * Реализует API для поиска задач, комментариев и проектов согласно Task-11.
+ * При недоступности OpenSearch задачи и комментарии ищутся в Postgres (см. FailoverSearchService)
  */
 @RestController
 @RequestMapping("/search")
@@ -18,7 +19,7 @@ import java.util.Map;
 @Slf4j
 public class SearchController {
 
-    private final OpenSearchService openSearchService;
+    private final SearchService searchService;
 
     /**
      * Поиск задач по критериям
@@ -43,7 +44,7 @@ public class SearchController {
         log.info("🔍 Поиск задач: query={}, status={}, priority={}, from={}, size={}", 
             query, status, priority, from, size);
         
-        return openSearchService.searchTasks(query, status, priority, from, size);
+        return searchService.searchTasks(query, status, priority, from, size);
     }
 
     /**
@@ -67,7 +68,7 @@ public class SearchController {
         log.info("🔍 Поиск комментариев: query={}, taskId={}, from={}, size={}", 
             query, taskId, from, size);
         
-        return openSearchService.searchComments(query, taskId, from, size);
+        return searchService.searchComments(query, taskId, from, size);
     }
 
     /**
@@ -91,7 +92,7 @@ public class SearchController {
         log.info("🔍 Поиск проектов: query={}, status={}, from={}, size={}", 
             query, status, from, size);
         
-        return openSearchService.searchProjects(query, status, from, size);
+        return searchService.searchProjects(query, status, from, size);
     }
 
     /**
@@ -115,6 +116,6 @@ public class SearchController {
         log.info("🔍 Поиск пользователей: query={}, active={}, from={}, size={}", 
             query, active, from, size);
         
-        return openSearchService.searchUsers(query, active, from, size);
+        return searchService.searchUsers(query, active, from, size);
     }
 } 
\ No newline at end of file
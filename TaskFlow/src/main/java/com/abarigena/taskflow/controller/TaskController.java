@@ -1,15 +1,25 @@
 package com.abarigena.taskflow.controller;
 
+import com.abarigena.taskflow.dto.BulkItemResult;
+import com.abarigena.taskflow.dto.KeysetPage;
 import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.dto.TaskSummary;
+import com.abarigena.taskflow.dto.TaskTransitionRequest;
+import com.abarigena.taskflow.dto.TaskTransitionResult;
+import com.abarigena.taskflow.serviceSQL.PageTotalService;
+import com.abarigena.taskflow.serviceSQL.TaskBulkService;
 import com.abarigena.taskflow.serviceSQL.TaskService;
 import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.utility.EntityTags;
+import com.abarigena.taskflow.utility.KeysetCursor;
+import com.abarigena.taskflow.utility.PageParams;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +32,8 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class TaskController {
     private final TaskService taskService;
+    private final TaskBulkService taskBulkService;
+    private final PageTotalService pageTotalService;
 
     /**
      * Получает все задачи с использованием пагинации и сортировки.
@@ -39,16 +51,54 @@ public class TaskController {
     ) {
         log.info("Request received for getting all tasks. Page: {}, Size: {}, Sort: {}", page, size, sort);
 
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         return taskService.getAllTasks(pageable);
     }
 
+    /**
+     * Получает краткие представления всех задач (view=summary): без описания и служебных дат.
+     * @param page номер страницы
+     * @param size количество элементов на странице
+     * @param sort параметры сортировки (например, "createdAt,desc")
+     * @return поток кратких представлений задач
+     */
+    @GetMapping(params = {"view=summary", "!after"})
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Flux<TaskSummary> getAllTaskSummaries(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort
+    ) {
+        log.info("Request received for getting task summaries. Page: {}, Size: {}, Sort: {}", page, size, sort);
+
+        Pageable pageable = PageParams.pageable(page, size, sort);
+
+        return taskService.getAllTaskSummaries(pageable);
+    }
+
+    /**
+     * Получает все задачи с keyset-пагинацией (новые первыми).
+     * Пустое значение after запрашивает первую страницу, далее передается nextCursor предыдущего ответа.
+     * @param after курсор последней задачи предыдущей страницы
+     * @param size количество элементов на странице (не более 100)
+     * @return моно страницы DTO задач
+     */
+    @GetMapping(params = "after")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Mono<KeysetPage<TaskDto>> getAllTasksAfter(
+            @RequestParam("after") String after,
+            @RequestParam(value = "size", defaultValue = "10") int size
+    ) {
+        log.info("Request received for getting all tasks after cursor. Size: {}", size);
+        PageParams.keysetSize(size);
+
+        return KeysetPage.withTotal(taskService.getAllTasksAfter(KeysetCursor.decode(after), size + 1)
+                    .collectList()
+                    .map(tasks -> KeysetPage.of(tasks, size, task -> new KeysetCursor(task.getCreatedAt(), task.getId()))),
+                pageTotalService.countAllTasks());
+    }
+
     /**
      * Получает задачу по ее идентификатору.
      * @param id идентификатор задачи
@@ -59,7 +109,7 @@ public class TaskController {
     public Mono<ResponseEntity<TaskDto>> getTaskById(@PathVariable Long id) {
         log.info("Request received for getting task with id: {}", id);
         return taskService.getTaskById(id)
-                .map(ResponseEntity::ok);
+                .map(task -> EntityTags.ok(task, task.getVersion()));
     }
 
     /**
@@ -77,22 +127,73 @@ public class TaskController {
     }
 
     /**
-     * Обновляет существующую задачу.
+     * Создает задачи пакетно. Тело - JSON-массив или NDJSON-поток задач; обрабатывается потоково, пачками.
+     * @param tasks поток DTO задач
+     * @return поток результатов по каждому элементу (index, id, status, error) в формате запроса
+     */
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
+    public Flux<BulkItemResult> createTasksBulk(@RequestBody Flux<TaskDto> tasks) {
+        log.info("Request received for bulk task creation");
+        return taskBulkService.createTasks(tasks);
+    }
+
+    /**
+     * Частично обновляет задачи пакетно: у каждого элемента обязателен id, изменяются только переданные поля.
+     * Если у элемента указан version, задача обновляется только при совпадении версии, иначе - статус CONFLICT.
+     * @param tasks поток DTO задач
+     * @return поток результатов по каждому элементу (index, id, status, error) в формате запроса
+     */
+    @PatchMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
+    public Flux<BulkItemResult> updateTasksBulk(@RequestBody Flux<TaskDto> tasks) {
+        log.info("Request received for bulk task update");
+        return taskBulkService.updateTasks(tasks);
+    }
+
+    /**
+     * Переводит группу задач в один статус (например, всю колонку доски в DONE) одним запросом к базе.
+     * @param request идентификаторы задач (не более 1000) и целевой статус
+     * @return моно с переведенными и пропущенными задачами
+     */
+    @PostMapping("/transition")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
+    public Mono<TaskTransitionResult> transitionTasks(@Valid @RequestBody TaskTransitionRequest request) {
+        log.info("Request received for transition of {} tasks to status {}", request.getIds().size(), request.getStatus());
+        return taskBulkService.transitionTasks(request.getIds(), request.getStatus());
+    }
+
+    /**
+     * Обновляет существующую задачу. Меняются только переданные поля.
+     * Версия из If-Match (ETag ответа GET) или из поля version защищает от перезаписи параллельных изменений:
+     * при несовпадении возвращается 409 Conflict.
      * @param id идентификатор задачи
+     * @param ifMatch ETag задачи, полученный клиентом (необязательно)
      * @param taskDto DTO задачи с обновленными данными
-     * @return моно с ResponseEntity, содержащим DTO обновленной задачи
+     * @return моно с ResponseEntity, содержащим DTO обновленной задачи и новый ETag
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
-    public Mono<ResponseEntity<TaskDto>> updateTask(@PathVariable Long id, @Valid @RequestBody TaskDto taskDto) {
+    public Mono<ResponseEntity<TaskDto>> updateTask(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @Valid @RequestBody TaskDto taskDto) {
         log.info("Request received for updating task with id: {}", id);
 
+        Long expectedVersion = EntityTags.versionOf(ifMatch);
+        if (expectedVersion != null) {
+            taskDto.setVersion(expectedVersion);
+        }
         return taskService.updateTask(id, taskDto)
-                .map(ResponseEntity::ok);
+                .map(task -> EntityTags.ok(task, task.getVersion()));
     }
 
     /**
-     * Удаляет задачу по ее идентификатору.
+     * Удаляет задачу по ее идентификатору. Задача и ее комментарии сразу перестают быть видны;
+     * до истечения окна восстановления задачу можно вернуть через POST /{id}/restore.
      * @param id идентификатор задачи
      * @return моно без содержимого
      */
@@ -104,6 +205,18 @@ public class TaskController {
         return taskService.deleteTask(id);
     }
 
+    /**
+     * Восстанавливает удаленную задачу вместе с ее комментариями, пока не истекло окно восстановления.
+     * @param id идентификатор удаленной задачи
+     * @return моно с DTO восстановленной задачи
+     */
+    @PostMapping("/{id}/restore")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
+    public Mono<TaskDto> restoreTask(@PathVariable Long id) {
+        log.info("Request received for restoring task with id: {}", id);
+        return taskService.restoreTask(id);
+    }
+
     /**
      * Находит задачи, назначенные указанному пользователю, с использованием пагинации и сортировки.
      * @param userId идентификатор пользователя
@@ -120,16 +233,53 @@ public class TaskController {
                                               @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
         log.info("Request received for assigning user with id: {}", userId);
 
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         return taskService.findByAssignedUserId(userId, pageable);
     }
 
+    /**
+     * Находит краткие представления задач, назначенных пользователю (view=summary).
+     * @param userId идентификатор пользователя
+     * @param page номер страницы
+     * @param size количество элементов на странице
+     * @param sort параметры сортировки (например, "createdAt,desc")
+     * @return поток кратких представлений задач
+     */
+    @GetMapping(value = "/assigned/{userId}", params = {"view=summary", "!after"})
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Flux<TaskSummary> findSummariesByAssignedUserId(@PathVariable Long userId,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
+        log.info("Request received for getting task summaries assigned to user {}", userId);
+
+        Pageable pageable = PageParams.pageable(page, size, sort);
+
+        return taskService.findSummariesByAssignedUserId(userId, pageable);
+    }
+
+    /**
+     * Находит задачи, назначенные указанному пользователю, с keyset-пагинацией (новые первыми).
+     * @param userId идентификатор пользователя
+     * @param after курсор последней задачи предыдущей страницы (пустой для первой страницы)
+     * @param size количество элементов на странице (не более 100)
+     * @return моно страницы DTO задач
+     */
+    @GetMapping(value = "/assigned/{userId}", params = "after")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Mono<KeysetPage<TaskDto>> findByAssignedUserIdAfter(@PathVariable Long userId,
+                                                               @RequestParam("after") String after,
+                                                               @RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("Request received for getting tasks assigned to user {} after cursor", userId);
+        PageParams.keysetSize(size);
+
+        return KeysetPage.withTotal(taskService.findByAssignedUserIdAfter(userId, KeysetCursor.decode(after), size + 1)
+                    .collectList()
+                    .map(tasks -> KeysetPage.of(tasks, size, task -> new KeysetCursor(task.getCreatedAt(), task.getId()))),
+                pageTotalService.countTasksByAssignedUserId(userId));
+    }
+
     /**
      * Получает задачи для указанного проекта с использованием пагинации и сортировки.
      * @param projectId идентификатор проекта
@@ -146,16 +296,53 @@ public class TaskController {
                                              @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
         log.info("Request received for getting tasks by project with id: {}", projectId);
 
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         return taskService.getTasksByProjectId(projectId, pageable);
     }
 
+    /**
+     * Получает краткие представления задач проекта (view=summary).
+     * @param projectId идентификатор проекта
+     * @param page номер страницы
+     * @param size количество элементов на странице
+     * @param sort параметры сортировки (например, "createdAt,desc")
+     * @return поток кратких представлений задач
+     */
+    @GetMapping(value = "/project/{projectId}", params = {"view=summary", "!after"})
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Flux<TaskSummary> getTaskSummariesByProjectId(@PathVariable Long projectId,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort) {
+        log.info("Request received for getting task summaries by project with id: {}", projectId);
+
+        Pageable pageable = PageParams.pageable(page, size, sort);
+
+        return taskService.getTaskSummariesByProjectId(projectId, pageable);
+    }
+
+    /**
+     * Получает задачи для указанного проекта с keyset-пагинацией (новые первыми).
+     * @param projectId идентификатор проекта
+     * @param after курсор последней задачи предыдущей страницы (пустой для первой страницы)
+     * @param size количество элементов на странице (не более 100)
+     * @return моно страницы DTO задач
+     */
+    @GetMapping(value = "/project/{projectId}", params = "after")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Mono<KeysetPage<TaskDto>> getTasksByProjectIdAfter(@PathVariable Long projectId,
+                                                              @RequestParam("after") String after,
+                                                              @RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("Request received for getting tasks by project with id {} after cursor", projectId);
+        PageParams.keysetSize(size);
+
+        return KeysetPage.withTotal(taskService.getTasksByProjectIdAfter(projectId, KeysetCursor.decode(after), size + 1)
+                    .collectList()
+                    .map(tasks -> KeysetPage.of(tasks, size, task -> new KeysetCursor(task.getCreatedAt(), task.getId()))),
+                pageTotalService.countTasksByProjectId(projectId));
+    }
+
     /**
      * Получает задачи по статусу и приоритету с использованием пагинации и сортировки.
      * @param status статус задачи
@@ -174,14 +361,32 @@ public class TaskController {
                                                      @RequestParam(value = "sort", defaultValue = "createdAt,desc") String sort){
         log.info("Request received for getting tasks by status and priority with id: {}", status);
 
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         return taskService.findTaskByStatusAndPriority(status, priority, pageable);
     }
 
+    /**
+     * Получает задачи по статусу и приоритету с keyset-пагинацией (новые первыми).
+     * @param status статус задачи
+     * @param priority приоритет задачи
+     * @param after курсор последней задачи предыдущей страницы (пустой для первой страницы)
+     * @param size количество элементов на странице (не более 100)
+     * @return моно страницы DTO задач
+     */
+    @GetMapping(value = "/find/filter", params = "after")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
+    public Mono<KeysetPage<TaskDto>> getTasksByStatusAndPriorityAfter(@RequestParam Task.Status status,
+                                                                      @RequestParam Task.Priority priority,
+                                                                      @RequestParam("after") String after,
+                                                                      @RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("Request received for getting tasks by status {} and priority {} after cursor", status, priority);
+        PageParams.keysetSize(size);
+
+        return KeysetPage.withTotal(taskService.findTaskByStatusAndPriorityAfter(status, priority, KeysetCursor.decode(after), size + 1)
+                    .collectList()
+                    .map(tasks -> KeysetPage.of(tasks, size, task -> new KeysetCursor(task.getCreatedAt(), task.getId()))),
+                pageTotalService.countTasksByStatusAndPriority(status, priority));
+    }
+
 }
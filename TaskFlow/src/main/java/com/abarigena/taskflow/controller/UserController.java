@@ -2,13 +2,15 @@ package com.abarigena.taskflow.controller;
 
 import com.abarigena.taskflow.dto.UserDto;
 import com.abarigena.taskflow.serviceSQL.UserService;
+import com.abarigena.taskflow.utility.EntityTags;
+import com.abarigena.taskflow.utility.PageParams;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
@@ -37,12 +39,7 @@ public class UserController {
     ) {
         log.info("Finding all users");
 
-        String[] sortParams = sort.split(",");
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
-                Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sortOrder = Sort.by(direction, sortParams[0]);
-
-        Pageable pageable = PageRequest.of(page, size, sortOrder);
+        Pageable pageable = PageParams.pageable(page, size, sort);
 
         return userService.findAllUsers(pageable);
     }
@@ -75,28 +72,38 @@ public class UserController {
     /**
      * Находит пользователя по его идентификатору.
      * @param id идентификатор пользователя
-     * @return моно DTO пользователя
+     * @return моно DTO пользователя с ETag по версии
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER', 'SUPERVISOR', 'USER')")
-    Mono<UserDto> findUserById(@PathVariable Long id) {
+    Mono<ResponseEntity<UserDto>> findUserById(@PathVariable Long id) {
         log.info("Request received for getting user by id: {}", id);
 
-        return userService.findUserById(id);
+        return userService.findUserById(id)
+                .map(user -> EntityTags.ok(user, user.getVersion()));
     }
 
     /**
-     * Обновляет существующего пользователя.
+     * Обновляет существующего пользователя. Меняются только переданные поля;
+     * при несовпадении версии из If-Match (или поля version) возвращается 409 Conflict.
      * @param id идентификатор пользователя
+     * @param ifMatch ETag пользователя, полученный клиентом (необязательно)
      * @param userDto DTO пользователя с обновленными данными
-     * @return моно DTO обновленного пользователя
+     * @return моно DTO обновленного пользователя с новым ETag
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    Mono<UserDto> updateUser(@PathVariable Long id, @Valid @RequestBody UserDto userDto) {
+    Mono<ResponseEntity<UserDto>> updateUser(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @Valid @RequestBody UserDto userDto) {
         log.info("Request received for updating user: {}", userDto);
 
-        return userService.updateUser(id, userDto);
+        Long expectedVersion = EntityTags.versionOf(ifMatch);
+        if (expectedVersion != null) {
+            userDto.setVersion(expectedVersion);
+        }
+        return userService.updateUser(id, userDto)
+                .map(user -> EntityTags.ok(user, user.getVersion()));
     }
 
     /**
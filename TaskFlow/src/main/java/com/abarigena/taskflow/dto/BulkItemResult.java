@@ -0,0 +1,40 @@
+package com.abarigena.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат обработки одного элемента пакетного запроса.
+ * Элементы сопоставляются с запросом по index - порядковому номеру во входном массиве или NDJSON-потоке.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+
+    private long index;
+
+    private Long id;
+
+    private Status status;
+
+    private String error;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        CONFLICT,
+        FAILED
+    }
+
+    public static BulkItemResult conflict(long index, Long id, String error) {
+        return new BulkItemResult(index, id, Status.CONFLICT, error);
+    }
+
+    public static BulkItemResult failed(long index, Long id, String error) {
+        return new BulkItemResult(index, id, Status.FAILED, error);
+    }
+}
@@ -51,6 +51,7 @@ public class CacheInvalidationEvent {
         PROJECT_UPDATED,
         PROJECT_DELETED,
         TASK_UPDATED,
-        TASK_DELETED
+        TASK_DELETED,
+        COMMENT_CREATED
     }
 } 
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.abarigena.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Комментарий для ленты задачи вместе с отображаемыми полями автора.
+ * Собирается одним соединением comments и users, поэтому клиенту не нужно запрашивать авторов отдельно.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentView {
+
+    private Long id;
+
+    private String context;
+
+    private Long taskId;
+
+    private Author author;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    /**
+     * Автор комментария: только поля для отображения, без email и служебных данных.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Author {
+
+        private Long id;
+
+        private String firstName;
+
+        private String lastName;
+    }
+}
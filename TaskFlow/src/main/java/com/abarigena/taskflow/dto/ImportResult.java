@@ -0,0 +1,42 @@
+package com.abarigena.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Отчет о массовом импорте.
+ * received - строк данных в файле, imported - загружено, failed - отклонено проверками.
+ * errors - причины отклонения по строкам в порядке файла, не больше taskflow.import.max-errors.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+
+    private long received;
+
+    private long imported;
+
+    private long failed;
+
+    private List<RowError> errors;
+
+    /**
+     * Отклоненная строка: row - порядковый номер записи данных в файле начиная с 1 (без заголовка CSV).
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        private long row;
+
+        private String error;
+    }
+}
@@ -0,0 +1,84 @@
+package com.abarigena.taskflow.dto;
+
+import com.abarigena.taskflow.utility.KeysetCursor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Страница REST-выдачи с keyset-пагинацией.
+ * Следующая страница запрашивается с параметром after=nextCursor; пустой after означает первую страницу.
+ *
+ * @param <T> Тип элементов страницы.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private List<T> items;
+
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    /**
+     * Общее число записей выборки или null, если для выдачи оно не считается.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+
+    /**
+     * Точное ли число total (см. {@link TotalCount#exact()}).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean totalExact;
+
+    /**
+     * Собирает страницу из строк, выбранных с запасом в одну запись (limit = size + 1).
+     *
+     * @param rows     Выбранные записи в порядке выдачи.
+     * @param size     Запрошенный размер страницы.
+     * @param cursorOf Функция получения keyset-позиции записи.
+     * @return Страница с курсором последнего элемента, если есть следующая страница.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> items = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(items.get(items.size() - 1)).encode() : null;
+        return new KeysetPage<>(items, nextCursor, hasNext, null, null);
+    }
+
+    /**
+     * Дополняет страницу общим числом записей.
+     *
+     * @param total Общее число записей выборки.
+     * @return Эта же страница.
+     */
+    public KeysetPage<T> withTotal(TotalCount total) {
+        this.total = total.value();
+        this.totalExact = total.exact();
+        return this;
+    }
+
+    /**
+     * Дополняет страницу общим числом записей, запрашивая его параллельно с выборкой страницы.
+     * Если число получить не удалось (пустой Mono), страница возвращается без total.
+     *
+     * @param page  Mono страницы.
+     * @param total Mono общего числа записей.
+     * @return Mono страницы с total.
+     */
+    public static <T> Mono<KeysetPage<T>> withTotal(Mono<KeysetPage<T>> page, Mono<TotalCount> total) {
+        return Mono.zip(page, total.map(Optional::of).defaultIfEmpty(Optional.empty()),
+                (result, count) -> count.map(result::withTotal).orElse(result));
+    }
+}
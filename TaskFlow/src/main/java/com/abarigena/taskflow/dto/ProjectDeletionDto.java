@@ -0,0 +1,47 @@
+package com.abarigena.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ход фонового удаления проекта.
+ * tasksTotal - число задач проекта на момент запроса (по project_task_stats), остальные счетчики
+ * показывают, сколько строк уже удалено.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectDeletionDto {
+
+    private Long projectId;
+
+    private State state;
+
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    private long tasksTotal;
+
+    private long tasksDeleted;
+
+    private long commentsDeleted;
+
+    private long membersDeleted;
+
+    public enum State {
+        /**
+         * Удаление ожидает обработчика.
+         */
+        PENDING,
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
@@ -26,4 +26,6 @@ public class ProjectDto {
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    private Long version;
 }
@@ -0,0 +1,25 @@
+package com.abarigena.taskflow.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Запрос на пакетное добавление пользователей в проект.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectMembersRequest {
+
+    @NotEmpty(message = "Список id пользователей не должен быть пустым")
+    @Size(max = 1000, message = "Не больше 1000 пользователей за запрос")
+    private List<@NotNull(message = "Id пользователя не должно быть пустым") Long> userIds;
+}
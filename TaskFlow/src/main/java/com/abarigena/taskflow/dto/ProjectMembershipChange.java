@@ -0,0 +1,26 @@
+package com.abarigena.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат пакетного изменения состава проекта.
+ * changedUserIds - пользователи, которые добавлены или удалены; unchangedUserIds - остальные из запроса:
+ * уже состоящие (или не состоящие) в проекте либо несуществующие.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectMembershipChange {
+
+    private Long projectId;
+
+    private List<Long> changedUserIds;
+
+    private List<Long> unchangedUserIds;
+}
@@ -0,0 +1,20 @@
+package com.abarigena.taskflow.dto;
+
+import com.abarigena.taskflow.storeSQL.entity.Project;
+
+/**
+ * Облегченное представление проекта для списков.
+ * Используется как DTO-проекция в derived-запросах репозитория: из базы читаются только колонки этих полей.
+ *
+ * @param id      Идентификатор проекта.
+ * @param name    Название.
+ * @param status  Статус.
+ * @param ownerId Идентификатор владельца.
+ */
+public record ProjectSummary(
+        Long id,
+        String name,
+        Project.Status status,
+        Long ownerId
+) {
+}
@@ -0,0 +1,38 @@
+package com.abarigena.taskflow.dto;
+
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Статистика задач проекта из таблицы project_task_stats.
+ * Во всех разрезах присутствуют все статусы и приоритеты, отсутствующие сочетания равны нулю.
+ * Просроченными считаются незавершенные задачи с дедлайном не позже overdueAsOf.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectTaskStatsDto {
+
+    private Long projectId;
+
+    private long totalTasks;
+
+    private long overdueTasks;
+
+    private LocalDateTime overdueAsOf;
+
+    private Map<Task.Status, Long> byStatus;
+
+    private Map<Task.Priority, Long> byPriority;
+
+    private Map<Task.Priority, Long> overdueByPriority;
+
+    private Map<Task.Status, Map<Task.Priority, Long>> byStatusAndPriority;
+}
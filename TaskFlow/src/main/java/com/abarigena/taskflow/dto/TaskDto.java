@@ -30,6 +30,8 @@ public class TaskDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    private Long version;
+
     private Long assignedUserId;
 
     @NotNull(message = "Id проекта не должно быть пустым")
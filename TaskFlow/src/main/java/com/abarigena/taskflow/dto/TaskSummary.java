@@ -0,0 +1,27 @@
+package com.abarigena.taskflow.dto;
+
+import com.abarigena.taskflow.storeSQL.entity.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Облегченное представление задачи для списков и досок.
+ * Используется как DTO-проекция в derived-запросах репозитория: из базы читаются только колонки
+ * этих полей, без description и служебных дат.
+ *
+ * @param id             Идентификатор задачи.
+ * @param title          Название.
+ * @param status         Статус.
+ * @param priority       Приоритет.
+ * @param deadline       Срок выполнения.
+ * @param assignedUserId Идентификатор исполнителя.
+ */
+public record TaskSummary(
+        Long id,
+        String title,
+        Task.Status status,
+        Task.Priority priority,
+        LocalDateTime deadline,
+        Long assignedUserId
+) {
+}
@@ -0,0 +1,29 @@
+package com.abarigena.taskflow.dto;
+
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Запрос на перевод группы задач в один статус.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTransitionRequest {
+
+    @NotEmpty(message = "Список id задач не должен быть пустым")
+    @Size(max = 1000, message = "Не больше 1000 задач за запрос")
+    private List<@NotNull(message = "Id задачи не должно быть пустым") Long> ids;
+
+    @NotNull(message = "Целевой статус не должен быть пустым")
+    private Task.Status status;
+}
@@ -0,0 +1,26 @@
+package com.abarigena.taskflow.dto;
+
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат перевода группы задач в статус.
+ * transitionedIds - задачи, статус которых изменен; skippedIds - уже находившиеся в этом статусе или не найденные.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTransitionResult {
+
+    private Task.Status status;
+
+    private List<Long> transitionedIds;
+
+    private List<Long> skippedIds;
+}
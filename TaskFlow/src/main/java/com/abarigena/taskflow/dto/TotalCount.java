@@ -0,0 +1,22 @@
+package com.abarigena.taskflow.dto;
+
+/**
+ * Общее число записей выборки для постраничной выдачи.
+ *
+ * @param value Количество записей.
+ * @param exact true, если число совпадает с данными на момент чтения (счетчики, поддерживаемые в транзакции
+ *              изменения); false для оценки планировщика или закэшированного подсчета, который может отставать.
+ */
+public record TotalCount(
+        long value,
+        boolean exact
+) {
+
+    public static TotalCount exact(long value) {
+        return new TotalCount(value, true);
+    }
+
+    public static TotalCount estimated(long value) {
+        return new TotalCount(value, false);
+    }
+}
@@ -25,4 +25,6 @@ public class UserDto {
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    private Long version;
 }
@@ -0,0 +1,14 @@
+package com.abarigena.taskflow.exception;
+
+/**
+ * Поиск временно недоступен: основной поисковый кластер не отвечает, а резервного поиска для запрошенного
+ * типа документов нет.
+ */
+public class SearchUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SearchUnavailableException(String documentType, Throwable cause) {
+        super(String.format("Search over %s is temporarily unavailable", documentType), cause);
+    }
+}
@@ -1,14 +1,32 @@
 package com.abarigena.taskflow.graphql.config;
 
+import com.abarigena.taskflow.graphql.execution.FieldCostCalculator;
+import com.abarigena.taskflow.graphql.execution.FieldTimingInstrumentation;
+import com.abarigena.taskflow.graphql.execution.PersistedQueryDocumentProvider;
 import com.abarigena.taskflow.graphql.scalar.LocalDateTimeScalar;
+import com.abarigena.taskflow.graphql.web.IncrementalGraphQlHandler;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.graphql.GraphQlProperties;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
 
 /**
  * Конфигурация GraphQL для регистрации кастомных скаляров и других настроек.
  */
 @Configuration
+@EnableConfigurationProperties(GraphQlLimitsProperties.class)
 public class GraphQLConfig {
 
     /**
@@ -20,4 +38,53 @@ public class GraphQLConfig {
         return wiringBuilder -> wiringBuilder
                 .scalar(LocalDateTimeScalar.INSTANCE);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Подключает кэш разобранных документов и Automatic Persisted Queries к движку GraphQL.
+     */
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedQueryCustomizer(PersistedQueryDocumentProvider documentProvider) {
+        return builder -> builder.configureGraphQl(graphQlBuilder ->
+                graphQlBuilder.preparsedDocumentProvider(documentProvider));
+    }
+
+    /**
+     * Отклоняет запросы с вложенностью глубже taskflow.graphql.limits.max-depth.
+     */
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(GraphQlLimitsProperties limits) {
+        return new MaxQueryDepthInstrumentation(limits.getMaxDepth());
+    }
+
+    /**
+     * Отклоняет запросы, суммарная стоимость которых превышает taskflow.graphql.limits.max-cost.
+     * Проверка выполняется перед запуском резолверов, в том числе для документов из кэша.
+     */
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(GraphQlLimitsProperties limits) {
+        return new MaxQueryComplexityInstrumentation(limits.getMaxCost(), new FieldCostCalculator(limits));
+    }
+
+    /**
+     * Замеряет время работы резолверов полей в Micrometer.
+     */
+    @Bean
+    public FieldTimingInstrumentation fieldTimingInstrumentation(MeterRegistry meterRegistry) {
+        return new FieldTimingInstrumentation(meterRegistry);
+    }
+
+    /**
+     * Направляет POST-запросы, явно принимающие multipart/mixed, в транспорт с @defer. Маршрут стоит раньше
+     * стандартного маршрута /graphql: тот перехватывает любой POST на этот путь, в том числе с Accept,
+     * где multipart/mixed перечислен вместе с application/json.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RouterFunction<ServerResponse> incrementalGraphQlRouterFunction(IncrementalGraphQlHandler handler,
+                                                                           GraphQlProperties properties) {
+        return RouterFunctions.route(RequestPredicates.POST(properties.getPath())
+                        .and(RequestPredicates.contentType(MediaType.APPLICATION_JSON))
+                        .and(IncrementalGraphQlHandler.ACCEPTS_MULTIPART_MIXED),
+                handler::handleRequest);
+    }
+}
@@ -0,0 +1,36 @@
+package com.abarigena.taskflow.graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ограничения на "стоимость" GraphQL-запросов (taskflow.graphql.limits.*).
+ * Запросы, превышающие глубину или суммарную стоимость, отклоняются до выполнения резолверов.
+ */
+@Data
+@ConfigurationProperties(prefix = "taskflow.graphql.limits")
+public class GraphQlLimitsProperties {
+
+    /**
+     * Максимальная глубина вложенности полей.
+     */
+    private int maxDepth = 10;
+
+    /**
+     * Максимальная суммарная стоимость запроса.
+     */
+    private int maxCost = 1000;
+
+    /**
+     * Стоимость поля, для которого не задан отдельный вес.
+     */
+    private int defaultFieldCost = 1;
+
+    /**
+     * Веса отдельных полей в формате "Тип.поле" (например, "Query.users").
+     */
+    private Map<String, Integer> fieldCosts = new HashMap<>();
+}
@@ -0,0 +1,71 @@
+package com.abarigena.taskflow.graphql.execution;
+
+import com.abarigena.taskflow.graphql.config.GraphQlLimitsProperties;
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLTypeUtil;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Вычисляет стоимость поля для анализа сложности запроса.
+ * Стоимость = вес поля + стоимость вложенных полей, умноженная на число их повторений в ответе.
+ * У Relay-соединения на размер страницы (аргумент first или limit) умножается только поддерево edges:
+ * users(first: 100) { edges { node { ... } } } обходится в сто раз дороже одного пользователя, а totalCount
+ * и pageInfo вычисляются один раз на страницу и учитываются один раз. У списка без соединения на размер
+ * страницы умножаются все вложенные поля.
+ */
+@RequiredArgsConstructor
+public class FieldCostCalculator implements FieldComplexityCalculator {
+
+    private static final String[] PAGE_SIZE_ARGUMENTS = {"first", "limit"};
+
+    private static final String EDGES_FIELD = "edges";
+
+    private final GraphQlLimitsProperties limits;
+
+    @Override
+    public int calculate(FieldComplexityEnvironment environment, int childComplexity) {
+        int weight = limits.getFieldCosts().getOrDefault(fieldKey(environment), limits.getDefaultFieldCost());
+        long cost = weight + (long) childComplexity * repetitions(environment);
+        return (int) Math.min(cost, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Сколько раз вложенные поля повторяются в ответе.
+     */
+    private int repetitions(FieldComplexityEnvironment environment) {
+        if (isConnection(environment.getFieldDefinition())) {
+            return 1;
+        }
+        FieldComplexityEnvironment parent = environment.getParentEnvironment();
+        if (parent != null && EDGES_FIELD.equals(environment.getField().getName())
+                && isConnection(parent.getFieldDefinition())) {
+            return pageSize(parent.getArguments());
+        }
+        return pageSize(environment.getArguments());
+    }
+
+    private boolean isConnection(GraphQLFieldDefinition fieldDefinition) {
+        return GraphQLTypeUtil.unwrapAll(fieldDefinition.getType()) instanceof GraphQLObjectType type
+                && type.getFieldDefinition(EDGES_FIELD) != null;
+    }
+
+    private String fieldKey(FieldComplexityEnvironment environment) {
+        String typeName = environment.getParentType() instanceof GraphQLNamedType namedType ? namedType.getName() : "";
+        return typeName + "." + environment.getField().getName();
+    }
+
+    private int pageSize(Map<String, Object> arguments) {
+        for (String argument : PAGE_SIZE_ARGUMENTS) {
+            if (arguments.get(argument) instanceof Integer size && size > 0) {
+                return size;
+            }
+        }
+        return 1;
+    }
+}
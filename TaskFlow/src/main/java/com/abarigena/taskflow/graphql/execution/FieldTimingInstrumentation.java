@@ -0,0 +1,63 @@
+package com.abarigena.taskflow.graphql.execution;
+
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Инструментация, измеряющая время работы каждого резолвера поля (метрика graphql.field.duration).
+ * Для асинхронных резолверов время считается до завершения CompletionStage.
+ * Тривиальные резолверы (чтение свойства объекта) не оборачиваются, чтобы не создавать лишних накладных расходов.
+ */
+@RequiredArgsConstructor
+public class FieldTimingInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final String METRIC_NAME = "graphql.field.duration";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()) {
+            return dataFetcher;
+        }
+
+        String parentType = parameters.getExecutionStepInfo().getObjectType().getName();
+        String field = parameters.getField().getName();
+
+        return environment -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Object result;
+            try {
+                result = dataFetcher.get(environment);
+            } catch (Exception e) {
+                stop(sample, parentType, field, "ERROR");
+                throw e;
+            }
+            if (result instanceof CompletionStage<?> stage) {
+                return stage.whenComplete((value, error) ->
+                        stop(sample, parentType, field, error == null ? "SUCCESS" : "ERROR"));
+            }
+            stop(sample, parentType, field, "SUCCESS");
+            return result;
+        };
+    }
+
+    private void stop(Timer.Sample sample, String parentType, String field, String outcome) {
+        sample.stop(Timer.builder(METRIC_NAME)
+                .description("Время выполнения резолвера GraphQL-поля")
+                .tag("type", parentType)
+                .tag("field", field)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,178 @@
+package com.abarigena.taskflow.graphql.execution;
+
+import com.abarigena.taskflow.service.ReactiveRedisService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryError;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Провайдер предразобранных GraphQL-документов с поддержкой Automatic Persisted Queries (протокол Apollo).
+ * <p>
+ * Разобранные и провалидированные документы хранятся в ограниченном локальном кэше по SHA-256 текста запроса,
+ * поэтому повторные запросы не проходят парсинг и валидацию заново. Тексты зарегистрированных persisted-запросов
+ * дополнительно сохраняются в Redis, чтобы клиент, зарегистрировавший хэш на одном узле, мог присылать только хэш
+ * на любой другой узел кластера.
+ * <p>
+ * Метрики: graphql.documents.* (попадания/промахи локального кэша) и graphql.apq.registry (обращения к реестру в Redis).
+ */
+@Slf4j
+@Component
+public class PersistedQueryDocumentProvider implements PreparsedDocumentProvider {
+
+    private static final String REGISTRY_KEY_PREFIX = "graphql:apq:";
+
+    private final ReactiveRedisService reactiveRedisService;
+    private final Duration registryTtl;
+    private final Cache<String, PreparsedDocumentEntry> documents;
+
+    private final Counter registryHits;
+    private final Counter registryMisses;
+    private final Counter registrations;
+
+    public PersistedQueryDocumentProvider(ReactiveRedisService reactiveRedisService,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${taskflow.graphql.documents.max-size:1000}") long maxSize,
+                                          @Value("${taskflow.graphql.persisted-queries.ttl:7d}") Duration registryTtl) {
+        this.reactiveRedisService = reactiveRedisService;
+        this.registryTtl = registryTtl;
+        this.documents = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, documents, "graphql.documents");
+        this.registryHits = registryCounter(meterRegistry, "hit");
+        this.registryMisses = registryCounter(meterRegistry, "miss");
+        this.registrations = registryCounter(meterRegistry, "registered");
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+                                                                      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = queryText(executionInput);
+        String persistedHash = persistedQueryHash(executionInput);
+
+        if (persistedHash == null) {
+            if (query == null) {
+                return CompletableFuture.completedFuture(parseAndValidateFunction.apply(executionInput));
+            }
+            // Обычный запрос: кэшируем по хэшу текста, но в реестр не регистрируем
+            return CompletableFuture.completedFuture(
+                    documents.get(sha256(query), hash -> parseAndValidateFunction.apply(executionInput)));
+        }
+
+        if (query != null) {
+            if (!persistedHash.equalsIgnoreCase(sha256(query))) {
+                return CompletableFuture.completedFuture(persistedQueryError(new PersistedQueryIdInvalid(persistedHash), persistedHash));
+            }
+            return CompletableFuture.completedFuture(documents.get(persistedHash, hash -> {
+                PreparsedDocumentEntry entry = parseAndValidateFunction.apply(executionInput);
+                if (!entry.hasErrors()) {
+                    register(hash, query);
+                }
+                return entry;
+            }));
+        }
+
+        PreparsedDocumentEntry cached = documents.getIfPresent(persistedHash);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // Хэш без текста и локального промаха: ищем текст в общем реестре
+        return reactiveRedisService.get(REGISTRY_KEY_PREFIX + persistedHash, String.class)
+                .doOnNext(text -> registryHits.increment())
+                .map(text -> {
+                    PreparsedDocumentEntry entry = parseAndValidateFunction.apply(
+                            executionInput.transform(builder -> builder.query(text)));
+                    documents.put(persistedHash, entry);
+                    return entry;
+                })
+                .onErrorResume(error -> {
+                    log.warn("Не удалось прочитать persisted query {} из Redis: {}", persistedHash, error.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    registryMisses.increment();
+                    return persistedQueryError(new PersistedQueryNotFound(persistedHash), persistedHash);
+                }))
+                .toFuture();
+    }
+
+    /**
+     * Сохраняет текст запроса в общий реестр. Ошибки Redis не влияют на выполнение запроса:
+     * в худшем случае клиент на другом узле получит PersistedQueryNotFound и пришлет текст повторно.
+     */
+    private void register(String hash, String query) {
+        reactiveRedisService.set(REGISTRY_KEY_PREFIX + hash, query, registryTtl)
+                .doOnSuccess(result -> registrations.increment())
+                .subscribe(
+                        result -> log.debug("Persisted query {} зарегистрирована в Redis", hash),
+                        error -> log.warn("Не удалось зарегистрировать persisted query {}: {}", hash, error.getMessage())
+                );
+    }
+
+    private String queryText(ExecutionInput executionInput) {
+        String query = executionInput.getQuery();
+        if (query == null || query.isBlank() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+            return null;
+        }
+        return query;
+    }
+
+    private String persistedQueryHash(ExecutionInput executionInput) {
+        Map<String, Object> extensions = executionInput.getExtensions();
+        if (extensions != null && extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery
+                && persistedQuery.get("sha256Hash") instanceof String hash && !hash.isBlank()) {
+            return hash;
+        }
+        return null;
+    }
+
+    private PreparsedDocumentEntry persistedQueryError(PersistedQueryError error, String hash) {
+        return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError()
+                .message(error.getMessage())
+                .errorType(error)
+                .extensions(Map.of("persistedQueryId", hash))
+                .build());
+    }
+
+    private static Counter registryCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("graphql.apq.registry")
+                .description("Обращения к реестру persisted-запросов в Redis")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
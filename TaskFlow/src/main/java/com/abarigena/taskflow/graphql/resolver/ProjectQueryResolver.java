@@ -0,0 +1,136 @@
+package com.abarigena.taskflow.graphql.resolver;
+
+import com.abarigena.taskflow.dto.CommentDto;
+import com.abarigena.taskflow.dto.ProjectDto;
+import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.graphql.type.Connection;
+import com.abarigena.taskflow.serviceSQL.CommentService;
+import com.abarigena.taskflow.serviceSQL.ProjectService;
+import com.abarigena.taskflow.serviceSQL.TaskService;
+import com.abarigena.taskflow.utility.KeysetCursor;
+import graphql.schema.DataFetchingEnvironment;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * GraphQL резолвер для проекта и вложенных в него задач и комментариев.
+ * Вложенные списки постраничные (keyset по created_at, id) и разрешаются отдельными запросами,
+ * поэтому клиент может пометить их @defer и получить карточку проекта, не дожидаясь задач.
+ * Комментарии всех задач страницы загружаются через DataLoader одним запросом, а не запросом на задачу.
+ */
+@Slf4j
+@Controller
+public class ProjectQueryResolver {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    static final String TASK_COMMENTS_LOADER = "taskComments";
+
+    private final ProjectService projectService;
+    private final TaskService taskService;
+    private final CommentService commentService;
+
+    /**
+     * Ключ DataLoader комментариев: задача и аргументы поля. @BatchMapping не видит аргументов поля,
+     * поэтому загрузчик регистрируется явно, а аргументы входят в ключ.
+     *
+     * @param taskId Идентификатор задачи.
+     * @param after  Курсор из аргумента after (null - первая страница).
+     * @param limit  Количество выбираемых записей (first + 1).
+     */
+    record CommentPageKey(Long taskId, String after, int limit) {
+    }
+
+    public ProjectQueryResolver(ProjectService projectService,
+                                TaskService taskService,
+                                CommentService commentService,
+                                BatchLoaderRegistry batchLoaderRegistry) {
+        this.projectService = projectService;
+        this.taskService = taskService;
+        this.commentService = commentService;
+        batchLoaderRegistry.<CommentPageKey, List<CommentDto>>forName(TASK_COMMENTS_LOADER)
+                .registerMappedBatchLoader((keys, environment) -> loadCommentPages(keys));
+    }
+
+    /**
+     * Резолвер для Query.project(id: ID!): Project
+     * Получает проект по ID.
+     */
+    @QueryMapping
+    public Mono<ProjectDto> project(@Argument String id) {
+        log.info("GraphQL Query: project(id={})", id);
+
+        return projectService.getProjectById(Long.valueOf(id))
+                .doOnError(error -> log.error("Error finding project with id {}: {}", id, error.getMessage()));
+    }
+
+    /**
+     * Резолвер для Project.tasks(first: Int, after: String): TaskConnection!
+     * Выбирается first + 1 запись, чтобы определить наличие следующей страницы.
+     */
+    @SchemaMapping(typeName = "Project", field = "tasks")
+    public Mono<Connection<TaskDto>> tasks(ProjectDto project, @Argument Integer first, @Argument String after) {
+        if (first == null || first < 1 || first > MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException("'first' must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        return taskService.getTasksByProjectIdAfter(project.getId(), KeysetCursor.decode(after), first + 1)
+                .collectList()
+                .map(tasks -> Connection.of(tasks, first, after,
+                        task -> new KeysetCursor(task.getCreatedAt(), task.getId())))
+                .doOnError(error -> log.error("Error retrieving tasks of project {}: {}", project.getId(), error.getMessage()));
+    }
+
+    /**
+     * Резолвер для Task.comments(first: Int, after: String): CommentConnection!
+     * Выбирается first + 1 запись, чтобы определить наличие следующей страницы.
+     * Задача только ставится в DataLoader; запрос выполняется один на все задачи уровня.
+     */
+    @SchemaMapping(typeName = "Task", field = "comments")
+    public CompletableFuture<Connection<CommentDto>> comments(TaskDto task, @Argument Integer first, @Argument String after,
+                                                            DataFetchingEnvironment environment) {
+        if (first == null || first < 1 || first > MAX_PAGE_SIZE) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("'first' must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        DataLoader<CommentPageKey, List<CommentDto>> loader = environment.getDataLoader(TASK_COMMENTS_LOADER);
+        return loader.load(new CommentPageKey(task.getId(), after, first + 1))
+                .thenApply(comments -> Connection.of(comments, first, after,
+                        comment -> new KeysetCursor(comment.getCreatedAt(), comment.getId())));
+    }
+
+    /**
+     * Загружает страницы комментариев набора задач: один запрос на каждое сочетание аргументов поля
+     * (обычно оно одно на весь уровень запроса).
+     */
+    private Mono<Map<CommentPageKey, List<CommentDto>>> loadCommentPages(Set<CommentPageKey> keys) {
+        Map<CommentPageKey, List<CommentPageKey>> byPage = keys.stream()
+                .collect(Collectors.groupingBy(key -> new CommentPageKey(null, key.after(), key.limit())));
+
+        return Flux.fromIterable(byPage.entrySet())
+                .flatMap(page -> {
+                    List<Long> taskIds = page.getValue().stream().map(CommentPageKey::taskId).toList();
+                    return commentService.findByTaskIdsAfter(taskIds, KeysetCursor.decode(page.getKey().after()), page.getKey().limit())
+                            .collectMultimap(CommentDto::getTaskId)
+                            .flatMapIterable(byTask -> page.getValue().stream()
+                                    .map(key -> Map.entry(key, List.copyOf(byTask.getOrDefault(key.taskId(), List.of()))))
+                                    .toList());
+                })
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .doOnError(error -> log.error("Error retrieving comments of {} tasks: {}", keys.size(), error.getMessage()));
+    }
+}
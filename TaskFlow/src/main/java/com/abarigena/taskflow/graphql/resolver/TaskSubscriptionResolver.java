@@ -0,0 +1,59 @@
+package com.abarigena.taskflow.graphql.resolver;
+
+import com.abarigena.taskflow.dto.CommentDto;
+import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.graphql.subscription.TaskEventStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+/**
+ * GraphQL резолвер для Subscription операций с задачами и комментариями.
+ * Подписки доступны по WebSocket (протокол graphql-transport-ws) на пути spring.graphql.websocket.path.
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class TaskSubscriptionResolver {
+
+    private final TaskEventStream taskEventStream;
+
+    /**
+     * Резолвер для Subscription.taskUpdated(projectId: ID!): Task!
+     * Отправляет актуальное состояние задачи проекта после каждого ее обновления.
+     */
+    @SubscriptionMapping
+    public Flux<TaskDto> taskUpdated(@Argument String projectId) {
+        log.info("GraphQL Subscription: taskUpdated(projectId={})", projectId);
+
+        return taskEventStream.taskUpdated(Long.valueOf(projectId))
+                .doOnCancel(() -> log.debug("Subscription taskUpdated(projectId={}) cancelled", projectId));
+    }
+
+    /**
+     * Резолвер для Subscription.taskDeleted(projectId: ID!): ID!
+     * Отправляет идентификатор каждой удаленной задачи проекта.
+     */
+    @SubscriptionMapping
+    public Flux<Long> taskDeleted(@Argument String projectId) {
+        log.info("GraphQL Subscription: taskDeleted(projectId={})", projectId);
+
+        return taskEventStream.taskDeleted(Long.valueOf(projectId))
+                .doOnCancel(() -> log.debug("Subscription taskDeleted(projectId={}) cancelled", projectId));
+    }
+
+    /**
+     * Резолвер для Subscription.commentAdded(taskId: ID!): Comment!
+     * Отправляет каждый новый комментарий задачи.
+     */
+    @SubscriptionMapping
+    public Flux<CommentDto> commentAdded(@Argument String taskId) {
+        log.info("GraphQL Subscription: commentAdded(taskId={})", taskId);
+
+        return taskEventStream.commentAdded(Long.valueOf(taskId))
+                .doOnCancel(() -> log.debug("Subscription commentAdded(taskId={}) cancelled", taskId));
+    }
+}
@@ -1,17 +1,21 @@
 package com.abarigena.taskflow.graphql.resolver;
 
 import com.abarigena.taskflow.dto.UserDto;
+import com.abarigena.taskflow.graphql.type.Connection;
 import com.abarigena.taskflow.serviceSQL.UserService;
+import com.abarigena.taskflow.utility.KeysetCursor;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * GraphQL резолвер для Query операций с пользователями.
  * Все методы возвращают реактивные типы (Mono/Flux).
@@ -21,6 +25,8 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class UserQueryResolver {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserService userService;
 
     /**
@@ -37,25 +43,41 @@ public class UserQueryResolver {
     }
 
     /**
-     * Резолвер для Query.users(limit: Int, offset: Int): [User!]!
-     * Получает список пользователей с пагинацией.
+     * Резолвер для Query.users(first: Int, after: String): UserConnection!
+     * Получает страницу пользователей по курсору (keyset по created_at, id).
+     * Выбирается first + 1 запись, чтобы определить наличие следующей страницы без отдельного запроса.
+     * Из базы читаются только колонки полей, запрошенных в edges.node.
      */
     @QueryMapping
-    public Flux<UserDto> users(@Argument Integer limit, @Argument Integer offset) {
-        log.info("GraphQL Query: users(limit={}, offset={})", limit, offset);
-        
-        // Создаем Pageable из переданных параметров
-        Pageable pageable = PageRequest.of(
-                offset / limit,  // номер страницы
-                limit           // размер страницы
-        );
-        
-        return userService.findAllUsers(pageable)
-                .doOnNext(user -> log.debug("Retrieved user: {}", user.getEmail()))
-                .doOnComplete(() -> log.debug("Completed users query"))
+    public Mono<Connection<UserDto>> users(@Argument Integer first, @Argument String after,
+                                           DataFetchingFieldSelectionSet selectionSet) {
+        log.info("GraphQL Query: users(first={}, after={})", first, after);
+
+        if (first == null || first < 1 || first > MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException("'first' must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        List<String> fields = selectionSet.getFields("edges/node/*").stream()
+                .map(SelectedField::getName)
+                .toList();
+
+        return userService.findUsersAfter(KeysetCursor.decode(after), first + 1, fields)
+                .collectList()
+                .map(users -> Connection.of(users, first, after,
+                        user -> new KeysetCursor(user.getCreatedAt(), user.getId())))
+                .doOnNext(connection -> log.debug("Retrieved {} users", connection.getEdges().size()))
                 .doOnError(error -> log.error("Error retrieving users: {}", error.getMessage()));
     }
 
+    /**
+     * Резолвер для UserConnection.totalCount: Int!
+     * Вызывается только если клиент запросил поле, поэтому COUNT(*) не выполняется для обычного листания.
+     */
+    @SchemaMapping(typeName = "UserConnection", field = "totalCount")
+    public Mono<Long> totalCount(Connection<UserDto> connection) {
+        return userService.countUsers();
+    }
+
     /**
      * Резолвер для Query.userByEmail(email: String!): User
      * Находит пользователя по email.
@@ -0,0 +1,148 @@
+package com.abarigena.taskflow.graphql.subscription;
+
+import com.abarigena.taskflow.dto.CacheInvalidationEvent;
+import com.abarigena.taskflow.dto.CommentDto;
+import com.abarigena.taskflow.dto.TaskDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Источник событий для GraphQL-подписок, построенный на каналах Redis Pub/Sub из {@link com.abarigena.taskflow.service.RedisEventPublisher}.
+ * <p>
+ * На каждый канал узел держит одну подписку Redis, общую для всех клиентов (share): событие десериализуется один раз,
+ * а затем фильтруется по проекту или задаче для каждого подписчика. Подписка на канал открывается при появлении
+ * первого клиента и закрывается после ухода последнего.
+ * <p>
+ * У каждого подписчика собственный ограниченный буфер, поэтому медленный WebSocket-клиент не задерживает остальных.
+ * При переполнении буфера применяется политика taskflow.graphql.subscriptions.overflow
+ * (по умолчанию DROP_OLDEST - клиент теряет самые старые события, но продолжает получать новые).
+ */
+@Slf4j
+@Component
+public class TaskEventStream {
+
+    private static final String CHANNEL_PREFIX = "taskflow:";
+    private static final String TASK_UPDATED_CHANNEL = CHANNEL_PREFIX + "task:updated";
+    private static final String TASK_DELETED_CHANNEL = CHANNEL_PREFIX + "task:deleted";
+    private static final String COMMENT_CREATED_CHANNEL = CHANNEL_PREFIX + "comment:created";
+
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final ObjectMapper redisObjectMapper;
+    private final int bufferSize;
+    private final BufferOverflowStrategy overflowStrategy;
+
+    private ReactiveRedisMessageListenerContainer container;
+    private Flux<CacheInvalidationEvent> taskUpdatedEvents;
+    private Flux<CacheInvalidationEvent> taskDeletedEvents;
+    private Flux<CacheInvalidationEvent> commentCreatedEvents;
+
+    public TaskEventStream(ReactiveRedisConnectionFactory connectionFactory,
+                           ObjectMapper redisObjectMapper,
+                           @Value("${taskflow.graphql.subscriptions.buffer-size:256}") int bufferSize,
+                           @Value("${taskflow.graphql.subscriptions.overflow:DROP_OLDEST}") BufferOverflowStrategy overflowStrategy) {
+        this.connectionFactory = connectionFactory;
+        this.redisObjectMapper = redisObjectMapper;
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        container = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        taskUpdatedEvents = receive(TASK_UPDATED_CHANNEL);
+        taskDeletedEvents = receive(TASK_DELETED_CHANNEL);
+        commentCreatedEvents = receive(COMMENT_CREATED_CHANNEL);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (container != null) {
+            container.destroyLater()
+                    .doOnError(error -> log.warn("Error during Redis container destruction: {}", error.getMessage()))
+                    .onErrorComplete()
+                    .subscribe();
+        }
+    }
+
+    /**
+     * Поток обновленных задач проекта.
+     *
+     * @param projectId Идентификатор проекта.
+     * @return Бесконечный поток актуальных состояний задач.
+     */
+    public Flux<TaskDto> taskUpdated(Long projectId) {
+        return buffered(taskUpdatedEvents
+                .filter(event -> Objects.equals(longValue(event.getMetadata(), "projectId"), projectId))
+                .map(event -> convert(event.getMetadata().get("task"), TaskDto.class)));
+    }
+
+    /**
+     * Поток идентификаторов удаленных задач проекта.
+     *
+     * @param projectId Идентификатор проекта.
+     * @return Бесконечный поток идентификаторов задач.
+     */
+    public Flux<Long> taskDeleted(Long projectId) {
+        return buffered(taskDeletedEvents
+                .filter(event -> Objects.equals(longValue(event.getMetadata(), "projectId"), projectId))
+                .map(CacheInvalidationEvent::getEntityId));
+    }
+
+    /**
+     * Поток новых комментариев задачи.
+     *
+     * @param taskId Идентификатор задачи.
+     * @return Бесконечный поток добавленных комментариев.
+     */
+    public Flux<CommentDto> commentAdded(Long taskId) {
+        return buffered(commentCreatedEvents
+                .filter(event -> Objects.equals(longValue(event.getMetadata(), "taskId"), taskId))
+                .map(event -> convert(event.getMetadata().get("comment"), CommentDto.class)));
+    }
+
+    private <T> Flux<T> buffered(Flux<T> events) {
+        return events.onBackpressureBuffer(
+                bufferSize,
+                dropped -> log.warn("Буфер подписчика переполнен, событие отброшено: {}", dropped),
+                overflowStrategy
+        );
+    }
+
+    private Flux<CacheInvalidationEvent> receive(String channel) {
+        return container.receive(new ChannelTopic(channel))
+                .map(ReactiveSubscription.Message::getMessage)
+                .flatMap(json -> {
+                    try {
+                        return Mono.just(redisObjectMapper.readValue(json, CacheInvalidationEvent.class));
+                    } catch (JsonProcessingException e) {
+                        log.error("Failed to parse event from channel {}", channel, e);
+                        return Mono.empty();
+                    }
+                })
+                .filter(event -> event.getMetadata() != null)
+                .share();
+    }
+
+    private <T> T convert(Object value, Class<T> type) {
+        return type.isInstance(value) ? type.cast(value) : redisObjectMapper.convertValue(value, type);
+    }
+
+    private static Long longValue(Map<String, Object> metadata, String key) {
+        return metadata.get(key) instanceof Number number ? number.longValue() : null;
+    }
+}
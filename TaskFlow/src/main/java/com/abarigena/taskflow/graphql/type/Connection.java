@@ -0,0 +1,55 @@
+package com.abarigena.taskflow.graphql.type;
+
+import com.abarigena.taskflow.utility.KeysetCursor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Relay-соединение для списочных полей со страничной выборкой по курсору.
+ * Соответствует типам *Connection в schema.graphqls.
+ * Поле totalCount здесь не хранится - оно разрешается отдельным резолвером и только если его запросили.
+ *
+ * @param <T> тип узла
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Connection<T> {
+
+    private List<Edge<T>> edges;
+
+    private PageInfo pageInfo;
+
+    /**
+     * Собирает соединение из строк, выбранных с запасом в одну запись (limit = first + 1).
+     * Наличие лишней записи означает, что есть следующая страница; сама она в ответ не попадает.
+     *
+     * @param rows     Выбранные записи в порядке выдачи.
+     * @param first    Запрошенный размер страницы.
+     * @param after    Курсор, от которого велась выборка (null для первой страницы).
+     * @param cursorOf Функция получения keyset-позиции записи.
+     * @return Соединение с ребрами и информацией о странице.
+     */
+    public static <T> Connection<T> of(List<T> rows, int first, String after, Function<T, KeysetCursor> cursorOf) {
+        boolean hasNextPage = rows.size() > first;
+        List<Edge<T>> edges = rows.stream()
+                .limit(first)
+                .map(row -> new Edge<>(row, cursorOf.apply(row).encode()))
+                .toList();
+
+        PageInfo pageInfo = PageInfo.builder()
+                .hasNextPage(hasNextPage)
+                .hasPreviousPage(after != null && !after.isBlank())
+                .startCursor(edges.isEmpty() ? null : edges.get(0).getCursor())
+                .endCursor(edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor())
+                .build();
+
+        return new Connection<>(edges, pageInfo);
+    }
+}
@@ -0,0 +1,23 @@
+package com.abarigena.taskflow.graphql.type;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ребро Relay-соединения: узел и курсор, указывающий на его позицию в выборке.
+ * Соответствует типам *Edge в schema.graphqls
+ *
+ * @param <T> тип узла
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Edge<T> {
+
+    private T node;
+
+    private String cursor;
+}
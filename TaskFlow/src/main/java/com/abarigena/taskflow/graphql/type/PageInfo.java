@@ -0,0 +1,25 @@
+package com.abarigena.taskflow.graphql.type;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Информация о странице Relay-соединения.
+ * Соответствует типу PageInfo в schema.graphqls
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageInfo {
+
+    private boolean hasNextPage;
+
+    private boolean hasPreviousPage;
+
+    private String startCursor;
+
+    private String endCursor;
+}
@@ -0,0 +1,151 @@
+package com.abarigena.taskflow.graphql.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.incremental.IncrementalExecutionResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.support.SerializableGraphQlRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP-транспорт GraphQL с инкрементальной доставкой (@defer) в формате multipart/mixed.
+ * <p>
+ * Стандартный обработчик /graphql отвечает одним JSON-документом. Запросы, в Accept которых явно указан
+ * multipart/mixed, попадают сюда (маршрут регистрируется раньше стандартного, см. GraphQLConfig): если операция
+ * содержит @defer, движок выполняется с включенной поддержкой @defer, первая часть ответа содержит
+ * неотложенные поля (например, карточку проекта), а отложенные фрагменты (задачи, комментарии) отправляются
+ * следующими частями по мере готовности. Каждая часть сбрасывается клиенту сразу, без буферизации всего ответа.
+ * Так клиент, перечисляющий в Accept и multipart/mixed, и application/json, получает инкрементальную доставку.
+ * <p>
+ * Запрос без @defer получает обычный JSON-ответ, если клиент принимает JSON, и иначе - ответ из одной части.
+ * Формат частей соответствует deferSpec=20220824 (граница "-", последняя часть завершается "-----").
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IncrementalGraphQlHandler {
+
+    /**
+     * Запрос явно принимает multipart/mixed. Accept с любым типом не подходит: такие клиенты остаются у стандартного
+     * обработчика.
+     */
+    public static final RequestPredicate ACCEPTS_MULTIPART_MIXED = request -> request.headers().accept().stream()
+            .anyMatch(mediaType -> "multipart".equalsIgnoreCase(mediaType.getType())
+                    && "mixed".equalsIgnoreCase(mediaType.getSubtype()));
+
+    private static final String BOUNDARY = "-";
+    private static final MediaType MULTIPART_MIXED = MediaType.parseMediaType(
+            "multipart/mixed;boundary=\"" + BOUNDARY + "\";deferSpec=20220824");
+    private static final String PART_HEADER = "\r\n--" + BOUNDARY + "\r\nContent-Type: application/json; charset=utf-8\r\n\r\n";
+    private static final String CLOSING_DELIMITER = "\r\n--" + BOUNDARY + "--\r\n";
+    private static final List<MediaType> JSON_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_GRAPHQL_RESPONSE, MediaType.APPLICATION_JSON);
+    private static final Pattern DEFER_DIRECTIVE = Pattern.compile("@defer\\b");
+
+    private final WebGraphQlHandler webGraphQlHandler;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Выполняет GraphQL-запрос и отдает результат частями или, для запроса без @defer, одним JSON-документом.
+     *
+     * @param serverRequest HTTP-запрос с телом (query, operationName, variables, extensions).
+     * @return Ответ multipart/mixed или JSON.
+     */
+    public Mono<ServerResponse> handleRequest(ServerRequest serverRequest) {
+        return serverRequest.bodyToMono(SerializableGraphQlRequest.class)
+                .flatMap(body -> {
+                    boolean deferred = isDeferred(body);
+                    MediaType jsonMediaType = deferred ? null : acceptedJsonMediaType(serverRequest);
+
+                    WebGraphQlRequest graphQlRequest = new WebGraphQlRequest(
+                            serverRequest.uri(), serverRequest.headers().asHttpHeaders(), serverRequest.cookies(),
+                            serverRequest.remoteAddress().orElse(null), serverRequest.attributes(), body,
+                            serverRequest.exchange().getRequest().getId(),
+                            serverRequest.exchange().getLocaleContext().getLocale());
+                    if (deferred) {
+                        graphQlRequest.configureExecutionInput((input, builder) -> builder
+                                .graphQLContext(Map.of(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT, true))
+                                .build());
+                    }
+
+                    DataBufferFactory bufferFactory = serverRequest.exchange().getResponse().bufferFactory();
+                    return webGraphQlHandler.handleRequest(graphQlRequest)
+                            .flatMap(response -> jsonMediaType != null
+                                    ? ServerResponse.ok()
+                                            .headers(headers -> headers.putAll(response.getResponseHeaders()))
+                                            .contentType(jsonMediaType)
+                                            .bodyValue(response.toMap())
+                                    : ServerResponse.ok()
+                                            .headers(headers -> headers.putAll(response.getResponseHeaders()))
+                                            .contentType(MULTIPART_MIXED)
+                                            .body(BodyInserters.fromDataBuffers(parts(response, bufferFactory))));
+                });
+    }
+
+    /**
+     * Операция содержит директиву @defer. Документ по хешу (Automatic Persisted Queries) без текста
+     * запроса считается неотложенным.
+     */
+    private static boolean isDeferred(SerializableGraphQlRequest body) {
+        return body.getQuery() != null && DEFER_DIRECTIVE.matcher(body.getQuery()).find();
+    }
+
+    private static MediaType acceptedJsonMediaType(ServerRequest serverRequest) {
+        List<MediaType> accepted = serverRequest.headers().accept();
+        return JSON_MEDIA_TYPES.stream()
+                .filter(candidate -> accepted.stream().anyMatch(mediaType ->
+                        !mediaType.isWildcardType() && mediaType.isCompatibleWith(candidate)))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Flux<DataBuffer> parts(WebGraphQlResponse response, DataBufferFactory bufferFactory) {
+        ExecutionResult result = response.getExecutionResult();
+
+        if (!(result instanceof IncrementalExecutionResult incremental)) {
+            Map<String, Object> payload = new LinkedHashMap<>(result.toSpecification());
+            payload.put("hasNext", false);
+            return Flux.just(part(payload, bufferFactory), closing(bufferFactory));
+        }
+
+        Flux<DataBuffer> initial = Flux.just(part(incremental.toSpecification(), bufferFactory));
+        Flux<DataBuffer> subsequent = Flux.from(incremental.getIncrementalItemPublisher())
+                .map(item -> part(item.toSpecification(), bufferFactory))
+                .doOnError(error -> log.error("Error delivering deferred GraphQL payload: {}", error.getMessage()));
+        return Flux.concat(initial, subsequent, Mono.fromSupplier(() -> closing(bufferFactory)));
+    }
+
+    private DataBuffer part(Map<String, Object> payload, DataBufferFactory bufferFactory) {
+        try {
+            return bufferFactory.wrap((PART_HEADER + objectMapper.writeValueAsString(payload))
+                    .getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize GraphQL payload", e);
+        }
+    }
+
+    private DataBuffer closing(DataBufferFactory bufferFactory) {
+        return bufferFactory.wrap(CLOSING_DELIMITER.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,6 +3,7 @@ package com.abarigena.taskflow.mapper;
 import com.abarigena.taskflow.dto.ProjectDto;
 import com.abarigena.taskflow.storeSQL.entity.Project;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.ReportingPolicy;
@@ -15,7 +16,11 @@ import org.mapstruct.ReportingPolicy;
 public interface ProjectMapper {
     ProjectDto toDto(Project project);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Project toEntity(ProjectDto projectDto);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDto(ProjectDto projectDto, @MappingTarget Project project);
 }
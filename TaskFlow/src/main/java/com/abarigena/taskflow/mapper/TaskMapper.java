@@ -3,6 +3,7 @@ package com.abarigena.taskflow.mapper;
 import com.abarigena.taskflow.dto.TaskDto;
 import com.abarigena.taskflow.storeSQL.entity.Task;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.ReportingPolicy;
@@ -16,7 +17,15 @@ public interface TaskMapper {
 
     TaskDto toDto(Task task);
 
+    /**
+     * Создает новую сущность из DTO. id и version не копируются: Spring Data считает сущность новой
+     * по version == null, а ожидаемая версия клиента проверяется отдельно при обновлении.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Task toEntity(TaskDto taskDto);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDto(TaskDto taskDto, @MappingTarget Task task);
 }
@@ -3,6 +3,7 @@ package com.abarigena.taskflow.mapper;
 import com.abarigena.taskflow.dto.UserDto;
 import com.abarigena.taskflow.storeSQL.entity.User;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.ReportingPolicy;
@@ -15,7 +16,11 @@ import org.mapstruct.ReportingPolicy;
 public interface UserMapper {
     UserDto toDto(User user);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     User toEntity(UserDto userDto);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDto(UserDto userDto, @MappingTarget User user);
 }
@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @Slf4j
@@ -97,4 +98,46 @@ public class RabbitProducer {
             log.error("Error sending delete notification: {}", e.getMessage(), e);
         }
     }
+
+    /**
+     * Отправляет пачку уведомлений о СОЗДАНИИ задач (Direct Exchange) через один канал RabbitMQ,
+     * не занимая и не возвращая канал в кэш на каждое сообщение.
+     */
+    public void sendCreateNotifications(List<TaskHistoryDto> taskHistoryDtos) {
+        sendBatch(taskHistoryDtos, notificationDirectExchange, notificationDirectRoutingKey, "CREATE");
+    }
+
+    /**
+     * Отправляет пачку уведомлений об ОБНОВЛЕНИИ задач (Fanout Exchange) через один канал RabbitMQ.
+     */
+    public void sendUpdateNotifications(List<TaskHistoryDto> taskHistoryDtos) {
+        sendBatch(taskHistoryDtos, notificationFanoutExchange, "", "UPDATE");
+    }
+
+    /**
+     * Отправляет пачку уведомлений об УДАЛЕНИИ задач (Topic Exchange) через один канал RabbitMQ.
+     * @param topicRoutingKey Ключ маршрутизации для Topic (например, "task.notification.deleted")
+     */
+    public void sendDeleteNotifications(List<TaskHistoryDto> taskHistoryDtos, String topicRoutingKey) {
+        sendBatch(taskHistoryDtos, notificationTopicExchange, topicRoutingKey, "DELETE");
+    }
+
+    private void sendBatch(List<TaskHistoryDto> taskHistoryDtos, String exchange, String routingKey, String action) {
+        if (taskHistoryDtos.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            log.info("Sending {} {} notifications to exchange [{}]", taskHistoryDtos.size(), action, exchange);
+            rabbitTemplate.invoke(operations -> {
+                for (TaskHistoryDto taskHistoryDto : taskHistoryDtos) {
+                    taskHistoryDto.setTimestamp(now);
+                    operations.convertAndSend(exchange, routingKey, taskHistoryDto);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Error sending {} notifications: {}", action, e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.abarigena.taskflow.service;
+
+import com.abarigena.taskflow.exception.SearchUnavailableException;
+import com.abarigena.taskflow.serviceNoSQL.OpenSearchService;
+import com.abarigena.taskflow.serviceSQL.PostgresSearchService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Поиск через OpenSearch с автоматическим переключением на Postgres.
+ * <p>
+ * Каждый вызов OpenSearch ограничен таймаутом и проходит через circuit breaker. Ошибка, таймаут или
+ * разомкнутый breaker переводят запрос на {@link PostgresSearchService}: задачи и комментарии ищутся
+ * полнотекстовым поиском Postgres, для проектов и пользователей возвращается 503 без ожидания OpenSearch.
+ * Блокирующий клиент OpenSearch вызывается на boundedElastic, чтобы не занимать потоки event loop.
+ */
+@Service
+@Primary
+@Slf4j
+public class FailoverSearchService implements SearchService {
+
+    private final OpenSearchService openSearchService;
+    private final PostgresSearchService postgresSearchService;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration timeout;
+
+    public FailoverSearchService(OpenSearchService openSearchService,
+                                 PostgresSearchService postgresSearchService,
+                                 CircuitBreaker openSearchCircuitBreaker,
+                                 @Value("${taskflow.search.opensearch-timeout:2s}") Duration timeout) {
+        this.openSearchService = openSearchService;
+        this.postgresSearchService = postgresSearchService;
+        this.circuitBreaker = openSearchCircuitBreaker;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Flux<Map<String, Object>> searchTasks(String query, String status, String priority, Integer from, Integer size) {
+        return withFallback("tasks",
+                openSearchService.searchTasks(query, status, priority, from, size),
+                error -> postgresSearchService.searchTasks(query, status, priority, from, size));
+    }
+
+    @Override
+    public Flux<Map<String, Object>> searchComments(String query, Long taskId, Integer from, Integer size) {
+        return withFallback("comments",
+                openSearchService.searchComments(query, taskId, from, size),
+                error -> postgresSearchService.searchComments(query, taskId, from, size));
+    }
+
+    @Override
+    public Flux<Map<String, Object>> searchProjects(String query, String status, Integer from, Integer size) {
+        return withFallback("projects",
+                openSearchService.searchProjects(query, status, from, size),
+                error -> Flux.error(new SearchUnavailableException("projects", error)));
+    }
+
+    @Override
+    public Flux<Map<String, Object>> searchUsers(String query, Boolean active, Integer from, Integer size) {
+        return withFallback("users",
+                openSearchService.searchUsers(query, active, from, size),
+                error -> Flux.error(new SearchUnavailableException("users", error)));
+    }
+
+    private Flux<Map<String, Object>> withFallback(String documentType,
+                                                   Flux<Map<String, Object>> openSearch,
+                                                   Function<Throwable, Flux<Map<String, Object>>> fallback) {
+        // Результат OpenSearch собирается целиком, чтобы при ошибке клиент не получил часть документов дважды
+        Mono<List<Map<String, Object>>> primary = openSearch.collectList()
+                .subscribeOn(Schedulers.boundedElastic())
+                .timeout(timeout)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+
+        return primary
+                .flatMapMany(Flux::fromIterable)
+                .onErrorResume(error -> {
+                    log.warn("OpenSearch search over {} failed ({}), breaker state {}: falling back",
+                            documentType, error.toString(), circuitBreaker.getState());
+                    return fallback.apply(error);
+                });
+    }
+}
@@ -48,6 +48,25 @@ public class ReactiveRedisService {
         return getOrSet(key, supplier, Duration.ofHours(1), clazz);
     }
 
+    /**
+     * Получить значение по ключу
+     */
+    public <T> Mono<T> get(String key, Class<T> clazz) {
+        return reactiveRedisTemplate.opsForValue()
+                .get(key)
+                .cast(clazz)
+                .doOnNext(value -> log.debug("Cache GET HIT for key: {}", key));
+    }
+
+    /**
+     * Сохранить значение по ключу с TTL
+     */
+    public <T> Mono<Boolean> set(String key, T value, Duration ttl) {
+        return reactiveRedisTemplate.opsForValue()
+                .set(key, value, ttl)
+                .doOnNext(result -> log.debug("Cache SET for key: {} with TTL: {}", key, ttl));
+    }
+
     /**
      * Удалить ключ из кэша
      */
@@ -161,4 +180,13 @@ public class ReactiveRedisService {
                 .cast(clazz)
                 .doOnSubscribe(s -> log.debug("Set MEMBERS for key: {}", key));
     }
+
+    /**
+     * Работа с множествами - проверить принадлежность элемента
+     */
+    public <T> Mono<Boolean> setIsMember(String key, T value) {
+        return reactiveRedisTemplate.opsForSet()
+                .isMember(key, value)
+                .doOnNext(result -> log.debug("Set IS MEMBER for key: {}, result: {}", key, result));
+    }
 } 
\ No newline at end of file
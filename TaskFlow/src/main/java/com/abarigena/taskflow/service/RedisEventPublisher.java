@@ -1,6 +1,8 @@
 package com.abarigena.taskflow.service;
 
 import com.abarigena.taskflow.dto.CacheInvalidationEvent;
+import com.abarigena.taskflow.dto.CommentDto;
+import com.abarigena.taskflow.dto.TaskDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
@@ -28,6 +30,7 @@ public class RedisEventPublisher {
     private static final String PROJECT_DELETED_CHANNEL = CHANNEL_PREFIX + "project:deleted";
     private static final String TASK_UPDATED_CHANNEL = CHANNEL_PREFIX + "task:updated";
     private static final String TASK_DELETED_CHANNEL = CHANNEL_PREFIX + "task:deleted";
+    private static final String COMMENT_CREATED_CHANNEL = CHANNEL_PREFIX + "comment:created";
     
     /**
      * Публикует событие обновления пользователя
@@ -78,26 +81,39 @@ public class RedisEventPublisher {
     }
     
     /**
-     * Публикует событие обновления задачи
+     * Публикует событие обновления задачи.
+     * Вместе с событием передается актуальное состояние задачи, чтобы GraphQL-подписки не перечитывали ее из базы.
      */
-    public Mono<Void> publishTaskUpdated(Long taskId) {
+    public Mono<Void> publishTaskUpdated(TaskDto task) {
         return publishEvent(
             TASK_UPDATED_CHANNEL,
             CacheInvalidationEvent.EventType.TASK_UPDATED,
-            taskId,
-            null
+            task.getId(),
+            Map.of("projectId", task.getProjectId(), "task", task)
         );
     }
     
     /**
      * Публикует событие удаления задачи
      */
-    public Mono<Void> publishTaskDeleted(Long taskId) {
+    public Mono<Void> publishTaskDeleted(Long taskId, Long projectId) {
         return publishEvent(
             TASK_DELETED_CHANNEL,
             CacheInvalidationEvent.EventType.TASK_DELETED,
             taskId,
-            null
+            Map.of("projectId", projectId)
+        );
+    }
+    
+    /**
+     * Публикует событие добавления комментария к задаче
+     */
+    public Mono<Void> publishCommentCreated(CommentDto comment) {
+        return publishEvent(
+            COMMENT_CREATED_CHANNEL,
+            CacheInvalidationEvent.EventType.COMMENT_CREATED,
+            comment.getId(),
+            Map.of("taskId", comment.getTaskId(), "comment", comment)
         );
     }
     
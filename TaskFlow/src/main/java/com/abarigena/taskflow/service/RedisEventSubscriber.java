@@ -202,8 +202,9 @@ public class RedisEventSubscriber {
         
         Long projectId = event.getEntityId();
         String projectKey = "project:id:" + projectId;
+        String membersKey = "project:members:" + projectId;
         
-        return reactiveRedisService.evict(projectKey)
+        return reactiveRedisService.evictAll(projectKey, membersKey)
             .doOnSuccess(v -> log.info("Cache invalidated for deleted project ID: {}", projectId))
             .then();
     }
@@ -0,0 +1,32 @@
+package com.abarigena.taskflow.service;
+
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Полнотекстовый поиск по задачам, комментариям, проектам и пользователям.
+ * Результат - документы в виде map с полями сущности, а также "_id" и "_score" (релевантность).
+ */
+public interface SearchService {
+
+    /**
+     * Поиск задач по критериям
+     */
+    Flux<Map<String, Object>> searchTasks(String query, String status, String priority, Integer from, Integer size);
+
+    /**
+     * Поиск комментариев по критериям
+     */
+    Flux<Map<String, Object>> searchComments(String query, Long taskId, Integer from, Integer size);
+
+    /**
+     * Поиск проектов по критериям
+     */
+    Flux<Map<String, Object>> searchProjects(String query, String status, Integer from, Integer size);
+
+    /**
+     * Поиск пользователей по критериям
+     */
+    Flux<Map<String, Object>> searchUsers(String query, Boolean active, Integer from, Integer size);
+}
@@ -1,35 +1,15 @@
 package com.abarigena.taskflow.serviceNoSQL;
 
-import reactor.core.publisher.Flux;
+import com.abarigena.taskflow.service.SearchService;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
 /**
  * Сервис для работы с OpenSearch в TaskFlow
- * Обеспечивает поиск по задачам, комментариям, проектам, пользователям и аналитику
+ * Обеспечивает поиск по задачам, комментариям, проектам, пользователям ({@link SearchService}) и аналитику
  */
-public interface OpenSearchService {
-
-    /**
-     * Поиск задач по критериям
-     */
-    Flux<Map<String, Object>> searchTasks(String query, String status, String priority, Integer from, Integer size);
-
-    /**
-     * Поиск комментариев по критериям
-     */
-    Flux<Map<String, Object>> searchComments(String query, Long taskId, Integer from, Integer size);
-
-    /**
-     * Поиск проектов по критериям
-     */
-    Flux<Map<String, Object>> searchProjects(String query, String status, Integer from, Integer size);
-
-    /**
-     * Поиск пользователей по критериям
-     */
-    Flux<Map<String, Object>> searchUsers(String query, Boolean active, Integer from, Integer size);
+public interface OpenSearchService extends SearchService {
 
     /**
      * Аналитика задач по статусам
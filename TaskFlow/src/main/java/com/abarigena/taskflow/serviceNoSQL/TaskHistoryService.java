@@ -4,6 +4,8 @@ import com.abarigena.taskflow.storeNoSQL.entity.TaskHistory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface TaskHistoryService {
 
     /**
@@ -13,6 +15,13 @@ public interface TaskHistoryService {
      */
     Mono<TaskHistory> saveHistory(TaskHistory history);
 
+    /**
+     * Сохраняет набор записей истории одной пакетной вставкой.
+     * @param histories записи истории для сохранения
+     * @return поток сохраненных записей истории
+     */
+    Flux<TaskHistory> saveAllHistory(List<TaskHistory> histories);
+
     /**
      * Получает историю изменений для указанной задачи.
      * @param taskId идентификатор задачи
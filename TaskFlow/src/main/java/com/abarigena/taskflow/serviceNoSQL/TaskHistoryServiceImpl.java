@@ -8,6 +8,8 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -28,6 +30,21 @@ public class TaskHistoryServiceImpl implements TaskHistoryService {
                 ;
     }
 
+    /**
+     * Сохраняет набор записей истории задач в MongoDB. Все записи новые, поэтому репозиторий
+     * выполняет одну пакетную вставку (insertMany) вместо отдельного запроса на запись.
+     *
+     * @param histories Записи истории для сохранения.
+     * @return Поток сохраненных записей истории.
+     */
+    @Override
+    public Flux<TaskHistory> saveAllHistory(List<TaskHistory> histories) {
+        if (histories.isEmpty()) {
+            return Flux.empty();
+        }
+        return taskHistoryRepository.saveAll(histories);
+    }
+
     /**
      * Получает все записи истории изменений для указанной задачи, отсортированные по времени по убыванию (сначала новые).
      *
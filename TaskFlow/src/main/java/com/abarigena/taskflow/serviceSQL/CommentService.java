@@ -1,10 +1,15 @@
 package com.abarigena.taskflow.serviceSQL;
 
 import com.abarigena.taskflow.dto.CommentDto;
+import com.abarigena.taskflow.dto.CommentView;
+import com.abarigena.taskflow.utility.KeysetCursor;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 public interface CommentService {
     /**
      * Находит все комментарии для указанной задачи с использованием пагинации.
@@ -14,6 +19,42 @@ public interface CommentService {
      */
     Flux<CommentDto> findAllByTaskId(Long taskId, Pageable pageable);
 
+    /**
+     * Потоково выгружает все комментарии к задачам проекта в порядке id.
+     * @param projectId идентификатор проекта
+     * @param createdFrom начало диапазона времени создания включительно (null - без ограничения)
+     * @param createdTo конец диапазона времени создания не включительно (null - без ограничения)
+     * @return поток DTO комментариев
+     */
+    Flux<CommentDto> exportCommentsByProjectId(Long projectId, LocalDateTime createdFrom, LocalDateTime createdTo);
+
+    /**
+     * Находит страницу комментариев задачи после курсора (keyset-пагинация).
+     * @param taskId идентификатор задачи
+     * @param after курсор последнего комментария предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return поток DTO комментариев
+     */
+    Flux<CommentDto> findByTaskIdAfter(Long taskId, KeysetCursor after, int limit);
+
+    /**
+     * Находит страницы комментариев нескольких задач после одного курсора одним запросом.
+     * @param taskIds идентификаторы задач
+     * @param after курсор последнего комментария предыдущей страницы
+     * @param limit максимальное количество записей на задачу
+     * @return поток DTO комментариев всех задач
+     */
+    Flux<CommentDto> findByTaskIdsAfter(Collection<Long> taskIds, KeysetCursor after, int limit);
+
+    /**
+     * Находит страницу комментариев задачи вместе с авторами после курсора (keyset-пагинация).
+     * @param taskId идентификатор задачи
+     * @param after курсор последнего комментария предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return поток комментариев с авторами
+     */
+    Flux<CommentView> findViewsByTaskIdAfter(Long taskId, KeysetCursor after, int limit);
+
     /**
      * Создает новый комментарий.
      * @param commentDto DTO комментария
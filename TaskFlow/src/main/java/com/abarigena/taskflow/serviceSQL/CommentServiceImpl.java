@@ -1,34 +1,47 @@
 package com.abarigena.taskflow.serviceSQL;
 
 import com.abarigena.taskflow.dto.CommentDto;
+import com.abarigena.taskflow.dto.CommentView;
 import com.abarigena.taskflow.exception.ResourceNotFoundException;
 import com.abarigena.taskflow.mapper.CommentMapper;
+import com.abarigena.taskflow.service.RedisEventPublisher;
 import com.abarigena.taskflow.storeSQL.entity.Comment;
 import com.abarigena.taskflow.storeSQL.repository.CommentRepository;
+import com.abarigena.taskflow.storeSQL.repository.ExportRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectRepository;
 import com.abarigena.taskflow.storeSQL.repository.TaskRepository;
-import com.abarigena.taskflow.storeSQL.repository.UserRepository;
+import com.abarigena.taskflow.utility.ForeignKeyViolations;
+import com.abarigena.taskflow.utility.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class CommentServiceImpl implements CommentService {
 
     private final CommentRepository commentRepository;
-    private final CommentMapper commentMapper;
     private final TaskRepository taskRepository;
-    private final UserRepository userRepository;
+    private final CommentMapper commentMapper;
+    private final RedisEventPublisher redisEventPublisher;
+    private final ProjectRepository projectRepository;
+    private final ExportRepository exportRepository;
 
     /**
      * Находит все комментарии, связанные с указанной задачей, с поддержкой пагинации и сортировки.
+     * У мягко удаленной задачи комментариев нет.
      *
      * @param taskId   Идентификатор задачи, для которой ищутся комментарии.
      * @param pageable Параметры пагинации и сортировки.
@@ -36,12 +49,78 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     public Flux<CommentDto> findAllByTaskId(Long taskId, Pageable pageable) {
-        return commentRepository.findByTaskId(taskId, pageable)
+        return taskRepository.existsByIdAndDeletedAtIsNull(taskId)
+                .flatMapMany(visible -> visible ? commentRepository.findByTaskId(taskId, pageable) : Flux.<Comment>empty())
+                .map(commentMapper::toDto);
+    }
+
+    /**
+     * Потоково выгружает комментарии проекта. Строки читаются курсором по мере запроса подписчика,
+     * поэтому выгрузка идет с той скоростью, с которой ее принимает клиент.
+     *
+     * @param projectId   Идентификатор проекта.
+     * @param createdFrom Начало диапазона created_at включительно или null.
+     * @param createdTo   Конец диапазона created_at не включительно или null.
+     * @return Поток DTO комментариев или ошибка {@link ResourceNotFoundException}, если проект не найден.
+     */
+    @Override
+    public Flux<CommentDto> exportCommentsByProjectId(Long projectId, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        return projectRepository.existsById(projectId)
+                .flatMapMany(exists -> exists
+                        ? exportRepository.streamCommentsByProjectId(projectId, createdFrom, createdTo)
+                                .map(commentMapper::toDto)
+                        : Flux.error(new ResourceNotFoundException("Project", "id", projectId)));
+    }
+
+    /**
+     * Находит страницу комментариев задачи, следующих за курсором, в порядке created_at DESC, id DESC.
+     *
+     * @param taskId Идентификатор задачи.
+     * @param after  Keyset-позиция последнего комментария предыдущей страницы ({@link KeysetCursor#START} для первой страницы).
+     * @param limit  Максимальное количество записей.
+     * @return Поток DTO комментариев.
+     */
+    @Override
+    public Flux<CommentDto> findByTaskIdAfter(Long taskId, KeysetCursor after, int limit) {
+        return commentRepository.findByTaskIdAfter(taskId, after.createdAt(), after.id(), limit)
                 .map(commentMapper::toDto);
     }
 
     /**
-     * Создает новый комментарий. Выполняет проверки существования связанной задачи и пользователя-автора.
+     * Находит страницы комментариев нескольких задач, следующих за курсором, одним запросом
+     * (пакетная загрузка вложенного списка комментариев в GraphQL).
+     *
+     * @param taskIds Идентификаторы задач.
+     * @param after   Keyset-позиция последнего комментария предыдущей страницы ({@link KeysetCursor#START} для первой страницы).
+     * @param limit   Максимальное количество записей на задачу.
+     * @return Поток DTO комментариев всех задач.
+     */
+    @Override
+    public Flux<CommentDto> findByTaskIdsAfter(Collection<Long> taskIds, KeysetCursor after, int limit) {
+        if (taskIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return commentRepository.findByTaskIdInAfter(taskIds, after.createdAt(), after.id(), limit)
+                .map(commentMapper::toDto);
+    }
+
+    /**
+     * Находит страницу комментариев задачи вместе с авторами, следующих за курсором, в порядке created_at DESC, id DESC.
+     * Авторы подставляются соединением с users в том же запросе.
+     *
+     * @param taskId Идентификатор задачи.
+     * @param after  Keyset-позиция последнего комментария предыдущей страницы ({@link KeysetCursor#START} для первой страницы).
+     * @param limit  Максимальное количество записей.
+     * @return Поток комментариев с авторами.
+     */
+    @Override
+    public Flux<CommentView> findViewsByTaskIdAfter(Long taskId, KeysetCursor after, int limit) {
+        return commentRepository.findViewsByTaskIdAfter(taskId, after.createdAt(), after.id(), limit);
+    }
+
+    /**
+     * Создает новый комментарий. Существование связанной задачи и пользователя-автора проверяется
+     * внешними ключами при вставке; их нарушение переводится в ResourceNotFoundException.
      *
      * @param commentDto DTO комментария для создания.
      * @return Mono, содержащий DTO созданного комментария.
@@ -55,23 +134,14 @@ public class CommentServiceImpl implements CommentService {
         comment.setCreatedAt(LocalDateTime.now());
         comment.setUpdatedAt(LocalDateTime.now());
 
-        Mono<Boolean> taskExists = taskRepository.existsById(comment.getTaskId());
-        Mono<Boolean> userExists = userRepository.existsById(comment.getUserId());
-
-        return Mono.zip(taskExists, userExists)
-                .flatMap(tuple -> {
-                    boolean taskFound = tuple.getT1();
-                    boolean userFound = tuple.getT2();
-                    if (!taskFound) {
-                        return Mono.error(new ResourceNotFoundException("Task", "id", comment.getTaskId()));
-                    }
-                    if (!userFound) {
-                        return Mono.error(new ResourceNotFoundException("User", "id", comment.getUserId()));
-                    }
-
-                    return commentRepository.save(comment)
-                            .map(commentMapper::toDto);
-                });
+        // Существование задачи и автора гарантируют внешние ключи: один запрос вместо трех
+        return commentRepository.save(comment)
+                .onErrorMap(DataIntegrityViolationException.class, ForeignKeyViolations.translate(Map.of(
+                        "fk_comment_task", () -> new ResourceNotFoundException("Task", "id", comment.getTaskId()),
+                        "fk_comment_user", () -> new ResourceNotFoundException("User", "id", comment.getUserId()))))
+                .map(commentMapper::toDto)
+                .flatMap(savedComment -> redisEventPublisher.publishCommentCreated(savedComment)
+                        .thenReturn(savedComment));
 
     }
 
@@ -80,13 +150,13 @@ public class CommentServiceImpl implements CommentService {
      *
      * @param id         Идентификатор комментария для обновления.
      * @param commentDto DTO с данными для обновления комментария.
-     * @return Mono, содержащий DTO обновленного комментария, или ошибку ResourceNotFoundException, если комментарий не найден.
+     * @return Mono, содержащий DTO обновленного комментария, или ошибку ResourceNotFoundException, если комментарий не найден или его задача удалена.
      */
     @Override
     @Transactional
     public Mono<CommentDto> updateComment(Long id, CommentDto commentDto) {
 
-        return commentRepository.findById(id)
+        return commentRepository.findVisibleById(id)
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("comment", "id", id)))
                 .flatMap(existingComment -> {
                     commentMapper.updateEntityFromDto(commentDto, existingComment);
@@ -104,13 +174,13 @@ public class CommentServiceImpl implements CommentService {
      * Удаляет комментарий по его идентификатору.
      *
      * @param id Идентификатор комментария для удаления.
-     * @return Пустой Mono, сигнализирующий о завершении операции, или ошибку ResourceNotFoundException, если комментарий не найден.
+     * @return Пустой Mono, сигнализирующий о завершении операции, или ошибку ResourceNotFoundException, если комментарий не найден или его задача удалена.
      */
     @Override
     @Transactional
     public Mono<Void> deleteComment(Long id) {
 
-        return commentRepository.findById(id)
+        return commentRepository.findVisibleById(id)
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("comment", "id", id)))
                 .flatMap(existingComment -> commentRepository.deleteById(existingComment.getId()))
                ;
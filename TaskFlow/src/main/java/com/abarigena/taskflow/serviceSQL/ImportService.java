@@ -0,0 +1,32 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import com.abarigena.taskflow.dto.ImportResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ImportService {
+
+    /**
+     * Формат файла импорта: CSV с заголовком из имен полей или NDJSON с объектом на строку.
+     */
+    enum Format {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * Импортирует задачи одним COPY и set-based проверкой. Некорректные строки отклоняются, остальные загружаются.
+     * @param lines строки файла
+     * @param format формат файла
+     * @return моно с отчетом: сколько строк получено, загружено и отклонено, причины отклонения по строкам
+     */
+    Mono<ImportResult> importTasks(Flux<String> lines, Format format);
+
+    /**
+     * Импортирует пользователей одним COPY и set-based проверкой. Некорректные строки отклоняются, остальные загружаются.
+     * @param lines строки файла
+     * @param format формат файла
+     * @return моно с отчетом: сколько строк получено, загружено и отклонено, причины отклонения по строкам
+     */
+    Mono<ImportResult> importUsers(Flux<String> lines, Format format);
+}
@@ -0,0 +1,175 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import com.abarigena.taskflow.dto.ImportResult;
+import com.abarigena.taskflow.storeSQL.repository.ImportRepository;
+import com.abarigena.taskflow.utility.CsvRows;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Массовый импорт из CSV и NDJSON.
+ * <p>
+ * Файл не накапливается в памяти: строки по мере чтения запроса превращаются в строки CSV для COPY
+ * ({@link ImportRepository}). CSV передается как есть, колонки определяются заголовком. NDJSON разбирается
+ * построчно; строка, которая не является JSON-объектом со скалярными полями, уходит в COPY уже с причиной
+ * отклонения, чтобы нумерация строк в отчете совпадала с файлом.
+ * <p>
+ * Импортированные строки не попадают в историю задач и уведомления RabbitMQ: на десятках тысяч строк это
+ * свело бы на нет выигрыш от COPY. Изменения таблиц по-прежнему видны через CDC.
+ */
+@Service
+@Slf4j
+public class ImportServiceImpl implements ImportService {
+
+    private static final Set<String> TASK_REQUIRED_FIELDS = Set.of("title", "projectId");
+    private static final Set<String> USER_REQUIRED_FIELDS = Set.of("firstName", "lastName", "email");
+
+    private final ImportRepository importRepository;
+    private final ObjectMapper objectMapper;
+    private final long maxRows;
+    private final int maxErrors;
+    private final Duration maxCreatedAtAge;
+
+    public ImportServiceImpl(ImportRepository importRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${taskflow.import.max-rows:200000}") long maxRows,
+                             @Value("${taskflow.import.max-errors:1000}") int maxErrors,
+                             @Value("${taskflow.import.max-created-at-age:3650d}") Duration maxCreatedAtAge) {
+        this.importRepository = importRepository;
+        this.objectMapper = objectMapper;
+        this.maxRows = maxRows;
+        this.maxErrors = maxErrors;
+        this.maxCreatedAtAge = maxCreatedAtAge;
+    }
+
+    @Override
+    public Mono<ImportResult> importTasks(Flux<String> lines, Format format) {
+        return load(lines, format, ImportRepository.TASK_FIELDS, TASK_REQUIRED_FIELDS, (columns, rows) -> {
+            LocalDateTime createdFrom = LocalDateTime.now().minus(maxCreatedAtAge);
+            return importRepository.importTasks(columns, rows, createdFrom, maxErrors);
+        });
+    }
+
+    @Override
+    public Mono<ImportResult> importUsers(Flux<String> lines, Format format) {
+        return load(lines, format, ImportRepository.USER_FIELDS, USER_REQUIRED_FIELDS,
+                (columns, rows) -> importRepository.importUsers(columns, rows, maxErrors));
+    }
+
+    private Mono<ImportResult> load(Flux<String> lines, Format format, Map<String, String> fields, Set<String> required,
+                                    BiFunction<List<String>, Flux<String>, Mono<ImportResult>> copy) {
+        Flux<String> limited = lines.index()
+                .map(line -> {
+                    if (line.getT1() >= maxRows) {
+                        throw new IllegalArgumentException("Файл импорта длиннее " + maxRows + " строк");
+                    }
+                    return line.getT2();
+                });
+
+        if (format == Format.NDJSON) {
+            List<String> columns = new ArrayList<>();
+            columns.add(ImportRepository.ROW_NUMBER_COLUMN);
+            columns.addAll(fields.values());
+            columns.add(ImportRepository.ERROR_COLUMN);
+            // Пустые строки пропускаются, но учитываются в нумерации: номер в отчете - номер строки файла
+            return copy.apply(columns, limited.index()
+                    .filter(line -> !line.getT2().isBlank())
+                    .map(line -> ndjsonRow(line.getT1() + 1, line.getT2(), fields)));
+        }
+
+        return limited.switchOnFirst((first, flux) -> {
+                    if (!first.hasValue()) {
+                        return Flux.error(first.isOnError() ? first.getThrowable() : new IllegalArgumentException("Файл импорта пуст"));
+                    }
+                    List<String> columns = csvColumns(first.get(), fields, required);
+                    return copy.apply(columns, csvRecords(flux.skip(1)));
+                })
+                .single();
+    }
+
+    /**
+     * Сопоставляет заголовок CSV с колонками временной таблицы.
+     */
+    private static List<String> csvColumns(String header, Map<String, String> fields, Set<String> required) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : header.replace("\uFEFF", "").split(",", -1)) {
+            String field = name.strip().replace("\"", "");
+            if (!fields.containsKey(field)) {
+                throw new IllegalArgumentException("Неизвестная колонка CSV '" + field + "', допустимы: " + fields.keySet());
+            }
+            if (!names.add(field)) {
+                throw new IllegalArgumentException("Колонка CSV '" + field + "' повторяется");
+            }
+        }
+        List<String> missing = required.stream().filter(field -> !names.contains(field)).sorted().toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("В заголовке CSV нет обязательных колонок " + missing);
+        }
+        return names.stream().map(fields::get).toList();
+    }
+
+    /**
+     * Возвращает переводы строк, убранные при разбиении запроса на строки, и пропускает пустые строки
+     * вне значений в кавычках (значение в кавычках может содержать переводы строк).
+     */
+    private static Flux<String> csvRecords(Flux<String> lines) {
+        return Flux.defer(() -> {
+            AtomicBoolean quoted = new AtomicBoolean();
+            return lines.filter(line -> {
+                        boolean keep = quoted.get() || !line.isBlank();
+                        if (line.chars().filter(c -> c == '"').count() % 2 == 1) {
+                            quoted.set(!quoted.get());
+                        }
+                        return keep;
+                    })
+                    .map(line -> line + "\n");
+        });
+    }
+
+    /**
+     * Превращает объект NDJSON в строку CSV в порядке колонок временной таблицы: первая колонка - номер строки
+     * файла, последняя - причина отклонения.
+     */
+    private String ndjsonRow(long lineNumber, String line, Map<String, String> fields) {
+        Object[] values = new Object[fields.size() + 2];
+        int error = values.length - 1;
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (!node.isObject()) {
+                values[error] = "Строка не является JSON-объектом";
+            } else {
+                int i = 1;
+                for (String field : fields.keySet()) {
+                    JsonNode value = node.get(field);
+                    if (value != null && value.isContainerNode()) {
+                        Arrays.fill(values, null);
+                        values[error] = "Поле " + field + " должно быть строкой, числом или логическим значением";
+                        break;
+                    }
+                    values[i++] = value == null || value.isNull() ? null : value.asText();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            values[error] = "Некорректный JSON: " + e.getOriginalMessage();
+        }
+        values[0] = lineNumber;
+        return CsvRows.copyLine(values);
+    }
+}
@@ -0,0 +1,68 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import com.abarigena.taskflow.dto.TotalCount;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import reactor.core.publisher.Mono;
+
+/**
+ * Общее число записей для постраничных выдач. Источник выбирается под каждую выдачу так,
+ * чтобы подсчет не сканировал большие таблицы.
+ * Каждый метод возвращает пустой Mono, если число получить не удалось.
+ */
+public interface PageTotalService {
+
+    /**
+     * Оценивает число всех задач.
+     * @return моно с оценкой
+     */
+    Mono<TotalCount> countAllTasks();
+
+    /**
+     * Считает задачи проекта.
+     * @param projectId идентификатор проекта
+     * @return моно с точным числом
+     */
+    Mono<TotalCount> countTasksByProjectId(Long projectId);
+
+    /**
+     * Считает задачи с указанными статусом и приоритетом.
+     * @param status статус задачи
+     * @param priority приоритет задачи
+     * @return моно с точным числом
+     */
+    Mono<TotalCount> countTasksByStatusAndPriority(Task.Status status, Task.Priority priority);
+
+    /**
+     * Считает задачи, назначенные пользователю.
+     * @param userId идентификатор пользователя
+     * @return моно с закэшированным числом
+     */
+    Mono<TotalCount> countTasksByAssignedUserId(Long userId);
+
+    /**
+     * Считает комментарии задачи.
+     * @param taskId идентификатор задачи
+     * @return моно с закэшированным числом
+     */
+    Mono<TotalCount> countCommentsByTaskId(Long taskId);
+
+    /**
+     * Оценивает число всех проектов.
+     * @return моно с оценкой
+     */
+    Mono<TotalCount> countAllProjects();
+
+    /**
+     * Считает проекты владельца.
+     * @param ownerId идентификатор владельца
+     * @return моно с закэшированным числом
+     */
+    Mono<TotalCount> countProjectsByOwnerId(Long ownerId);
+
+    /**
+     * Считает проекты, в которых участвует пользователь.
+     * @param userId идентификатор пользователя
+     * @return моно с закэшированным числом
+     */
+    Mono<TotalCount> countProjectsByUserId(Long userId);
+}
@@ -0,0 +1,120 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import com.abarigena.taskflow.dto.TotalCount;
+import com.abarigena.taskflow.service.ReactiveRedisService;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.storeSQL.repository.CommentRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectTaskStatsRepository;
+import com.abarigena.taskflow.storeSQL.repository.TableEstimateRepository;
+import com.abarigena.taskflow.storeSQL.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Источники total по выдачам:
+ * <ul>
+ *     <li>все задачи и все проекты - оценка планировщика pg_class.reltuples (неточно, без чтения таблицы);</li>
+ *     <li>задачи проекта и задачи по статусу и приоритету - счетчики project_task_stats (точно, их ведет триггер);</li>
+ *     <li>задачи исполнителя, комментарии задачи, проекты владельца и участника - count(*) по индексу,
+ *     закэшированный в Redis на taskflow.page-totals.cache-ttl (может отставать на этот срок).</li>
+ * </ul>
+ * Ошибка подсчета не должна ломать выдачу страницы, поэтому она логируется и дает пустой Mono.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+public class PageTotalServiceImpl implements PageTotalService {
+
+    private static final String COUNT_CACHE_KEY_PREFIX = "count:";
+
+    private final TableEstimateRepository tableEstimateRepository;
+    private final ProjectTaskStatsRepository projectTaskStatsRepository;
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final ProjectRepository projectRepository;
+    private final ReactiveRedisService reactiveRedisService;
+    private final Duration cacheTtl;
+
+    public PageTotalServiceImpl(TableEstimateRepository tableEstimateRepository,
+                                ProjectTaskStatsRepository projectTaskStatsRepository,
+                                TaskRepository taskRepository,
+                                CommentRepository commentRepository,
+                                ProjectRepository projectRepository,
+                                ReactiveRedisService reactiveRedisService,
+                                @Value("${taskflow.page-totals.cache-ttl:30s}") Duration cacheTtl) {
+        this.tableEstimateRepository = tableEstimateRepository;
+        this.projectTaskStatsRepository = projectTaskStatsRepository;
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.projectRepository = projectRepository;
+        this.reactiveRedisService = reactiveRedisService;
+        this.cacheTtl = cacheTtl;
+    }
+
+    @Override
+    public Mono<TotalCount> countAllTasks() {
+        return guard("tasks", tableEstimateRepository.estimateRows("tasks").map(TotalCount::estimated));
+    }
+
+    @Override
+    public Mono<TotalCount> countTasksByProjectId(Long projectId) {
+        return guard("tasks:project:" + projectId,
+                projectTaskStatsRepository.countTasks(projectId).map(TotalCount::exact));
+    }
+
+    @Override
+    public Mono<TotalCount> countTasksByStatusAndPriority(Task.Status status, Task.Priority priority) {
+        return guard("tasks:" + status + ":" + priority,
+                projectTaskStatsRepository.countTasks(status, priority).map(TotalCount::exact));
+    }
+
+    @Override
+    public Mono<TotalCount> countTasksByAssignedUserId(Long userId) {
+        return cached("tasks:assigned:" + userId, () -> taskRepository.countByAssignedUserIdAndDeletedAtIsNull(userId));
+    }
+
+    @Override
+    public Mono<TotalCount> countCommentsByTaskId(Long taskId) {
+        return cached("comments:task:" + taskId, () -> commentRepository.countByTaskId(taskId));
+    }
+
+    @Override
+    public Mono<TotalCount> countAllProjects() {
+        return guard("projects", tableEstimateRepository.estimateRows("projects").map(TotalCount::estimated));
+    }
+
+    @Override
+    public Mono<TotalCount> countProjectsByOwnerId(Long ownerId) {
+        return cached("projects:owner:" + ownerId, () -> projectRepository.countByOwnerId(ownerId));
+    }
+
+    @Override
+    public Mono<TotalCount> countProjectsByUserId(Long userId) {
+        return cached("projects:member:" + userId, () -> projectRepository.countProjectsByUserId(userId));
+    }
+
+    /**
+     * Точный подсчет, закэшированный на cacheTtl. Redis возвращает небольшие числа как Integer,
+     * поэтому значение кэшируется и читается как Number.
+     */
+    private Mono<TotalCount> cached(String name, Supplier<Mono<Long>> count) {
+        return guard(name, reactiveRedisService.getOrSet(COUNT_CACHE_KEY_PREFIX + name,
+                        () -> count.get().cast(Number.class), cacheTtl, Number.class)
+                .map(value -> TotalCount.estimated(value.longValue())));
+    }
+
+    private Mono<TotalCount> guard(String name, Mono<TotalCount> total) {
+        return total.onErrorResume(error -> {
+            log.warn("Failed to count total for {}: {}", name, error.getMessage());
+            return Mono.empty();
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import com.abarigena.taskflow.storeSQL.repository.PartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Заблаговременное создание месячных секций tasks и comments.
+ * <p>
+ * Строку, created_at которой не попадает ни в одну секцию, вставить нельзя, поэтому секции заводятся
+ * на несколько месяцев вперед: задача запускается при старте и затем периодически, а пропуск
+ * нескольких запусков (например, из-за занятой блокировки таблицы) не приводит к ошибкам записи.
+ * Одновременные запуски на нескольких экземплярах сериализуются в базе advisory-блокировкой.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "taskflow.partitions.jobs-enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenanceJob {
+
+    private static final List<String> PARTITIONED_TABLES = List.of("tasks", "comments");
+
+    private final PartitionRepository partitionRepository;
+    private final int premakeMonths;
+    private final Duration lockTimeout;
+
+    public PartitionMaintenanceJob(PartitionRepository partitionRepository,
+                                   @Value("${taskflow.partitions.premake-months:3}") int premakeMonths,
+                                   @Value("${taskflow.partitions.lock-timeout:5s}") Duration lockTimeout) {
+        this.partitionRepository = partitionRepository;
+        this.premakeMonths = premakeMonths;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${taskflow.partitions.check-interval:6h}")
+    public Mono<Void> createFuturePartitions() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plusMonths(premakeMonths);
+        return Flux.fromIterable(PARTITIONED_TABLES)
+                .concatMap(table -> partitionRepository.createMonthlyPartitions(table, now, until, lockTimeout)
+                        .doOnNext(created -> {
+                            if (created > 0) {
+                                log.info("Created {} monthly partitions of '{}' up to {}", created, table, until.toLocalDate());
+                            }
+                        })
+                        .doOnError(error -> log.error("Failed to create monthly partitions of '{}'", table, error))
+                        .onErrorComplete())
+                .then();
+    }
+}
@@ -0,0 +1,145 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import com.abarigena.taskflow.exception.SearchUnavailableException;
+import com.abarigena.taskflow.service.SearchService;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Полнотекстовый поиск средствами Postgres по колонкам search_vector (GIN-индексы из миграции V12).
+ * <p>
+ * Резерв для OpenSearch: ищет задачи и комментарии, возвращая документы с теми же полями, что и индекс
+ * OpenSearch. Запрос разбирается websearch_to_tsquery (кавычки, OR, минус), релевантность - ts_rank.
+ * Проекты и пользователи не индексируются, поиск по ним недоступен.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+public class PostgresSearchService implements SearchService {
+
+    private static final int DEFAULT_SIZE = 10;
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<Map<String, Object>> searchTasks(String query, String status, String priority, Integer from, Integer size) {
+        boolean fullText = StringUtils.hasText(query);
+        StringBuilder sql = new StringBuilder("select t.id, t.title, t.description, t.status, t.priority, t.deadline," +
+                " t.project_id, t.assigned_user_id, t.created_at, t.updated_at");
+        sql.append(fullText
+                ? ", ts_rank(t.search_vector, q) as score from tasks t, websearch_to_tsquery('simple', :query) q" +
+                  " where t.search_vector @@ q"
+                : ", null::real as score from tasks t where true");
+        sql.append(" and t.deleted_at is null");
+        if (StringUtils.hasText(status)) {
+            sql.append(" and t.status = :status");
+        }
+        if (StringUtils.hasText(priority)) {
+            sql.append(" and t.priority = :priority");
+        }
+        sql.append(fullText ? " order by score desc, t.id desc" : " order by t.created_at desc, t.id desc");
+        sql.append(" limit :size offset :from");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if (fullText) {
+            spec = spec.bind("query", query);
+        }
+        if (StringUtils.hasText(status)) {
+            spec = spec.bind("status", status);
+        }
+        if (StringUtils.hasText(priority)) {
+            spec = spec.bind("priority", priority);
+        }
+
+        return page(spec, from, size)
+                .map(row -> {
+                    Map<String, Object> task = document(row);
+                    task.put("title", row.get("title", String.class));
+                    task.put("description", row.get("description", String.class));
+                    task.put("status", row.get("status", String.class));
+                    task.put("priority", row.get("priority", String.class));
+                    task.put("deadline", row.get("deadline", LocalDateTime.class));
+                    task.put("projectId", row.get("project_id", Long.class));
+                    task.put("assignedUserId", row.get("assigned_user_id", Long.class));
+                    task.put("createdAt", row.get("created_at", LocalDateTime.class));
+                    task.put("updatedAt", row.get("updated_at", LocalDateTime.class));
+                    return task;
+                })
+                .all()
+                .doOnComplete(() -> log.debug("Postgres FTS: tasks searched, query={}, status={}, priority={}",
+                        query, status, priority));
+    }
+
+    @Override
+    public Flux<Map<String, Object>> searchComments(String query, Long taskId, Integer from, Integer size) {
+        boolean fullText = StringUtils.hasText(query);
+        StringBuilder sql = new StringBuilder("select c.id, c.context, c.task_id, c.user_id, c.created_at, c.updated_at");
+        sql.append(fullText
+                ? ", ts_rank(c.search_vector, q) as score from comments c, websearch_to_tsquery('simple', :query) q" +
+                  " where c.search_vector @@ q"
+                : ", null::real as score from comments c where true");
+        sql.append(" and exists (select 1 from tasks t where t.id = c.task_id and t.deleted_at is null)");
+        if (taskId != null) {
+            sql.append(" and c.task_id = :taskId");
+        }
+        sql.append(fullText ? " order by score desc, c.id desc" : " order by c.created_at desc, c.id desc");
+        sql.append(" limit :size offset :from");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if (fullText) {
+            spec = spec.bind("query", query);
+        }
+        if (taskId != null) {
+            spec = spec.bind("taskId", taskId);
+        }
+
+        return page(spec, from, size)
+                .map(row -> {
+                    Map<String, Object> comment = document(row);
+                    comment.put("content", row.get("context", String.class));
+                    comment.put("taskId", row.get("task_id", Long.class));
+                    comment.put("userId", row.get("user_id", Long.class));
+                    comment.put("createdAt", row.get("created_at", LocalDateTime.class));
+                    comment.put("updatedAt", row.get("updated_at", LocalDateTime.class));
+                    return comment;
+                })
+                .all()
+                .doOnComplete(() -> log.debug("Postgres FTS: comments searched, query={}, taskId={}", query, taskId));
+    }
+
+    @Override
+    public Flux<Map<String, Object>> searchProjects(String query, String status, Integer from, Integer size) {
+        return Flux.error(new SearchUnavailableException("projects", null));
+    }
+
+    @Override
+    public Flux<Map<String, Object>> searchUsers(String query, Boolean active, Integer from, Integer size) {
+        return Flux.error(new SearchUnavailableException("users", null));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec page(DatabaseClient.GenericExecuteSpec spec, Integer from, Integer size) {
+        return spec.bind("size", size != null ? size : DEFAULT_SIZE)
+                .bind("from", from != null ? from : 0);
+    }
+
+    private static Map<String, Object> document(Readable row) {
+        Long id = row.get("id", Long.class);
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("_id", String.valueOf(id));
+        document.put("_score", row.get("score", Float.class));
+        document.put("id", id);
+        return document;
+    }
+}
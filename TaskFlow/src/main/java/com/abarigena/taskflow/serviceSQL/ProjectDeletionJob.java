@@ -0,0 +1,90 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import com.abarigena.taskflow.service.RedisEventPublisher;
+import com.abarigena.taskflow.storeSQL.entity.ProjectDeletion;
+import com.abarigena.taskflow.storeSQL.repository.ProjectDeletionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Фоновое удаление проектов, поставленных в очередь ProjectService.deleteProject.
+ * <p>
+ * Комментарии, задачи и участники проекта удаляются пачками по chunk-size строк, каждая пачка - отдельная
+ * короткая транзакция, между пачками выдерживается пауза: блокировки не копятся, а WAL и поток CDC
+ * получают равномерную нагрузку вместо одной гигантской транзакции. После этого удаляется сам проект
+ * и публикуется событие удаления. Удаление берется в работу с арендой, которая продлевается каждой пачкой:
+ * экземпляры приложения не мешают друг другу, а после падения обработчика удаление продолжит другой.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "taskflow.project-deletion.jobs-enabled", havingValue = "true", matchIfMissing = true)
+public class ProjectDeletionJob {
+
+    private final ProjectDeletionRepository projectDeletionRepository;
+    private final RedisEventPublisher redisEventPublisher;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration lease;
+
+    public ProjectDeletionJob(ProjectDeletionRepository projectDeletionRepository,
+                              RedisEventPublisher redisEventPublisher,
+                              @Value("${taskflow.project-deletion.chunk-size:1000}") int chunkSize,
+                              @Value("${taskflow.project-deletion.pause:200ms}") Duration pause,
+                              @Value("${taskflow.project-deletion.lease:5m}") Duration lease) {
+        this.projectDeletionRepository = projectDeletionRepository;
+        this.redisEventPublisher = redisEventPublisher;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.lease = lease;
+    }
+
+    @Scheduled(fixedDelayString = "${taskflow.project-deletion.poll-interval:10s}")
+    public Mono<Void> processDeletions() {
+        return Mono.defer(this::processNext)
+                .repeat()
+                .takeWhile(Boolean::booleanValue)
+                .doOnError(error -> log.error("Failed to process project deletions", error))
+                .onErrorComplete()
+                .then();
+    }
+
+    /**
+     * Берет в работу и выполняет одно удаление.
+     *
+     * @return Mono с true, если удаление выполнено, или false, если очередь пуста.
+     */
+    private Mono<Boolean> processNext() {
+        return projectDeletionRepository.claimNext(lease)
+                .flatMap(deletion -> process(deletion).thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<ProjectDeletion> process(ProjectDeletion deletion) {
+        Long projectId = deletion.getProjectId();
+        log.info("Deleting project {} in chunks of {}", projectId, chunkSize);
+        return Flux.fromArray(ProjectDeletionRepository.Child.values())
+                .concatMap(child -> drain(projectId, child))
+                .then(projectDeletionRepository.complete(projectId))
+                .flatMap(completed -> redisEventPublisher.publishProjectDeleted(projectId).thenReturn(completed))
+                .doOnNext(completed -> log.info("Project {} deleted: {} tasks, {} comments, {} members",
+                        projectId, completed.getTasksDeleted(), completed.getCommentsDeleted(), completed.getMembersDeleted()));
+    }
+
+    /**
+     * Удаляет строки одного вида пачками, пока очередная пачка не окажется неполной.
+     */
+    private Mono<Long> drain(Long projectId, ProjectDeletionRepository.Child child) {
+        return projectDeletionRepository.deleteChunk(projectId, child, chunkSize, lease)
+                .expand(deleted -> deleted < chunkSize
+                        ? Mono.empty()
+                        : Mono.delay(pause).then(projectDeletionRepository.deleteChunk(projectId, child, chunkSize, lease)))
+                .reduce(0L, Long::sum);
+    }
+}
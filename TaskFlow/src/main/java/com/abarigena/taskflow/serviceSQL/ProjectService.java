@@ -1,11 +1,19 @@
 package com.abarigena.taskflow.serviceSQL;
 
+import com.abarigena.taskflow.dto.ProjectDeletionDto;
 import com.abarigena.taskflow.dto.ProjectDto;
+import com.abarigena.taskflow.dto.ProjectMembershipChange;
+import com.abarigena.taskflow.dto.ProjectSummary;
+import com.abarigena.taskflow.dto.ProjectTaskStatsDto;
 import com.abarigena.taskflow.dto.UserDto;
+import com.abarigena.taskflow.utility.KeysetCursor;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface ProjectService {
     /**
      * Получает все проекты с использованием пагинации.
@@ -30,6 +38,47 @@ public interface ProjectService {
      */
     Flux<ProjectDto> getProjectsByUserId(Long userId, Pageable pageable);
 
+    /**
+     * Получает страницу всех проектов после курсора (keyset-пагинация).
+     * @param after курсор последнего проекта предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return поток DTO проектов
+     */
+    Flux<ProjectDto> getAllProjectsAfter(KeysetCursor after, int limit);
+
+    /**
+     * Получает краткие представления всех проектов с использованием пагинации.
+     * @param pageable параметры пагинации
+     * @return поток кратких представлений проектов
+     */
+    Flux<ProjectSummary> getAllProjectSummaries(Pageable pageable);
+
+    /**
+     * Получает краткие представления проектов владельца с использованием пагинации.
+     * @param ownerId идентификатор владельца
+     * @param pageable параметры пагинации
+     * @return поток кратких представлений проектов
+     */
+    Flux<ProjectSummary> getProjectSummariesByOwnerId(Long ownerId, Pageable pageable);
+
+    /**
+     * Получает страницу проектов владельца после курсора (keyset-пагинация).
+     * @param ownerId идентификатор владельца
+     * @param after курсор последнего проекта предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return поток DTO проектов
+     */
+    Flux<ProjectDto> getProjectsByOwnerIdAfter(Long ownerId, KeysetCursor after, int limit);
+
+    /**
+     * Получает страницу проектов, в которых участвует пользователь, после курсора (keyset-пагинация).
+     * @param userId идентификатор пользователя
+     * @param after курсор последнего проекта предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return поток DTO проектов
+     */
+    Flux<ProjectDto> getProjectsByUserIdAfter(Long userId, KeysetCursor after, int limit);
+
     /**
      * Получает проект по его идентификатору.
      * @param projectId идентификатор проекта
@@ -53,11 +102,18 @@ public interface ProjectService {
     Mono<ProjectDto> updateProject(Long id, ProjectDto projectDto);
 
     /**
-     * Удаляет проект по его идентификатору.
+     * Запускает фоновое удаление проекта: проект переходит в статус DELETING, его строки удаляются пачками.
      * @param id идентификатор проекта
-     * @return моно без содержимого
+     * @return моно хода удаления
      */
-    Mono<Void> deleteProject(Long id);
+    Mono<ProjectDeletionDto> deleteProject(Long id);
+
+    /**
+     * Находит ход фонового удаления проекта.
+     * @param id идентификатор проекта
+     * @return моно хода удаления
+     */
+    Mono<ProjectDeletionDto> getProjectDeletion(Long id);
 
     /**
      * Добавляет пользователя в проект.
@@ -81,5 +137,47 @@ public interface ProjectService {
      * @return поток DTO пользователей
      */
     Flux<UserDto> getUsersInProject(Long projectId);
-}
 
+    /**
+     * Добавляет пользователей в проект одним запросом.
+     * @param projectId идентификатор проекта
+     * @param userIds идентификаторы пользователей
+     * @return моно с результатом изменения состава
+     */
+    Mono<ProjectMembershipChange> addUsersToProject(Long projectId, List<Long> userIds);
+
+    /**
+     * Удаляет пользователей из проекта одним запросом.
+     * @param projectId идентификатор проекта
+     * @param userIds идентификаторы пользователей
+     * @return моно с результатом изменения состава
+     */
+    Mono<ProjectMembershipChange> deleteUsersFromProject(Long projectId, List<Long> userIds);
+
+    /**
+     * Проверяет, состоит ли пользователь в проекте.
+     * @param projectId идентификатор проекта
+     * @param userId идентификатор пользователя
+     * @return моно с результатом проверки
+     */
+    Mono<Boolean> isUserInProject(Long projectId, Long userId);
+
+    /**
+     * Получает статистику задач проекта по статусам и приоритетам, включая просроченные задачи.
+     * @param projectId идентификатор проекта
+     * @return моно статистики проекта
+     */
+    Mono<ProjectTaskStatsDto> getProjectStats(Long projectId);
+
+    /**
+     * Пересчитывает статистику задач всех проектов с нуля.
+     * @return моно с моментом, на который посчитана просрочка
+     */
+    Mono<LocalDateTime> rebuildProjectStats();
+
+    /**
+     * Досчитывает просроченные задачи, срок которых истек после предыдущего пересчета.
+     * @return моно с моментом, на который посчитана просрочка
+     */
+    Mono<LocalDateTime> refreshOverdueProjectStats();
+}
@@ -1,6 +1,11 @@
 package com.abarigena.taskflow.serviceSQL;
 
+import com.abarigena.taskflow.config.ReadWriteRoutingConnectionFactory;
+import com.abarigena.taskflow.dto.ProjectDeletionDto;
 import com.abarigena.taskflow.dto.ProjectDto;
+import com.abarigena.taskflow.dto.ProjectMembershipChange;
+import com.abarigena.taskflow.dto.ProjectSummary;
+import com.abarigena.taskflow.dto.ProjectTaskStatsDto;
 import com.abarigena.taskflow.dto.UserDto;
 import com.abarigena.taskflow.exception.ResourceNotFoundException;
 import com.abarigena.taskflow.mapper.ProjectMapper;
@@ -8,22 +13,42 @@ import com.abarigena.taskflow.mapper.UserMapper;
 import com.abarigena.taskflow.service.ReactiveRedisService;
 import com.abarigena.taskflow.service.RedisEventPublisher;
 import com.abarigena.taskflow.storeSQL.entity.Project;
+import com.abarigena.taskflow.storeSQL.entity.ProjectDeletion;
+import com.abarigena.taskflow.storeSQL.entity.ProjectTaskStat;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.storeSQL.repository.PartialUpdateRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectDeletionRepository;
 import com.abarigena.taskflow.storeSQL.repository.ProjectRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectTaskStatsRepository;
 import com.abarigena.taskflow.storeSQL.repository.UserRepository;
+import com.abarigena.taskflow.utility.ForeignKeyViolations;
+import com.abarigena.taskflow.utility.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class ProjectServiceImpl implements ProjectService {
 
     private final ProjectRepository projectRepository;
@@ -32,9 +57,26 @@ public class ProjectServiceImpl implements ProjectService {
     private final UserRepository userRepository;
     private final ReactiveRedisService reactiveRedisService;
     private final RedisEventPublisher redisEventPublisher;
+    private final PartialUpdateRepository partialUpdateRepository;
+    private final ProjectTaskStatsRepository projectTaskStatsRepository;
+    private final ProjectDeletionRepository projectDeletionRepository;
 
     private static final String PROJECT_ID_CACHE_KEY_PREFIX = "project:id:";
     private static final Duration PROJECT_CACHE_TTL = Duration.ofHours(1);
+    private static final String PROJECT_MEMBERS_CACHE_KEY_PREFIX = "project:members:";
+    private static final Duration PROJECT_MEMBERS_CACHE_TTL = Duration.ofMinutes(10);
+
+    /**
+     * Служебный элемент множества участников: Redis не хранит пустые множества, а проект без участников
+     * тоже нужно закэшировать. Идентификаторы пользователей начинаются с 1.
+     */
+    private static final long NO_MEMBERS = 0L;
+
+    /**
+     * Свойства проекта, которые можно изменить через updateProject.
+     */
+    private static final List<String> UPDATABLE_PROPERTIES = List.of(
+            "name", "description", "status", "ownerId", "updatedAt");
 
     /**
      * Находит все проекты с поддержкой пагинации и сортировки.
@@ -76,6 +118,70 @@ public class ProjectServiceImpl implements ProjectService {
                 .map(projectMapper::toDto);
     }
 
+    /**
+     * Находит страницу всех проектов, следующих за курсором, в порядке created_at DESC, id DESC.
+     *
+     * @param after Keyset-позиция последнего проекта предыдущей страницы ({@link KeysetCursor#START} для первой страницы).
+     * @param limit Максимальное количество записей.
+     * @return Поток DTO проектов.
+     */
+    @Override
+    public Flux<ProjectDto> getAllProjectsAfter(KeysetCursor after, int limit) {
+        return projectRepository.findAllAfter(after.createdAt(), after.id(), limit)
+                .map(projectMapper::toDto);
+    }
+
+    /**
+     * Находит краткие представления всех проектов с поддержкой пагинации и сортировки.
+     *
+     * @param pageable Параметры пагинации и сортировки.
+     * @return Поток кратких представлений проектов.
+     */
+    @Override
+    public Flux<ProjectSummary> getAllProjectSummaries(Pageable pageable) {
+        return projectRepository.findSummariesBy(pageable);
+    }
+
+    /**
+     * Находит краткие представления проектов владельца с поддержкой пагинации и сортировки.
+     *
+     * @param ownerId  Идентификатор владельца проектов.
+     * @param pageable Параметры пагинации и сортировки.
+     * @return Поток кратких представлений проектов.
+     */
+    @Override
+    public Flux<ProjectSummary> getProjectSummariesByOwnerId(Long ownerId, Pageable pageable) {
+        return projectRepository.findSummariesByOwnerId(ownerId, pageable);
+    }
+
+    /**
+     * Находит страницу проектов владельца, следующих за курсором, в порядке created_at DESC, id DESC.
+     *
+     * @param ownerId Идентификатор владельца проектов.
+     * @param after   Keyset-позиция последнего проекта предыдущей страницы.
+     * @param limit   Максимальное количество записей.
+     * @return Поток DTO проектов.
+     */
+    @Override
+    public Flux<ProjectDto> getProjectsByOwnerIdAfter(Long ownerId, KeysetCursor after, int limit) {
+        return projectRepository.findByOwnerIdAfter(ownerId, after.createdAt(), after.id(), limit)
+                .map(projectMapper::toDto);
+    }
+
+    /**
+     * Находит страницу проектов, в которых участвует пользователь, следующих за курсором, в порядке created_at DESC, id DESC.
+     *
+     * @param userId Идентификатор пользователя.
+     * @param after  Keyset-позиция последнего проекта предыдущей страницы.
+     * @param limit  Максимальное количество записей.
+     * @return Поток DTO проектов.
+     */
+    @Override
+    public Flux<ProjectDto> getProjectsByUserIdAfter(Long userId, KeysetCursor after, int limit) {
+        return projectRepository.findProjectsByUserIdAfter(userId, after.createdAt(), after.id(), limit)
+                .map(projectMapper::toDto);
+    }
+
     /**
      * Находит проект по его идентификатору.
      *
@@ -87,7 +193,7 @@ public class ProjectServiceImpl implements ProjectService {
         String cacheKey = PROJECT_ID_CACHE_KEY_PREFIX + projectId;
         return reactiveRedisService.getOrSet(
                 cacheKey,
-                () -> projectRepository.findById(projectId)
+                () -> ReadWriteRoutingConnectionFactory.onPrimary(projectRepository.findById(projectId))
                         .map(projectMapper::toDto)
                         .switchIfEmpty(Mono.error(new ResourceNotFoundException("project", "id", projectId))),
                 PROJECT_CACHE_TTL,
@@ -121,28 +227,30 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     /**
-     * Обновляет существующий проект по его идентификатору. Выполняет проверку существования нового владельца, если ID владельца изменяется.
+     * Частично обновляет проект одним запросом UPDATE ... RETURNING: меняются только переданные (ненулевые) поля.
+     * Если в DTO указана версия, обновление выполняется только при ее совпадении с текущей.
+     * Существование нового владельца проверяется внешним ключом. Удаляемый проект (статус DELETING) не обновляется.
      *
      * @param id         Идентификатор проекта для обновления.
-     * @param projectDto DTO с данными для обновления проекта.
-     * @return Mono, содержащий DTO обновленного проекта, или ошибку ResourceNotFoundException, если проект или новый владелец не найдены.
+     * @param projectDto DTO с данными для обновления проекта (version - ожидаемая версия, необязательно).
+     * @return Mono, содержащий DTO обновленного проекта, ошибку ResourceNotFoundException, если проект или новый владелец
+     * не найдены или проект удаляется, или OptimisticLockingFailureException при несовпадении версии.
      */
     @Override
     @Transactional
     public Mono<ProjectDto> updateProject(Long id, ProjectDto projectDto) {
-        return projectRepository.findById(id)
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("project", "id", id)))
-                .flatMap(existingProject -> {
-                    projectMapper.updateEntityFromDto(projectDto, existingProject);
-                    existingProject.setUpdatedAt(LocalDateTime.now());
-                    Mono<Boolean> ownerCheck = userRepository.existsById(existingProject.getOwnerId())
-                            .filter(Boolean::booleanValue)
-                            .switchIfEmpty(Mono.error(new ResourceNotFoundException("Owner", "id", existingProject.getOwnerId())));
-
-                    return Mono.when(ownerCheck)
-                            .then(Mono.just(existingProject));
-                })
-                .flatMap(projectRepository::save)
+        if (projectDto.getStatus() == Project.Status.DELETING) {
+            return Mono.error(new IllegalArgumentException("Статус DELETING устанавливается только удалением проекта"));
+        }
+        Project patch = projectMapper.toEntity(projectDto);
+        patch.setUpdatedAt(LocalDateTime.now());
+
+        return partialUpdateRepository.update(Project.class, id, projectDto.getVersion(), patch, UPDATABLE_PROPERTIES,
+                        Map.of("status", Project.Status.DELETING))
+                .onErrorMap(DataIntegrityViolationException.class, ForeignKeyViolations.translate(Map.of(
+                        "fk_project_owner", () -> new ResourceNotFoundException("Owner", "id", patch.getOwnerId()))))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new ResourceNotFoundException("project", "id", id))))
+                .map(PartialUpdateRepository.Result::entity)
                 .flatMap(savedProject ->
                         redisEventPublisher.publishProjectUpdated(savedProject.getId())
                                 .thenReturn(savedProject)
@@ -151,22 +259,36 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     /**
-     * Удаляет проект по его идентификатору.
+     * Запускает фоновое удаление проекта. Запрос только переводит проект в статус DELETING и ставит его
+     * в очередь: комментарии, задачи и участников удаляет пачками ProjectDeletionJob, поэтому удаление
+     * большого проекта не держит блокировки и не порождает одну огромную транзакцию в WAL и CDC.
+     * Повторный запрос возвращает ход уже идущего удаления.
      *
      * @param id Идентификатор проекта для удаления.
-     * @return Пустой Mono, сигнализирующий о завершении операции, или ошибку ResourceNotFoundException, если проект не найден.
+     * @return Mono с ходом удаления или ошибку ResourceNotFoundException, если проект не найден.
      */
     @Override
     @Transactional
-    public Mono<Void> deleteProject(Long id) {
-        return projectRepository.findById(id)
+    public Mono<ProjectDeletionDto> deleteProject(Long id) {
+        return projectDeletionRepository.request(id)
+                .filter(requested -> requested > 0)
+                .flatMap(requested -> redisEventPublisher.publishProjectUpdated(id))
+                .then(projectDeletionRepository.findById(id))
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("project", "id", id)))
-                .flatMap(existingProject ->
-                        projectRepository.deleteById(existingProject.getId())
-                                .then(
-                                        redisEventPublisher.publishProjectDeleted(existingProject.getId())
-                                )
-                );
+                .map(ProjectServiceImpl::toDeletionDto);
+    }
+
+    /**
+     * Находит ход фонового удаления проекта. Доступен и после того, как проект удален.
+     *
+     * @param id Идентификатор проекта.
+     * @return Mono с ходом удаления или ошибку ResourceNotFoundException, если удаление не запрашивалось.
+     */
+    @Override
+    public Mono<ProjectDeletionDto> getProjectDeletion(Long id) {
+        return projectDeletionRepository.findById(id)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("project deletion", "projectId", id)))
+                .map(ProjectServiceImpl::toDeletionDto);
     }
 
     /**
@@ -189,7 +311,9 @@ public class ProjectServiceImpl implements ProjectService {
                 .flatMap(user -> {
                     return projectRepository.addUserToProject(projectId, userId);
                 })
-                ;
+                .onErrorMap(DataIntegrityViolationException.class, ForeignKeyViolations.translate(Map.of(
+                        "fk_project_users_project", () -> new ResourceNotFoundException("project", "id", projectId))))
+                .then(evictMembers(projectId));
     }
 
     /**
@@ -211,7 +335,45 @@ public class ProjectServiceImpl implements ProjectService {
                 )
                 .flatMap(user -> {
                     return projectRepository.deleteUserFromProject(projectId, userId);
-                });
+                })
+                .then(evictMembers(projectId));
+    }
+
+    /**
+     * Добавляет пользователей в проект одним многострочным INSERT ... ON CONFLICT DO NOTHING.
+     * Существование проекта проверяется внешним ключом (удаляемый проект считается отсутствующим),
+     * несуществующие пользователи пропускаются.
+     *
+     * @param projectId Идентификатор проекта.
+     * @param userIds   Идентификаторы пользователей.
+     * @return Mono с добавленными и пропущенными пользователями или ошибку ResourceNotFoundException, если проект не найден
+     * или удаляется.
+     */
+    @Override
+    @Transactional
+    public Mono<ProjectMembershipChange> addUsersToProject(Long projectId, List<Long> userIds) {
+        Set<Long> requested = new LinkedHashSet<>(userIds);
+        return projectRepository.addUsersToProject(projectId, requested)
+                .collectList()
+                .onErrorMap(DataIntegrityViolationException.class, ForeignKeyViolations.translate(Map.of(
+                        "fk_project_users_project", () -> new ResourceNotFoundException("project", "id", projectId))))
+                .flatMap(added -> changeMembers(projectId, requested, added));
+    }
+
+    /**
+     * Удаляет пользователей из проекта одним запросом DELETE.
+     *
+     * @param projectId Идентификатор проекта.
+     * @param userIds   Идентификаторы пользователей.
+     * @return Mono с удаленными и пропущенными пользователями или ошибку ResourceNotFoundException, если проект не найден.
+     */
+    @Override
+    @Transactional
+    public Mono<ProjectMembershipChange> deleteUsersFromProject(Long projectId, List<Long> userIds) {
+        Set<Long> requested = new LinkedHashSet<>(userIds);
+        return projectRepository.deleteUsersFromProject(projectId, requested)
+                .collectList()
+                .flatMap(removed -> changeMembers(projectId, requested, removed));
     }
 
     /**
@@ -224,10 +386,204 @@ public class ProjectServiceImpl implements ProjectService {
     @Override
     public Flux<UserDto> getUsersInProject(Long projectId) {
 
-        return projectRepository.findById(projectId)
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("project", "id", projectId)))
-                .flatMapMany(project -> projectRepository.findUsersInProject(project.getId()))
+        return getMemberIds(projectId)
+                .flatMapMany(memberIds -> memberIds.isEmpty() ? Flux.empty() : userRepository.findAllById(memberIds))
                 .map(userMapper::toDto);
 
     }
+
+    /**
+     * Проверяет участие пользователя в проекте. При закэшированном составе это одна команда SISMEMBER
+     * после проверки наличия ключа, без обращения к базе.
+     *
+     * @param projectId Идентификатор проекта.
+     * @param userId    Идентификатор пользователя.
+     * @return Mono с результатом проверки или ошибку ResourceNotFoundException, если проект не найден.
+     */
+    @Override
+    public Mono<Boolean> isUserInProject(Long projectId, Long userId) {
+        String cacheKey = PROJECT_MEMBERS_CACHE_KEY_PREFIX + projectId;
+        return reactiveRedisService.exists(cacheKey)
+                .flatMap(cached -> cached
+                        ? reactiveRedisService.setIsMember(cacheKey, userId)
+                        : loadMemberIds(projectId).map(memberIds -> memberIds.contains(userId)));
+    }
+
+    /**
+     * Получает статистику задач проекта из project_task_stats: чтение по первичному ключу,
+     * не больше строки на каждую пару статус/приоритет, без агрегации по tasks.
+     *
+     * @param projectId Идентификатор проекта.
+     * @return Mono со статистикой проекта или ошибку ResourceNotFoundException, если проект не найден.
+     */
+    @Override
+    public Mono<ProjectTaskStatsDto> getProjectStats(Long projectId) {
+        return projectTaskStatsRepository.findOverdueAsOf()
+                .flatMap(overdueAsOf -> projectTaskStatsRepository.findByProjectId(projectId)
+                        .collectList()
+                        .flatMap(stats -> (stats.isEmpty() ? projectRepository.existsById(projectId) : Mono.just(true))
+                                .filter(Boolean::booleanValue)
+                                .switchIfEmpty(Mono.error(new ResourceNotFoundException("project", "id", projectId)))
+                                .map(exists -> toStatsDto(projectId, stats, overdueAsOf))));
+    }
+
+    /**
+     * Пересчитывает статистику задач всех проектов с нуля.
+     *
+     * @return Mono с моментом, на который посчитана просрочка.
+     */
+    @Override
+    @Transactional
+    public Mono<LocalDateTime> rebuildProjectStats() {
+        return projectTaskStatsRepository.rebuild()
+                .doOnNext(overdueAsOf -> log.info("Project task stats rebuilt, overdue as of {}", overdueAsOf));
+    }
+
+    /**
+     * Досчитывает просроченные задачи, срок которых истек после предыдущего пересчета.
+     *
+     * @return Mono с моментом, на который посчитана просрочка.
+     */
+    @Override
+    @Transactional
+    public Mono<LocalDateTime> refreshOverdueProjectStats() {
+        return projectTaskStatsRepository.refreshOverdue();
+    }
+
+    private ProjectTaskStatsDto toStatsDto(Long projectId, List<ProjectTaskStat> stats, LocalDateTime overdueAsOf) {
+        Map<Task.Status, Long> byStatus = zeroCounts(Task.Status.class);
+        Map<Task.Priority, Long> byPriority = zeroCounts(Task.Priority.class);
+        Map<Task.Priority, Long> overdueByPriority = zeroCounts(Task.Priority.class);
+        Map<Task.Status, Map<Task.Priority, Long>> byStatusAndPriority = new EnumMap<>(Task.Status.class);
+        for (Task.Status status : Task.Status.values()) {
+            byStatusAndPriority.put(status, zeroCounts(Task.Priority.class));
+        }
+
+        long total = 0;
+        long overdue = 0;
+        for (ProjectTaskStat stat : stats) {
+            total += stat.getTaskCount();
+            overdue += stat.getOverdueCount();
+            byStatus.merge(stat.getStatus(), stat.getTaskCount(), Long::sum);
+            byPriority.merge(stat.getPriority(), stat.getTaskCount(), Long::sum);
+            overdueByPriority.merge(stat.getPriority(), stat.getOverdueCount(), Long::sum);
+            byStatusAndPriority.get(stat.getStatus()).merge(stat.getPriority(), stat.getTaskCount(), Long::sum);
+        }
+
+        return ProjectTaskStatsDto.builder()
+                .projectId(projectId)
+                .totalTasks(total)
+                .overdueTasks(overdue)
+                .overdueAsOf(overdueAsOf)
+                .byStatus(byStatus)
+                .byPriority(byPriority)
+                .overdueByPriority(overdueByPriority)
+                .byStatusAndPriority(byStatusAndPriority)
+                .build();
+    }
+
+    /**
+     * Получает идентификаторы участников проекта из множества Redis, а при промахе загружает их из project_users.
+     * Множество сбрасывается при каждом изменении состава; гонку загрузки с изменением ограничивает TTL.
+     */
+    private Mono<List<Long>> getMemberIds(Long projectId) {
+        return reactiveRedisService.setMembers(PROJECT_MEMBERS_CACHE_KEY_PREFIX + projectId, Number.class)
+                .map(Number::longValue)
+                .collectList()
+                .flatMap(cached -> cached.isEmpty()
+                        ? loadMemberIds(projectId)
+                        : Mono.just(cached.stream().filter(id -> id != NO_MEMBERS).toList()));
+    }
+
+    private Mono<List<Long>> loadMemberIds(Long projectId) {
+        String cacheKey = PROJECT_MEMBERS_CACHE_KEY_PREFIX + projectId;
+        return projectRepository.findUserIdsInProject(projectId)
+                .collectList()
+                .flatMap(memberIds -> requireProject(projectId, !memberIds.isEmpty()).thenReturn(memberIds))
+                .flatMap(memberIds -> {
+                    Long[] members = new Long[memberIds.size() + 1];
+                    members[0] = NO_MEMBERS;
+                    for (int i = 0; i < memberIds.size(); i++) {
+                        members[i + 1] = memberIds.get(i);
+                    }
+                    return reactiveRedisService.setAdd(cacheKey, members)
+                            .then(reactiveRedisService.expire(cacheKey, PROJECT_MEMBERS_CACHE_TTL))
+                            .thenReturn(memberIds);
+                });
+    }
+
+    private Mono<ProjectMembershipChange> changeMembers(Long projectId, Set<Long> requested, List<Long> changed) {
+        Set<Long> changedSet = new HashSet<>(changed);
+        return requireProject(projectId, !changed.isEmpty())
+                .then(changed.isEmpty() ? Mono.empty() : evictMembers(projectId))
+                .then(Mono.fromSupplier(() -> ProjectMembershipChange.builder()
+                        .projectId(projectId)
+                        .changedUserIds(requested.stream().filter(changedSet::contains).toList())
+                        .unchangedUserIds(requested.stream().filter(id -> !changedSet.contains(id)).toList())
+                        .build()));
+    }
+
+    /**
+     * Проверяет существование проекта, если этого не доказал уже выполненный запрос.
+     */
+    private Mono<Void> requireProject(Long projectId, boolean knownToExist) {
+        if (knownToExist) {
+            return Mono.empty();
+        }
+        return projectRepository.existsById(projectId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("project", "id", projectId)))
+                .then();
+    }
+
+    /**
+     * Сбрасывает закэшированный состав проекта после фиксации транзакции. Сброс до фиксации не помогает:
+     * параллельное чтение успевает заново заполнить кэш составом, который видит база до фиксации.
+     * Вне транзакции кэш сбрасывается сразу.
+     */
+    private Mono<Void> evictMembers(Long projectId) {
+        Mono<Void> evict = reactiveRedisService.evict(PROJECT_MEMBERS_CACHE_KEY_PREFIX + projectId).then();
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .map(synchronizationManager -> {
+                    synchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return evict.onErrorResume(error -> {
+                                log.error("Не удалось сбросить кэш участников проекта {}", projectId, error);
+                                return Mono.empty();
+                            });
+                        }
+                    });
+                    return true;
+                })
+                .onErrorResume(NoTransactionException.class, error -> Mono.empty())
+                .switchIfEmpty(evict.thenReturn(false))
+                .then();
+    }
+
+    private static ProjectDeletionDto toDeletionDto(ProjectDeletion deletion) {
+        ProjectDeletionDto.State state = deletion.getCompletedAt() != null ? ProjectDeletionDto.State.COMPLETED
+                : deletion.getStartedAt() != null ? ProjectDeletionDto.State.IN_PROGRESS
+                : ProjectDeletionDto.State.PENDING;
+        return ProjectDeletionDto.builder()
+                .projectId(deletion.getProjectId())
+                .state(state)
+                .requestedAt(deletion.getRequestedAt())
+                .startedAt(deletion.getStartedAt())
+                .completedAt(deletion.getCompletedAt())
+                .tasksTotal(deletion.getTasksTotal())
+                .tasksDeleted(deletion.getTasksDeleted())
+                .commentsDeleted(deletion.getCommentsDeleted())
+                .membersDeleted(deletion.getMembersDeleted())
+                .build();
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> zeroCounts(Class<E> type) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            counts.put(constant, 0L);
+        }
+        return counts;
+    }
 }
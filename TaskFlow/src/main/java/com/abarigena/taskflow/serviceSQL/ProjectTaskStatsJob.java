@@ -0,0 +1,41 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Фоновое обслуживание таблицы project_task_stats.
+ * <p>
+ * Счетчики задач поддерживает триггер, но просрочка зависит от времени: задачи, срок которых истек
+ * после их последнего изменения, досчитываются частым инкрементальным пересчетом. Полный пересчет
+ * по расписанию исправляет расхождения после ручных правок данных. Несколько экземпляров приложения
+ * могут выполнять задачи одновременно: функции пересчета в базе сериализуются блокировкой.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "taskflow.stats.jobs-enabled", havingValue = "true", matchIfMissing = true)
+public class ProjectTaskStatsJob {
+
+    private final ProjectService projectService;
+
+    @Scheduled(fixedDelayString = "${taskflow.stats.overdue-refresh-interval:1m}")
+    public Mono<Void> refreshOverdue() {
+        return projectService.refreshOverdueProjectStats()
+                .doOnError(error -> log.error("Failed to refresh overdue project task stats", error))
+                .onErrorComplete()
+                .then();
+    }
+
+    @Scheduled(cron = "${taskflow.stats.repair-cron:0 30 3 * * *}")
+    public Mono<Void> repair() {
+        return projectService.rebuildProjectStats()
+                .doOnError(error -> log.error("Failed to rebuild project task stats", error))
+                .onErrorComplete()
+                .then();
+    }
+}
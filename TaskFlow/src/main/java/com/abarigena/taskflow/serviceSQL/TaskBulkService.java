@@ -0,0 +1,34 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import com.abarigena.taskflow.dto.BulkItemResult;
+import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.dto.TaskTransitionResult;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface TaskBulkService {
+    /**
+     * Создает задачи пакетами. Ошибка в одном элементе не прерывает обработку остальных.
+     * @param tasks поток DTO новых задач
+     * @return поток результатов по каждому элементу в порядке входного потока
+     */
+    Flux<BulkItemResult> createTasks(Flux<TaskDto> tasks);
+
+    /**
+     * Частично обновляет задачи пакетами: изменяются только заполненные поля, id обязателен.
+     * @param tasks поток DTO с идентификаторами и изменяемыми полями
+     * @return поток результатов по каждому элементу в порядке входного потока
+     */
+    Flux<BulkItemResult> updateTasks(Flux<TaskDto> tasks);
+
+    /**
+     * Переводит задачи в указанный статус одним запросом.
+     * @param ids идентификаторы задач
+     * @param status целевой статус
+     * @return моно с переведенными и пропущенными задачами
+     */
+    Mono<TaskTransitionResult> transitionTasks(List<Long> ids, Task.Status status);
+}
@@ -0,0 +1,410 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import com.abarigena.taskflow.dto.BulkItemResult;
+import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.dto.TaskHistoryDto;
+import com.abarigena.taskflow.dto.TaskTransitionResult;
+import com.abarigena.taskflow.exception.ResourceNotFoundException;
+import com.abarigena.taskflow.mapper.TaskHistoryMapper;
+import com.abarigena.taskflow.mapper.TaskMapper;
+import com.abarigena.taskflow.producer.RabbitProducer;
+import com.abarigena.taskflow.service.RedisEventPublisher;
+import com.abarigena.taskflow.serviceNoSQL.TaskHistoryService;
+import com.abarigena.taskflow.storeNoSQL.entity.TaskHistory;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.storeSQL.repository.ProjectRepository;
+import com.abarigena.taskflow.storeSQL.repository.TaskBatchRepository;
+import com.abarigena.taskflow.storeSQL.repository.TaskRepository;
+import com.abarigena.taskflow.storeSQL.repository.UserRepository;
+import com.abarigena.taskflow.utility.SecurityUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетное создание, обновление и смена статуса задач.
+ * <p>
+ * Входной поток режется на пачки по taskflow.bulk.chunk-size элементов. Для каждой пачки:
+ * ссылки на проекты и пользователей проверяются одним запросом на таблицу, запись выполняется одним
+ * батчем R2DBC-выражений в транзакции, история сохраняется одной вставкой в MongoDB, а уведомления
+ * отправляются через один канал RabbitMQ. Ошибки отдельных элементов возвращаются в результатах
+ * и не прерывают обработку пачки.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskBulkServiceImpl implements TaskBulkService {
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final TaskMapper taskMapper;
+    private final TaskHistoryService taskHistoryService;
+    private final TaskHistoryMapper taskHistoryMapper;
+    private final RabbitProducer rabbitProducer;
+    private final RedisEventPublisher redisEventPublisher;
+    private final SecurityUtils securityUtils;
+    private final TransactionalOperator transactionalOperator;
+    private final Validator validator;
+
+    @Value("${taskflow.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Создает задачи пакетами. Каждый элемент проверяется теми же ограничениями TaskDto, что и тело одиночного
+     * создания; нарушения возвращаются как ошибка элемента. Незаполненные статус и приоритет получают значения
+     * TODO и MEDIUM, как при одиночном создании.
+     *
+     * @param tasks Поток DTO новых задач (JSON-массив или NDJSON).
+     * @return Поток результатов по каждому элементу в порядке входного потока.
+     */
+    @Override
+    public Flux<BulkItemResult> createTasks(Flux<TaskDto> tasks) {
+        return tasks.index()
+                .buffer(chunkSize)
+                .concatMap(this::createChunk);
+    }
+
+    /**
+     * Частично обновляет задачи пакетами: в существующую задачу переносятся только заполненные поля DTO.
+     *
+     * @param tasks Поток DTO с идентификаторами задач (JSON-массив или NDJSON).
+     * @return Поток результатов по каждому элементу в порядке входного потока.
+     */
+    @Override
+    public Flux<BulkItemResult> updateTasks(Flux<TaskDto> tasks) {
+        return tasks.index()
+                .buffer(chunkSize)
+                .concatMap(this::updateChunk);
+    }
+
+    /**
+     * Переводит задачи в статус одним UPDATE ... RETURNING в транзакции. Затем, как и в пакетном обновлении,
+     * история пишется одной вставкой в MongoDB, уведомления уходят через один канал RabbitMQ, а события
+     * инвалидации публикуются без ожидания друг друга.
+     *
+     * @param ids    Идентификаторы задач (повторы игнорируются).
+     * @param status Целевой статус.
+     * @return Mono с переведенными и пропущенными задачами в порядке запроса.
+     */
+    @Override
+    public Mono<TaskTransitionResult> transitionTasks(List<Long> ids, Task.Status status) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        return taskRepository.transitionStatus(requested, status, LocalDateTime.now())
+                .as(transactionalOperator::transactional)
+                .collectList()
+                .flatMap(transitions -> {
+                    List<Task> tasks = transitions.stream().map(TaskBatchRepository.StatusTransition::task).toList();
+                    Map<Long, Task.Status> previous = transitions.stream().collect(Collectors.toMap(
+                            transition -> transition.task().getId(), TaskBatchRepository.StatusTransition::previousStatus));
+                    log.info("Переведено в статус {} задач: {} из {}", status, tasks.size(), requested.size());
+
+                    return recordHistory(tasks, TaskHistory.Action.UPDATE, task -> Map.of(
+                                    "message", "Task status changed",
+                                    "previousStatus", previous.get(task.getId()).name()))
+                            .then(publishUpdated(tasks))
+                            .then(Mono.fromSupplier(() -> TaskTransitionResult.builder()
+                                    .status(status)
+                                    .transitionedIds(requested.stream().filter(previous::containsKey).toList())
+                                    .skippedIds(requested.stream().filter(id -> !previous.containsKey(id)).toList())
+                                    .build()));
+                });
+    }
+
+    private Flux<BulkItemResult> createChunk(List<Tuple2<Long, TaskDto>> chunk) {
+        Map<Long, BulkItemResult> results = new TreeMap<>();
+        List<Tuple2<Long, TaskDto>> valid = new ArrayList<>();
+        for (Tuple2<Long, TaskDto> item : chunk) {
+            String error = violations(item.getT2());
+            if (error != null) {
+                results.put(item.getT1(), BulkItemResult.failed(item.getT1(), null, error));
+            } else {
+                valid.add(item);
+            }
+        }
+
+        List<Long> indexes = new ArrayList<>();
+        List<Task> toInsert = new ArrayList<>();
+
+        return existingReferences(valid.stream().map(Tuple2::getT2).toList())
+                .flatMap(references -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    for (Tuple2<Long, TaskDto> item : valid) {
+                        TaskDto dto = item.getT2();
+                        String error = references.check(dto.getProjectId(), dto.getAssignedUserId());
+                        if (error != null) {
+                            results.put(item.getT1(), BulkItemResult.failed(item.getT1(), null, error));
+                            continue;
+                        }
+                        Task task = taskMapper.toEntity(dto);
+                        task.setId(null);
+                        task.setCreatedAt(now);
+                        task.setUpdatedAt(now);
+                        if (task.getStatus() == null) {
+                            task.setStatus(Task.Status.TODO);
+                        }
+                        if (task.getPriority() == null) {
+                            task.setPriority(Task.Priority.MEDIUM);
+                        }
+                        indexes.add(item.getT1());
+                        toInsert.add(task);
+                    }
+
+                    if (toInsert.isEmpty()) {
+                        return Mono.<List<Long>>empty();
+                    }
+                    return taskRepository.insertAll(toInsert)
+                            .as(transactionalOperator::transactional)
+                            .collectList();
+                })
+                .flatMap(ids -> {
+                    for (int i = 0; i < ids.size(); i++) {
+                        Long index = indexes.get(i);
+                        toInsert.get(i).setId(ids.get(i));
+                        results.put(index, new BulkItemResult(index, ids.get(i), BulkItemResult.Status.CREATED, null));
+                    }
+                    return recordHistory(toInsert, TaskHistory.Action.CREATE);
+                })
+                .onErrorResume(error -> {
+                    log.error("Пакетное создание {} задач завершилось ошибкой: {}", indexes.size(), error.getMessage());
+                    indexes.forEach(index -> results.putIfAbsent(index, BulkItemResult.failed(index, null, error.getMessage())));
+                    return Mono.empty();
+                })
+                .thenMany(Flux.defer(() -> Flux.fromIterable(results.values())));
+    }
+
+    /**
+     * Проверяет DTO ограничениями Bean Validation.
+     *
+     * @return Нарушения в виде "поле: сообщение" через "; " в порядке полей или null, если DTO корректен.
+     */
+    private String violations(TaskDto dto) {
+        Set<ConstraintViolation<TaskDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private Flux<BulkItemResult> updateChunk(List<Tuple2<Long, TaskDto>> chunk) {
+        Map<Long, BulkItemResult> results = new TreeMap<>();
+        List<Tuple2<Long, TaskDto>> valid = new ArrayList<>();
+        for (Tuple2<Long, TaskDto> item : chunk) {
+            if (item.getT2().getId() == null) {
+                results.put(item.getT1(), BulkItemResult.failed(item.getT1(), null, "Id задачи обязателен для обновления"));
+            } else {
+                valid.add(item);
+            }
+        }
+
+        Set<Long> ids = valid.stream().map(item -> item.getT2().getId()).collect(Collectors.toSet());
+        List<Tuple2<Long, Task>> patched = new ArrayList<>();
+        Map<Long, Task> toUpdate = new LinkedHashMap<>();
+
+        Mono<Map<Long, Task>> existingTasks = ids.isEmpty()
+                ? Mono.just(Map.of())
+                : taskRepository.findByIdInAndDeletedAtIsNull(ids).collectMap(Task::getId);
+
+        return existingTasks
+                .flatMap(existingById -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    List<Tuple2<Long, Task>> found = new ArrayList<>();
+                    for (Tuple2<Long, TaskDto> item : valid) {
+                        Long id = item.getT2().getId();
+                        Task existing = existingById.get(id);
+                        if (existing == null) {
+                            results.put(item.getT1(), BulkItemResult.failed(item.getT1(), id,
+                                    new ResourceNotFoundException("Task", "id", id).getMessage()));
+                            continue;
+                        }
+                        Long expectedVersion = item.getT2().getVersion();
+                        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                            results.put(item.getT1(), BulkItemResult.conflict(item.getT1(), id, conflictMessage(id, expectedVersion)));
+                            continue;
+                        }
+                        taskMapper.updateEntityFromDto(item.getT2(), existing);
+                        existing.setUpdatedAt(now);
+                        found.add(Tuples.of(item.getT1(), existing));
+                    }
+
+                    List<TaskDto> references = found.stream().map(item -> taskMapper.toDto(item.getT2())).toList();
+                    return existingReferences(references).map(checker -> {
+                        for (Tuple2<Long, Task> item : found) {
+                            Task task = item.getT2();
+                            String error = checker.check(task.getProjectId(), task.getAssignedUserId());
+                            if (error != null) {
+                                results.put(item.getT1(), BulkItemResult.failed(item.getT1(), task.getId(), error));
+                            } else {
+                                patched.add(item);
+                            }
+                        }
+                        // Задача, несколько раз встретившаяся в пачке, обновляется один раз с итоговыми полями
+                        patched.forEach(item -> toUpdate.put(item.getT2().getId(), item.getT2()));
+                        return toUpdate.values();
+                    });
+                })
+                .filter(tasks -> !tasks.isEmpty())
+                .flatMap(tasks -> taskRepository.updateAll(new ArrayList<>(tasks))
+                        .as(transactionalOperator::transactional)
+                        .collect(Collectors.toSet()))
+                .flatMap(updatedIds -> skippedStillVisible(toUpdate.keySet(), updatedIds).map(conflicted -> {
+                    // Не обновленная, но видимая задача изменилась после чтения; иначе ее успели удалить
+                    for (Tuple2<Long, Task> item : patched) {
+                        Long index = item.getT1();
+                        Task task = item.getT2();
+                        Long id = task.getId();
+                        results.put(index, updatedIds.contains(id)
+                                ? new BulkItemResult(index, id, BulkItemResult.Status.UPDATED, null)
+                                : conflicted.contains(id)
+                                ? BulkItemResult.conflict(index, id, conflictMessage(id, task.getVersion()))
+                                : BulkItemResult.failed(index, id, new ResourceNotFoundException("Task", "id", id).getMessage()));
+                    }
+                    return updatedIds;
+                }))
+                .flatMap(updatedIds -> {
+                    List<Task> updated = toUpdate.values().stream().filter(task -> updatedIds.contains(task.getId())).toList();
+                    // UPDATE увеличил version в базе; события должны нести ту же версию
+                    updated.forEach(task -> task.setVersion(task.getVersion() + 1));
+                    return recordHistory(updated, TaskHistory.Action.UPDATE)
+                            .then(publishUpdated(updated));
+                })
+                .onErrorResume(error -> {
+                    log.error("Пакетное обновление {} задач завершилось ошибкой: {}", patched.size(), error.getMessage());
+                    patched.forEach(item -> results.putIfAbsent(item.getT1(),
+                            BulkItemResult.failed(item.getT1(), item.getT2().getId(), error.getMessage())));
+                    return Mono.empty();
+                })
+                .thenMany(Flux.defer(() -> Flux.fromIterable(results.values())));
+    }
+
+    /**
+     * Из задач пачки, не обновленных батчем, выбирает те, что все еще существуют: их версия изменилась после чтения.
+     */
+    private Mono<Set<Long>> skippedStillVisible(Set<Long> ids, Set<Long> updatedIds) {
+        Set<Long> skipped = ids.stream().filter(id -> !updatedIds.contains(id)).collect(Collectors.toSet());
+        return skipped.isEmpty()
+                ? Mono.just(Set.of())
+                : taskRepository.findByIdInAndDeletedAtIsNull(skipped).map(Task::getId).collect(Collectors.toSet());
+    }
+
+    private static String conflictMessage(Long id, Long expectedVersion) {
+        return String.format("Task with id '%s' was modified concurrently (expected version %s)", id, expectedVersion);
+    }
+
+    /**
+     * Проверяет ссылки всей пачки двумя запросами: одним на проекты и одним на пользователей.
+     */
+    private Mono<ReferenceChecker> existingReferences(List<TaskDto> tasks) {
+        Set<Long> projectIds = tasks.stream().map(TaskDto::getProjectId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> userIds = tasks.stream().map(TaskDto::getAssignedUserId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+
+        Mono<Set<Long>> existingProjects = projectIds.isEmpty()
+                ? Mono.just(Set.of())
+                : projectRepository.findExistingIds(projectIds).collect(Collectors.toCollection(HashSet::new));
+        Mono<Set<Long>> existingUsers = userIds.isEmpty()
+                ? Mono.just(Set.of())
+                : userRepository.findExistingIds(userIds).collect(Collectors.toCollection(HashSet::new));
+
+        return Mono.zip(existingProjects, existingUsers)
+                .map(tuple -> new ReferenceChecker(tuple.getT1(), tuple.getT2()));
+    }
+
+    /**
+     * Сохраняет историю пачки одной вставкой и отправляет уведомления одним каналом.
+     * Выполняется после фиксации транзакции, поэтому сбой здесь логируется, но не меняет результат элементов.
+     */
+    private Mono<Void> recordHistory(List<Task> tasks, TaskHistory.Action action) {
+        return recordHistory(tasks, action, task -> action == TaskHistory.Action.CREATE
+                ? Map.of("title", task.getTitle())
+                : Map.of("message", "Task fields updated"));
+    }
+
+    private Mono<Void> recordHistory(List<Task> tasks, TaskHistory.Action action,
+                                     Function<Task, Map<String, Object>> details) {
+        if (tasks.isEmpty()) {
+            return Mono.empty();
+        }
+        return securityUtils.getCurrentUserId()
+                .defaultIfEmpty(0L) // fallback if user not found
+                .flatMap(currentUserId -> {
+                    List<TaskHistory> histories = tasks.stream()
+                            .map(task -> TaskHistory.builder()
+                                    .taskId(task.getId())
+                                    .action(action)
+                                    .performedBy(currentUserId)
+                                    .timestamp(action == TaskHistory.Action.CREATE ? task.getCreatedAt() : task.getUpdatedAt())
+                                    .status(task.getStatus().name())
+                                    .details(details.apply(task))
+                                    .build())
+                            .toList();
+
+                    List<TaskHistoryDto> notifications = histories.stream().map(taskHistoryMapper::toDto).toList();
+                    // RabbitTemplate блокирует поток до отправки пачки, поэтому не вызывается на event loop
+                    Mono<Void> notify = Mono.fromRunnable(() -> {
+                        if (action == TaskHistory.Action.CREATE) {
+                            rabbitProducer.sendCreateNotifications(notifications);
+                        } else {
+                            rabbitProducer.sendUpdateNotifications(notifications);
+                        }
+                    }).subscribeOn(Schedulers.boundedElastic()).then();
+
+                    return notify.then(taskHistoryService.saveAllHistory(histories).then());
+                })
+                .onErrorResume(error -> {
+                    log.error("Не удалось записать историю для {} задач: {}", tasks.size(), error.getMessage(), error);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> publishUpdated(List<Task> tasks) {
+        return Flux.fromIterable(tasks)
+                .flatMap(task -> redisEventPublisher.publishTaskUpdated(taskMapper.toDto(task)))
+                .onErrorResume(error -> {
+                    log.error("Не удалось опубликовать события обновления задач: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Результат set-based проверки ссылок пачки.
+     */
+    private record ReferenceChecker(Set<Long> projectIds, Set<Long> userIds) {
+
+        String check(Long projectId, Long assignedUserId) {
+            if (!projectIds.contains(projectId)) {
+                return new ResourceNotFoundException("Project", "id", projectId).getMessage();
+            }
+            if (assignedUserId != null && !userIds.contains(assignedUserId)) {
+                return new ResourceNotFoundException("Assigned User", "id", assignedUserId).getMessage();
+            }
+            return null;
+        }
+    }
+}
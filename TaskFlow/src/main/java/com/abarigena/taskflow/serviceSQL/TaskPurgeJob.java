@@ -0,0 +1,108 @@
+package com.abarigena.taskflow.serviceSQL;
+
+import com.abarigena.taskflow.dto.TaskHistoryDto;
+import com.abarigena.taskflow.producer.RabbitProducer;
+import com.abarigena.taskflow.storeNoSQL.entity.TaskHistory;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.storeSQL.repository.TaskPurgeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Фоновая очистка задач, мягко удаленных TaskService.deleteTask, после окна восстановления.
+ * <p>
+ * Сначала пачками удаляются комментарии таких задач, затем пачка самих задач; каждая пачка - отдельная
+ * короткая транзакция, между пачками выдерживается пауза. Граница окна восстановления вычисляется один раз
+ * за проход, поэтому задача, окно которой истекло во время прохода, ждет следующего: иначе ее комментарии
+ * не были бы очищены заранее и удалились бы каскадом вместе с ней. Уведомления RabbitMQ об удалении отправляются
+ * здесь одной пачкой на пачку задач: задача считается удаленной окончательно только после очистки,
+ * а в окне восстановления ее удаление еще можно отменить.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "taskflow.task-deletion.jobs-enabled", havingValue = "true", matchIfMissing = true)
+public class TaskPurgeJob {
+
+    private final TaskPurgeRepository taskPurgeRepository;
+    private final RabbitProducer rabbitProducer;
+    private final Duration restoreWindow;
+    private final int chunkSize;
+    private final Duration pause;
+    private final String deleteTopicRoutingKey;
+
+    public TaskPurgeJob(TaskPurgeRepository taskPurgeRepository,
+                        RabbitProducer rabbitProducer,
+                        @Value("${taskflow.task-deletion.restore-window:7d}") Duration restoreWindow,
+                        @Value("${taskflow.task-deletion.chunk-size:500}") int chunkSize,
+                        @Value("${taskflow.task-deletion.pause:200ms}") Duration pause,
+                        @Value("${taskflow.routing.notification-topic-delete}") String deleteTopicRoutingKey) {
+        this.taskPurgeRepository = taskPurgeRepository;
+        this.rabbitProducer = rabbitProducer;
+        this.restoreWindow = restoreWindow;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.deleteTopicRoutingKey = deleteTopicRoutingKey;
+    }
+
+    @Scheduled(fixedDelayString = "${taskflow.task-deletion.poll-interval:1m}")
+    public Mono<Void> purgeDeletedTasks() {
+        return taskPurgeRepository.purgeCutoff(restoreWindow)
+                .flatMap(cutoff -> purgeChunk(cutoff)
+                        .expand(purged -> purged < chunkSize
+                                ? Mono.empty()
+                                : Mono.delay(pause).then(purgeChunk(cutoff)))
+                        .reduce(0, Integer::sum))
+                .filter(purged -> purged > 0)
+                .doOnNext(purged -> log.info("Purged {} deleted tasks", purged))
+                .doOnError(error -> log.error("Failed to purge deleted tasks", error))
+                .onErrorComplete()
+                .then();
+    }
+
+    /**
+     * Удаляет комментарии задач, удаленных раньше {@code cutoff}, затем одну пачку таких задач.
+     *
+     * @param cutoff Граница окна восстановления для всего прохода.
+     * @return Mono с количеством удаленных задач.
+     */
+    private Mono<Integer> purgeChunk(LocalDateTime cutoff) {
+        return drainComments(cutoff)
+                .then(Mono.defer(() -> taskPurgeRepository.purgeTasks(cutoff, chunkSize).collectList()))
+                .flatMap(tasks -> Mono.fromRunnable(() -> notifyDeleted(tasks))
+                        .subscribeOn(Schedulers.boundedElastic()) // RabbitTemplate блокирует поток до отправки пачки
+                        .thenReturn(tasks.size()));
+    }
+
+    /**
+     * Удаляет комментарии пачками, пока очередная пачка не окажется неполной.
+     */
+    private Mono<Long> drainComments(LocalDateTime cutoff) {
+        return taskPurgeRepository.purgeComments(cutoff, chunkSize)
+                .expand(deleted -> deleted < chunkSize
+                        ? Mono.empty()
+                        : Mono.delay(pause).then(taskPurgeRepository.purgeComments(cutoff, chunkSize)))
+                .reduce(0L, Long::sum);
+    }
+
+    private void notifyDeleted(List<Task> tasks) {
+        List<TaskHistoryDto> notifications = tasks.stream().map(task -> {
+            TaskHistoryDto historyDto = new TaskHistoryDto();
+            historyDto.setTaskId(task.getId());
+            historyDto.setAction(TaskHistory.Action.DELETE);
+            historyDto.setPerformedBy(task.getDeletedBy() != null ? task.getDeletedBy() : 0L);
+            historyDto.setDetails(Map.of("title", task.getTitle()));
+            return historyDto;
+        }).toList();
+        rabbitProducer.sendDeleteNotifications(notifications, deleteTopicRoutingKey);
+    }
+}
@@ -2,11 +2,15 @@ package com.abarigena.taskflow.serviceSQL;
 
 
 import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.dto.TaskSummary;
 import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.utility.KeysetCursor;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 public interface TaskService {
     /**
      * Получает все задачи с использованием пагинации.
@@ -15,6 +19,14 @@ public interface TaskService {
      */
     Flux<TaskDto> getAllTasks(Pageable pageable);
 
+    /**
+     * Получает страницу всех задач после курсора (keyset-пагинация).
+     * @param after курсор последней задачи предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return поток DTO задач
+     */
+    Flux<TaskDto> getAllTasksAfter(KeysetCursor after, int limit);
+
     /**
      * Получает задачи для указанного проекта с использованием пагинации.
      * @param projectId идентификатор проекта
@@ -23,6 +35,15 @@ public interface TaskService {
      */
     Flux<TaskDto> getTasksByProjectId(Long projectId, Pageable pageable);
 
+    /**
+     * Получает страницу задач проекта после курсора (keyset-пагинация).
+     * @param projectId идентификатор проекта
+     * @param after курсор последней задачи предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return поток DTO задач
+     */
+    Flux<TaskDto> getTasksByProjectIdAfter(Long projectId, KeysetCursor after, int limit);
+
     /**
      * Получает задачу по ее идентификатору.
      * @param taskId идентификатор задачи
@@ -46,12 +67,20 @@ public interface TaskService {
     Mono<TaskDto> updateTask(Long id, TaskDto taskDto);
 
     /**
-     * Удаляет задачу по ее идентификатору.
+     * Удаляет задачу по ее идентификатору. Задача удаляется мягко и может быть восстановлена
+     * в течение окна восстановления.
      * @param id идентификатор задачи
      * @return моно без содержимого
      */
     Mono<Void> deleteTask(Long id);
 
+    /**
+     * Восстанавливает удаленную задачу в пределах окна восстановления.
+     * @param id идентификатор удаленной задачи
+     * @return моно DTO восстановленной задачи
+     */
+    Mono<TaskDto> restoreTask(Long id);
+
     /**
      * Находит задачи, назначенные указанному пользователю, с использованием пагинации.
      * @param userId идентификатор пользователя
@@ -69,4 +98,56 @@ public interface TaskService {
      */
     Flux<TaskDto> findTaskByStatusAndPriority(Task.Status status, Task.Priority priority,
                                               Pageable pageable);
+
+    /**
+     * Находит страницу задач, назначенных пользователю, после курсора (keyset-пагинация).
+     * @param userId идентификатор пользователя
+     * @param after курсор последней задачи предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return поток DTO задач
+     */
+    Flux<TaskDto> findByAssignedUserIdAfter(Long userId, KeysetCursor after, int limit);
+
+    /**
+     * Находит страницу задач по статусу и приоритету после курсора (keyset-пагинация).
+     * @param status статус задачи
+     * @param priority приоритет задачи
+     * @param after курсор последней задачи предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return поток DTO задач
+     */
+    Flux<TaskDto> findTaskByStatusAndPriorityAfter(Task.Status status, Task.Priority priority, KeysetCursor after, int limit);
+
+    /**
+     * Получает краткие представления всех задач с использованием пагинации.
+     * @param pageable параметры пагинации
+     * @return поток кратких представлений задач
+     */
+    Flux<TaskSummary> getAllTaskSummaries(Pageable pageable);
+
+    /**
+     * Получает краткие представления задач проекта с использованием пагинации.
+     * @param projectId идентификатор проекта
+     * @param pageable параметры пагинации
+     * @return поток кратких представлений задач
+     */
+    Flux<TaskSummary> getTaskSummariesByProjectId(Long projectId, Pageable pageable);
+
+    /**
+     * Находит краткие представления задач, назначенных пользователю, с использованием пагинации.
+     * @param userId идентификатор пользователя
+     * @param pageable параметры пагинации
+     * @return поток кратких представлений задач
+     */
+    Flux<TaskSummary> findSummariesByAssignedUserId(Long userId, Pageable pageable);
+
+    /**
+     * Потоково выгружает задачи в порядке id.
+     * @param projectId идентификатор проекта (null - все проекты)
+     * @param status статус задачи (null - любой)
+     * @param createdFrom начало диапазона времени создания включительно (null - без ограничения)
+     * @param createdTo конец диапазона времени создания не включительно (null - без ограничения)
+     * @return поток DTO задач
+     */
+    Flux<TaskDto> exportTasks(Long projectId, Task.Status status, LocalDateTime createdFrom, LocalDateTime createdTo);
 }
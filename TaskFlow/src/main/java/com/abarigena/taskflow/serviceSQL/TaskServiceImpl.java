@@ -1,7 +1,8 @@
 package com.abarigena.taskflow.serviceSQL;
 
+import com.abarigena.taskflow.config.ReadWriteRoutingConnectionFactory;
 import com.abarigena.taskflow.dto.TaskDto;
-import com.abarigena.taskflow.dto.TaskHistoryDto;
+import com.abarigena.taskflow.dto.TaskSummary;
 import com.abarigena.taskflow.exception.ResourceNotFoundException;
 import com.abarigena.taskflow.mapper.TaskHistoryMapper;
 import com.abarigena.taskflow.mapper.TaskMapper;
@@ -11,44 +12,57 @@ import com.abarigena.taskflow.service.RedisEventPublisher;
 import com.abarigena.taskflow.serviceNoSQL.TaskHistoryService;
 import com.abarigena.taskflow.storeNoSQL.entity.TaskHistory;
 import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.storeSQL.repository.ExportRepository;
+import com.abarigena.taskflow.storeSQL.repository.PartialUpdateRepository;
 import com.abarigena.taskflow.storeSQL.repository.ProjectRepository;
 import com.abarigena.taskflow.storeSQL.repository.TaskRepository;
-import com.abarigena.taskflow.storeSQL.repository.UserRepository;
+import com.abarigena.taskflow.utility.ForeignKeyViolations;
+import com.abarigena.taskflow.utility.KeysetCursor;
 import com.abarigena.taskflow.utility.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
 public class TaskServiceImpl implements TaskService {
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
     private final ProjectRepository projectRepository;
-    private final UserRepository userRepository;
+    private final PartialUpdateRepository partialUpdateRepository;
     private final TaskHistoryService taskHistoryService;
     private final RabbitProducer rabbitProducer;
     private final TaskHistoryMapper taskHistoryMapper;
     private final ReactiveRedisService reactiveRedisService;
     private final RedisEventPublisher redisEventPublisher;
     private final SecurityUtils securityUtils;
+    private final ExportRepository exportRepository;
 
     private static final String TASK_ID_CACHE_KEY_PREFIX = "task:id:";
     private static final Duration TASK_CACHE_TTL = Duration.ofMinutes(30);
 
-    @Value("${taskflow.routing.notification-topic-delete}")
-    private String deleteTopicRoutingKey;
+    /**
+     * Свойства задачи, которые можно изменить через updateTask.
+     */
+    private static final List<String> UPDATABLE_PROPERTIES = List.of(
+            "title", "description", "status", "priority", "deadline", "assignedUserId", "projectId", "updatedAt");
+
+    @Value("${taskflow.task-deletion.restore-window:7d}")
+    private Duration restoreWindow;
 
     /**
      * Находит все задачи с поддержкой пагинации и сортировки.
@@ -59,13 +73,26 @@ public class TaskServiceImpl implements TaskService {
     @Override
     public Flux<TaskDto> getAllTasks(Pageable pageable) {
         log.info("Запрашиваем задачи с пагинацией: {}", pageable);
-        return taskRepository.findAllBy(pageable)
+        return taskRepository.findAllByDeletedAtIsNull(pageable)
                 .doOnNext(task -> log.info("Найдена задача: id={}, title={}", task.getId(), task.getTitle()))
                 .doOnComplete(() -> log.info("Завершен поиск задач"))
                 .doOnError(error -> log.error("Ошибка при поиске задач: {}", error.getMessage(), error))
                 .map(taskMapper::toDto);
     }
 
+    /**
+     * Находит страницу всех задач, следующих за курсором, в порядке created_at DESC, id DESC.
+     *
+     * @param after Keyset-позиция последней задачи предыдущей страницы ({@link KeysetCursor#START} для первой страницы).
+     * @param limit Максимальное количество записей.
+     * @return Поток DTO задач.
+     */
+    @Override
+    public Flux<TaskDto> getAllTasksAfter(KeysetCursor after, int limit) {
+        return taskRepository.findAllAfter(after.createdAt(), after.id(), limit)
+                .map(taskMapper::toDto);
+    }
+
     /**
      * Находит задачи, связанные с указанным проектом, с поддержкой пагинации и сортировки. Выполняет проверку существования проекта.
      *
@@ -79,11 +106,26 @@ public class TaskServiceImpl implements TaskService {
         return projectRepository.findById(projectId)
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Project", "id", projectId)))
                 .flatMapMany(existingProject -> {
-                    return taskRepository.findByProjectId(existingProject.getId(), pageable);
+                    return taskRepository.findByProjectIdAndDeletedAtIsNull(existingProject.getId(), pageable);
                 })
                 .map(taskMapper::toDto);
     }
 
+    /**
+     * Находит страницу задач проекта, следующих за курсором, в порядке created_at DESC, id DESC.
+     * Существование проекта не проверяется: для несуществующего проекта возвращается пустой поток.
+     *
+     * @param projectId Идентификатор проекта.
+     * @param after     Keyset-позиция последней задачи предыдущей страницы ({@link KeysetCursor#START} для первой страницы).
+     * @param limit     Максимальное количество записей.
+     * @return Поток DTO задач.
+     */
+    @Override
+    public Flux<TaskDto> getTasksByProjectIdAfter(Long projectId, KeysetCursor after, int limit) {
+        return taskRepository.findByProjectIdAfter(projectId, after.createdAt(), after.id(), limit)
+                .map(taskMapper::toDto);
+    }
+
     /**
      * Находит задачу по ее идентификатору.
      *
@@ -95,7 +137,7 @@ public class TaskServiceImpl implements TaskService {
         String cacheKey = TASK_ID_CACHE_KEY_PREFIX + taskId;
         return reactiveRedisService.getOrSet(
                 cacheKey,
-                () -> taskRepository.findById(taskId)
+                () -> ReadWriteRoutingConnectionFactory.onPrimary(taskRepository.findByIdAndDeletedAtIsNull(taskId))
                         .map(taskMapper::toDto)
                         .switchIfEmpty(Mono.error(new ResourceNotFoundException("Task", "id", taskId))),
                 TASK_CACHE_TTL,
@@ -104,7 +146,8 @@ public class TaskServiceImpl implements TaskService {
     }
 
     /**
-     * Создает новую задачу. Выполняет проверки существования связанного проекта и назначенного пользователя (если указан).
+     * Создает новую задачу. Существование связанного проекта и назначенного пользователя (если указан)
+     * проверяется внешними ключами при вставке; их нарушение переводится в ResourceNotFoundException.
      * Автоматически записывает историю создания задачи.
      *
      * @param taskDto DTO задачи для создания.
@@ -126,26 +169,11 @@ public class TaskServiceImpl implements TaskService {
             task.setPriority(Task.Priority.MEDIUM);
         }
 
-        Mono<Boolean> projectExists = projectRepository.existsById(task.getProjectId());
-
-        Mono<Boolean> userExists = (task.getAssignedUserId() != null)
-                ? userRepository.existsById(task.getAssignedUserId())
-                : Mono.just(true);
-
-        return Mono.zip(projectExists, userExists)
-                .flatMap(tuple -> {
-                    boolean projectFound = tuple.getT1();
-                    boolean userFound = tuple.getT2();
-
-                    if (!projectFound) {
-                        return Mono.error(new ResourceNotFoundException("Project", "id", task.getProjectId()));
-                    }
-                    if (!userFound) {
-                        return Mono.error(new ResourceNotFoundException("Assigned User", "id", task.getAssignedUserId()));
-                    }
-
-                    return taskRepository.save(task);
-                })
+        // Существование проекта и пользователя гарантируют внешние ключи: один запрос вместо трех
+        return taskRepository.save(task)
+                .onErrorMap(DataIntegrityViolationException.class, ForeignKeyViolations.translate(Map.of(
+                        "fk_task_project", () -> new ResourceNotFoundException("Project", "id", task.getProjectId()),
+                        "fk_task_assigned_user", () -> new ResourceNotFoundException("Assigned User", "id", task.getAssignedUserId()))))
 
                 .flatMap(savedTask -> {
                     return securityUtils.getCurrentUserId()
@@ -171,53 +199,30 @@ public class TaskServiceImpl implements TaskService {
     }
 
     /**
-     * Обновляет существующую задачу по ее идентификатору. Выполняет проверки существования нового проекта и назначенного пользователя (если изменяются).
+     * Частично обновляет задачу одним запросом UPDATE ... RETURNING: меняются только переданные (ненулевые) поля.
+     * Если в DTO указана версия, обновление выполняется только при ее совпадении с текущей.
+     * Существование нового проекта и назначенного пользователя проверяется внешними ключами.
      * Автоматически записывает историю обновления задачи.
      *
      * @param id      Идентификатор задачи для обновления.
-     * @param taskDto DTO с данными для обновления задачи.
-     * @return Mono, содержащий DTO обновленной задачи, или ошибку ResourceNotFoundException, если задача, новый проект или новый пользователь не найдены.
+     * @param taskDto DTO с данными для обновления задачи (version - ожидаемая версия, необязательно).
+     * @return Mono, содержащий DTO обновленной задачи, ошибку ResourceNotFoundException, если задача, новый проект
+     * или новый пользователь не найдены, или OptimisticLockingFailureException при несовпадении версии.
      */
     @Override
     @Transactional
     public Mono<TaskDto> updateTask(Long id, TaskDto taskDto) {
-        return taskRepository.findById(id)
+        Task patch = taskMapper.toEntity(taskDto);
+        patch.setUpdatedAt(LocalDateTime.now());
+
+        return partialUpdateRepository.update(Task.class, id, taskDto.getVersion(), patch, UPDATABLE_PROPERTIES)
+                .onErrorMap(DataIntegrityViolationException.class, ForeignKeyViolations.translate(Map.of(
+                        "fk_task_project", () -> new ResourceNotFoundException("Project", "id", patch.getProjectId()),
+                        "fk_task_assigned_user", () -> new ResourceNotFoundException("Assigned User", "id", patch.getAssignedUserId()))))
                 .switchIfEmpty(Mono.defer(() -> Mono.error(new ResourceNotFoundException("Task", "id", id))))
-                .flatMap(existingTask -> {
-                    Long oldProjectId = existingTask.getProjectId();
-                    Long oldAssignedUserId = existingTask.getAssignedUserId();
-
-                    taskMapper.updateEntityFromDto(taskDto, existingTask);
-                    existingTask.setUpdatedAt(LocalDateTime.now());
-
-                    Long newProjectId = existingTask.getProjectId();
-                    Long newAssignedUserId = existingTask.getAssignedUserId();
-
-                    Mono<Void> projectValidationMono = Mono.empty();
-                    if (newProjectId == null) {
-                        projectValidationMono = Mono.error(new IllegalArgumentException("Project ID не может быть null"));
-                    } else if (!newProjectId.equals(oldProjectId)) {
-                        projectValidationMono = projectRepository.existsById(newProjectId)
-                                .filter(Boolean::booleanValue)
-                                .switchIfEmpty(Mono.defer(() -> Mono.error(new ResourceNotFoundException("Project", "id", newProjectId))))
-                                .then();
-                    }
-
-                    Mono<Void> userValidationMono = Mono.empty();
-                    if (!Objects.equals(newAssignedUserId, oldAssignedUserId)) {
-                        if (newAssignedUserId != null) {
-                            userValidationMono = userRepository.existsById(newAssignedUserId)
-                                    .filter(Boolean::booleanValue)
-                                    .switchIfEmpty(Mono.defer(() -> Mono.error(new ResourceNotFoundException("Assigned User", "id", newAssignedUserId))))
-                                    .then();
-                        }
-                    }
-
-                    return Mono.when(projectValidationMono, userValidationMono)
-                            .then(Mono.defer(() -> taskRepository.save(existingTask)));
-                })
+                .map(PartialUpdateRepository.Result::entity)
                 .flatMap(updatedTask -> {
-                    return redisEventPublisher.publishTaskUpdated(updatedTask.getId())
+                    return redisEventPublisher.publishTaskUpdated(taskMapper.toDto(updatedTask))
                             .thenReturn(updatedTask);
                 })
                 .flatMap(updatedTask -> {
@@ -243,35 +248,37 @@ public class TaskServiceImpl implements TaskService {
     }
 
     /**
-     * Удаляет задачу по ее идентификатору. Автоматически записывает историю удаления задачи.
+     * Мягко удаляет задачу: задача и ее комментарии сразу исчезают из выборок, а физически их удаляет
+     * {@link TaskPurgeJob} после окна восстановления. Уведомление об удалении отправляет TaskPurgeJob.
      *
      * @param id Идентификатор задачи для удаления.
-     * @return Пустой Mono, сигнализирующий о завершении операции.
+     * @return Пустой Mono, сигнализирующий о завершении операции, или ошибку ResourceNotFoundException, если задача не найдена.
      */
     @Override
     @Transactional
     public Mono<Void> deleteTask(Long id) {
-        return taskRepository.findById(id)
+        return securityUtils.getCurrentUserId()
+                .defaultIfEmpty(0L) // fallback if user not found
+                .flatMap(currentUserId -> taskRepository.softDeleteById(id, currentUserId))
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Task", "id", id)))
-                .flatMap(existingTask -> {
-                    return securityUtils.getCurrentUserId()
-                            .defaultIfEmpty(0L) // fallback if user not found
-                            .flatMap(currentUserId -> {
-                                TaskHistoryDto historyDto = new TaskHistoryDto();
-                                historyDto.setTaskId(existingTask.getId());
-                                historyDto.setAction(TaskHistory.Action.DELETE);
-                                historyDto.setTimestamp(LocalDateTime.now());
-                                historyDto.setPerformedBy(currentUserId);
-                                historyDto.setDetails(Map.of("title", existingTask.getTitle()));
-
-                                rabbitProducer.sendDeleteNotification(historyDto, deleteTopicRoutingKey);
-
-                                return taskRepository.deleteById(id)
-                                        .then(
-                                                redisEventPublisher.publishTaskDeleted(id)
-                                        );
-                            });
-                });
+                .flatMap(deletedTask -> redisEventPublisher.publishTaskDeleted(id, deletedTask.getProjectId()));
+    }
+
+    /**
+     * Восстанавливает мягко удаленную задачу вместе с ее комментариями, если окно восстановления не истекло.
+     *
+     * @param id Идентификатор удаленной задачи.
+     * @return Mono, содержащий DTO восстановленной задачи, или ошибку ResourceNotFoundException,
+     * если задача не удалена, окно восстановления истекло или задача уже очищена.
+     */
+    @Override
+    @Transactional
+    public Mono<TaskDto> restoreTask(Long id) {
+        return taskRepository.restoreById(id, restoreWindow.toMillis() / 1000.0)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Deleted task", "id", id)))
+                .map(taskMapper::toDto)
+                .flatMap(restoredTask -> redisEventPublisher.publishTaskUpdated(restoredTask)
+                        .thenReturn(restoredTask));
     }
 
     /**
@@ -283,7 +290,7 @@ public class TaskServiceImpl implements TaskService {
      */
     @Override
     public Flux<TaskDto> findByAssignedUserId(Long userId, Pageable pageable) {
-        return taskRepository.findByAssignedUserId(userId, pageable)
+        return taskRepository.findByAssignedUserIdAndDeletedAtIsNull(userId, pageable)
                 .map(taskMapper::toDto);
     }
 
@@ -305,7 +312,104 @@ public class TaskServiceImpl implements TaskService {
             return Flux.error(new IllegalArgumentException("Приоритет задачи не может быть null при фильтрации"));
         }
 
-        return taskRepository.findByStatusAndPriority(status, priority, pageable)
+        return taskRepository.findByStatusAndPriorityAndDeletedAtIsNull(status, priority, pageable)
+                .map(taskMapper::toDto);
+    }
+
+    /**
+     * Находит страницу задач, назначенных пользователю, следующих за курсором, в порядке created_at DESC, id DESC.
+     *
+     * @param userId Идентификатор назначенного пользователя.
+     * @param after  Keyset-позиция последней задачи предыдущей страницы.
+     * @param limit  Максимальное количество записей.
+     * @return Поток DTO задач.
+     */
+    @Override
+    public Flux<TaskDto> findByAssignedUserIdAfter(Long userId, KeysetCursor after, int limit) {
+        return taskRepository.findByAssignedUserIdAfter(userId, after.createdAt(), after.id(), limit)
+                .map(taskMapper::toDto);
+    }
+
+    /**
+     * Находит страницу задач с указанными статусом и приоритетом, следующих за курсором, в порядке created_at DESC, id DESC.
+     *
+     * @param status   Статус задачи для фильтрации.
+     * @param priority Приоритет задачи для фильтрации.
+     * @param after    Keyset-позиция последней задачи предыдущей страницы.
+     * @param limit    Максимальное количество записей.
+     * @return Поток DTO задач.
+     */
+    @Override
+    public Flux<TaskDto> findTaskByStatusAndPriorityAfter(Task.Status status, Task.Priority priority, KeysetCursor after, int limit) {
+
+        if (status == null) {
+            return Flux.error(new IllegalArgumentException("Статус задачи не может быть null при фильтрации"));
+        }
+        if (priority == null) {
+            return Flux.error(new IllegalArgumentException("Приоритет задачи не может быть null при фильтрации"));
+        }
+
+        return taskRepository.findByStatusAndPriorityAfter(status.name(), priority.name(), after.createdAt(), after.id(), limit)
                 .map(taskMapper::toDto);
     }
+
+    /**
+     * Находит краткие представления всех задач с поддержкой пагинации и сортировки.
+     *
+     * @param pageable Параметры пагинации и сортировки.
+     * @return Поток кратких представлений задач.
+     */
+    @Override
+    public Flux<TaskSummary> getAllTaskSummaries(Pageable pageable) {
+        return taskRepository.findSummariesByDeletedAtIsNull(pageable);
+    }
+
+    /**
+     * Находит краткие представления задач проекта с поддержкой пагинации и сортировки. Выполняет проверку существования проекта.
+     *
+     * @param projectId Идентификатор проекта.
+     * @param pageable  Параметры пагинации и сортировки.
+     * @return Поток кратких представлений задач или ошибку ResourceNotFoundException, если проект не найден.
+     */
+    @Override
+    public Flux<TaskSummary> getTaskSummariesByProjectId(Long projectId, Pageable pageable) {
+        return projectRepository.existsById(projectId)
+                .flatMapMany(exists -> exists
+                        ? taskRepository.findSummariesByProjectIdAndDeletedAtIsNull(projectId, pageable)
+                        : Flux.error(new ResourceNotFoundException("Project", "id", projectId)));
+    }
+
+    /**
+     * Находит краткие представления задач, назначенных пользователю, с поддержкой пагинации и сортировки.
+     *
+     * @param userId   Идентификатор назначенного пользователя.
+     * @param pageable Параметры пагинации и сортировки.
+     * @return Поток кратких представлений задач.
+     */
+    @Override
+    public Flux<TaskSummary> findSummariesByAssignedUserId(Long userId, Pageable pageable) {
+        return taskRepository.findSummariesByAssignedUserIdAndDeletedAtIsNull(userId, pageable);
+    }
+
+    /**
+     * Потоково выгружает задачи. Строки читаются курсором по мере запроса подписчика,
+     * поэтому выгрузка идет с той скоростью, с которой ее принимает клиент.
+     *
+     * @param projectId   Идентификатор проекта или null.
+     * @param status      Статус задачи или null.
+     * @param createdFrom Начало диапазона created_at включительно или null.
+     * @param createdTo   Конец диапазона created_at не включительно или null.
+     * @return Поток DTO задач или ошибка {@link ResourceNotFoundException}, если указанный проект не найден.
+     */
+    @Override
+    public Flux<TaskDto> exportTasks(Long projectId, Task.Status status, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        Flux<TaskDto> tasks = exportRepository.streamTasks(projectId, status, createdFrom, createdTo).map(taskMapper::toDto);
+        if (projectId == null) {
+            return tasks;
+        }
+        return projectRepository.existsById(projectId)
+                .flatMapMany(exists -> exists
+                        ? tasks
+                        : Flux.error(new ResourceNotFoundException("Project", "id", projectId)));
+    }
 }
@@ -1,10 +1,13 @@
 package com.abarigena.taskflow.serviceSQL;
 
 import com.abarigena.taskflow.dto.UserDto;
+import com.abarigena.taskflow.utility.KeysetCursor;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface UserService {
     /**
      * Находит всех пользователей с использованием пагинации.
@@ -13,6 +16,21 @@ public interface UserService {
      */
     Flux<UserDto> findAllUsers(Pageable pageable);
 
+    /**
+     * Находит страницу пользователей после курсора (keyset-пагинация), загружая только запрошенные поля.
+     * @param after курсор последней записи предыдущей страницы
+     * @param limit максимальное количество записей
+     * @param fields имена полей UserDto, которые нужно заполнить
+     * @return поток DTO пользователей
+     */
+    Flux<UserDto> findUsersAfter(KeysetCursor after, int limit, Collection<String> fields);
+
+    /**
+     * Подсчитывает общее количество пользователей.
+     * @return моно с количеством пользователей
+     */
+    Mono<Long> countUsers();
+
     /**
      * Находит пользователя по его адресу электронной почты.
      * @param email адрес электронной почты
@@ -1,39 +1,53 @@
 package com.abarigena.taskflow.serviceSQL;
 
+import com.abarigena.taskflow.config.ReadWriteRoutingConnectionFactory;
 import com.abarigena.taskflow.dto.UserDto;
 import com.abarigena.taskflow.exception.ResourceNotFoundException;
 import com.abarigena.taskflow.mapper.UserMapper;
 import com.abarigena.taskflow.service.ReactiveRedisService;
 import com.abarigena.taskflow.service.RedisEventPublisher;
 import com.abarigena.taskflow.storeSQL.entity.User;
+import com.abarigena.taskflow.storeSQL.repository.PartialUpdateRepository;
 import com.abarigena.taskflow.storeSQL.repository.UserRepository;
+import com.abarigena.taskflow.utility.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(transactionManager = "connectionFactoryTransactionManager", readOnly = true, propagation = Propagation.SUPPORTS)
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final ReactiveRedisService reactiveRedisService;
     private final RedisEventPublisher redisEventPublisher;
+    private final PartialUpdateRepository partialUpdateRepository;
 
     private static final String USER_ID_CACHE_KEY_PREFIX = "user:id:";
     private static final String USER_EMAIL_CACHE_KEY_PREFIX = "user:email:";
     private static final Duration USER_CACHE_TTL = Duration.ofHours(24);
 
+    /**
+     * Свойства пользователя, которые можно изменить через updateUser.
+     */
+    private static final List<String> UPDATABLE_PROPERTIES = List.of(
+            "firstName", "lastName", "email", "active", "updatedAt");
+
     /**
      * Находит всех пользователей с поддержкой пагинации и сортировки.
      *
@@ -46,6 +60,31 @@ public class UserServiceImpl implements UserService {
                 .map(userMapper::toDto);
     }
 
+    /**
+     * Находит страницу пользователей, следующих за курсором, в порядке created_at DESC, id DESC.
+     * Из базы читаются только колонки запрошенных полей (плюс id и created_at для курсора), пароль не читается.
+     *
+     * @param after  Keyset-позиция последней записи предыдущей страницы ({@link KeysetCursor#START} для первой страницы).
+     * @param limit  Максимальное количество записей.
+     * @param fields Имена полей DTO, которые нужно заполнить; остальные поля останутся null.
+     * @return Поток DTO пользователей.
+     */
+    @Override
+    public Flux<UserDto> findUsersAfter(KeysetCursor after, int limit, Collection<String> fields) {
+        return userRepository.findProjectedPageAfter(fields, after.createdAt(), after.id(), limit)
+                .map(userMapper::toDto);
+    }
+
+    /**
+     * Подсчитывает общее количество пользователей.
+     *
+     * @return Mono с количеством пользователей.
+     */
+    @Override
+    public Mono<Long> countUsers() {
+        return userRepository.count();
+    }
+
     /**
      * Находит пользователя по его адресу электронной почты.
      *
@@ -57,7 +96,7 @@ public class UserServiceImpl implements UserService {
         String cacheKey = USER_EMAIL_CACHE_KEY_PREFIX + email;
         return reactiveRedisService.getOrSet(
                 cacheKey,
-                () -> userRepository.findByEmail(email)
+                () -> ReadWriteRoutingConnectionFactory.onPrimary(userRepository.findByEmail(email))
                         .map(userMapper::toDto)
                         .switchIfEmpty(Mono.error(new ResourceNotFoundException("User", "email", email))),
                 USER_CACHE_TTL,
@@ -134,7 +173,7 @@ public class UserServiceImpl implements UserService {
         String cacheKey = USER_ID_CACHE_KEY_PREFIX + id;
         return reactiveRedisService.getOrSet(
                 cacheKey,
-                () -> userRepository.findById(id)
+                () -> ReadWriteRoutingConnectionFactory.onPrimary(userRepository.findById(id))
                         .map(userMapper::toDto)
                         .switchIfEmpty(Mono.error(new ResourceNotFoundException("User", "id", id))),
                 USER_CACHE_TTL,
@@ -143,34 +182,35 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Обновляет существующего пользователя по его идентификатору. Выполняет проверку на уникальность email, если он изменяется.
+     * Частично обновляет пользователя одним запросом UPDATE ... RETURNING: меняются только переданные (ненулевые) поля.
+     * Если в DTO указана версия, обновление выполняется только при ее совпадении с текущей.
+     * Старый email для сброса кэша возвращается тем же запросом.
      *
      * @param id      Идентификатор пользователя для обновления.
-     * @param userDto DTO с данными для обновления пользователя.
+     * @param userDto DTO с данными для обновления пользователя (version - ожидаемая версия, необязательно).
      * @return Mono, содержащий DTO обновленного пользователя, или ошибку ResourceNotFoundException, если пользователь не найден,
-     * или DataIntegrityViolationException, если новый email уже занят.
+     * DataIntegrityViolationException, если новый email уже занят, или OptimisticLockingFailureException при несовпадении версии.
      */
     @Override
     @Transactional(transactionManager = "connectionFactoryTransactionManager")
     public Mono<UserDto> updateUser(Long id, UserDto userDto) {
-        return userRepository.findById(id)
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("User", "id", id)))
-                .flatMap(existingUser -> {
-                    String oldEmail = existingUser.getEmail();
-                    userMapper.updateEntityFromDto(userDto, existingUser);
-                    existingUser.setUpdatedAt(LocalDateTime.now());
-
-                    return userRepository.save(existingUser)
-                            .flatMap(savedUser -> {
-                                // Публикуем событие обновления пользователя через Pub/Sub
-                                Map<String, Object> metadata = Map.of(
-                                    "oldEmail", oldEmail,
-                                    "newEmail", savedUser.getEmail()
-                                );
-                                
-                                return redisEventPublisher.publishUserUpdated(savedUser.getId(), metadata)
-                                        .thenReturn(savedUser);
-                            });
+        User patch = userMapper.toEntity(userDto);
+        patch.setUpdatedAt(LocalDateTime.now());
+
+        return partialUpdateRepository.update(User.class, id, userDto.getVersion(), patch, UPDATABLE_PROPERTIES)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new ResourceNotFoundException("User", "id", id))))
+                .flatMap(result -> {
+                    User savedUser = result.entity();
+                    Object oldEmail = result.previous().getOrDefault("email", savedUser.getEmail());
+
+                    // Публикуем событие обновления пользователя через Pub/Sub
+                    Map<String, Object> metadata = Map.of(
+                            "oldEmail", oldEmail,
+                            "newEmail", savedUser.getEmail()
+                    );
+
+                    return redisEventPublisher.publishUserUpdated(savedUser.getId(), metadata)
+                            .thenReturn(savedUser);
                 })
                 .map(userMapper::toDto);
     }
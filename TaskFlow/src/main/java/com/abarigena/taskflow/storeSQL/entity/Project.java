@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -35,9 +36,16 @@ public class Project {
     @Column("updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     public enum Status {
         ACTIVE,
         COMPLETED,
-        ARCHIVED
+        ARCHIVED,
+        /**
+         * Удаление запрошено: строки проекта удаляет ProjectDeletionJob, ход удаления - в project_deletions.
+         */
+        DELETING
     }
 }
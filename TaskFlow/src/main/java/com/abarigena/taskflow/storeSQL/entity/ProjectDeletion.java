@@ -0,0 +1,50 @@
+package com.abarigena.taskflow.storeSQL.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ход фонового удаления проекта. Строку создает запрос на удаление, счетчики обновляет ProjectDeletionJob.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "project_deletions")
+public class ProjectDeletion {
+
+    @Id
+    @Column("project_id")
+    private Long projectId;
+
+    @Column("requested_at")
+    private LocalDateTime requestedAt;
+
+    @Column("started_at")
+    private LocalDateTime startedAt;
+
+    @Column("completed_at")
+    private LocalDateTime completedAt;
+
+    @Column("lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column("tasks_total")
+    private Long tasksTotal;
+
+    @Column("tasks_deleted")
+    private Long tasksDeleted;
+
+    @Column("comments_deleted")
+    private Long commentsDeleted;
+
+    @Column("members_deleted")
+    private Long membersDeleted;
+}
@@ -0,0 +1,33 @@
+package com.abarigena.taskflow.storeSQL.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Счетчики задач проекта для одной пары (status, priority).
+ * Таблица поддерживается триггером на tasks и только читается приложением.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "project_task_stats")
+public class ProjectTaskStat {
+
+    @Column("project_id")
+    private Long projectId;
+
+    private Task.Status status;
+
+    private Task.Priority priority;
+
+    @Column("task_count")
+    private Long taskCount;
+
+    @Column("overdue_count")
+    private Long overdueCount;
+}
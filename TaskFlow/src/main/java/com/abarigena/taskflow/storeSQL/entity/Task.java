@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -36,12 +37,24 @@ public class Task {
     @Column("updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     @Column("assigned_user_id")
     private Long assignedUserId;
 
     @Column("project_id")
     private Long projectId;
 
+    /**
+     * Момент мягкого удаления; null - задача видима.
+     */
+    @Column("deleted_at")
+    private LocalDateTime deletedAt;
+
+    @Column("deleted_by")
+    private Long deletedBy;
+
     public enum Status {
         TODO,
         IN_PROGRESS,
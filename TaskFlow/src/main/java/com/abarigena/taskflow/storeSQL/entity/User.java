@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -40,4 +41,7 @@ public class User {
 
     @Column("updated_at")
     private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
 }
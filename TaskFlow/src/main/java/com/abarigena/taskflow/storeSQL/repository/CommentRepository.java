@@ -2,19 +2,82 @@ package com.abarigena.taskflow.storeSQL.repository;
 
 import com.abarigena.taskflow.storeSQL.entity.Comment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 
 @Repository
-public interface CommentRepository extends R2dbcRepository<Comment, Long> {
+public interface CommentRepository extends R2dbcRepository<Comment, Long>, CommentViewRepository {
 
     /**
      * Находит все комментарии, связанные с указанной задачей, с поддержкой пагинации и сортировки.
+     * Видимость задачи не проверяется: ее проверяет вызывающий код.
      *
      * @param taskId   Идентификатор задачи.
      * @param pageable Параметры пагинации и сортировки.
      * @return Поток комментариев для задачи, соответствующих параметрам пагинации.
      */
     Flux<Comment> findByTaskId(Long taskId, Pageable pageable);
+
+    /**
+     * Считает комментарии задачи; у удаленной задачи комментариев нет.
+     *
+     * @param taskId Идентификатор задачи.
+     * @return Mono с количеством комментариев.
+     */
+    @Query("select count(*) from comments where task_id = :taskId" +
+            " and exists (select 1 from tasks t where t.id = :taskId and t.deleted_at is null)")
+    Mono<Long> countByTaskId(Long taskId);
+
+    /**
+     * Находит комментарий по идентификатору, если его задача не удалена.
+     *
+     * @param id Идентификатор комментария.
+     * @return Mono с комментарием или пустой Mono, если комментария нет или его задача удалена.
+     */
+    @Query("select c.* from comments c where c.id = :id" +
+            " and exists (select 1 from tasks t where t.id = c.task_id and t.deleted_at is null)")
+    Mono<Comment> findVisibleById(Long id);
+
+    /**
+     * Находит страницу комментариев задачи после указанной keyset-позиции (created_at DESC, id DESC).
+     * Условие {@code created_at <= :createdAt} дублирует сравнение пар, чтобы планировщик отсек секции новее курсора.
+     * У удаленной задачи комментариев нет.
+     *
+     * @param taskId    Идентификатор задачи.
+     * @param createdAt Время создания последнего комментария предыдущей страницы.
+     * @param id        Идентификатор последнего комментария предыдущей страницы.
+     * @param limit     Максимальное количество записей.
+     * @return Поток комментариев задачи, следующих за курсором.
+     */
+    @Query("select * from comments where task_id = :taskId" +
+            " and exists (select 1 from tasks t where t.id = :taskId and t.deleted_at is null)" +
+            " and created_at <= :createdAt and (created_at, id) < (:createdAt, :id)" +
+            " order by created_at desc, id desc limit :limit")
+    Flux<Comment> findByTaskIdAfter(Long taskId, LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Находит страницы комментариев нескольких задач одним запросом: для каждой задачи - не больше limit
+     * комментариев после keyset-позиции (created_at DESC, id DESC). LATERAL-подзапрос читает индекс
+     * по (task_id, created_at, id) отдельно для каждой задачи, а не все комментарии набора задач.
+     * Комментарии удаленных задач не возвращаются.
+     *
+     * @param taskIds   Идентификаторы задач (не пустой набор).
+     * @param createdAt Время создания последнего комментария предыдущей страницы.
+     * @param id        Идентификатор последнего комментария предыдущей страницы.
+     * @param limit     Максимальное количество записей на задачу.
+     * @return Поток комментариев всех задач.
+     */
+    @Query("select c.* from tasks t cross join lateral (" +
+            "select * from comments where task_id = t.id" +
+            " and created_at <= :createdAt and (created_at, id) < (:createdAt, :id)" +
+            " order by created_at desc, id desc limit :limit) c" +
+            " where t.id in (:taskIds) and t.deleted_at is null" +
+            " order by c.task_id, c.created_at desc, c.id desc")
+    Flux<Comment> findByTaskIdInAfter(Collection<Long> taskIds, LocalDateTime createdAt, Long id, int limit);
 }
@@ -0,0 +1,25 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.dto.CommentView;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Выборки комментариев вместе с автором.
+ * Подключается к {@link CommentRepository} как фрагмент Spring Data.
+ */
+public interface CommentViewRepository {
+
+    /**
+     * Находит страницу комментариев задачи с авторами после указанной keyset-позиции (created_at DESC, id DESC).
+     * Комментарии страницы выбираются по индексу (task_id, created_at, id), авторы - по первичному ключу users.
+     *
+     * @param taskId    Идентификатор задачи.
+     * @param createdAt Время создания последнего комментария предыдущей страницы.
+     * @param id        Идентификатор последнего комментария предыдущей страницы.
+     * @param limit     Максимальное количество записей.
+     * @return Поток комментариев задачи с авторами, следующих за курсором.
+     */
+    Flux<CommentView> findViewsByTaskIdAfter(Long taskId, LocalDateTime createdAt, Long id, int limit);
+}
@@ -0,0 +1,54 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.dto.CommentView;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Реализация выборок комментариев с автором одним соединением comments и users.
+ */
+@RequiredArgsConstructor
+public class CommentViewRepositoryImpl implements CommentViewRepository {
+
+    private final R2dbcEntityTemplate template;
+
+    @Override
+    public Flux<CommentView> findViewsByTaskIdAfter(Long taskId, LocalDateTime createdAt, Long id, int limit) {
+        return template.getDatabaseClient()
+                .sql("""
+                        select c.id, c.context, c.task_id, c.created_at, c.updated_at,
+                               u.id as author_id, u.first_name as author_first_name, u.last_name as author_last_name
+                        from comments c
+                        join users u on u.id = c.user_id
+                        where c.task_id = :taskId
+                          and exists (select 1 from tasks t where t.id = :taskId and t.deleted_at is null)
+                          and c.created_at <= :createdAt and (c.created_at, c.id) < (:createdAt, :id)
+                        order by c.created_at desc, c.id desc
+                        limit :limit""")
+                .bind("taskId", taskId)
+                .bind("createdAt", createdAt)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map((row, metadata) -> toView(row))
+                .all();
+    }
+
+    private static CommentView toView(Row row) {
+        return CommentView.builder()
+                .id(row.get("id", Long.class))
+                .context(row.get("context", String.class))
+                .taskId(row.get("task_id", Long.class))
+                .author(CommentView.Author.builder()
+                        .id(row.get("author_id", Long.class))
+                        .firstName(row.get("author_first_name", String.class))
+                        .lastName(row.get("author_last_name", String.class))
+                        .build())
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
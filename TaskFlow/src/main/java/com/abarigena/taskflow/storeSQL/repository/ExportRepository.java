@@ -0,0 +1,115 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.storeSQL.entity.Comment;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Потоковая выгрузка строк для экспорта.
+ * <p>
+ * Запрос выполняется одним курсором: драйвер забирает строки порциями по fetch size по мере того,
+ * как подписчик запрашивает следующие элементы, поэтому медленный HTTP-клиент притормаживает чтение из базы,
+ * а память на стороне приложения не зависит от числа строк. Порядок по id стабилен между выгрузками.
+ * <p>
+ * Без фильтров порядок по id собирается слиянием первичных ключей секций (id, created_at) без сортировки.
+ * С фильтром по проекту или статусу строки читаются индексом фильтра, и база сортирует их по id:
+ * объем сортировки равен числу отобранных строк, а первая строка уходит клиенту только после ее окончания.
+ */
+@Repository
+public class ExportRepository {
+
+    private final R2dbcEntityTemplate template;
+    private final int fetchSize;
+
+    public ExportRepository(R2dbcEntityTemplate template,
+                            @Value("${taskflow.export.fetch-size:500}") int fetchSize) {
+        this.template = template;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Выгружает видимые задачи в порядке id, с необязательными фильтрами.
+     * Диапазон created_at ограничивает чтение секциями tasks за эти месяцы.
+     *
+     * @param projectId   Идентификатор проекта или null.
+     * @param status      Статус задачи или null.
+     * @param createdFrom Начало диапазона created_at включительно или null.
+     * @param createdTo   Конец диапазона created_at не включительно или null.
+     * @return Поток задач.
+     */
+    public Flux<Task> streamTasks(Long projectId, Task.Status status, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        StringBuilder sql = new StringBuilder("select * from tasks where deleted_at is null");
+        if (projectId != null) {
+            sql.append(" and project_id = :projectId");
+        }
+        if (status != null) {
+            sql.append(" and status = :status");
+        }
+        appendCreatedAtRange(sql, "created_at", createdFrom, createdTo);
+        sql.append(" order by id");
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql.toString());
+        if (projectId != null) {
+            spec = spec.bind("projectId", projectId);
+        }
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return stream(bindCreatedAtRange(spec, createdFrom, createdTo), Task.class);
+    }
+
+    /**
+     * Выгружает комментарии ко всем видимым задачам проекта в порядке id.
+     * Диапазон created_at комментариев ограничивает чтение секциями comments за эти месяцы.
+     *
+     * @param projectId   Идентификатор проекта.
+     * @param createdFrom Начало диапазона created_at включительно или null.
+     * @param createdTo   Конец диапазона created_at не включительно или null.
+     * @return Поток комментариев.
+     */
+    public Flux<Comment> streamCommentsByProjectId(Long projectId, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        StringBuilder sql = new StringBuilder("select c.* from comments c join tasks t on t.id = c.task_id" +
+                " where t.project_id = :projectId and t.deleted_at is null");
+        appendCreatedAtRange(sql, "c.created_at", createdFrom, createdTo);
+        sql.append(" order by c.id");
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient()
+                .sql(sql.toString())
+                .bind("projectId", projectId);
+        return stream(bindCreatedAtRange(spec, createdFrom, createdTo), Comment.class);
+    }
+
+    private static void appendCreatedAtRange(StringBuilder sql, String column, LocalDateTime createdFrom,
+                                             LocalDateTime createdTo) {
+        if (createdFrom != null) {
+            sql.append(" and ").append(column).append(" >= :createdFrom");
+        }
+        if (createdTo != null) {
+            sql.append(" and ").append(column).append(" < :createdTo");
+        }
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindCreatedAtRange(DatabaseClient.GenericExecuteSpec spec,
+                                                                       LocalDateTime createdFrom,
+                                                                       LocalDateTime createdTo) {
+        if (createdFrom != null) {
+            spec = spec.bind("createdFrom", createdFrom);
+        }
+        if (createdTo != null) {
+            spec = spec.bind("createdTo", createdTo);
+        }
+        return spec;
+    }
+
+    private <T> Flux<T> stream(DatabaseClient.GenericExecuteSpec spec, Class<T> type) {
+        return spec.filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> template.getConverter().read(type, row, metadata))
+                .all();
+    }
+}
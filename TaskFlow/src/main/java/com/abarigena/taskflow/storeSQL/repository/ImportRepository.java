@@ -0,0 +1,385 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.config.ReadWriteRoutingConnectionFactory;
+import com.abarigena.taskflow.dto.ImportResult;
+import com.abarigena.taskflow.storeSQL.entity.Role;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт задач и пользователей через COPY во временную таблицу.
+ * <p>
+ * Импорт целиком выполняется на одном соединении пула записи, а не на соединении на строку:
+ * строки CSV потоком передаются командой COPY ... FROM STDIN во временную таблицу с текстовыми колонками,
+ * затем проверяются и переносятся в целевую таблицу несколькими set-based выражениями. Причина отклонения
+ * строки пишется в колонку error и попадает в отчет, не прерывая импорт остальных строк. Ссылки на проекты и
+ * пользователей перепроверяются и блокируются в одной транзакции с переносом, поэтому проект или пользователь,
+ * удаленный после первой проверки, отклоняет свои строки, а не весь импорт. Временная таблица удаляется до
+ * возврата соединения в пул.
+ * Проверки форматов используют pg_input_is_valid (PostgreSQL 16+).
+ */
+@Repository
+@Slf4j
+public class ImportRepository {
+
+    /**
+     * Колонки импорта задач: имя поля (заголовок CSV, ключ NDJSON) - колонка временной таблицы.
+     * id, updatedAt и version принимаются для совместимости с CSV-экспортом и игнорируются.
+     */
+    public static final Map<String, String> TASK_FIELDS = fields(
+            "id", "id",
+            "title", "title",
+            "description", "description",
+            "status", "status",
+            "priority", "priority",
+            "deadline", "deadline",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at",
+            "version", "version",
+            "assignedUserId", "assigned_user_id",
+            "projectId", "project_id");
+
+    /**
+     * Колонки импорта пользователей. passwordHash - готовый BCrypt-хеш; пользователь без него не сможет войти
+     * по паролю, пока пароль не будет задан. id, createdAt и updatedAt игнорируются.
+     */
+    public static final Map<String, String> USER_FIELDS = fields(
+            "id", "id",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "email", "email",
+            "role", "role",
+            "active", "active",
+            "passwordHash", "password_hash",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at");
+
+    /**
+     * Колонка с причиной отклонения строки; может заполняться уже при разборе файла.
+     */
+    public static final String ERROR_COLUMN = "error";
+
+    /**
+     * Номер строки в отчете. Без этой колонки в COPY строки нумеруются по порядку поступления.
+     */
+    public static final String ROW_NUMBER_COLUMN = "row_number";
+
+    private static final String TASK_STAGING = "task_import";
+    private static final String USER_STAGING = "user_import";
+
+    /**
+     * Пароль импортированного пользователя без passwordHash: не является BCrypt-хешем и не совпадает ни с одним паролем.
+     */
+    private static final String NO_PASSWORD = "!";
+
+    /**
+     * CASE проверяет условия по порядку, поэтому приведение типа выполняется только после проверки формата.
+     */
+    private static final String VALIDATE_TASKS = """
+            update task_import set error = case
+                when coalesce(btrim(title), '') = '' then 'Название не должно быть пустым'
+                when length(btrim(title)) > 255 then 'Название длиннее 255 символов'
+                when status is not null and status not in (%s) then format('Некорректный статус: %%s', status)
+                when priority is not null and priority not in (%s) then format('Некорректный приоритет: %%s', priority)
+                when deadline is not null and not pg_input_is_valid(deadline, 'timestamp')
+                    then format('Некорректный deadline: %%s', deadline)
+                when created_at is not null and not pg_input_is_valid(created_at, 'timestamp')
+                    then format('Некорректный createdAt: %%s', created_at)
+                when created_at::timestamp > localtimestamp then 'createdAt не может быть в будущем'
+                when created_at::timestamp < $1 then format('createdAt раньше %%s', $1::date)
+                when project_id is null then 'Id проекта не должно быть пустым'
+                when not pg_input_is_valid(project_id, 'bigint') then format('Некорректный projectId: %%s', project_id)
+                when assigned_user_id is not null and not pg_input_is_valid(assigned_user_id, 'bigint')
+                    then format('Некорректный assignedUserId: %%s', assigned_user_id)
+                when not exists (select 1 from projects p where p.id = project_id::bigint and p.status <> 'DELETING')
+                    then format('Project not found with id : ''%%s''', project_id)
+                when assigned_user_id is not null and not exists (select 1 from users u where u.id = assigned_user_id::bigint)
+                    then format('Assigned User not found with id : ''%%s''', assigned_user_id)
+            end
+            where error is null""".formatted(literals(Task.Status.values()), literals(Task.Priority.values()));
+
+    /**
+     * Строка с created_at вне существующих секций не будет вставлена: недостающие секции создаются заранее.
+     */
+    private static final String CREATE_TASK_PARTITIONS = """
+            select create_monthly_partitions('tasks', min(created_at::timestamp), max(created_at::timestamp),
+                                             make_interval(secs => $1))
+            from task_import
+            where error is null and created_at is not null
+            having count(*) > 0""";
+
+    /**
+     * Повторная проверка ссылок в транзакции переноса: проект блокируется FOR SHARE (не может перейти в DELETING),
+     * пользователь - FOR KEY SHARE (не может быть удален) до конца транзакции. Приведение типов - только для строк
+     * без ошибки, уже прошедших проверку формата.
+     */
+    private static final String LOCK_TASK_REFERENCES = """
+            with locked_projects as (
+                select p.id from projects p
+                where p.id in (select project_id::bigint from task_import where error is null) and p.status <> 'DELETING'
+                for share
+            ), locked_users as (
+                select u.id from users u
+                where u.id in (select assigned_user_id::bigint from task_import
+                               where error is null and assigned_user_id is not null)
+                for key share
+            )
+            update task_import s set error = case
+                when not exists (select 1 from locked_projects p where p.id = s.project_id::bigint)
+                    then format('Project not found with id : ''%s''', s.project_id)
+                else format('Assigned User not found with id : ''%s''', s.assigned_user_id)
+            end
+            where case
+                when s.error is not null then false
+                when not exists (select 1 from locked_projects p where p.id = s.project_id::bigint) then true
+                else s.assigned_user_id is not null
+                    and not exists (select 1 from locked_users u where u.id = s.assigned_user_id::bigint)
+            end""";
+
+    private static final String MERGE_TASKS = """
+            insert into tasks (title, description, status, priority, deadline, created_at, updated_at,
+                               assigned_user_id, project_id)
+            select btrim(title), description, coalesce(status, 'TODO'), coalesce(priority, 'MEDIUM'), deadline::timestamp,
+                   coalesce(created_at::timestamp, localtimestamp), localtimestamp, assigned_user_id::bigint, project_id::bigint
+            from task_import
+            where error is null
+            order by row_number""";
+
+    private static final String VALIDATE_USERS = """
+            update user_import set error = case
+                when coalesce(btrim(first_name), '') = '' then 'Имя не должно быть пустым'
+                when length(btrim(first_name)) > 100 then 'Имя длиннее 100 символов'
+                when coalesce(btrim(last_name), '') = '' then 'Фамилия не должна быть пустой'
+                when length(btrim(last_name)) > 100 then 'Фамилия длиннее 100 символов'
+                when coalesce(btrim(email), '') = '' then 'Email не должен быть пустым'
+                when length(btrim(email)) > 255 or btrim(email) !~ '^[^@\\s]+@[^@\\s]+$'
+                    then format('Некорректный email: %%s', email)
+                when role is not null and role not in (%s) then format('Некорректная роль: %%s', role)
+                when active is not null and not pg_input_is_valid(active, 'boolean')
+                    then format('Некорректный active: %%s', active)
+                when password_hash is not null and password_hash !~ '^\\$2[aby]\\$[0-9]{2}\\$[./A-Za-z0-9]{53}$'
+                    then 'passwordHash должен быть BCrypt-хешем'
+                when exists (select 1 from users u where u.email = btrim(user_import.email))
+                    then format('Пользователь с email %%s уже существует', btrim(email))
+            end
+            where error is null""".formatted(literals(Role.values()));
+
+    private static final String REJECT_DUPLICATE_EMAILS = """
+            update user_import s set error = format('Email %s уже встречается в строке %s', btrim(s.email), d.first_row)
+            from (select row_number, min(row_number) over (partition by btrim(email)) as first_row
+                  from user_import where error is null) d
+            where s.row_number = d.row_number and d.first_row <> d.row_number""";
+
+    /**
+     * Пользователь с тем же email мог появиться после проверки: такая строка не вставляется и помечается ошибкой.
+     */
+    private static final String MERGE_USERS = """
+            with inserted as (
+                insert into users (first_name, last_name, email, password, role, active, created_at, updated_at)
+                select btrim(first_name), btrim(last_name), btrim(email), coalesce(password_hash, $1),
+                       coalesce(role, 'USER'), coalesce(active::boolean, true), localtimestamp, localtimestamp
+                from user_import
+                where error is null
+                order by row_number
+                on conflict (email) do nothing
+                returning email
+            )
+            update user_import s set error = format('Пользователь с email %s уже существует', btrim(s.email))
+            where s.error is null and not exists (select 1 from inserted i where i.email = btrim(s.email))""";
+
+    private final ConnectionPool writeConnectionFactory;
+    private final Duration partitionLockTimeout;
+    private final int copyBatchSize;
+
+    public ImportRepository(@Qualifier("writeConnectionFactory") ConnectionPool writeConnectionFactory,
+                            @Value("${taskflow.partitions.lock-timeout:5s}") Duration partitionLockTimeout,
+                            @Value("${taskflow.import.copy-batch-size:500}") int copyBatchSize) {
+        this.writeConnectionFactory = writeConnectionFactory;
+        this.partitionLockTimeout = partitionLockTimeout;
+        this.copyBatchSize = copyBatchSize;
+    }
+
+    /**
+     * Импортирует задачи. Без status и priority задача получает TODO и MEDIUM, без createdAt - текущее время.
+     *
+     * @param columns     Колонки временной таблицы в порядке полей строк CSV (значения {@link #TASK_FIELDS}
+     *                    и, возможно, {@link #ROW_NUMBER_COLUMN} и {@link #ERROR_COLUMN}).
+     * @param rows        Строки CSV без заголовка, каждая с завершающим переводом строки.
+     * @param createdFrom Самый ранний допустимый createdAt: для каждого месяца истории создается секция.
+     * @param maxErrors   Максимум причин отклонения в отчете.
+     * @return Mono с отчетом об импорте.
+     */
+    public Mono<ImportResult> importTasks(List<String> columns, Flux<String> rows, LocalDateTime createdFrom, int maxErrors) {
+        return load(TASK_STAGING, TASK_FIELDS.values(), columns, rows, maxErrors, connection ->
+                execute(connection, VALIDATE_TASKS, createdFrom)
+                        .then(execute(connection, CREATE_TASK_PARTITIONS, partitionLockTimeout.toMillis() / 1000.0))
+                        .then(inTransaction(connection, execute(connection, LOCK_TASK_REFERENCES)
+                                .then(execute(connection, MERGE_TASKS)))));
+    }
+
+    /**
+     * Импортирует пользователей. Без role пользователь получает USER, без active - true.
+     * Email, уже существующий в базе или повторяющийся в файле, отклоняет строку.
+     *
+     * @param columns   Колонки временной таблицы в порядке полей строк CSV.
+     * @param rows      Строки CSV без заголовка, каждая с завершающим переводом строки.
+     * @param maxErrors Максимум причин отклонения в отчете.
+     * @return Mono с отчетом об импорте.
+     */
+    public Mono<ImportResult> importUsers(List<String> columns, Flux<String> rows, int maxErrors) {
+        return load(USER_STAGING, USER_FIELDS.values(), columns, rows, maxErrors, connection ->
+                execute(connection, VALIDATE_USERS)
+                        .then(execute(connection, REJECT_DUPLICATE_EMAILS))
+                        .then(execute(connection, MERGE_USERS, NO_PASSWORD)));
+    }
+
+    private Mono<ImportResult> load(String staging, Collection<String> stagingColumns, List<String> columns,
+                                    Flux<String> rows, int maxErrors, Function<Connection, Mono<Long>> merge) {
+        // Соединение берется из пула записи напрямую, мимо маршрутизации: отмечаем запись для read-your-writes
+        return Mono.usingWhen(Mono.deferContextual(context -> {
+                    ReadWriteRoutingConnectionFactory.markWrite(context);
+                    return Mono.from(writeConnectionFactory.create());
+                }),
+                connection -> execute(connection, "drop table if exists pg_temp." + staging)
+                        .then(execute(connection, createStaging(staging, stagingColumns)))
+                        .then(copy(connection, staging, columns, rows))
+                        .then(Mono.defer(() -> merge.apply(connection)))
+                        .then(Mono.defer(() -> report(connection, staging, maxErrors)))
+                        .doOnNext(result -> log.info("Импорт в {}: строк {}, загружено {}, отклонено {}",
+                                staging, result.getReceived(), result.getImported(), result.getFailed())),
+                connection -> release(connection, staging),
+                (connection, error) -> release(connection, staging),
+                connection -> release(connection, staging));
+    }
+
+    private static String createStaging(String staging, Collection<String> columns) {
+        return columns.stream()
+                .map(column -> column + " text")
+                .collect(Collectors.joining(", ",
+                        "create temp table " + staging + " (" + ROW_NUMBER_COLUMN + " bigint generated by default as identity, ",
+                        ", " + ERROR_COLUMN + " text)"));
+    }
+
+    /**
+     * Передает строки в COPY пачками по copyBatchSize строк на сообщение. Ошибка разбора CSV на стороне
+     * Postgres (неверное число полей, некорректная кодировка) отменяет импорт целиком.
+     */
+    private Mono<Long> copy(Connection connection, String staging, List<String> columns, Flux<String> rows) {
+        String sql = "copy " + staging + " (" + String.join(", ", columns) + ") from stdin (format csv)";
+        Flux<ByteBuf> data = rows.buffer(copyBatchSize)
+                .map(batch -> Unpooled.wrappedBuffer(String.join("", batch).getBytes(StandardCharsets.UTF_8)));
+        return unwrap(connection).copyIn(sql, data)
+                .onErrorMap(error -> error instanceof R2dbcException r2dbc && r2dbc.getSqlState() != null
+                                && r2dbc.getSqlState().startsWith("22"),
+                        error -> new IllegalArgumentException("Некорректный файл импорта: " + error.getMessage(), error));
+    }
+
+    /**
+     * Выполняет работу в транзакции на соединении импорта. Секции создаются до нее, чтобы DDL не держал
+     * блокировку таблицы задач на время переноса.
+     */
+    private static Mono<Long> inTransaction(Connection connection, Mono<Long> work) {
+        return Mono.usingWhen(Mono.from(connection.beginTransaction()).thenReturn(connection),
+                transaction -> work,
+                Connection::commitTransaction,
+                (transaction, error) -> transaction.rollbackTransaction(),
+                Connection::rollbackTransaction);
+    }
+
+    private static Mono<ImportResult> report(Connection connection, String staging, int maxErrors) {
+        Mono<long[]> counts = Flux.from(connection.createStatement(
+                                "select count(*) as received, count(*) filter (where error is null) as imported from " + staging)
+                        .execute())
+                .flatMap(result -> result.map(row -> new long[]{row.get("received", Long.class), row.get("imported", Long.class)}))
+                .single();
+        Mono<List<ImportResult.RowError>> errors = Flux.from(connection.createStatement(
+                                "select row_number, error from " + staging + " where error is not null order by row_number limit $1")
+                        .bind(0, maxErrors)
+                        .execute())
+                .flatMap(result -> result.map(row -> new ImportResult.RowError(
+                        row.get("row_number", Long.class), row.get("error", String.class))))
+                .collectList();
+
+        return counts.zipWith(errors, (count, rowErrors) -> ImportResult.builder()
+                .received(count[0])
+                .imported(count[1])
+                .failed(count[0] - count[1])
+                .errors(rowErrors)
+                .build());
+    }
+
+    private static Mono<Void> release(Connection connection, String staging) {
+        return execute(connection, "drop table if exists pg_temp." + staging)
+                .onErrorResume(error -> {
+                    log.warn("Не удалось удалить временную таблицу {}: {}", staging, error.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.from(connection.close()));
+    }
+
+    private static Mono<Long> execute(Connection connection, String sql, Object... parameters) {
+        return Flux.defer(() -> {
+                    Statement statement = connection.createStatement(sql);
+                    for (int i = 0; i < parameters.length; i++) {
+                        statement.bind(i, parameters[i]);
+                    }
+                    return statement.execute();
+                })
+                .flatMap(Result::getRowsUpdated)
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * COPY доступен только у соединения драйвера, поэтому соединение пула разворачивается до него.
+     */
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (current instanceof PostgresqlConnection postgresqlConnection) {
+            return postgresqlConnection;
+        }
+        throw new IllegalStateException("COPY requires a PostgreSQL connection, got " + connection.getClass().getName());
+    }
+
+    private static String literals(Enum<?>[] values) {
+        return Arrays.stream(values)
+                .map(value -> "'" + value.name() + "'")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static Map<String, String> fields(String... fieldToColumn) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < fieldToColumn.length; i += 2) {
+            fields.put(fieldToColumn[i], fieldToColumn[i + 1]);
+        }
+        return Collections.unmodifiableMap(fields);
+    }
+}
@@ -0,0 +1,155 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Частичное обновление строк одним запросом с оптимистической блокировкой по колонке version.
+ * <p>
+ * Вместо findById + save (два запроса и перезапись всех колонок) выполняется
+ * {@code UPDATE ... SET <переданные колонки>, version = version + 1 WHERE id = ? [AND version = ?] RETURNING *}.
+ * Присоединение той же таблицы под псевдонимом prev дает значения измененных колонок до обновления
+ * (например, старый email для сброса кэша) без дополнительного SELECT.
+ * Имена колонок берутся только из метаданных маппинга сущности. У сущностей со свойством deletedAt
+ * мягко удаленные строки не обновляются, как и отсутствующие; так же не обновляются строки с исключенными
+ * значениями свойств (например, проект в статусе DELETING).
+ */
+@Repository
+@RequiredArgsConstructor
+public class PartialUpdateRepository {
+
+    private static final String PREVIOUS_PREFIX = "prev_";
+    private static final String DELETED_AT_PROPERTY = "deletedAt";
+
+    private final R2dbcEntityTemplate template;
+
+    /**
+     * Результат частичного обновления.
+     *
+     * @param entity   Строка после обновления.
+     * @param previous Значения измененных колонок до обновления (по имени колонки).
+     * @param <T>      Тип сущности.
+     */
+    public record Result<T>(T entity, Map<String, Object> previous) {
+    }
+
+    /**
+     * Обновляет у строки с заданным id только ненулевые свойства patch из списка разрешенных.
+     *
+     * @param type            Класс сущности.
+     * @param id              Идентификатор строки.
+     * @param expectedVersion Ожидаемая версия строки; null - обновление без проверки версии.
+     * @param patch           Сущность с новыми значениями; null-свойства не меняются.
+     * @param properties      Свойства сущности, которые разрешено обновлять.
+     * @return Обновленная строка; пустой Mono, если строки нет или она мягко удалена; OptimisticLockingFailureException,
+     * если строка есть, но ее версия отличается от ожидаемой.
+     */
+    public <T> Mono<Result<T>> update(Class<T> type, Long id, Long expectedVersion, T patch, Collection<String> properties) {
+        return update(type, id, expectedVersion, patch, properties, Map.of());
+    }
+
+    /**
+     * Обновляет у строки с заданным id только ненулевые свойства patch из списка разрешенных,
+     * если ни одно свойство строки не равно исключенному значению.
+     *
+     * @param type            Класс сущности.
+     * @param id              Идентификатор строки.
+     * @param expectedVersion Ожидаемая версия строки; null - обновление без проверки версии.
+     * @param patch           Сущность с новыми значениями; null-свойства не меняются.
+     * @param properties      Свойства сущности, которые разрешено обновлять.
+     * @param excluded        Значения свойств, при которых строка считается отсутствующей (по имени свойства).
+     * @return Обновленная строка; пустой Mono, если строки нет, она мягко удалена или имеет исключенное значение;
+     * OptimisticLockingFailureException, если строка есть, но ее версия отличается от ожидаемой.
+     */
+    public <T> Mono<Result<T>> update(Class<T> type, Long id, Long expectedVersion, T patch, Collection<String> properties,
+                                      Map<String, ?> excluded) {
+        RelationalPersistentEntity<?> entity = template.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type);
+        String table = entity.getTableName().getReference();
+        RelationalPersistentProperty deletedAt = entity.getPersistentProperty(DELETED_AT_PROPERTY);
+
+        // Значения приводятся к типам колонок конвертером маппинга (enum - в строку и т.п.)
+        PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(patch);
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String property : properties) {
+            RelationalPersistentProperty persistentProperty = entity.getRequiredPersistentProperty(property);
+            Object value = accessor.getProperty(persistentProperty);
+            if (value != null) {
+                changes.put(persistentProperty.getColumnName().getReference(),
+                        template.getConverter().writeValue(value, persistentProperty.getTypeInformation()));
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("update ").append(table).append(" t set ");
+        changes.keySet().forEach(column -> sql.append(column).append(" = :").append(column).append(", "));
+        sql.append("version = t.version + 1 from ").append(table).append(" prev")
+                .append(" where t.id = :id and prev.id = t.id");
+        if (deletedAt != null) {
+            sql.append(" and t.").append(deletedAt.getColumnName().getReference()).append(" is null");
+        }
+        Map<String, Object> exclusions = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> exclusion : excluded.entrySet()) {
+            RelationalPersistentProperty persistentProperty = entity.getRequiredPersistentProperty(exclusion.getKey());
+            String column = persistentProperty.getColumnName().getReference();
+            sql.append(" and t.").append(column).append(" <> :excluded_").append(column);
+            exclusions.put("excluded_" + column,
+                    template.getConverter().writeValue(exclusion.getValue(), persistentProperty.getTypeInformation()));
+        }
+        if (expectedVersion != null) {
+            sql.append(" and t.version = :expectedVersion");
+        }
+        sql.append(" returning t.*");
+        changes.keySet().forEach(column -> sql.append(", prev.").append(column)
+                .append(" as ").append(PREVIOUS_PREFIX).append(column));
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql.toString()).bind("id", id);
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            spec = spec.bind(change.getKey(), change.getValue());
+        }
+        for (Map.Entry<String, Object> exclusion : exclusions.entrySet()) {
+            spec = spec.bind(exclusion.getKey(), exclusion.getValue());
+        }
+        if (expectedVersion != null) {
+            spec = spec.bind("expectedVersion", expectedVersion);
+        }
+
+        Mono<Result<T>> updated = spec
+                .map((result, metadata) -> {
+                    Map<String, Object> previous = new HashMap<>();
+                    changes.keySet().forEach(column -> previous.put(column, result.get(PREVIOUS_PREFIX + column)));
+                    return new Result<>(template.getConverter().read(type, result, metadata), previous);
+                })
+                .one();
+
+        if (expectedVersion == null) {
+            return updated;
+        }
+        // Строка не обновилась: отличаем устаревшую версию от отсутствующей строки
+        Criteria criteria = deletedAt != null
+                ? Criteria.where("id").is(id).and(DELETED_AT_PROPERTY).isNull()
+                : Criteria.where("id").is(id);
+        for (Map.Entry<String, ?> exclusion : excluded.entrySet()) {
+            criteria = criteria.and(exclusion.getKey()).not(exclusion.getValue());
+        }
+        Query visible = Query.query(criteria);
+        return updated.switchIfEmpty(Mono.defer(() -> template.exists(visible, type)
+                .flatMap(exists -> exists
+                        ? Mono.error(new OptimisticLockingFailureException(String.format(
+                        "%s with id '%s' was modified concurrently (expected version %s)", type.getSimpleName(), id, expectedVersion)))
+                        : Mono.empty())));
+    }
+}
@@ -0,0 +1,41 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Обслуживание месячных секций секционированных таблиц (tasks, comments) через функцию
+ * create_monthly_partitions из миграции V13.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PartitionRepository {
+
+    private final R2dbcEntityTemplate template;
+
+    /**
+     * Создает недостающие месячные секции таблицы с месяца {@code from} по месяц {@code to} включительно.
+     *
+     * @param table    Имя секционированной таблицы.
+     * @param from     Момент внутри первого месяца.
+     * @param to       Момент внутри последнего месяца.
+     * @param lockWait Максимальное ожидание блокировки таблицы.
+     * @return Mono с количеством созданных секций.
+     */
+    public Mono<Integer> createMonthlyPartitions(String table, LocalDateTime from, LocalDateTime to, Duration lockWait) {
+        return template.getDatabaseClient()
+                .sql("select create_monthly_partitions(cast(:table as regclass), :from, :to," +
+                        " make_interval(secs => :lockWaitSeconds)) as created")
+                .bind("table", table)
+                .bind("from", from)
+                .bind("to", to)
+                .bind("lockWaitSeconds", lockWait.toMillis() / 1000.0)
+                .map(row -> row.get("created", Integer.class))
+                .one();
+    }
+}
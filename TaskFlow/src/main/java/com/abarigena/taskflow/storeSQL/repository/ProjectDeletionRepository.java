@@ -0,0 +1,155 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.storeSQL.entity.ProjectDeletion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Доступ к таблице project_deletions и пакетное удаление строк проекта.
+ * <p>
+ * Каждый метод - одно SQL-выражение, поэтому удаление пачки и учет ее в счетчиках атомарны
+ * без явной транзакции, а транзакции остаются короткими.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectDeletionRepository {
+
+    /**
+     * Дочерние строки проекта, удаляемые пачками, в порядке удаления: комментарии до задач,
+     * чтобы удаление задачи не тянуло за собой каскадом неограниченное число комментариев.
+     */
+    public enum Child {
+        COMMENTS("""
+                select c.id, c.created_at from comments c join tasks t on t.id = c.task_id
+                where t.project_id = :projectId limit :limit""",
+                "delete from comments x using doomed d where x.id = d.id and x.created_at = d.created_at",
+                "comments_deleted"),
+        TASKS("select id, created_at from tasks where project_id = :projectId limit :limit",
+                "delete from tasks x using doomed d where x.id = d.id and x.created_at = d.created_at",
+                "tasks_deleted"),
+        MEMBERS("select project_id, user_id from project_users where project_id = :projectId limit :limit",
+                "delete from project_users x using doomed d where x.project_id = d.project_id and x.user_id = d.user_id",
+                "members_deleted");
+
+        private final String sql;
+
+        Child(String selectChunk, String deleteChunk, String counterColumn) {
+            this.sql = "with doomed as (" + selectChunk + "), deleted as (" + deleteChunk + " returning 1)" +
+                    " update project_deletions set " + counterColumn + " = " + counterColumn + " + (select count(*) from deleted)," +
+                    " lease_until = localtimestamp + make_interval(secs => :leaseSeconds)" +
+                    " where project_id = :projectId" +
+                    " returning (select count(*) from deleted) as deleted";
+        }
+    }
+
+    private final R2dbcEntityTemplate template;
+
+    /**
+     * Переводит проект в статус DELETING и ставит его в очередь удаления. Повторный запрос для проекта,
+     * который уже удаляется, ничего не меняет.
+     *
+     * @param projectId Идентификатор проекта.
+     * @return Mono с количеством поставленных в очередь удалений (0 или 1).
+     */
+    public Mono<Long> request(Long projectId) {
+        return template.getDatabaseClient()
+                .sql("""
+                        with marked as (
+                            update projects set status = 'DELETING', version = version + 1, updated_at = localtimestamp
+                            where id = :projectId and status <> 'DELETING'
+                            returning id
+                        )
+                        insert into project_deletions (project_id, tasks_total)
+                        select id, (select coalesce(sum(task_count), 0) from project_task_stats where project_id = marked.id)
+                        from marked
+                        on conflict (project_id) do nothing""")
+                .bind("projectId", projectId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Находит ход удаления проекта.
+     *
+     * @param projectId Идентификатор проекта.
+     * @return Mono с ходом удаления или пустой Mono, если удаление не запрашивалось.
+     */
+    public Mono<ProjectDeletion> findById(Long projectId) {
+        return read(template.getDatabaseClient()
+                .sql("select * from project_deletions where project_id = :projectId")
+                .bind("projectId", projectId));
+    }
+
+    /**
+     * Берет в работу самое раннее незавершенное удаление, аренда которого свободна или истекла.
+     * Несколько экземпляров приложения не получат одно и то же удаление.
+     *
+     * @param lease Срок аренды; продлевается каждой удаленной пачкой.
+     * @return Mono с удалением или пустой Mono, если очередь пуста.
+     */
+    public Mono<ProjectDeletion> claimNext(Duration lease) {
+        return read(template.getDatabaseClient()
+                .sql("""
+                        update project_deletions
+                        set lease_until = localtimestamp + make_interval(secs => :leaseSeconds),
+                            started_at = coalesce(started_at, localtimestamp)
+                        where project_id = (
+                            select project_id from project_deletions
+                            where completed_at is null and (lease_until is null or lease_until < localtimestamp)
+                            order by requested_at
+                            limit 1
+                            for update skip locked)
+                        returning *""")
+                .bind("leaseSeconds", seconds(lease)));
+    }
+
+    /**
+     * Удаляет не больше {@code limit} дочерних строк проекта, учитывает их в счетчиках и продлевает аренду.
+     *
+     * @param projectId Идентификатор проекта.
+     * @param child     Вид удаляемых строк.
+     * @param limit     Размер пачки.
+     * @param lease     Новый срок аренды.
+     * @return Mono с количеством удаленных строк.
+     */
+    public Mono<Long> deleteChunk(Long projectId, Child child, int limit, Duration lease) {
+        return template.getDatabaseClient()
+                .sql(child.sql)
+                .bind("projectId", projectId)
+                .bind("limit", limit)
+                .bind("leaseSeconds", seconds(lease))
+                .map(row -> row.get("deleted", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    /**
+     * Удаляет сам проект (вместе с оставшимися строками, которые удалит каскад) и отмечает удаление завершенным.
+     *
+     * @param projectId Идентификатор проекта.
+     * @return Mono с итоговым ходом удаления.
+     */
+    public Mono<ProjectDeletion> complete(Long projectId) {
+        return read(template.getDatabaseClient()
+                .sql("""
+                        with removed as (delete from projects where id = :projectId)
+                        update project_deletions set completed_at = localtimestamp, lease_until = null
+                        where project_id = :projectId
+                        returning *""")
+                .bind("projectId", projectId));
+    }
+
+    private Mono<ProjectDeletion> read(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.map((row, metadata) -> template.getConverter().read(ProjectDeletion.class, row, metadata))
+                .one();
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.abarigena.taskflow.storeSQL.repository;
 
+import com.abarigena.taskflow.dto.ProjectSummary;
 import com.abarigena.taskflow.storeSQL.entity.Project;
 import com.abarigena.taskflow.storeSQL.entity.User;
 import org.springframework.data.domain.Pageable;
@@ -9,6 +10,9 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 @Repository
 public interface ProjectRepository extends R2dbcRepository<Project, Long> {
 
@@ -29,6 +33,14 @@ public interface ProjectRepository extends R2dbcRepository<Project, Long> {
      */
     Flux<Project> findByOwnerId(Long ownerId, Pageable pageable);
 
+    /**
+     * Считает проекты, принадлежащие указанному владельцу.
+     *
+     * @param ownerId Идентификатор владельца проекта.
+     * @return Mono с количеством проектов.
+     */
+    Mono<Long> countByOwnerId(Long ownerId);
+
     /**
      * Находит все проекты, в которых участвует указанный пользователь, с поддержкой пагинации и сортировки.
      * Выполняет соединение через промежуточную таблицу project_users.
@@ -41,6 +53,15 @@ public interface ProjectRepository extends R2dbcRepository<Project, Long> {
             " where pu.user_id = :userId")
     Flux<Project> findProjectsByUserId(Long userId, Pageable pageable);
 
+    /**
+     * Считает проекты, в которых участвует указанный пользователь.
+     *
+     * @param userId Идентификатор пользователя.
+     * @return Mono с количеством проектов.
+     */
+    @Query("select count(*) from project_users where user_id = :userId")
+    Mono<Long> countProjectsByUserId(Long userId);
+
     /**
      * Добавляет пользователя в проект, создавая запись в промежуточной таблице project_users.
      * При конфликте (пара projectId и userId уже существует) ничего не делает.
@@ -62,6 +83,38 @@ public interface ProjectRepository extends R2dbcRepository<Project, Long> {
     @Query("delete from project_users where project_id = :projectId and user_id = :userId")
     Mono<Void> deleteUserFromProject(Long projectId, Long userId);
 
+    /**
+     * Добавляет пользователей в проект одним многострочным INSERT ... ON CONFLICT DO NOTHING.
+     * Несуществующие пользователи и уже состоящие в проекте пропускаются.
+     *
+     * @param projectId Идентификатор проекта.
+     * @param userIds   Идентификаторы пользователей.
+     * @return Поток идентификаторов пользователей, которые действительно добавлены.
+     */
+    @Query("insert into project_users (project_id, user_id)" +
+            " select :projectId, u.id from users u where u.id in (:userIds)" +
+            " on conflict do nothing returning user_id")
+    Flux<Long> addUsersToProject(Long projectId, Collection<Long> userIds);
+
+    /**
+     * Удаляет пользователей из проекта одним запросом.
+     *
+     * @param projectId Идентификатор проекта.
+     * @param userIds   Идентификаторы пользователей.
+     * @return Поток идентификаторов пользователей, которые действительно удалены.
+     */
+    @Query("delete from project_users where project_id = :projectId and user_id in (:userIds) returning user_id")
+    Flux<Long> deleteUsersFromProject(Long projectId, Collection<Long> userIds);
+
+    /**
+     * Находит идентификаторы участников проекта по первичному ключу project_users, без соединения с users.
+     *
+     * @param projectId Идентификатор проекта.
+     * @return Поток идентификаторов пользователей.
+     */
+    @Query("select user_id from project_users where project_id = :projectId")
+    Flux<Long> findUserIdsInProject(Long projectId);
+
     /**
      * Находит всех пользователей, которые являются участниками указанного проекта.
      * Выполняет соединение через промежуточную таблицу project_users.
@@ -74,4 +127,71 @@ public interface ProjectRepository extends R2dbcRepository<Project, Long> {
             "where pu.project_id = :projectId")
     Flux<User> findUsersInProject(Long projectId);
 
+    /**
+     * Находит страницу всех проектов после указанной keyset-позиции (created_at DESC, id DESC).
+     *
+     * @param createdAt Время создания последнего проекта предыдущей страницы.
+     * @param id        Идентификатор последнего проекта предыдущей страницы.
+     * @param limit     Максимальное количество записей.
+     * @return Поток проектов, следующих за курсором.
+     */
+    @Query("select * from projects where (created_at, id) < (:createdAt, :id)" +
+            " order by created_at desc, id desc limit :limit")
+    Flux<Project> findAllAfter(LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Находит страницу проектов владельца после указанной keyset-позиции (created_at DESC, id DESC).
+     *
+     * @param ownerId   Идентификатор владельца проекта.
+     * @param createdAt Время создания последнего проекта предыдущей страницы.
+     * @param id        Идентификатор последнего проекта предыдущей страницы.
+     * @param limit     Максимальное количество записей.
+     * @return Поток проектов владельца, следующих за курсором.
+     */
+    @Query("select * from projects where owner_id = :ownerId and (created_at, id) < (:createdAt, :id)" +
+            " order by created_at desc, id desc limit :limit")
+    Flux<Project> findByOwnerIdAfter(Long ownerId, LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Находит страницу проектов, в которых участвует пользователь, после указанной keyset-позиции (created_at DESC, id DESC).
+     *
+     * @param userId    Идентификатор пользователя.
+     * @param createdAt Время создания последнего проекта предыдущей страницы.
+     * @param id        Идентификатор последнего проекта предыдущей страницы.
+     * @param limit     Максимальное количество записей.
+     * @return Поток проектов пользователя, следующих за курсором.
+     */
+    @Query("select p.* from projects p join project_users pu on p.id = pu.project_id" +
+            " where pu.user_id = :userId and (p.created_at, p.id) < (:createdAt, :id)" +
+            " order by p.created_at desc, p.id desc limit :limit")
+    Flux<Project> findProjectsByUserIdAfter(Long userId, LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Находит облегченные представления всех проектов с поддержкой пагинации и сортировки.
+     * Выбираются только колонки {@link ProjectSummary}.
+     *
+     * @param pageable Параметры пагинации и сортировки.
+     * @return Поток кратких представлений проектов.
+     */
+    Flux<ProjectSummary> findSummariesBy(Pageable pageable);
+
+    /**
+     * Находит облегченные представления проектов владельца с поддержкой пагинации и сортировки.
+     * Выбираются только колонки {@link ProjectSummary}.
+     *
+     * @param ownerId  Идентификатор владельца проекта.
+     * @param pageable Параметры пагинации и сортировки.
+     * @return Поток кратких представлений проектов владельца.
+     */
+    Flux<ProjectSummary> findSummariesByOwnerId(Long ownerId, Pageable pageable);
+
+    /**
+     * Отбирает из переданных идентификаторов те, для которых существует проект. Одним запросом на весь набор.
+     * Проект в статусе DELETING считается отсутствующим: добавить в него задачи нельзя.
+     *
+     * @param ids Идентификаторы проектов (не пустой набор).
+     * @return Поток существующих идентификаторов.
+     */
+    @Query("select id from projects where id in (:ids) and status <> 'DELETING'")
+    Flux<Long> findExistingIds(Collection<Long> ids);
 }
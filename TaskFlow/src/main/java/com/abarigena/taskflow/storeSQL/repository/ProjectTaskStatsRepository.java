@@ -0,0 +1,103 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.storeSQL.entity.ProjectTaskStat;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Доступ к таблице project_task_stats. Счетчики изменяет триггер на tasks; здесь только чтение
+ * и вызовы функций пересчета из миграции V11.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectTaskStatsRepository {
+
+    private final R2dbcEntityTemplate template;
+
+    /**
+     * Находит счетчики проекта по первичному ключу (не больше строки на каждую пару статус/приоритет).
+     *
+     * @param projectId Идентификатор проекта.
+     * @return Поток счетчиков проекта; пустой, если у проекта нет задач.
+     */
+    public Flux<ProjectTaskStat> findByProjectId(Long projectId) {
+        return template.select(ProjectTaskStat.class)
+                .matching(Query.query(Criteria.where("projectId").is(projectId)))
+                .all();
+    }
+
+    /**
+     * Считает задачи проекта по счетчикам, без обращения к tasks.
+     *
+     * @param projectId Идентификатор проекта.
+     * @return Mono с количеством задач проекта.
+     */
+    public Mono<Long> countTasks(Long projectId) {
+        return template.getDatabaseClient()
+                .sql("select coalesce(sum(task_count), 0) as total from project_task_stats where project_id = :projectId")
+                .bind("projectId", projectId)
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * Считает задачи всех проектов с указанными статусом и приоритетом по счетчикам, без обращения к tasks.
+     *
+     * @param status   Статус задачи.
+     * @param priority Приоритет задачи.
+     * @return Mono с количеством задач.
+     */
+    public Mono<Long> countTasks(Task.Status status, Task.Priority priority) {
+        return template.getDatabaseClient()
+                .sql("select coalesce(sum(task_count), 0) as total from project_task_stats" +
+                        " where status = :status and priority = :priority")
+                .bind("status", status.name())
+                .bind("priority", priority.name())
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * Возвращает момент, на который посчитаны overdue_count.
+     *
+     * @return Mono с отметкой времени пересчета просрочки.
+     */
+    public Mono<LocalDateTime> findOverdueAsOf() {
+        return template.getDatabaseClient()
+                .sql("select overdue_as_of from project_task_stats_watermark")
+                .map(row -> row.get("overdue_as_of", LocalDateTime.class))
+                .one();
+    }
+
+    /**
+     * Досчитывает просрочку задач, срок которых истек после предыдущего пересчета.
+     *
+     * @return Mono с новой отметкой времени пересчета просрочки.
+     */
+    public Mono<LocalDateTime> refreshOverdue() {
+        return template.getDatabaseClient()
+                .sql("select refresh_project_task_stats_overdue() as overdue_as_of")
+                .map(row -> row.get("overdue_as_of", LocalDateTime.class))
+                .one();
+    }
+
+    /**
+     * Пересчитывает таблицу по tasks с нуля.
+     *
+     * @return Mono с отметкой времени, на которую посчитана просрочка.
+     */
+    public Mono<LocalDateTime> rebuild() {
+        return template.getDatabaseClient()
+                .sql("select rebuild_project_task_stats() as overdue_as_of")
+                .map(row -> row.get("overdue_as_of", LocalDateTime.class))
+                .one();
+    }
+}
@@ -0,0 +1,40 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Оценки размера таблиц из статистики планировщика (pg_class.reltuples), без чтения самих таблиц.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TableEstimateRepository {
+
+    private final R2dbcEntityTemplate template;
+
+    /**
+     * Оценивает число строк таблицы по последнему ANALYZE/автоочистке. У секционированной таблицы
+     * складываются оценки секций: автоочистка анализирует только секции, и оценка родителя устаревает.
+     * Еще не проанализированные таблицы (reltuples = -1) считаются пустыми.
+     *
+     * @param table Имя таблицы (только константы кода: имя приводится к regclass).
+     * @return Mono с оценкой числа строк.
+     */
+    public Mono<Long> estimateRows(String table) {
+        return template.getDatabaseClient()
+                .sql("""
+                        select case when t.relkind = 'p'
+                                    then (select coalesce(sum(c.reltuples) filter (where c.reltuples >= 0), 0)
+                                          from pg_inherits i join pg_class c on c.oid = i.inhrelid
+                                          where i.inhparent = t.oid)
+                                    else greatest(t.reltuples, 0)
+                               end::bigint as estimate
+                        from pg_class t
+                        where t.oid = cast(:table as regclass)""")
+                .bind("table", table)
+                .map(row -> row.get("estimate", Long.class))
+                .one();
+    }
+}
@@ -0,0 +1,51 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Пакетная запись задач одним батчем R2DBC-выражений на соединение.
+ * Подключается к {@link TaskRepository} как фрагмент Spring Data.
+ */
+public interface TaskBatchRepository {
+
+    /**
+     * Вставляет задачи одним батчем: все наборы параметров отправляются в одном конвейере
+     * без ожидания ответа на каждую строку.
+     *
+     * @param tasks Задачи без идентификаторов.
+     * @return Поток сгенерированных идентификаторов в порядке входного списка.
+     */
+    Flux<Long> insertAll(List<Task> tasks);
+
+    /**
+     * Обновляет задачи одним батчем по их идентификаторам. Строка обновляется, только если ее версия
+     * совпадает с version задачи, то есть не изменилась с момента чтения.
+     *
+     * @param tasks Задачи с заполненными идентификаторами и версиями.
+     * @return Поток идентификаторов фактически обновленных задач (удаленные или измененные параллельно
+     * к этому моменту пропускаются).
+     */
+    Flux<Long> updateAll(List<Task> tasks);
+
+    /**
+     * Переводит задачи в статус одним выражением UPDATE ... RETURNING. Задачи, уже находящиеся в этом статусе,
+     * не изменяются и не возвращаются.
+     *
+     * @param ids       Идентификаторы задач.
+     * @param status    Целевой статус.
+     * @param updatedAt Время изменения.
+     * @return Поток измененных задач вместе с прежним статусом.
+     */
+    Flux<StatusTransition> transitionStatus(Collection<Long> ids, Task.Status status, LocalDateTime updatedAt);
+
+    /**
+     * Задача после смены статуса и ее статус до изменения.
+     */
+    record StatusTransition(Task task, Task.Status previousStatus) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Реализация пакетной записи задач через {@link Statement#add()}: драйвер отправляет все наборы параметров
+ * одним конвейером, а результаты приходят в порядке добавления.
+ */
+@RequiredArgsConstructor
+public class TaskBatchRepositoryImpl implements TaskBatchRepository {
+
+    private static final String INSERT_SQL = "insert into tasks" +
+            " (title, description, status, priority, deadline, created_at, updated_at, assigned_user_id, project_id)" +
+            " values ($1, $2, $3, $4, $5, $6, $7, $8, $9)";
+
+    private static final String UPDATE_SQL = "update tasks set title = $1, description = $2, status = $3, priority = $4," +
+            " deadline = $5, created_at = $6, updated_at = $7, assigned_user_id = $8, project_id = $9, version = version + 1" +
+            " where id = $10 and version = $11 and deleted_at is null returning id";
+
+    // Прежний статус берется из снимка строки в CTE: RETURNING видит уже новые значения.
+    // Строки блокируются в порядке id, поэтому встречные переводы пересекающихся наборов не взаимоблокируются
+    private static final String TRANSITION_SQL = """
+            with target as (
+                select id, created_at, status from tasks
+                where id in (:ids) and status <> :status and deleted_at is null
+                order by id
+                for no key update
+            )
+            update tasks t set status = :status, updated_at = :updatedAt, version = t.version + 1
+            from target
+            where t.id = target.id and t.created_at = target.created_at
+            returning t.*, target.status as previous_status""";
+
+    private final R2dbcEntityTemplate template;
+
+    @Override
+    public Flux<Long> insertAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return Flux.empty();
+        }
+        return template.getDatabaseClient().inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL).returnGeneratedValues("id");
+            for (int i = 0; i < tasks.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                bindColumns(statement, tasks.get(i));
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> row.get("id", Long.class)));
+        });
+    }
+
+    @Override
+    public Flux<Long> updateAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return Flux.empty();
+        }
+        return template.getDatabaseClient().inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(UPDATE_SQL);
+            for (int i = 0; i < tasks.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                Task task = tasks.get(i);
+                bindColumns(statement, task);
+                statement.bind("$10", task.getId());
+                statement.bind("$11", task.getVersion());
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> row.get("id", Long.class)));
+        });
+    }
+
+    @Override
+    public Flux<StatusTransition> transitionStatus(Collection<Long> ids, Task.Status status, LocalDateTime updatedAt) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return template.getDatabaseClient().sql(TRANSITION_SQL)
+                .bind("ids", ids)
+                .bind("status", status.name())
+                .bind("updatedAt", updatedAt)
+                .map((row, metadata) -> new StatusTransition(
+                        template.getConverter().read(Task.class, row, metadata),
+                        Task.Status.valueOf(row.get("previous_status", String.class))))
+                .all();
+    }
+
+    private static void bindColumns(Statement statement, Task task) {
+        statement.bind("$1", task.getTitle());
+        bindNullable(statement, "$2", task.getDescription(), String.class);
+        statement.bind("$3", task.getStatus().name());
+        statement.bind("$4", task.getPriority().name());
+        bindNullable(statement, "$5", task.getDeadline(), LocalDateTime.class);
+        bindNullable(statement, "$6", task.getCreatedAt(), LocalDateTime.class);
+        bindNullable(statement, "$7", task.getUpdatedAt(), LocalDateTime.class);
+        bindNullable(statement, "$8", task.getAssignedUserId(), Long.class);
+        statement.bind("$9", task.getProjectId());
+    }
+
+    private static <T> void bindNullable(Statement statement, String name, T value, Class<T> type) {
+        if (value == null) {
+            statement.bindNull(name, type);
+        } else {
+            statement.bind(name, value);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Физическое удаление мягко удаленных задач, окно восстановления которых истекло.
+ * <p>
+ * Каждый метод - одно SQL-выражение над пачкой строк, поэтому транзакции остаются короткими.
+ * Комментарии удаляются раньше задач, чтобы удаление задачи не тянуло за собой каскадом
+ * неограниченное число комментариев. Граница окна восстановления вычисляется один раз на проход
+ * ({@link #purgeCutoff(Duration)}) и передается обоим выражениям: если бы каждое выражение считало ее
+ * по своему localtimestamp, задача, вышедшая из окна между ними, удалялась бы вместе со всеми комментариями.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskPurgeRepository {
+
+    private final R2dbcEntityTemplate template;
+
+    /**
+     * Вычисляет границу окна восстановления по часам базы, по которым проставляется deleted_at.
+     *
+     * @param restoreWindow Окно восстановления.
+     * @return Mono с моментом: задачи, удаленные раньше него, можно очищать.
+     */
+    public Mono<LocalDateTime> purgeCutoff(Duration restoreWindow) {
+        return template.getDatabaseClient()
+                .sql("select localtimestamp - make_interval(secs => :windowSeconds) as cutoff")
+                .bind("windowSeconds", restoreWindow.toMillis() / 1000.0)
+                .map(row -> row.get("cutoff", LocalDateTime.class))
+                .one();
+    }
+
+    /**
+     * Удаляет не больше {@code limit} комментариев задач, удаленных раньше {@code cutoff}.
+     *
+     * @param cutoff Граница окна восстановления.
+     * @param limit  Размер пачки.
+     * @return Mono с количеством удаленных комментариев.
+     */
+    public Mono<Long> purgeComments(LocalDateTime cutoff, int limit) {
+        return template.getDatabaseClient()
+                .sql("""
+                        with doomed as (
+                            select c.id, c.created_at from comments c join tasks t on t.id = c.task_id
+                            where t.deleted_at < :cutoff
+                            limit :limit
+                        ), deleted as (
+                            delete from comments x using doomed d where x.id = d.id and x.created_at = d.created_at
+                            returning 1
+                        )
+                        select count(*) as deleted from deleted""")
+                .bind("cutoff", cutoff)
+                .bind("limit", limit)
+                .map(row -> row.get("deleted", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    /**
+     * Удаляет не больше {@code limit} задач, удаленных раньше {@code cutoff}, в порядке удаления.
+     * Строки, заблокированные параллельным восстановлением или другим экземпляром приложения, пропускаются.
+     * Условие по deleted_at повторяется и для удаляемой стороны: без него планировщик соединяет пачку
+     * со всеми строками tasks по хешу, а с ним читает только частичный индекс удаленных задач.
+     *
+     * @param cutoff Граница окна восстановления.
+     * @param limit  Размер пачки.
+     * @return Поток удаленных задач.
+     */
+    public Flux<Task> purgeTasks(LocalDateTime cutoff, int limit) {
+        return template.getDatabaseClient()
+                .sql("""
+                        with doomed as (
+                            select id, created_at from tasks
+                            where deleted_at < :cutoff
+                            order by deleted_at
+                            limit :limit
+                            for update skip locked
+                        )
+                        delete from tasks x using doomed d
+                        where x.id = d.id and x.created_at = d.created_at
+                          and x.deleted_at < :cutoff
+                        returning x.*""")
+                .bind("cutoff", cutoff)
+                .bind("limit", limit)
+                .map((row, metadata) -> template.getConverter().read(Task.class, row, metadata))
+                .all();
+    }
+}
@@ -1,13 +1,23 @@
 package com.abarigena.taskflow.storeSQL.repository;
 
+import com.abarigena.taskflow.dto.TaskSummary;
 import com.abarigena.taskflow.storeSQL.entity.Task;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Репозиторий задач. Выборки возвращают только видимые задачи (deleted_at is null): мягко удаленные
+ * задачи ждут очистки в {@link TaskPurgeRepository} и читаются только при восстановлении.
+ */
 @Repository
-public interface TaskRepository extends R2dbcRepository<Task, Long> {
+public interface TaskRepository extends R2dbcRepository<Task, Long>, TaskBatchRepository {
 
     /**
      * Находит все задачи с поддержкой пагинации и сортировки.
@@ -15,7 +25,7 @@ public interface TaskRepository extends R2dbcRepository<Task, Long> {
      * @param pageable Параметры пагинации и сортировки.
      * @return Поток всех задач, соответствующих параметрам пагинации.
      */
-    Flux<Task> findAllBy(Pageable pageable);
+    Flux<Task> findAllByDeletedAtIsNull(Pageable pageable);
 
     /**
      * Находит задачи, связанные с указанным проектом, с поддержкой пагинации и сортировки.
@@ -24,7 +34,7 @@ public interface TaskRepository extends R2dbcRepository<Task, Long> {
      * @param pageable  Параметры пагинации и сортировки.
      * @return Поток задач указанного проекта, соответствующих параметрам пагинации.
      */
-    Flux<Task> findByProjectId(Long projectId, Pageable pageable);
+    Flux<Task> findByProjectIdAndDeletedAtIsNull(Long projectId, Pageable pageable);
 
     /**
      * Находит задачи, назначенные указанному пользователю, с поддержкой пагинации и сортировки.
@@ -33,7 +43,15 @@ public interface TaskRepository extends R2dbcRepository<Task, Long> {
      * @param pageable Параметры пагинации и сортировки.
      * @return Поток задач, назначенных пользователю, соответствующих параметрам пагинации.
      */
-    Flux<Task> findByAssignedUserId(Long userId, Pageable pageable);
+    Flux<Task> findByAssignedUserIdAndDeletedAtIsNull(Long userId, Pageable pageable);
+
+    /**
+     * Считает задачи, назначенные указанному пользователю.
+     *
+     * @param userId Идентификатор назначенного пользователя.
+     * @return Mono с количеством задач.
+     */
+    Mono<Long> countByAssignedUserIdAndDeletedAtIsNull(Long userId);
 
     /**
      * Находит задачи по указанному статусу и приоритету с поддержкой пагинации и сортировки.
@@ -43,5 +61,137 @@ public interface TaskRepository extends R2dbcRepository<Task, Long> {
      * @param pageable Параметры пагинации и сортировки.
      * @return Поток задач, соответствующих статусу, приоритету и параметрам пагинации.
      */
-    Flux<Task> findByStatusAndPriority(Task.Status status, Task.Priority priority, Pageable pageable);
+    Flux<Task> findByStatusAndPriorityAndDeletedAtIsNull(Task.Status status, Task.Priority priority, Pageable pageable);
+
+    /**
+     * Находит страницу задач проекта после указанной keyset-позиции (created_at DESC, id DESC).
+     * Условие {@code created_at <= :createdAt} дублирует сравнение пар, чтобы планировщик отсек секции новее курсора.
+     *
+     * @param projectId Идентификатор проекта.
+     * @param createdAt Время создания последней задачи предыдущей страницы.
+     * @param id        Идентификатор последней задачи предыдущей страницы.
+     * @param limit     Максимальное количество записей.
+     * @return Поток задач проекта, следующих за курсором.
+     */
+    @Query("select * from tasks where project_id = :projectId and deleted_at is null" +
+            " and created_at <= :createdAt and (created_at, id) < (:createdAt, :id)" +
+            " order by created_at desc, id desc limit :limit")
+    Flux<Task> findByProjectIdAfter(Long projectId, LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Находит страницу всех задач после указанной keyset-позиции (created_at DESC, id DESC).
+     *
+     * @param createdAt Время создания последней задачи предыдущей страницы.
+     * @param id        Идентификатор последней задачи предыдущей страницы.
+     * @param limit     Максимальное количество записей.
+     * @return Поток задач, следующих за курсором.
+     */
+    @Query("select * from tasks where deleted_at is null" +
+            " and created_at <= :createdAt and (created_at, id) < (:createdAt, :id)" +
+            " order by created_at desc, id desc limit :limit")
+    Flux<Task> findAllAfter(LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Находит страницу задач, назначенных пользователю, после указанной keyset-позиции (created_at DESC, id DESC).
+     *
+     * @param assignedUserId Идентификатор назначенного пользователя.
+     * @param createdAt      Время создания последней задачи предыдущей страницы.
+     * @param id             Идентификатор последней задачи предыдущей страницы.
+     * @param limit          Максимальное количество записей.
+     * @return Поток задач пользователя, следующих за курсором.
+     */
+    @Query("select * from tasks where assigned_user_id = :assignedUserId and deleted_at is null" +
+            " and created_at <= :createdAt and (created_at, id) < (:createdAt, :id)" +
+            " order by created_at desc, id desc limit :limit")
+    Flux<Task> findByAssignedUserIdAfter(Long assignedUserId, LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Находит страницу задач с указанными статусом и приоритетом после keyset-позиции (created_at DESC, id DESC).
+     *
+     * @param status    Статус задачи.
+     * @param priority  Приоритет задачи.
+     * @param createdAt Время создания последней задачи предыдущей страницы.
+     * @param id        Идентификатор последней задачи предыдущей страницы.
+     * @param limit     Максимальное количество записей.
+     * @return Поток задач, следующих за курсором.
+     */
+    @Query("select * from tasks where status = :status and priority = :priority and deleted_at is null" +
+            " and created_at <= :createdAt and (created_at, id) < (:createdAt, :id)" +
+            " order by created_at desc, id desc limit :limit")
+    Flux<Task> findByStatusAndPriorityAfter(String status, String priority, LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Находит облегченные представления всех задач с поддержкой пагинации и сортировки.
+     * Выбираются только колонки {@link TaskSummary}.
+     *
+     * @param pageable Параметры пагинации и сортировки.
+     * @return Поток кратких представлений задач.
+     */
+    Flux<TaskSummary> findSummariesByDeletedAtIsNull(Pageable pageable);
+
+    /**
+     * Находит облегченные представления задач проекта с поддержкой пагинации и сортировки.
+     * Выбираются только колонки {@link TaskSummary}.
+     *
+     * @param projectId Идентификатор проекта.
+     * @param pageable  Параметры пагинации и сортировки.
+     * @return Поток кратких представлений задач проекта.
+     */
+    Flux<TaskSummary> findSummariesByProjectIdAndDeletedAtIsNull(Long projectId, Pageable pageable);
+
+    /**
+     * Находит облегченные представления задач, назначенных пользователю, с поддержкой пагинации и сортировки.
+     * Выбираются только колонки {@link TaskSummary}.
+     *
+     * @param assignedUserId Идентификатор назначенного пользователя.
+     * @param pageable       Параметры пагинации и сортировки.
+     * @return Поток кратких представлений задач пользователя.
+     */
+    Flux<TaskSummary> findSummariesByAssignedUserIdAndDeletedAtIsNull(Long assignedUserId, Pageable pageable);
+
+    /**
+     * Находит видимую задачу по идентификатору.
+     *
+     * @param id Идентификатор задачи.
+     * @return Mono с задачей или пустой Mono, если задачи нет или она удалена.
+     */
+    Mono<Task> findByIdAndDeletedAtIsNull(Long id);
+
+    /**
+     * Проверяет, что задача существует и не удалена.
+     *
+     * @param id Идентификатор задачи.
+     * @return Mono с признаком существования видимой задачи.
+     */
+    Mono<Boolean> existsByIdAndDeletedAtIsNull(Long id);
+
+    /**
+     * Находит видимые задачи по набору идентификаторов.
+     *
+     * @param ids Идентификаторы задач.
+     * @return Поток найденных видимых задач.
+     */
+    Flux<Task> findByIdInAndDeletedAtIsNull(Collection<Long> ids);
+
+    /**
+     * Мягко удаляет видимую задачу: проставляет deleted_at и автора удаления и увеличивает версию.
+     *
+     * @param id        Идентификатор задачи.
+     * @param deletedBy Идентификатор удалившего пользователя.
+     * @return Mono с удаленной задачей или пустой Mono, если задачи нет или она уже удалена.
+     */
+    @Query("update tasks set deleted_at = localtimestamp, deleted_by = :deletedBy, version = version + 1" +
+            " where id = :id and deleted_at is null returning *")
+    Mono<Task> softDeleteById(Long id, Long deletedBy);
+
+    /**
+     * Восстанавливает задачу, удаленную не раньше чем {@code windowSeconds} секунд назад.
+     *
+     * @param id            Идентификатор задачи.
+     * @param windowSeconds Окно восстановления в секундах.
+     * @return Mono с восстановленной задачей или пустой Mono, если задача не удалена, окно истекло или ее уже очистили.
+     */
+    @Query("update tasks set deleted_at = null, deleted_by = null, version = version + 1" +
+            " where id = :id and deleted_at >= localtimestamp - make_interval(secs => :windowSeconds) returning *")
+    Mono<Task> restoreById(Long id, double windowSeconds);
 }
@@ -0,0 +1,27 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.storeSQL.entity.User;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Выборки пользователей с проекцией только запрошенных колонок.
+ * Подключается к {@link UserRepository} как фрагмент Spring Data.
+ */
+public interface UserProjectionRepository {
+
+    /**
+     * Находит страницу пользователей после указанной keyset-позиции, читая только колонки, соответствующие
+     * перечисленным свойствам сущности. Колонки id и created_at читаются всегда (нужны для курсора),
+     * пароль не читается никогда. Незаполненные свойства в возвращаемых сущностях равны null.
+     *
+     * @param properties Имена свойств {@link User}, которые нужно заполнить.
+     * @param createdAt  Время создания последнего пользователя предыдущей страницы.
+     * @param id         Идентификатор последнего пользователя предыдущей страницы.
+     * @param limit      Максимальное количество записей.
+     * @return Поток частично заполненных пользователей в порядке created_at DESC, id DESC.
+     */
+    Flux<User> findProjectedPageAfter(Collection<String> properties, LocalDateTime createdAt, Long id, int limit);
+}
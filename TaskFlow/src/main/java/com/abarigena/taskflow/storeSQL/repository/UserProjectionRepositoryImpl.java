@@ -0,0 +1,58 @@
+package com.abarigena.taskflow.storeSQL.repository;
+
+import com.abarigena.taskflow.storeSQL.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Реализация проекций пользователей. Имена колонок берутся только из метаданных маппинга сущности,
+ * поэтому в SQL не может попасть произвольная строка от клиента.
+ */
+@RequiredArgsConstructor
+public class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+    private static final Set<String> ALWAYS_SELECTED = Set.of("id", "createdAt");
+    private static final Set<String> NEVER_SELECTED = Set.of("password");
+
+    private final R2dbcEntityTemplate template;
+
+    @Override
+    public Flux<User> findProjectedPageAfter(Collection<String> properties, LocalDateTime createdAt, Long id, int limit) {
+        String sql = "select " + String.join(", ", columns(properties)) + " from users" +
+                " where (created_at, id) < (:createdAt, :id)" +
+                " order by created_at desc, id desc limit :limit";
+
+        return template.getDatabaseClient().sql(sql)
+                .bind("createdAt", createdAt)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map((row, metadata) -> template.getConverter().read(User.class, row, metadata))
+                .all();
+    }
+
+    private Set<String> columns(Collection<String> properties) {
+        RelationalPersistentEntity<?> entity = template.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(User.class);
+
+        Set<String> requested = new LinkedHashSet<>(ALWAYS_SELECTED);
+        requested.addAll(properties);
+        requested.removeAll(NEVER_SELECTED);
+
+        Set<String> columns = new LinkedHashSet<>();
+        requested.stream()
+                .map(entity::getPersistentProperty)
+                .filter(Objects::nonNull)
+                .map(RelationalPersistentProperty::getColumnName)
+                .forEach(column -> columns.add(column.getReference()));
+        return columns;
+    }
+}
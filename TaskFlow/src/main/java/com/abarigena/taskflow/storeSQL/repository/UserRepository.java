@@ -2,13 +2,16 @@ package com.abarigena.taskflow.storeSQL.repository;
 
 import com.abarigena.taskflow.storeSQL.entity.User;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
-public interface UserRepository extends R2dbcRepository<User, Long> {
+public interface UserRepository extends R2dbcRepository<User, Long>, UserProjectionRepository {
 
     /**
      * Находит всех пользователей с поддержкой пагинации и сортировки.
@@ -25,4 +28,13 @@ public interface UserRepository extends R2dbcRepository<User, Long> {
      * @return Mono, содержащий найденного пользователя, или пустой Mono, если пользователь не найден.
      */
     Mono<User> findByEmail(String email);
+
+    /**
+     * Отбирает из переданных идентификаторов те, для которых существует пользователь. Одним запросом на весь набор.
+     *
+     * @param ids Идентификаторы пользователей (не пустой набор).
+     * @return Поток существующих идентификаторов.
+     */
+    @Query("select id from users where id in (:ids)")
+    Flux<Long> findExistingIds(Collection<Long> ids);
 }
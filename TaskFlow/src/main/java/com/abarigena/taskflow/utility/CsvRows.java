@@ -0,0 +1,60 @@
+package com.abarigena.taskflow.utility;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Формирование строк CSV (RFC 4180) для потокового экспорта.
+ */
+public final class CsvRows {
+
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private CsvRows() {
+    }
+
+    /**
+     * Собирает строку CSV для выгрузки пользователю, с завершающим переводом строки.
+     * Значения, содержащие разделитель, кавычки или переводы строк, заключаются в кавычки; null - пустое поле.
+     * Текст, который табличный редактор принял бы за формулу (начинается с =, +, -, @, табуляции или
+     * возврата каретки), предваряется апострофом. Числа выводятся как есть.
+     *
+     * @param values Значения полей.
+     * @return Строка CSV.
+     */
+    public static String line(Object... values) {
+        return join(values, true);
+    }
+
+    /**
+     * Собирает строку CSV для COPY в базу: те же правила кавычек, что и в {@link #line(Object...)},
+     * но значения не изменяются - апостроф перед формулой попал бы в сохраненные данные.
+     *
+     * @param values Значения полей.
+     * @return Строка CSV.
+     */
+    public static String copyLine(Object... values) {
+        return join(values, false);
+    }
+
+    private static String join(Object[] values, boolean escapeFormulas) {
+        return Arrays.stream(values)
+                .map(value -> field(value, escapeFormulas))
+                .collect(Collectors.joining(",", "", "\r\n"));
+    }
+
+    private static String field(Object value, boolean escapeFormulas) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (escapeFormulas && !(value instanceof Number) && !text.isEmpty()
+                && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
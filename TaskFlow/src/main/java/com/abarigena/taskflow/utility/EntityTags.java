@@ -0,0 +1,57 @@
+package com.abarigena.taskflow.utility;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * ETag/If-Match для сущностей с колонкой version.
+ * ETag ответа - это версия строки в кавычках; клиент возвращает ее в If-Match при обновлении,
+ * и UPDATE выполняется только если строка с тех пор не менялась.
+ */
+public final class EntityTags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTags() {
+    }
+
+    /**
+     * Извлекает ожидаемую версию из заголовка If-Match.
+     *
+     * @param ifMatch Значение заголовка или null.
+     * @return Версия; null, если заголовка нет или он равен "*" (обновление без проверки версии).
+     * @throws IllegalArgumentException если значение не является ETag, выданным сервисом.
+     */
+    public static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith(WEAK_PREFIX)) {
+            tag = tag.substring(WEAK_PREFIX.length());
+        }
+        if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    /**
+     * Формирует ответ 200 OK с ETag по версии сущности.
+     *
+     * @param body    Тело ответа.
+     * @param version Версия сущности; если null, ETag не выставляется.
+     * @return ResponseEntity с телом и ETag.
+     */
+    public static <T> ResponseEntity<T> ok(T body, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag("\"" + version + "\"");
+        }
+        return builder.body(body);
+    }
+}
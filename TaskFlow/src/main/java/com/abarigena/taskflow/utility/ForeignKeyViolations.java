@@ -0,0 +1,57 @@
+package com.abarigena.taskflow.utility;
+
+import io.r2dbc.spi.R2dbcException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Перевод нарушений внешних ключей в прикладные ошибки.
+ * <p>
+ * Вместо проверки существования связанных записей отдельными запросами перед записью
+ * INSERT выполняется сразу, а целостность гарантирует база: проверка и вставка атомарны, и
+ * успешный путь занимает один запрос. Если ограничение нарушено (SQLSTATE 23503), по имени
+ * ограничения из сообщения Postgres выбирается соответствующая ошибка, например ResourceNotFoundException.
+ */
+public final class ForeignKeyViolations {
+
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    private ForeignKeyViolations() {
+    }
+
+    /**
+     * Возвращает функцию для {@code onErrorMap(DataIntegrityViolationException.class, ...)}.
+     * Нарушения других ограничений и неизвестных внешних ключей пробрасываются без изменений.
+     *
+     * @param byConstraint Ошибки по именам ограничений внешнего ключа (например, "fk_task_project").
+     * @return Функция перевода исключения.
+     */
+    public static Function<DataIntegrityViolationException, Throwable> translate(
+            Map<String, Supplier<? extends RuntimeException>> byConstraint) {
+        return error -> {
+            String message = foreignKeyViolationMessage(error);
+            if (message == null) {
+                return error;
+            }
+            for (Map.Entry<String, Supplier<? extends RuntimeException>> entry : byConstraint.entrySet()) {
+                if (message.contains("\"" + entry.getKey() + "\"")) {
+                    return entry.getValue().get();
+                }
+            }
+            return error;
+        };
+    }
+
+    private static String foreignKeyViolationMessage(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcException r2dbcException
+                    && FOREIGN_KEY_VIOLATION.equals(r2dbcException.getSqlState())) {
+                return r2dbcException.getMessage();
+            }
+        }
+        return null;
+    }
+}
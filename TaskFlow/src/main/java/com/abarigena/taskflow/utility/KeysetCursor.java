@@ -0,0 +1,61 @@
+package com.abarigena.taskflow.utility;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция keyset-пагинации по паре (created_at, id).
+ * Наружу отдается в виде непрозрачной base64url-строки, чтобы клиенты не строили курсоры сами.
+ * Выборки идут в порядке created_at DESC, id DESC, поэтому следующая страница - это строки строго "меньше" курсора.
+ *
+ * @param createdAt Время создания последней отданной записи.
+ * @param id        Идентификатор последней отданной записи (разрешает совпадения created_at).
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    /**
+     * Курсор "перед первой записью": больше любой реальной пары (created_at, id).
+     * Позволяет читать первую страницу тем же запросом, что и последующие.
+     */
+    public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Кодирует курсор в непрозрачную строку.
+     *
+     * @return base64url-представление курсора.
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует курсор, полученный от клиента. Пустое значение означает начало выборки.
+     *
+     * @param cursor Строка курсора или null.
+     * @return Декодированный курсор либо {@link #START}.
+     * @throws IllegalArgumentException если строка не является корректным курсором.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    Long.valueOf(raw.substring(separatorIndex + 1))
+            );
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
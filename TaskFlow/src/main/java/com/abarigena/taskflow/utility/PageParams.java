@@ -0,0 +1,49 @@
+package com.abarigena.taskflow.utility;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Разбор параметров пагинации REST-контроллеров: page/size/sort для постраничных выборок и size для keyset-выборок.
+ */
+public final class PageParams {
+
+    /**
+     * Наибольший размер страницы keyset-выборки.
+     */
+    public static final int MAX_KEYSET_PAGE_SIZE = 100;
+
+    private PageParams() {
+    }
+
+    /**
+     * Собирает запрос страницы из параметров page, size и sort.
+     *
+     * @param page Номер страницы.
+     * @param size Количество элементов на странице.
+     * @param sort Сортировка в виде "поле,направление" (например, "createdAt,desc"); без направления или
+     *             с любым направлением, кроме asc, сортировка идет по убыванию.
+     * @return Запрос страницы.
+     */
+    public static Pageable pageable(int page, int size, String sort) {
+        String[] sortParams = sort.split(",");
+        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("asc") ?
+                Sort.Direction.ASC : Sort.Direction.DESC;
+        return PageRequest.of(page, size, Sort.by(direction, sortParams[0]));
+    }
+
+    /**
+     * Проверяет размер страницы keyset-выборки.
+     *
+     * @param size Количество элементов на странице.
+     * @return Тот же размер.
+     * @throws IllegalArgumentException Если размер вне диапазона от 1 до {@link #MAX_KEYSET_PAGE_SIZE}.
+     */
+    public static int keysetSize(int size) {
+        if (size < 1 || size > MAX_KEYSET_PAGE_SIZE) {
+            throw new IllegalArgumentException("'size' must be between 1 and " + MAX_KEYSET_PAGE_SIZE);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,5 @@
+-- Версия строки для оптимистической блокировки: частичный UPDATE ... WHERE id = ? AND version = ? RETURNING *
+-- увеличивает ее на единицу, ETag/If-Match на контроллерах передают ее клиенту и обратно.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
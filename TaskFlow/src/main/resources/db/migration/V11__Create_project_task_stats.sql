@@ -0,0 +1,105 @@
+-- Счетчики задач проекта по (status, priority), поддерживаемые триггером в той же транзакции, что и изменение задачи.
+-- overdue_count - незавершенные задачи с deadline <= project_task_stats_watermark.overdue_as_of:
+-- просрочка зависит от времени, поэтому задачи, у которых срок истек после записи, досчитывает
+-- периодический refresh_project_task_stats_overdue(), сдвигающий отметку вперед.
+create table project_task_stats (
+    project_id bigint not null,
+    status varchar(50) not null,
+    priority varchar(50) not null,
+    task_count bigint not null default 0,
+    overdue_count bigint not null default 0,
+    primary key (project_id, status, priority),
+    constraint fk_project_task_stats_project foreign key (project_id) references projects(id) on delete cascade
+);
+
+-- Единственная строка: момент, на который посчитаны overdue_count. Ее блокировка упорядочивает триггеры
+-- (FOR SHARE) относительно пересчета просрочки и полного восстановления (FOR UPDATE).
+create table project_task_stats_watermark (
+    id boolean primary key default true check (id),
+    overdue_as_of timestamp not null
+);
+
+insert into project_task_stats_watermark (id, overdue_as_of) values (true, localtimestamp);
+
+-- Поиск задач, срок которых истек между двумя пересчетами просрочки
+create index idx_tasks_open_deadline on tasks (deadline) where status <> 'DONE';
+
+create function project_task_stats_apply() returns trigger
+language plpgsql as $$
+declare
+    watermark timestamp;
+begin
+    select overdue_as_of into watermark from project_task_stats_watermark for share;
+
+    if tg_op in ('UPDATE', 'DELETE') then
+        update project_task_stats
+        set task_count = task_count - 1,
+            overdue_count = overdue_count - case when old.status <> 'DONE' and old.deadline <= watermark then 1 else 0 end
+        where project_id = old.project_id and status = old.status and priority = old.priority;
+    end if;
+
+    if tg_op in ('INSERT', 'UPDATE') then
+        insert into project_task_stats as s (project_id, status, priority, task_count, overdue_count)
+        values (new.project_id, new.status, new.priority, 1,
+                case when new.status <> 'DONE' and new.deadline <= watermark then 1 else 0 end)
+        on conflict (project_id, status, priority) do update
+            set task_count = s.task_count + excluded.task_count,
+                overdue_count = s.overdue_count + excluded.overdue_count;
+    end if;
+
+    return null;
+end;
+$$;
+
+create trigger trg_tasks_project_task_stats
+    after insert or delete or update of project_id, status, priority, deadline on tasks
+    for each row execute function project_task_stats_apply();
+
+-- Досчитывает просрочку задач, срок которых истек после предыдущего пересчета, и сдвигает отметку.
+create function refresh_project_task_stats_overdue() returns timestamp
+language plpgsql as $$
+declare
+    previous timestamp;
+    current_mark timestamp;
+begin
+    select overdue_as_of into previous from project_task_stats_watermark for update;
+    current_mark := clock_timestamp()::timestamp;
+
+    with crossed as (
+        select project_id, status, priority, count(*) as n
+        from tasks
+        where status <> 'DONE' and deadline > previous and deadline <= current_mark
+        group by project_id, status, priority
+    )
+    update project_task_stats s
+    set overdue_count = s.overdue_count + crossed.n
+    from crossed
+    where s.project_id = crossed.project_id and s.status = crossed.status and s.priority = crossed.priority;
+
+    update project_task_stats_watermark set overdue_as_of = current_mark;
+    return current_mark;
+end;
+$$;
+
+-- Полностью пересчитывает таблицу по tasks (восстановление после ручных правок данных или сбоев).
+create function rebuild_project_task_stats() returns timestamp
+language plpgsql as $$
+declare
+    current_mark timestamp;
+begin
+    perform 1 from project_task_stats_watermark for update;
+    current_mark := clock_timestamp()::timestamp;
+
+    delete from project_task_stats;
+    insert into project_task_stats (project_id, status, priority, task_count, overdue_count)
+    select project_id, status, priority, count(*),
+           count(*) filter (where status <> 'DONE' and deadline <= current_mark)
+    from tasks
+    group by project_id, status, priority;
+
+    update project_task_stats_watermark set overdue_as_of = current_mark;
+    return current_mark;
+end;
+$$;
+
+select rebuild_project_task_stats();
@@ -0,0 +1,16 @@
+-- Резервный полнотекстовый поиск в Postgres на случай недоступности OpenSearch.
+-- Конфигурация 'simple' не делает стемминга, как и стандартный анализатор OpenSearch, и одинаково
+-- обрабатывает русский и английский текст. Колонки генерируемые, поэтому код записи не меняется.
+-- Добавление STORED-колонки переписывает таблицу: на больших объемах выполнять в окно обслуживания.
+alter table tasks add column search_vector tsvector generated always as (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) stored;
+
+create index idx_tasks_search_vector on tasks using gin (search_vector);
+
+alter table comments add column search_vector tsvector generated always as (
+    to_tsvector('simple', coalesce(context, ''))
+) stored;
+
+create index idx_comments_search_vector on comments using gin (search_vector);
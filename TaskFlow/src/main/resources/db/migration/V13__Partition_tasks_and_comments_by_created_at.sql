@@ -0,0 +1,188 @@
+-- Помесячное декларативное секционирование tasks и comments по created_at.
+-- Очистка старых данных сводится к DROP/DETACH секции, VACUUM и перестроение индексов идут по секциям,
+-- а запросы с диапазоном created_at читают только нужные месяцы.
+--
+-- Ограничения секционирования Postgres:
+-- * первичный ключ обязан включать ключ секционирования, поэтому он (id, created_at); id по-прежнему
+--   выдается последовательностью и уникален;
+-- * на секционированную таблицу нельзя сослаться внешним ключом без created_at, поэтому fk_comment_task
+--   заменен триггерами: проверка при записи комментария (с той же ошибкой 23503 и именем ограничения)
+--   и каскадное удаление комментариев задачи;
+-- * created_at неизменяем: перенос строки между секциями при UPDATE не происходит.
+-- Таблицы копируются целиком в одной транзакции: на больших объемах выполнять в окно обслуживания.
+
+-- Создает недостающие месячные секции <таблица>_pYYYYMM с месяца from_ts по месяц to_ts включительно.
+-- Секции заводятся заранее фоновой задачей (PartitionMaintenanceJob): строка с created_at вне
+-- существующих секций не будет вставлена.
+create function create_monthly_partitions(parent regclass, from_ts timestamp, to_ts timestamp,
+                                          lock_wait interval default null) returns integer
+language plpgsql as $$
+declare
+    parent_schema name;
+    parent_name name;
+    month_start timestamp := date_trunc('month', from_ts);
+    partition_name text;
+    created integer := 0;
+begin
+    select n.nspname, c.relname into parent_schema, parent_name
+    from pg_class c join pg_namespace n on n.oid = c.relnamespace
+    where c.oid = parent;
+
+    -- CREATE TABLE ... PARTITION OF кратко берет эксклюзивную блокировку родителя: не ждать ее
+    -- за долгими запросами дольше lock_wait, иначе в очередь за ней встанут все запросы к таблице
+    if lock_wait is not null then
+        perform set_config('lock_timeout', (extract(epoch from lock_wait) * 1000)::bigint || 'ms', true);
+    end if;
+    perform pg_advisory_xact_lock(parent::oid::bigint);
+
+    while month_start <= to_ts loop
+        partition_name := parent_name || '_p' || to_char(month_start, 'YYYYMM');
+        if to_regclass(format('%I.%I', parent_schema, partition_name)) is null then
+            execute format('create table %I.%I partition of %s for values from (%L) to (%L)',
+                           parent_schema, partition_name, parent, month_start, month_start + interval '1 month');
+            created := created + 1;
+        end if;
+        month_start := month_start + interval '1 month';
+    end loop;
+
+    return created;
+end;
+$$;
+
+update tasks set created_at = coalesce(updated_at, localtimestamp) where created_at is null;
+update comments set created_at = coalesce(updated_at, localtimestamp) where created_at is null;
+
+alter table comments drop constraint fk_comment_task;
+alter table tasks rename to tasks_unpartitioned;
+alter table comments rename to comments_unpartitioned;
+alter sequence tasks_id_seq owned by none;
+alter sequence comments_id_seq owned by none;
+
+create table tasks (
+    id bigint not null default nextval('tasks_id_seq'),
+    title varchar(255) not null,
+    description text,
+    status varchar(50) not null default 'TODO',
+    priority varchar(50) not null default 'MEDIUM',
+    deadline timestamp,
+    created_at timestamp not null default current_timestamp,
+    updated_at timestamp default current_timestamp,
+    assigned_user_id bigint,
+    project_id bigint not null,
+    version bigint not null default 0,
+    search_vector tsvector generated always as (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) stored
+) partition by range (created_at);
+
+create table comments (
+    id bigint not null default nextval('comments_id_seq'),
+    context text not null,
+    task_id bigint not null,
+    user_id bigint not null,
+    created_at timestamp not null default current_timestamp,
+    updated_at timestamp default current_timestamp,
+    search_vector tsvector generated always as (
+        to_tsvector('simple', coalesce(context, ''))
+    ) stored
+) partition by range (created_at);
+
+-- Секции на все месяцы существующих данных и три месяца вперед
+select create_monthly_partitions('tasks',
+        coalesce((select min(created_at) from tasks_unpartitioned), localtimestamp), localtimestamp + interval '3 months');
+select create_monthly_partitions('comments',
+        coalesce((select min(created_at) from comments_unpartitioned), localtimestamp), localtimestamp + interval '3 months');
+
+-- Копирование до создания индексов и триггеров: project_task_stats уже соответствует этим строкам
+insert into tasks (id, title, description, status, priority, deadline, created_at, updated_at,
+                   assigned_user_id, project_id, version)
+select id, title, description, status, priority, deadline, created_at, updated_at,
+       assigned_user_id, project_id, version
+from tasks_unpartitioned;
+
+insert into comments (id, context, task_id, user_id, created_at, updated_at)
+select id, context, task_id, user_id, created_at, updated_at
+from comments_unpartitioned;
+
+drop table comments_unpartitioned;
+drop table tasks_unpartitioned;
+
+alter sequence tasks_id_seq owned by tasks.id;
+alter sequence comments_id_seq owned by comments.id;
+
+-- Ограничения и индексы родителя создаются в каждой секции, в том числе в будущих
+alter table tasks add constraint tasks_pkey primary key (id, created_at);
+alter table tasks add constraint fk_task_assigned_user foreign key (assigned_user_id) references users(id) on delete set null;
+alter table tasks add constraint fk_task_project foreign key (project_id) references projects(id) on delete cascade;
+
+create index idx_tasks_project_created_at_id on tasks (project_id, created_at desc, id desc);
+create index idx_tasks_created_at_id on tasks (created_at desc, id desc);
+create index idx_tasks_assigned_user_created_at_id on tasks (assigned_user_id, created_at desc, id desc);
+create index idx_tasks_status_priority_created_at_id on tasks (status, priority, created_at desc, id desc);
+create index idx_tasks_open_deadline on tasks (deadline) where status <> 'DONE';
+create index idx_tasks_search_vector on tasks using gin (search_vector);
+
+alter table comments add constraint comments_pkey primary key (id, created_at);
+alter table comments add constraint fk_comment_user foreign key (user_id) references users(id) on delete cascade;
+
+create index idx_comments_task_created_at_id on comments (task_id, created_at desc, id desc);
+create index idx_comments_user_id on comments (user_id);
+create index idx_comments_search_vector on comments using gin (search_vector);
+
+create trigger trg_tasks_project_task_stats
+    after insert or delete or update of project_id, status, priority, deadline on tasks
+    for each row execute function project_task_stats_apply();
+
+-- created_at - ключ секционирования и момент создания: UPDATE его не меняет
+create function keep_created_at() returns trigger
+language plpgsql as $$
+begin
+    new.created_at := old.created_at;
+    return new;
+end;
+$$;
+
+create trigger trg_tasks_keep_created_at
+    before update of created_at on tasks
+    for each row execute function keep_created_at();
+
+create trigger trg_comments_keep_created_at
+    before update of created_at on comments
+    for each row execute function keep_created_at();
+
+-- Замена внешнего ключа fk_comment_task. FOR KEY SHARE, как и проверка внешнего ключа, не дает
+-- параллельно удалить задачу до конца транзакции комментария.
+create function fk_comment_task_check() returns trigger
+language plpgsql as $$
+begin
+    perform 1 from tasks where id = new.task_id for key share;
+    if not found then
+        raise foreign_key_violation
+            using message = 'insert or update on table "comments" violates foreign key constraint "fk_comment_task"',
+                  detail = format('Key (task_id)=(%s) is not present in table "tasks".', new.task_id),
+                  constraint = 'fk_comment_task';
+    end if;
+    return new;
+end;
+$$;
+
+create trigger trg_comments_fk_comment_task
+    before insert or update of task_id on comments
+    for each row execute function fk_comment_task_check();
+
+create function fk_comment_task_cascade() returns trigger
+language plpgsql as $$
+begin
+    delete from comments where task_id = old.id;
+    return null;
+end;
+$$;
+
+create trigger trg_tasks_fk_comment_task_cascade
+    after delete on tasks
+    for each row execute function fk_comment_task_cascade();
+
+-- Автоочистка не собирает статистику секционированных родителей, только секций
+analyze tasks;
+analyze comments;
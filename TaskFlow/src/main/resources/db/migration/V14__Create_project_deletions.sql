@@ -0,0 +1,18 @@
+-- Фоновое удаление проектов. Запрос на удаление переводит проект в статус DELETING и добавляет строку сюда;
+-- ProjectDeletionJob удаляет комментарии, задачи и участников небольшими пачками в отдельных транзакциях
+-- с паузами между ними, затем сам проект. Счетчики *_deleted отражают ход удаления.
+-- Строка остается после удаления проекта, чтобы клиент мог узнать результат, поэтому внешнего ключа нет.
+create table project_deletions (
+    project_id bigint primary key,
+    requested_at timestamp not null default localtimestamp,
+    started_at timestamp,
+    completed_at timestamp,
+    -- Аренда обработчика: пока не истекла, другой экземпляр приложения не берет удаление
+    lease_until timestamp,
+    tasks_total bigint not null default 0,
+    tasks_deleted bigint not null default 0,
+    comments_deleted bigint not null default 0,
+    members_deleted bigint not null default 0
+);
+
+create index idx_project_deletions_pending on project_deletions (requested_at) where completed_at is null;
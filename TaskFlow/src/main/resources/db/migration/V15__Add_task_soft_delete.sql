@@ -0,0 +1,119 @@
+-- Мягкое удаление задач. DELETE /api/tasks/{id} только проставляет deleted_at: задача и ее комментарии
+-- сразу исчезают из выборок, а в течение taskflow.task-deletion.restore-window задачу можно восстановить.
+-- После окна TaskPurgeJob физически удаляет комментарии и задачи пачками в отдельных транзакциях.
+-- deleted_by - кто удалил задачу, для уведомления об удалении при очистке (без внешнего ключа:
+-- пользователь может быть удален раньше задачи).
+alter table tasks add column deleted_at timestamp;
+alter table tasks add column deleted_by bigint;
+
+-- Индексы выборок покрывают только видимые задачи: удаленные строки не раздувают их и не читаются
+drop index idx_tasks_project_created_at_id;
+drop index idx_tasks_created_at_id;
+drop index idx_tasks_assigned_user_created_at_id;
+drop index idx_tasks_status_priority_created_at_id;
+drop index idx_tasks_open_deadline;
+
+create index idx_tasks_project_created_at_id on tasks (project_id, created_at desc, id desc) where deleted_at is null;
+create index idx_tasks_created_at_id on tasks (created_at desc, id desc) where deleted_at is null;
+create index idx_tasks_assigned_user_created_at_id on tasks (assigned_user_id, created_at desc, id desc) where deleted_at is null;
+create index idx_tasks_status_priority_created_at_id on tasks (status, priority, created_at desc, id desc) where deleted_at is null;
+create index idx_tasks_open_deadline on tasks (deadline) where status <> 'DONE' and deleted_at is null;
+
+-- Очередь очистки: удаленные задачи в порядке удаления
+create index idx_tasks_deleted_at on tasks (deleted_at) where deleted_at is not null;
+
+-- Счетчики project_task_stats учитывают только видимые задачи: мягкое удаление вычитает задачу,
+-- восстановление добавляет обратно, физическое удаление уже вычтенной задачи ничего не меняет.
+create or replace function project_task_stats_apply() returns trigger
+language plpgsql as $$
+declare
+    watermark timestamp;
+begin
+    select overdue_as_of into watermark from project_task_stats_watermark for share;
+
+    if tg_op in ('UPDATE', 'DELETE') and old.deleted_at is null then
+        update project_task_stats
+        set task_count = task_count - 1,
+            overdue_count = overdue_count - case when old.status <> 'DONE' and old.deadline <= watermark then 1 else 0 end
+        where project_id = old.project_id and status = old.status and priority = old.priority;
+    end if;
+
+    if tg_op in ('INSERT', 'UPDATE') and new.deleted_at is null then
+        insert into project_task_stats as s (project_id, status, priority, task_count, overdue_count)
+        values (new.project_id, new.status, new.priority, 1,
+                case when new.status <> 'DONE' and new.deadline <= watermark then 1 else 0 end)
+        on conflict (project_id, status, priority) do update
+            set task_count = s.task_count + excluded.task_count,
+                overdue_count = s.overdue_count + excluded.overdue_count;
+    end if;
+
+    return null;
+end;
+$$;
+
+drop trigger trg_tasks_project_task_stats on tasks;
+
+create trigger trg_tasks_project_task_stats
+    after insert or delete or update of project_id, status, priority, deadline, deleted_at on tasks
+    for each row execute function project_task_stats_apply();
+
+create or replace function refresh_project_task_stats_overdue() returns timestamp
+language plpgsql as $$
+declare
+    previous timestamp;
+    current_mark timestamp;
+begin
+    select overdue_as_of into previous from project_task_stats_watermark for update;
+    current_mark := clock_timestamp()::timestamp;
+
+    with crossed as (
+        select project_id, status, priority, count(*) as n
+        from tasks
+        where status <> 'DONE' and deleted_at is null and deadline > previous and deadline <= current_mark
+        group by project_id, status, priority
+    )
+    update project_task_stats s
+    set overdue_count = s.overdue_count + crossed.n
+    from crossed
+    where s.project_id = crossed.project_id and s.status = crossed.status and s.priority = crossed.priority;
+
+    update project_task_stats_watermark set overdue_as_of = current_mark;
+    return current_mark;
+end;
+$$;
+
+create or replace function rebuild_project_task_stats() returns timestamp
+language plpgsql as $$
+declare
+    current_mark timestamp;
+begin
+    perform 1 from project_task_stats_watermark for update;
+    current_mark := clock_timestamp()::timestamp;
+
+    delete from project_task_stats;
+    insert into project_task_stats (project_id, status, priority, task_count, overdue_count)
+    select project_id, status, priority, count(*),
+           count(*) filter (where status <> 'DONE' and deadline <= current_mark)
+    from tasks
+    where deleted_at is null
+    group by project_id, status, priority;
+
+    update project_task_stats_watermark set overdue_as_of = current_mark;
+    return current_mark;
+end;
+$$;
+
+-- Комментарий к удаленной задаче нарушает fk_comment_task так же, как к отсутствующей
+create or replace function fk_comment_task_check() returns trigger
+language plpgsql as $$
+begin
+    perform 1 from tasks where id = new.task_id and deleted_at is null for key share;
+    if not found then
+        raise foreign_key_violation
+            using message = 'insert or update on table "comments" violates foreign key constraint "fk_comment_task"',
+                  detail = format('Key (task_id)=(%s) is not present in table "tasks".', new.task_id),
+                  constraint = 'fk_comment_task';
+    end if;
+    return new;
+end;
+$$;
@@ -0,0 +1,18 @@
+-- Публикация логической репликации для Debezium (pgoutput) ведется миграциями, а не коннектором.
+-- После V13 tasks и comments секционированы: без publish_via_partition_root изменения публикуются
+-- под именами секций (tasks_pYYYYMM, comments_pYYYYMM), которых нет в table.include.list коннектора,
+-- а RegexRouter отправил бы их в топики с именами секций, и CDC задач и комментариев остановился бы.
+-- С publish_via_partition_root = true изменения секций идут под именем родительской таблицы,
+-- секции, созданные позже (create_monthly_partitions), попадают в публикацию автоматически.
+-- Коннектор использует эту публикацию (publication.autocreate.mode = disabled).
+do $$
+begin
+    if exists (select 1 from pg_publication where pubname = 'dbz_publication') then
+        alter publication dbz_publication set table tasks, comments, projects, users;
+        alter publication dbz_publication set (publish_via_partition_root = true);
+    else
+        create publication dbz_publication for table tasks, comments, projects, users
+            with (publish_via_partition_root = true);
+    end if;
+end;
+$$;
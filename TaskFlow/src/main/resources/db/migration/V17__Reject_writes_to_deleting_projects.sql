@@ -0,0 +1,63 @@
+-- Проект в статусе DELETING (фоновое удаление ProjectDeletionJob) для записи считается отсутствующим:
+-- задача, комментарий или участник такого проекта нарушают тот же внешний ключ, что и при несуществующем
+-- проекте, поэтому все пути записи (одиночные, пакетные, импорт) получают одну и ту же ошибку 23503
+-- и переводят ее в 404 через ForeignKeyViolations. Сам внешний ключ остается: триггер только сужает его.
+-- Строка проекта не блокируется: если задача вставлена одновременно с переводом в DELETING, ее удалит
+-- следующая пачка ProjectDeletionJob или каскад при удалении проекта.
+
+create or replace function fk_task_project_check() returns trigger
+language plpgsql as $$
+begin
+    if tg_op = 'UPDATE' and new.project_id = old.project_id then
+        return new;
+    end if;
+    perform 1 from projects where id = new.project_id and status <> 'DELETING';
+    if not found then
+        raise foreign_key_violation
+            using message = 'insert or update on table "tasks" violates foreign key constraint "fk_task_project"',
+                  detail = format('Key (project_id)=(%s) is not present in table "projects".', new.project_id),
+                  constraint = 'fk_task_project';
+    end if;
+    return new;
+end;
+$$;
+
+create trigger trg_tasks_fk_task_project
+    before insert or update of project_id on tasks
+    for each row execute function fk_task_project_check();
+
+create or replace function fk_project_users_project_check() returns trigger
+language plpgsql as $$
+begin
+    perform 1 from projects where id = new.project_id and status <> 'DELETING';
+    if not found then
+        raise foreign_key_violation
+            using message = 'insert or update on table "project_users" violates foreign key constraint "fk_project_users_project"',
+                  detail = format('Key (project_id)=(%s) is not present in table "projects".', new.project_id),
+                  constraint = 'fk_project_users_project';
+    end if;
+    return new;
+end;
+$$;
+
+create trigger trg_project_users_fk_project
+    before insert on project_users
+    for each row execute function fk_project_users_project_check();
+
+-- Комментарий к задаче удаляемого проекта нарушает fk_comment_task так же, как к удаленной задаче
+create or replace function fk_comment_task_check() returns trigger
+language plpgsql as $$
+begin
+    perform 1 from tasks t
+    join projects p on p.id = t.project_id
+    where t.id = new.task_id and t.deleted_at is null and p.status <> 'DELETING'
+    for key share of t;
+    if not found then
+        raise foreign_key_violation
+            using message = 'insert or update on table "comments" violates foreign key constraint "fk_comment_task"',
+                  detail = format('Key (task_id)=(%s) is not present in table "tasks".', new.task_id),
+                  constraint = 'fk_comment_task';
+    end if;
+    return new;
+end;
+$$;
@@ -0,0 +1,84 @@
+-- Триггер project_task_stats_apply() больше не блокирует строку project_task_stats_watermark.
+-- FOR SHARE на единственной строке каждая пишущая транзакция превращала в запись в ее заголовок
+-- (xmax, multixact), и строка становилась общей горячей точкой всех изменений задач.
+-- Порядок триггеров относительно пересчета просрочки теперь дает транзакционная advisory-блокировка:
+-- триггер берет ее в разделяемом режиме (только в памяти менеджера блокировок) и читает отметку без
+-- блокировки строки; refresh_project_task_stats_overdue() и rebuild_project_task_stats() берут ее
+-- монопольно и поэтому выполняются по одному. Пересчет по-прежнему дожидается транзакций, уже
+-- прочитавших старую отметку: иначе задача с истекшим сроком между двумя отметками, зафиксированная
+-- после снимка пересчета, не попала бы в overdue_count ни в триггере, ни в пересчете.
+
+create or replace function project_task_stats_apply() returns trigger
+language plpgsql as $$
+declare
+    watermark timestamp;
+begin
+    perform pg_advisory_xact_lock_shared(hashtextextended('project_task_stats_watermark', 0));
+    select overdue_as_of into watermark from project_task_stats_watermark;
+
+    if tg_op in ('UPDATE', 'DELETE') and old.deleted_at is null then
+        update project_task_stats
+        set task_count = task_count - 1,
+            overdue_count = overdue_count - case when old.status <> 'DONE' and old.deadline <= watermark then 1 else 0 end
+        where project_id = old.project_id and status = old.status and priority = old.priority;
+    end if;
+
+    if tg_op in ('INSERT', 'UPDATE') and new.deleted_at is null then
+        insert into project_task_stats as s (project_id, status, priority, task_count, overdue_count)
+        values (new.project_id, new.status, new.priority, 1,
+                case when new.status <> 'DONE' and new.deadline <= watermark then 1 else 0 end)
+        on conflict (project_id, status, priority) do update
+            set task_count = s.task_count + excluded.task_count,
+                overdue_count = s.overdue_count + excluded.overdue_count;
+    end if;
+
+    return null;
+end;
+$$;
+
+create or replace function refresh_project_task_stats_overdue() returns timestamp
+language plpgsql as $$
+declare
+    previous timestamp;
+    current_mark timestamp;
+begin
+    perform pg_advisory_xact_lock(hashtextextended('project_task_stats_watermark', 0));
+    select overdue_as_of into previous from project_task_stats_watermark;
+    current_mark := clock_timestamp()::timestamp;
+
+    with crossed as (
+        select project_id, status, priority, count(*) as n
+        from tasks
+        where status <> 'DONE' and deleted_at is null and deadline > previous and deadline <= current_mark
+        group by project_id, status, priority
+    )
+    update project_task_stats s
+    set overdue_count = s.overdue_count + crossed.n
+    from crossed
+    where s.project_id = crossed.project_id and s.status = crossed.status and s.priority = crossed.priority;
+
+    update project_task_stats_watermark set overdue_as_of = current_mark;
+    return current_mark;
+end;
+$$;
+
+create or replace function rebuild_project_task_stats() returns timestamp
+language plpgsql as $$
+declare
+    current_mark timestamp;
+begin
+    perform pg_advisory_xact_lock(hashtextextended('project_task_stats_watermark', 0));
+    current_mark := clock_timestamp()::timestamp;
+
+    delete from project_task_stats;
+    insert into project_task_stats (project_id, status, priority, task_count, overdue_count)
+    select project_id, status, priority, count(*),
+           count(*) filter (where status <> 'DONE' and deadline <= current_mark)
+    from tasks
+    where deleted_at is null
+    group by project_id, status, priority;
+
+    update project_task_stats_watermark set overdue_as_of = current_mark;
+    return current_mark;
+end;
+$$;
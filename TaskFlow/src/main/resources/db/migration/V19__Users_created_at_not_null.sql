@@ -0,0 +1,7 @@
+-- Keyset-пагинация пользователей (GraphQL users) сравнивает (created_at, id) < (:createdAt, :id):
+-- для строки с created_at = null условие никогда не истинно, и такой пользователь пропадал из выдачи.
+-- Все пути вставки уже заполняют created_at, поэтому колонка становится обязательной,
+-- а строки, оставшиеся без значения, получают время последнего изменения.
+update users set created_at = coalesce(updated_at, localtimestamp) where created_at is null;
+
+alter table users alter column created_at set not null;
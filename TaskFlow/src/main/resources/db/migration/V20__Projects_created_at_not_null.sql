@@ -0,0 +1,6 @@
+-- Keyset-пагинация проектов сравнивает (created_at, id) < (:createdAt, :id): для строки
+-- с created_at = null условие никогда не истинно, и такой проект пропадал из всех выдач.
+-- Колонка становится обязательной так же, как users.created_at в V19.
+update projects set created_at = coalesce(updated_at, localtimestamp) where created_at is null;
+
+alter table projects alter column created_at set not null;
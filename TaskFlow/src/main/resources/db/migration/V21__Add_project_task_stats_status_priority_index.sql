@@ -0,0 +1,4 @@
+-- Счетчики по статусу и приоритету всех проектов (ProjectTaskStatsRepository.countTasks(status, priority)):
+-- первичный ключ начинается с project_id и не помогает фильтру без проекта, поэтому запрос читал
+-- всю таблицу. Индекс с task_count в INCLUDE позволяет посчитать сумму через index-only scan.
+create index if not exists idx_project_task_stats_status_priority on project_task_stats (status, priority) include (task_count);
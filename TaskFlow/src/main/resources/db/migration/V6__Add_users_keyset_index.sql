@@ -0,0 +1,2 @@
+-- Индекс для keyset-пагинации пользователей (GraphQL users): порядок created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at DESC, id DESC);
@@ -0,0 +1,3 @@
+-- Индексы для keyset-пагинации задач проекта и комментариев задачи: порядок created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_tasks_project_created_at_id ON tasks (project_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_comments_task_created_at_id ON comments (task_id, created_at DESC, id DESC);
@@ -0,0 +1,7 @@
+-- Составные индексы для keyset-пагинации REST-выдач (порядок created_at DESC, id DESC).
+-- Индексы по project_id для задач и task_id для комментариев добавлены в V7.
+CREATE INDEX IF NOT EXISTS idx_tasks_created_at_id ON tasks (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_tasks_assigned_user_created_at_id ON tasks (assigned_user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_tasks_status_priority_created_at_id ON tasks (status, priority, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_projects_created_at_id ON projects (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_projects_owner_created_at_id ON projects (owner_id, created_at DESC, id DESC);
@@ -0,0 +1,19 @@
+-- Покрывающий индекс для проектов участника (ProjectRepository.findProjectsByUserId*):
+-- первичный ключ (project_id, user_id) не помогает поиску по user_id, а пара (user_id, project_id)
+-- позволяет выполнить join через index-only scan без обращения к таблице.
+CREATE INDEX IF NOT EXISTS idx_project_users_user_project ON project_users (user_id, project_id);
+
+-- Одноколоночные индексы, которые стали префиксами составных индексов из V7/V8.
+-- Планировщик использует составные индексы и для равенства по первой колонке,
+-- поэтому старые индексы только замедляют вставки и обновления.
+DROP INDEX IF EXISTS idx_tasks_project_id;       -- idx_tasks_project_created_at_id
+DROP INDEX IF EXISTS idx_tasks_assigned_user_id; -- idx_tasks_assigned_user_created_at_id
+DROP INDEX IF EXISTS idx_tasks_status;           -- idx_tasks_status_priority_created_at_id
+DROP INDEX IF EXISTS idx_comments_task_id;       -- idx_comments_task_created_at_id
+DROP INDEX IF EXISTS idx_projects_owner_id;      -- idx_projects_owner_created_at_id
+
+-- Ни один запрос не фильтрует задачи только по приоритету: фильтр всегда идет вместе со статусом
+DROP INDEX IF EXISTS idx_tasks_priority;
+
+-- Дублирует уникальный индекс ограничения users.email
+DROP INDEX IF EXISTS idx_users_email;
@@ -0,0 +1,143 @@
+package com.abarigena.taskflow.config;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit тесты для ReadWriteRoutingConnectionFactory")
+class ReadWriteRoutingConnectionFactoryTest {
+
+    @Mock
+    private ConnectionFactory readPool;
+    @Mock
+    private ConnectionFactory writePool;
+    @Mock
+    private Connection readConnection;
+    @Mock
+    private Connection writeConnection;
+
+    private ReadWriteRoutingConnectionFactory routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReadWriteRoutingConnectionFactory();
+        routing.setTargetConnectionFactories(Map.of(
+                ReadWriteRoutingConnectionFactory.Route.READ, readPool,
+                ReadWriteRoutingConnectionFactory.Route.WRITE, writePool));
+        routing.setDefaultTargetConnectionFactory(writePool);
+        routing.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("create - вне транзакции соединение берется из пула записи")
+    void create_WithoutTransaction_ShouldUseWritePool() {
+        doReturn(Mono.just(writeConnection)).when(writePool).create();
+
+        StepVerifier.create(Mono.from(routing.create()))
+                .expectNext(writeConnection)
+                .verifyComplete();
+
+        verifyNoInteractions(readPool);
+    }
+
+    @Test
+    @DisplayName("create - признак readOnly в контексте направляет в пул чтения")
+    void create_WithReadOnlyContext_ShouldUseReadPool() {
+        doReturn(Mono.just(readConnection)).when(readPool).create();
+
+        StepVerifier.create(Mono.from(routing.create())
+                        .contextWrite(context -> context.put(ReadWriteRoutingConnectionFactory.READ_ONLY_KEY, true)))
+                .expectNext(readConnection)
+                .verifyComplete();
+
+        verifyNoInteractions(writePool);
+    }
+
+    @Test
+    @DisplayName("create - закрепление за primary (read-your-writes) важнее признака readOnly")
+    void create_WhenPinnedToPrimary_ShouldUseWritePool() {
+        doReturn(Mono.just(writeConnection)).when(writePool).create();
+
+        StepVerifier.create(Mono.from(routing.create())
+                        .contextWrite(context -> context
+                                .put(ReadWriteRoutingConnectionFactory.READ_ONLY_KEY, true)
+                                .put(ReadWriteRoutingConnectionFactory.PRIMARY_PINNED_KEY, true)))
+                .expectNext(writeConnection)
+                .verifyComplete();
+
+        verifyNoInteractions(readPool);
+    }
+
+    @Test
+    @DisplayName("create - read-only область SUPPORTS направляет в пул чтения без BEGIN")
+    void create_InReadOnlySupportsScope_ShouldUseReadPool() {
+        doReturn(Mono.just(readConnection)).when(readPool).create();
+
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_SUPPORTS);
+        definition.setReadOnly(true);
+        TransactionalOperator operator = TransactionalOperator.create(
+                new ReadOnlyRoutingTransactionManager(routing), definition);
+
+        StepVerifier.create(operator.transactional(Mono.from(routing.create())))
+                .expectNext(readConnection)
+                .verifyComplete();
+
+        verifyNoInteractions(writePool);
+        verifyNoInteractions(readConnection);
+    }
+
+    @Test
+    @DisplayName("create - read-write транзакция отмечает запись, и дальнейшие чтения запроса идут в пул записи")
+    void create_AfterReadWriteTransaction_ShouldMarkWriteAndStayOnWritePool() {
+        doReturn(Mono.just(writeConnection)).when(writePool).create();
+        AtomicBoolean written = new AtomicBoolean();
+
+        StepVerifier.create(Mono.from(routing.create())
+                        .contextWrite(context -> context
+                                .put(ReadWriteRoutingConnectionFactory.READ_ONLY_KEY, false)
+                                .put(ReadWriteRoutingConnectionFactory.WRITE_OBSERVED_KEY, written)))
+                .expectNext(writeConnection)
+                .verifyComplete();
+        assertThat(written).isTrue();
+
+        StepVerifier.create(Mono.from(routing.create())
+                        .contextWrite(context -> context
+                                .put(ReadWriteRoutingConnectionFactory.READ_ONLY_KEY, true)
+                                .put(ReadWriteRoutingConnectionFactory.WRITE_OBSERVED_KEY, written)))
+                .expectNext(writeConnection)
+                .verifyComplete();
+
+        verifyNoInteractions(readPool);
+    }
+
+    @Test
+    @DisplayName("create - соединение вне транзакции не считается записью")
+    void create_WithoutTransaction_ShouldNotMarkWrite() {
+        doReturn(Mono.just(writeConnection)).when(writePool).create();
+        AtomicBoolean written = new AtomicBoolean();
+
+        StepVerifier.create(Mono.from(routing.create())
+                        .contextWrite(context -> context.put(ReadWriteRoutingConnectionFactory.WRITE_OBSERVED_KEY, written)))
+                .expectNext(writeConnection)
+                .verifyComplete();
+
+        assertThat(written).isFalse();
+    }
+}
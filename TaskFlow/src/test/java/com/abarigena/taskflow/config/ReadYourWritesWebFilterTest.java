@@ -0,0 +1,93 @@
+package com.abarigena.taskflow.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Unit тесты для ReadYourWritesWebFilter")
+class ReadYourWritesWebFilterTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+
+    private final ReadYourWritesWebFilter filter = new ReadYourWritesWebFilter(WINDOW);
+
+    @Test
+    @DisplayName("filter - запрос, открывший read-write транзакцию, получает окно в cookie и заголовке")
+    void filter_WhenWriteObserved_ShouldOpenWindow() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.put("/api/tasks/1"));
+
+        StepVerifier.create(filter.filter(exchange, completing(true, new AtomicBoolean())))
+                .verifyComplete();
+
+        ResponseCookie cookie = exchange.getResponse().getCookies().getFirst(ReadYourWritesWebFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(exchange.getResponse().getHeaders().getFirst(ReadYourWritesWebFilter.HEADER_NAME))
+                .isEqualTo(cookie.getValue());
+    }
+
+    @Test
+    @DisplayName("filter - POST только с чтением (GraphQL-запрос, поиск) окно не открывает и не закрепляется за primary")
+    void filter_WhenReadOnlyPost_ShouldNotOpenWindow() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/graphql"));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        StepVerifier.create(filter.filter(exchange, completing(false, pinned)))
+                .verifyComplete();
+
+        assertThat(exchange.getResponse().getCookies()).doesNotContainKey(ReadYourWritesWebFilter.COOKIE_NAME);
+        assertThat(exchange.getResponse().getHeaders().containsKey(ReadYourWritesWebFilter.HEADER_NAME)).isFalse();
+        assertThat(pinned).isFalse();
+    }
+
+    @Test
+    @DisplayName("filter - заголовок окна от клиента с bearer-токеном закрепляет запрос за primary")
+    void filter_WithWindowHeader_ShouldPinToPrimary() {
+        String until = String.valueOf(System.currentTimeMillis() + 2_000);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/tasks/1")
+                .header(ReadYourWritesWebFilter.HEADER_NAME, until));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        StepVerifier.create(filter.filter(exchange, completing(false, pinned)))
+                .verifyComplete();
+
+        assertThat(pinned).isTrue();
+    }
+
+    @Test
+    @DisplayName("filter - значение окна дальше его длины от текущего времени игнорируется")
+    void filter_WithWindowBeyondLimit_ShouldNotPin() {
+        String until = String.valueOf(System.currentTimeMillis() + WINDOW.toMillis() * 10);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/tasks/1")
+                .header(ReadYourWritesWebFilter.HEADER_NAME, until));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        StepVerifier.create(filter.filter(exchange, completing(false, pinned)))
+                .verifyComplete();
+
+        assertThat(pinned).isFalse();
+    }
+
+    /**
+     * Цепочка, которая при необходимости отмечает запись, запоминает закрепление за primary и завершает ответ.
+     */
+    private static WebFilterChain completing(boolean write, AtomicBoolean pinned) {
+        return (ServerWebExchange exchange) -> Mono.deferContextual(context -> {
+            if (write) {
+                ReadWriteRoutingConnectionFactory.markWrite(context);
+            }
+            pinned.set(context.getOrDefault(ReadWriteRoutingConnectionFactory.PRIMARY_PINNED_KEY, false));
+            return exchange.getResponse().setComplete();
+        });
+    }
+}
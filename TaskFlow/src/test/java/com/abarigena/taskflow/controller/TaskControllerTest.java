@@ -0,0 +1,92 @@
+package com.abarigena.taskflow.controller;
+
+import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.exception.GlobalExceptionHandler;
+import com.abarigena.taskflow.serviceSQL.PageTotalService;
+import com.abarigena.taskflow.serviceSQL.TaskBulkService;
+import com.abarigena.taskflow.serviceSQL.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тест условного обновления задачи через If-Match в TaskController
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskControllerTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TaskBulkService taskBulkService;
+
+    @Mock
+    private PageTotalService pageTotalService;
+
+    private WebTestClient webTestClient;
+
+    private TaskDto requestDto;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient
+                .bindToController(new TaskController(taskService, taskBulkService, pageTotalService))
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        requestDto = TaskDto.builder().title("Новый заголовок").projectId(100L).build();
+    }
+
+    @Test
+    @DisplayName("PUT /api/tasks/{id} - должен вернуть новую версию в ETag при совпадении If-Match")
+    void updateTask_MatchingIfMatch_ShouldReturnNewETag() {
+        TaskDto updated = TaskDto.builder().id(1L).title("Новый заголовок").projectId(100L).version(4L).build();
+        when(taskService.updateTask(eq(1L), any(TaskDto.class))).thenReturn(Mono.just(updated));
+
+        webTestClient.put()
+                .uri("/api/tasks/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .bodyValue(requestDto)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"");
+
+        ArgumentCaptor<TaskDto> captor = ArgumentCaptor.forClass(TaskDto.class);
+        verify(taskService).updateTask(eq(1L), captor.capture());
+        assertThat(captor.getValue().getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("PUT /api/tasks/{id} - должен вернуть 409, если версия из If-Match устарела")
+    void updateTask_StaleIfMatch_ShouldReturnConflict() {
+        when(taskService.updateTask(eq(1L), any(TaskDto.class)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException(
+                        "Task with id '1' was modified concurrently (expected version 2)")));
+
+        webTestClient.put()
+                .uri("/api/tasks/1")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .bodyValue(requestDto)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        ArgumentCaptor<TaskDto> captor = ArgumentCaptor.forClass(TaskDto.class);
+        verify(taskService).updateTask(eq(1L), captor.capture());
+        assertThat(captor.getValue().getVersion()).isEqualTo(2L);
+    }
+}
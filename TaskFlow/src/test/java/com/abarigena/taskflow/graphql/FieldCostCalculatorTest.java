@@ -0,0 +1,117 @@
+package com.abarigena.taskflow.graphql;
+
+import com.abarigena.taskflow.graphql.config.GraphQlLimitsProperties;
+import com.abarigena.taskflow.graphql.execution.FieldCostCalculator;
+import com.abarigena.taskflow.graphql.scalar.LocalDateTimeScalar;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.QueryComplexityCalculator;
+import graphql.execution.CoercedVariables;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Unit тесты для FieldCostCalculator")
+class FieldCostCalculatorTest {
+
+    private static final String PAGE_OF_USERS =
+            "{ users(first: 100) { edges { node { id email } } pageInfo { hasNextPage } } }";
+
+    private static GraphQLSchema schema;
+
+    private GraphQlLimitsProperties limits;
+
+    @BeforeAll
+    static void loadSchema() throws IOException {
+        try (Reader reader = new InputStreamReader(
+                FieldCostCalculatorTest.class.getResourceAsStream("/graphql/schema.graphqls"), StandardCharsets.UTF_8)) {
+            RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                    .scalar(LocalDateTimeScalar.INSTANCE)
+                    .build();
+            schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(reader), wiring);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Веса как в application.yml
+        limits = new GraphQlLimitsProperties();
+        limits.setFieldCosts(Map.of(
+                "Query.users", 5,
+                "UserConnection.totalCount", 20,
+                "Project.tasks", 5,
+                "Task.comments", 5));
+    }
+
+    @Test
+    @DisplayName("totalCount соединения учитывается один раз, а не на каждый элемент страницы")
+    void connectionWithoutEdges_ShouldNotMultiplyByPageSize() {
+        // users = 5 + totalCount(20)
+        assertThat(cost("{ users(first: 100) { totalCount } }")).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("На размер страницы умножается только поддерево edges")
+    void connectionWithEdges_ShouldMultiplyOnlyEdges() {
+        // node = 1 + (id + email) = 3; edges = 1 + 3 * 100 = 301; pageInfo = 1 + 1 = 2; users = 5 + 301 + 2
+        assertThat(cost(PAGE_OF_USERS)).isEqualTo(308);
+    }
+
+    @Test
+    @DisplayName("Вложенные соединения умножаются на размеры страниц каждого уровня")
+    void nestedConnections_ShouldMultiplyPageSizes() {
+        String query = "{ project(id: 1) { tasks(first: 10) { edges { node { id"
+                + " comments(first: 5) { edges { node { id } } } } } } } }";
+
+        // comments = 5 + (1 + 2 * 5) = 16; task node = 1 + 1 + 16 = 18; tasks = 5 + (1 + 18 * 10) = 186; project = 1 + 186
+        assertThat(cost(query)).isEqualTo(187);
+    }
+
+    @Test
+    @DisplayName("Запрос со стоимостью, равной лимиту, выполняется, а на единицу дороже - отклоняется")
+    void maxCost_ShouldBeInclusive() {
+        assertThat(execute(PAGE_OF_USERS, 308).getErrors())
+                .noneMatch(error -> error.getMessage().contains("maximum query complexity"));
+        assertThat(execute(PAGE_OF_USERS, 307).getErrors())
+                .anyMatch(error -> error.getMessage().contains("maximum query complexity"));
+    }
+
+    @Test
+    @DisplayName("users(first: 100) { totalCount } укладывается в лимит 1000")
+    void totalCountOfLargePage_ShouldFitDefaultLimit() {
+        assertThat(execute("{ users(first: 100) { totalCount } }", limits.getMaxCost()).getErrors())
+                .noneMatch(error -> error.getMessage().contains("maximum query complexity"));
+    }
+
+    private int cost(String query) {
+        return QueryComplexityCalculator.newCalculator()
+                .schema(schema)
+                .fieldComplexityCalculator(new FieldCostCalculator(limits))
+                .document(Parser.parse(query))
+                .variables(CoercedVariables.emptyVariables())
+                .build()
+                .calculate();
+    }
+
+    private ExecutionResult execute(String query, int maxCost) {
+        return GraphQL.newGraphQL(schema)
+                .instrumentation(new MaxQueryComplexityInstrumentation(maxCost, new FieldCostCalculator(limits)))
+                .build()
+                .execute(query);
+    }
+}
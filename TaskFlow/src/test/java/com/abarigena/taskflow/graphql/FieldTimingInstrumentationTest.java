@@ -0,0 +1,95 @@
+package com.abarigena.taskflow.graphql;
+
+import com.abarigena.taskflow.graphql.execution.FieldTimingInstrumentation;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Unit тесты для FieldTimingInstrumentation")
+class FieldTimingInstrumentationTest {
+
+    private static final String SCHEMA = """
+            type Query { hello: String, later: String, broken: String, failedLater: String, item: Item }
+            type Item { name: String }
+            """;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GraphQL graphQL;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", type -> type
+                        .dataFetcher("hello", env -> "world")
+                        .dataFetcher("later", env -> CompletableFuture.supplyAsync(() -> "done"))
+                        .dataFetcher("broken", env -> {
+                            throw new IllegalStateException("boom");
+                        })
+                        .dataFetcher("failedLater", env -> CompletableFuture.failedFuture(new IllegalStateException("boom")))
+                        .dataFetcher("item", env -> Map.of("name", "first")))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), wiring);
+        graphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(new FieldTimingInstrumentation(meterRegistry))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Синхронный резолвер замеряется с outcome=SUCCESS")
+    void syncFetcher_ShouldRecordSuccess() {
+        graphQL.execute("{ hello }");
+
+        assertThat(timer("hello", "SUCCESS").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Асинхронный резолвер замеряется по завершении CompletionStage")
+    void asyncFetcher_ShouldRecordOnCompletion() {
+        ExecutionResult result = graphQL.execute("{ later failedLater }");
+
+        assertThat(result.<Map<String, Object>>getData()).containsEntry("later", "done");
+        assertThat(timer("later", "SUCCESS").count()).isEqualTo(1);
+        assertThat(timer("failedLater", "ERROR").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Исключение резолвера замеряется с outcome=ERROR")
+    void throwingFetcher_ShouldRecordError() {
+        ExecutionResult result = graphQL.execute("{ broken }");
+
+        assertThat(result.getErrors()).isNotEmpty();
+        assertThat(timer("broken", "ERROR").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Тривиальные резолверы (чтение свойства) не замеряются")
+    void trivialFetcher_ShouldNotBeTimed() {
+        graphQL.execute("{ item { name } }");
+
+        assertThat(timer("item", "SUCCESS").count()).isEqualTo(1);
+        assertThat(meterRegistry.find("graphql.field.duration").tag("field", "name").timer()).isNull();
+    }
+
+    private Timer timer(String field, String outcome) {
+        Timer timer = meterRegistry.find("graphql.field.duration")
+                .tags("type", "Query", "field", field, "outcome", outcome)
+                .timer();
+        assertThat(timer).as("timer for Query.%s (%s)", field, outcome).isNotNull();
+        return timer;
+    }
+}
@@ -0,0 +1,118 @@
+package com.abarigena.taskflow.graphql;
+
+import com.abarigena.taskflow.graphql.config.GraphQLConfig;
+import com.abarigena.taskflow.graphql.web.IncrementalGraphQlHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.graphql.GraphQlProperties;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.webflux.GraphQlHttpHandler;
+import org.springframework.graphql.server.webflux.GraphQlRequestPredicates;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Unit тесты для IncrementalGraphQlHandler")
+class IncrementalGraphQlHandlerTest {
+
+    private static final String SCHEMA = """
+            directive @defer(if: Boolean! = true, label: String) on FRAGMENT_SPREAD | INLINE_FRAGMENT
+            type Query { hello: String, later: String }
+            """;
+    private static final String DEFERRED_QUERY = "{ hello ... @defer(label: \"slow\") { later } }";
+    private static final String MULTIPART_AND_JSON = "multipart/mixed;deferSpec=20220824, application/json";
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        GraphQlSource graphQlSource = GraphQlSource.schemaResourceBuilder()
+                .schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+                .configureRuntimeWiring(wiring -> wiring.type("Query", type -> type
+                        .dataFetcher("hello", env -> "world")
+                        .dataFetcher("later", env -> "done")))
+                .build();
+        WebGraphQlHandler webGraphQlHandler = WebGraphQlHandler
+                .builder(new DefaultExecutionGraphQlService(graphQlSource))
+                .build();
+        GraphQlHttpHandler httpHandler = new GraphQlHttpHandler(webGraphQlHandler);
+
+        // Порядок маршрутов как в приложении: инкрементальный, затем маршруты Spring Boot для /graphql
+        RouterFunction<ServerResponse> router = RouterFunctions.route()
+                .add(new GraphQLConfig().incrementalGraphQlRouterFunction(
+                        new IncrementalGraphQlHandler(webGraphQlHandler, new ObjectMapper()), new GraphQlProperties()))
+                .route(GraphQlRequestPredicates.graphQlHttp("/graphql"), httpHandler::handleRequest)
+                .POST("/graphql", request -> ServerResponse.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build())
+                .build();
+        webTestClient = WebTestClient.bindToRouterFunction(router).build();
+    }
+
+    @Test
+    @DisplayName("Запрос с @defer и Accept из multipart/mixed и application/json получает ответ частями")
+    void deferredQuery_AcceptingMultipartAndJson_ShouldStreamParts() {
+        String body = post(DEFERRED_QUERY, MULTIPART_AND_JSON)
+                .expectStatus().isOk()
+                .expectHeader().value("Content-Type", contentType -> assertThat(contentType)
+                        .startsWith("multipart/mixed").contains("deferSpec=20220824"))
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(body)
+                .contains("\"data\":{\"hello\":\"world\"},\"hasNext\":true")
+                .contains("\"later\":\"done\"")
+                .contains("\"label\":\"slow\"")
+                .endsWith("\r\n-----\r\n");
+    }
+
+    @Test
+    @DisplayName("Запрос с @defer и Accept: multipart/mixed получает ответ частями")
+    void deferredQuery_AcceptingMultipartOnly_ShouldStreamParts() {
+        post(DEFERRED_QUERY, "multipart/mixed")
+                .expectStatus().isOk()
+                .expectHeader().value("Content-Type", contentType -> assertThat(contentType).startsWith("multipart/mixed"))
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains("\"later\":\"done\"").endsWith("\r\n-----\r\n"));
+    }
+
+    @Test
+    @DisplayName("Запрос без @defer при допустимом application/json получает обычный JSON-ответ")
+    void plainQuery_AcceptingMultipartAndJson_ShouldReturnJson() {
+        post("{ hello }", MULTIPART_AND_JSON)
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.data.hello").isEqualTo("world");
+    }
+
+    @Test
+    @DisplayName("Запрос без multipart/mixed в Accept обрабатывается стандартным обработчиком")
+    void jsonOnlyRequest_ShouldUseDefaultHandler() {
+        post("{ hello }", MediaType.APPLICATION_JSON_VALUE)
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.data.hello").isEqualTo("world");
+    }
+
+    private WebTestClient.ResponseSpec post(String query, String accept) {
+        return webTestClient.post().uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Accept", accept)
+                .bodyValue(Map.of("query", query))
+                .exchange();
+    }
+}
@@ -0,0 +1,210 @@
+package com.abarigena.taskflow.graphql;
+
+import com.abarigena.taskflow.graphql.execution.PersistedQueryDocumentProvider;
+import com.abarigena.taskflow.service.ReactiveRedisService;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.webflux.GraphQlHttpHandler;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit тесты для PersistedQueryDocumentProvider")
+class PersistedQueryDocumentProviderTest {
+
+    private static final String QUERY = "{ users { edges { node { id } } } }";
+    private static final String HTTP_QUERY = "{ hello }";
+
+    @Mock
+    private ReactiveRedisService reactiveRedisService;
+
+    private PersistedQueryDocumentProvider provider;
+    private AtomicInteger parseCount;
+    private Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate;
+
+    @BeforeEach
+    void setUp() {
+        provider = new PersistedQueryDocumentProvider(reactiveRedisService, new SimpleMeterRegistry(), 10, Duration.ofDays(1));
+        parseCount = new AtomicInteger();
+        parseAndValidate = input -> {
+            parseCount.incrementAndGet();
+            return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+        };
+    }
+
+    @Test
+    @DisplayName("Повторный запрос с тем же текстом не разбирается заново")
+    void plainQuery_shouldBeParsedOnce() {
+        ExecutionInput input = ExecutionInput.newExecutionInput(QUERY).build();
+
+        provider.getDocumentAsync(input, parseAndValidate).join();
+        PreparsedDocumentEntry entry = provider.getDocumentAsync(input, parseAndValidate).join();
+
+        assertThat(entry.hasErrors()).isFalse();
+        assertThat(parseCount).hasValue(1);
+        verify(reactiveRedisService, never()).set(anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Запрос с текстом и хэшем регистрируется в Redis, после чего достаточно одного хэша")
+    void persistedQuery_shouldRegisterAndServeByHash() {
+        String hash = sha256(QUERY);
+        when(reactiveRedisService.set(eq("graphql:apq:" + hash), eq(QUERY), any())).thenReturn(Mono.just(true));
+
+        provider.getDocumentAsync(persistedInput(QUERY, hash), parseAndValidate).join();
+        PreparsedDocumentEntry entry = provider.getDocumentAsync(
+                persistedInput(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash), parseAndValidate).join();
+
+        assertThat(entry.hasErrors()).isFalse();
+        assertThat(parseCount).hasValue(1);
+        verify(reactiveRedisService).set(eq("graphql:apq:" + hash), eq(QUERY), any());
+    }
+
+    @Test
+    @DisplayName("Хэш, известный только реестру Redis, разрешается в документ")
+    void persistedQuery_shouldFallBackToRedisRegistry() {
+        String hash = sha256(QUERY);
+        when(reactiveRedisService.get("graphql:apq:" + hash, String.class)).thenReturn(Mono.just(QUERY));
+
+        PreparsedDocumentEntry entry = provider.getDocumentAsync(
+                persistedInput(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash), parseAndValidate).join();
+
+        assertThat(entry.hasErrors()).isFalse();
+        assertThat(entry.getDocument()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Неизвестный хэш без текста возвращает PersistedQueryNotFound")
+    void unknownHash_shouldReturnNotFound() {
+        when(reactiveRedisService.get(anyString(), eq(String.class))).thenReturn(Mono.empty());
+
+        PreparsedDocumentEntry entry = provider.getDocumentAsync(
+                persistedInput(PersistedQuerySupport.PERSISTED_QUERY_MARKER, "abc"), parseAndValidate).join();
+
+        assertThat(entry.hasErrors()).isTrue();
+        assertThat(entry.getErrors().get(0).getMessage()).isEqualTo("PersistedQueryNotFound");
+    }
+
+    @Test
+    @DisplayName("Хэш, не совпадающий с текстом, отклоняется")
+    void mismatchedHash_shouldReturnIdInvalid() {
+        PreparsedDocumentEntry entry = provider.getDocumentAsync(persistedInput(QUERY, sha256("{ other }")), parseAndValidate).join();
+
+        assertThat(entry.hasErrors()).isTrue();
+        assertThat(parseCount).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("POST /graphql только с хэшем выполняет запрос из реестра Redis")
+    void httpHashOnlyRequest_shouldExecuteRegisteredQuery() {
+        String hash = sha256(HTTP_QUERY);
+        when(reactiveRedisService.get("graphql:apq:" + hash, String.class)).thenReturn(Mono.just(HTTP_QUERY));
+
+        webTestClient().post()
+                .uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("extensions", Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.hello").isEqualTo("world")
+                .jsonPath("$.errors").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("POST /graphql с неизвестным хэшем возвращает PersistedQueryNotFound, а не 400")
+    void httpUnknownHash_shouldReturnNotFoundError() {
+        when(reactiveRedisService.get(anyString(), eq(String.class))).thenReturn(Mono.empty());
+
+        webTestClient().post()
+                .uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("extensions", Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", "abc"))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.errors[0].message").isEqualTo("PersistedQueryNotFound")
+                .jsonPath("$.errors[0].extensions.persistedQueryId").isEqualTo("abc");
+    }
+
+    @Test
+    @DisplayName("POST /graphql с пустым query и хэшем выполняет запрос из реестра Redis")
+    void httpBlankQueryWithHash_shouldExecuteRegisteredQuery() {
+        String hash = sha256(HTTP_QUERY);
+        when(reactiveRedisService.get("graphql:apq:" + hash, String.class)).thenReturn(Mono.just(HTTP_QUERY));
+
+        webTestClient().post()
+                .uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("query", "",
+                        "extensions", Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.hello").isEqualTo("world");
+    }
+
+    /**
+     * Тот же HTTP-обработчик, что регистрирует Spring Boot для /graphql, поверх тестовой схемы и провайдера.
+     */
+    private WebTestClient webTestClient() {
+        GraphQlSource graphQlSource = GraphQlSource.schemaResourceBuilder()
+                .schemaResources(new ByteArrayResource("type Query { hello: String }".getBytes(StandardCharsets.UTF_8)))
+                .configureRuntimeWiring(wiring -> wiring.type("Query", type -> type.dataFetcher("hello", env -> "world")))
+                .configureGraphQl(builder -> builder.preparsedDocumentProvider(provider))
+                .build();
+        WebGraphQlHandler webGraphQlHandler = WebGraphQlHandler
+                .builder(new DefaultExecutionGraphQlService(graphQlSource))
+                .build();
+        GraphQlHttpHandler httpHandler = new GraphQlHttpHandler(webGraphQlHandler);
+        return WebTestClient
+                .bindToRouterFunction(RouterFunctions.route(RequestPredicates.POST("/graphql"), httpHandler::handleRequest))
+                .build();
+    }
+
+    private static ExecutionInput persistedInput(String query, String hash) {
+        return ExecutionInput.newExecutionInput(query)
+                .extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)))
+                .build();
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
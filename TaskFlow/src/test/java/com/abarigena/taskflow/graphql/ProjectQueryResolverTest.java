@@ -0,0 +1,100 @@
+package com.abarigena.taskflow.graphql;
+
+import com.abarigena.taskflow.dto.CommentDto;
+import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.graphql.resolver.ProjectQueryResolver;
+import com.abarigena.taskflow.graphql.type.Connection;
+import com.abarigena.taskflow.serviceSQL.CommentService;
+import com.abarigena.taskflow.serviceSQL.ProjectService;
+import com.abarigena.taskflow.serviceSQL.TaskService;
+import com.abarigena.taskflow.utility.KeysetCursor;
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit тесты для ProjectQueryResolver")
+class ProjectQueryResolverTest {
+
+    @Mock
+    private ProjectService projectService;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private CommentService commentService;
+
+    private ProjectQueryResolver resolver;
+
+    private DataLoaderRegistry dataLoaderRegistry;
+
+    private DataFetchingEnvironment environment;
+
+    @BeforeEach
+    void setUp() {
+        DefaultBatchLoaderRegistry batchLoaderRegistry = new DefaultBatchLoaderRegistry();
+        resolver = new ProjectQueryResolver(projectService, taskService, commentService, batchLoaderRegistry);
+
+        dataLoaderRegistry = new DataLoaderRegistry();
+        batchLoaderRegistry.registerDataLoaders(dataLoaderRegistry, GraphQLContext.newContext().build());
+        environment = DataFetchingEnvironmentImpl.newDataFetchingEnvironment()
+                .dataLoaderRegistry(dataLoaderRegistry)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Task.comments - должен загрузить комментарии всех задач уровня одним запросом")
+    void comments_ShouldLoadAllTasksInOneQuery() {
+        LocalDateTime now = LocalDateTime.now();
+        CommentDto first = CommentDto.builder().id(11L).taskId(1L).createdAt(now).build();
+        CommentDto second = CommentDto.builder().id(10L).taskId(1L).createdAt(now.minusMinutes(1)).build();
+        CommentDto other = CommentDto.builder().id(20L).taskId(2L).createdAt(now).build();
+        when(commentService.findByTaskIdsAfter(anyCollection(), eq(KeysetCursor.START), eq(2)))
+                .thenReturn(Flux.just(first, second, other));
+
+        CompletableFuture<Connection<CommentDto>> task1 = resolver.comments(TaskDto.builder().id(1L).build(), 1, null, environment);
+        CompletableFuture<Connection<CommentDto>> task2 = resolver.comments(TaskDto.builder().id(2L).build(), 1, null, environment);
+        CompletableFuture<Connection<CommentDto>> task3 = resolver.comments(TaskDto.builder().id(3L).build(), 1, null, environment);
+        dataLoaderRegistry.dispatchAll();
+
+        assertThat(task1.join().getEdges()).hasSize(1);
+        assertThat(task1.join().getPageInfo().isHasNextPage()).isTrue();
+        assertThat(task2.join().getEdges()).hasSize(1);
+        assertThat(task2.join().getPageInfo().isHasNextPage()).isFalse();
+        assertThat(task3.join().getEdges()).isEmpty();
+
+        verify(commentService).findByTaskIdsAfter(List.of(1L, 2L, 3L), KeysetCursor.START, 2);
+    }
+
+    @Test
+    @DisplayName("Task.comments - должен отклонить first вне допустимого диапазона без запроса")
+    void comments_InvalidFirst_ShouldFail() {
+        CompletableFuture<Connection<CommentDto>> result = resolver.comments(TaskDto.builder().id(1L).build(), 0, null, environment);
+        dataLoaderRegistry.dispatchAll();
+
+        assertThat(result).isCompletedExceptionally();
+        verify(commentService, never()).findByTaskIdsAfter(anyCollection(), eq(KeysetCursor.START), anyInt());
+    }
+}
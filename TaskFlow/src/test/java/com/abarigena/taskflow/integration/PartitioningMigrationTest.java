@@ -0,0 +1,224 @@
+package com.abarigena.taskflow.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Миграция V13: перенос tasks и comments в помесячно секционированные таблицы.
+ * <p>
+ * База мигрируется до V12, заполняется данными за полтора года, затем применяется V13.
+ * Проверяется, что данные, счетчики project_task_stats и поведение внешнего ключа комментариев
+ * сохранились, а запросы с диапазоном created_at читают только нужные секции.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Интеграционные тесты секционирования tasks и comments")
+class PartitioningMigrationTest {
+
+    private static final int TASKS = 20_000;
+    private static final int COMMENTS = 40_000;
+    private static final int SEEDED_MONTHS = 18;
+
+    private static final String TASKS_CHECKSUM = "select count(*) || ':' || sum(hashtext(id || title || status || priority" +
+            " || created_at || project_id || coalesce(assigned_user_id, 0))) from tasks";
+    private static final String COMMENTS_CHECKSUM = "select count(*) || ':' || sum(hashtext(id || context || task_id || user_id" +
+            " || created_at)) from comments";
+    private static final String STATS = "select string_agg(project_id || status || priority || task_count || overdue_count, ','" +
+            " order by project_id, status, priority) from project_task_stats";
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:17"));
+
+    private static Connection connection;
+    private static String tasksBefore;
+    private static String commentsBefore;
+    private static String statsBefore;
+
+    @BeforeAll
+    static void migrateSeededDatabase() throws SQLException {
+        flyway("12").migrate();
+
+        connection = postgres.createConnection("");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("insert into users (first_name, last_name, email, password)" +
+                    " select 'First' || g, 'Last' || g, 'partition' || g || '@example.com', 'x' from generate_series(1, 100) g");
+            statement.execute("insert into projects (name, status, owner_id)" +
+                    " select 'Project ' || g, 'ACTIVE', (select min(id) from users) + g % 100 from generate_series(1, 50) g");
+            statement.execute("insert into tasks (title, status, priority, deadline, created_at, assigned_user_id, project_id)" +
+                    " select 'Task ' || g, (array['TODO','IN_PROGRESS','DONE'])[g % 3 + 1], (array['LOW','MEDIUM','HIGH'])[g % 3 + 1]," +
+                    " localtimestamp + (g % 20 - 10) * interval '1 day'," +
+                    " localtimestamp - (g % " + (SEEDED_MONTHS * 30) + ") * interval '1 day'," +
+                    " (select min(id) from users) + g % 100, (select min(id) from projects) + g % 50" +
+                    " from generate_series(1, " + TASKS + ") g");
+            statement.execute("insert into comments (context, task_id, user_id, created_at)" +
+                    " select 'Comment ' || g, t.id, (select min(id) from users) + g % 100, t.created_at + interval '1 hour'" +
+                    " from generate_series(1, " + COMMENTS + ") g join tasks t on t.id = (select min(id) from tasks) + g % " + TASKS);
+            statement.execute("select rebuild_project_task_stats()");
+
+            tasksBefore = queryString(TASKS_CHECKSUM);
+            commentsBefore = queryString(COMMENTS_CHECKSUM);
+            statsBefore = queryString(STATS);
+        }
+
+        flyway(null).migrate();
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Таблицы секционированы по месяцам, секции покрывают данные и следующие месяцы")
+    void tables_ShouldBePartitionedByMonth() throws SQLException {
+        for (String table : List.of("tasks", "comments")) {
+            assertThat(queryString("select relkind from pg_class where oid = '" + table + "'::regclass")).isEqualTo("p");
+            assertThat(Integer.parseInt(queryString("select count(*) from pg_inherits where inhparent = '" + table + "'::regclass")))
+                    .isGreaterThanOrEqualTo(SEEDED_MONTHS + 3);
+            assertThat(queryString("select count(*) from pg_class where oid = to_regclass('" + table + "_p'"
+                    + " || to_char(localtimestamp + interval '3 months', 'YYYYMM'))")).isEqualTo("1");
+        }
+    }
+
+    @Test
+    @DisplayName("Строки, счетчики project_task_stats и последовательности сохранились")
+    void data_ShouldBePreserved() throws SQLException {
+        assertThat(queryString(TASKS_CHECKSUM)).isEqualTo(tasksBefore);
+        assertThat(queryString(COMMENTS_CHECKSUM)).isEqualTo(commentsBefore);
+        assertThat(queryString(STATS)).isEqualTo(statsBefore);
+
+        long maxId = Long.parseLong(queryString("select max(id) from tasks"));
+        rolledBack(() -> {
+            long newId = Long.parseLong(queryString("insert into tasks (title, project_id) select 'New', min(id) from projects returning id"));
+            assertThat(newId).isGreaterThan(maxId);
+        });
+    }
+
+    @Test
+    @DisplayName("Комментарий к несуществующей задаче отклоняется ошибкой fk_comment_task")
+    void commentWithMissingTask_ShouldViolateForeignKey() {
+        assertThatThrownBy(() -> queryString("insert into comments (context, task_id, user_id)" +
+                " select 'Orphan', -1, min(id) from users returning id"))
+                .isInstanceOf(SQLException.class)
+                .hasMessageContaining("\"fk_comment_task\"")
+                .satisfies(error -> assertThat(((SQLException) error).getSQLState()).isEqualTo("23503"));
+    }
+
+    @Test
+    @DisplayName("Удаление задачи каскадно удаляет ее комментарии и обновляет счетчики")
+    void deleteTask_ShouldCascadeToComments() throws SQLException {
+        String taskId = queryString("select task_id from comments order by id limit 1");
+        String projectId = queryString("select project_id from tasks where id = " + taskId);
+        String tasksInProject = "select coalesce(sum(task_count), 0) from project_task_stats where project_id = " + projectId;
+        long countBefore = Long.parseLong(queryString(tasksInProject));
+
+        rolledBack(() -> {
+            execute("delete from tasks where id = " + taskId);
+
+            assertThat(queryString("select count(*) from comments where task_id = " + taskId)).isEqualTo("0");
+            assertThat(Long.parseLong(queryString(tasksInProject))).isEqualTo(countBefore - 1);
+        });
+    }
+
+    @Test
+    @DisplayName("UPDATE не меняет created_at и не переносит строку в другую секцию")
+    void updateCreatedAt_ShouldBeIgnored() throws SQLException {
+        String taskId = queryString("select min(id) from tasks");
+        String createdAt = queryString("select created_at from tasks where id = " + taskId);
+
+        rolledBack(() -> {
+            execute("update tasks set created_at = created_at - interval '2 years', title = 'Renamed' where id = " + taskId);
+
+            assertThat(queryString("select created_at from tasks where id = " + taskId)).isEqualTo(createdAt);
+            assertThat(queryString("select title from tasks where id = " + taskId)).isEqualTo("Renamed");
+        });
+    }
+
+    @Test
+    @DisplayName("Запрос с диапазоном created_at читает только секции этого диапазона")
+    void rangeQuery_ShouldPrunePartitions() throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("explain select * from tasks" +
+                     " where created_at >= date_trunc('month', localtimestamp) - interval '1 month'" +
+                     " and created_at < date_trunc('month', localtimestamp)")) {
+            while (resultSet.next()) {
+                plan.add(resultSet.getString(1));
+            }
+        }
+        String previousMonth = queryString("select 'tasks_p' || to_char(localtimestamp - interval '1 month', 'YYYYMM')");
+
+        assertThat(plan).anyMatch(line -> line.contains(previousMonth));
+        assertThat(plan.stream().filter(line -> line.matches(".* on tasks_p\\d{6}.*"))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("create_monthly_partitions идемпотентна и создает только недостающие секции")
+    void createMonthlyPartitions_ShouldBeIdempotent() throws SQLException {
+        String sql = "select create_monthly_partitions('comments', localtimestamp, localtimestamp + interval '6 months')";
+
+        rolledBack(() -> {
+            assertThat(queryString(sql)).isEqualTo("3");
+            assertThat(queryString(sql)).isEqualTo("0");
+        });
+    }
+
+    /**
+     * Выполняет изменяющие проверки в транзакции с откатом, чтобы тесты не зависели от порядка запуска.
+     */
+    private static void rolledBack(SqlAction action) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            action.run();
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private static String queryString(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,475 @@
+package com.abarigena.taskflow.integration;
+
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.storeSQL.repository.CommentRepository;
+import com.abarigena.taskflow.storeSQL.repository.CommentViewRepositoryImpl;
+import com.abarigena.taskflow.storeSQL.repository.ExportRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectTaskStatsRepository;
+import com.abarigena.taskflow.storeSQL.repository.TableEstimateRepository;
+import com.abarigena.taskflow.storeSQL.repository.TaskBatchRepositoryImpl;
+import com.abarigena.taskflow.storeSQL.repository.TaskPurgeRepository;
+import com.abarigena.taskflow.storeSQL.repository.TaskRepository;
+import com.abarigena.taskflow.storeSQL.repository.UserProjectionRepositoryImpl;
+import com.abarigena.taskflow.storeSQL.repository.UserRepository;
+import com.abarigena.taskflow.utility.KeysetCursor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Statement;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Регрессионные тесты планов запросов репозиториев.
+ * <p>
+ * База поднимается миграциями Flyway и заполняется объемами, при которых планировщик уже не выбирает
+ * последовательное чтение "по дешевизне". Для каждого запроса репозитория выполняется
+ * EXPLAIN (ANALYZE, FORMAT JSON); тест падает, если в плане есть Seq Scan по большой таблице
+ * или сортировка, ушедшая на диск. Текст запросов не копируется в тест: вызываются сами методы
+ * репозиториев поверх фабрики соединений, которая перехватывает сформированный SQL и параметры,
+ * поэтому проверяется ровно то, что выполняет приложение.
+ * <p>
+ * Запросы с диапазоном created_at (экспорт, keyset-страницы) дополнительно проверяются на отсечение секций:
+ * в плане не должно выполняться чтение секций tasks/comments за месяцы вне диапазона.
+ * <p>
+ * Сознательно не проверяются: полный экспорт без фильтров (читает все строки по замыслу),
+ * пересчеты project_task_stats (refresh/rebuild: план тела plpgsql-функции не виден в EXPLAIN,
+ * а rebuild читает tasks целиком по замыслу) и запись (вставка, импорт, обновление по первичному ключу).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Регрессионные тесты планов SQL-запросов")
+class QueryPlanRegressionTest {
+
+    private static final int USERS = 5_000;
+    private static final int PROJECTS = 20_000;
+    private static final int TASKS = 300_000;
+    private static final int COMMENTS = 300_000;
+    private static final int MEMBERSHIPS = 50_000;
+
+    /**
+     * Таблицы с большим числом строк, по которым последовательное чтение считается деградацией плана.
+     */
+    private static final long LARGE_RELATION_ROWS = 10_000;
+
+    private static final KeysetCursor START = KeysetCursor.START;
+    private static final KeysetCursor MID = new KeysetCursor(LocalDateTime.now().minusDays(100), 150_000L);
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    /**
+     * Диапазон экспорта внутри периода сида, не выровненный по границам месяцев.
+     */
+    private static final LocalDateTime RANGE_FROM = LocalDateTime.now().minusDays(90);
+    private static final LocalDateTime RANGE_TO = LocalDateTime.now().minusDays(60);
+
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("(\\w+)_p(\\d{4})(\\d{2})");
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:17"));
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final List<CapturedStatement> captured = new CopyOnWriteArrayList<>();
+    private static Set<String> largeRelations;
+    private static ConnectionFactory connectionFactory;
+
+    private static TaskRepository taskRepository;
+    private static CommentRepository commentRepository;
+    private static ProjectRepository projectRepository;
+    private static UserRepository userRepository;
+    private static TaskPurgeRepository taskPurgeRepository;
+    private static ExportRepository exportRepository;
+    private static ProjectTaskStatsRepository projectTaskStatsRepository;
+    private static TableEstimateRepository tableEstimateRepository;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        try (java.sql.Connection connection = postgres.createConnection("");
+             java.sql.Statement statement = connection.createStatement()) {
+            statement.execute("insert into users (first_name, last_name, email, password, created_at)" +
+                    " select 'First' || g, 'Last' || g, 'seed' || g || '@example.com', 'x', now() - g * interval '1 minute'" +
+                    " from generate_series(1, " + USERS + ") g");
+            statement.execute("insert into projects (name, description, status, owner_id, created_at)" +
+                    " select 'Project ' || g, 'Seeded project', (array['ACTIVE','COMPLETED','ARCHIVED'])[g % 3 + 1]," +
+                    " (select min(id) from users) + g % " + USERS + ", now() - g * interval '1 minute'" +
+                    " from generate_series(1, " + PROJECTS + ") g");
+            statement.execute("insert into project_users (project_id, user_id)" +
+                    " select (select min(id) from projects) + g % " + PROJECTS + ", (select min(id) from users) + (g * 7) % " + USERS +
+                    " from generate_series(1, " + MEMBERSHIPS + ") g on conflict do nothing");
+            // Секции tasks и comments на весь период сида (миграция создает их только от текущего месяца)
+            statement.execute("select create_monthly_partitions('tasks', localtimestamp - interval '1 year', localtimestamp)");
+            statement.execute("select create_monthly_partitions('comments', localtimestamp - interval '1 year', localtimestamp)");
+            statement.execute("insert into tasks (title, description, status, priority, created_at, assigned_user_id, project_id)" +
+                    " select 'Task ' || g, 'Seeded task', (array['TODO','IN_PROGRESS','DONE'])[g % 3 + 1]," +
+                    " (array['LOW','MEDIUM','HIGH'])[(g / 3) % 3 + 1], now() - g * interval '1 minute'," +
+                    " (select min(id) from users) + g % " + USERS + ", (select min(id) from projects) + g % " + PROJECTS +
+                    " from generate_series(1, " + TASKS + ") g");
+            // Статистика по задачам нужна уже триггеру проверки ссылки комментария на задачу
+            statement.execute("analyze tasks");
+            statement.execute("insert into comments (context, task_id, user_id, created_at)" +
+                    " select 'Comment ' || g, (select min(id) from tasks) + g % " + TASKS + "," +
+                    " (select min(id) from users) + g % " + USERS + ", now() - g * interval '1 second'" +
+                    " from generate_series(1, " + COMMENTS + ") g");
+            // Мягко удаленные задачи: старше окна восстановления, их забирает очистка
+            statement.execute("update tasks set deleted_at = localtimestamp - interval '30 days' where id % 1000 = 0");
+            statement.execute("analyze");
+
+            largeRelations = new HashSet<>();
+            try (ResultSet resultSet = statement.executeQuery(
+                    "select relname from pg_class where relkind = 'r' and reltuples >= " + LARGE_RELATION_ROWS)) {
+                while (resultSet.next()) {
+                    largeRelations.add(resultSet.getString(1));
+                }
+            }
+        }
+
+        connectionFactory = ConnectionFactories.get(String.format("r2dbc:postgresql://%s:%s@%s:%d/%s",
+                postgres.getUsername(), postgres.getPassword(), postgres.getHost(), postgres.getFirstMappedPort(),
+                postgres.getDatabaseName()));
+        R2dbcEntityTemplate template = new R2dbcEntityTemplate(capturing(connectionFactory));
+        R2dbcRepositoryFactory repositories = new R2dbcRepositoryFactory(template);
+        taskRepository = repositories.getRepository(TaskRepository.class,
+                RepositoryFragments.just(new TaskBatchRepositoryImpl(template)));
+        commentRepository = repositories.getRepository(CommentRepository.class,
+                RepositoryFragments.just(new CommentViewRepositoryImpl(template)));
+        projectRepository = repositories.getRepository(ProjectRepository.class);
+        userRepository = repositories.getRepository(UserRepository.class,
+                RepositoryFragments.just(new UserProjectionRepositoryImpl(template)));
+        taskPurgeRepository = new TaskPurgeRepository(template);
+        exportRepository = new ExportRepository(template, 500);
+        projectTaskStatsRepository = new ProjectTaskStatsRepository(template);
+        tableEstimateRepository = new TableEstimateRepository(template);
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        Pageable firstPage = PageRequest.of(0, 10, NEWEST_FIRST);
+        return Stream.of(
+                // TaskRepository
+                query("TaskRepository.findByIdAndDeletedAtIsNull", () -> taskRepository.findByIdAndDeletedAtIsNull(1234L)),
+                query("TaskRepository.findAllByDeletedAtIsNull",
+                        () -> taskRepository.findAllByDeletedAtIsNull(PageRequest.of(10, 10, NEWEST_FIRST))),
+                query("TaskRepository.findAllAfter", () -> taskRepository.findAllAfter(MID.createdAt(), MID.id(), 11)),
+                query("TaskRepository.findByProjectIdAndDeletedAtIsNull",
+                        () -> taskRepository.findByProjectIdAndDeletedAtIsNull(42L, firstPage)),
+                query("TaskRepository.findByProjectIdAfter",
+                        () -> taskRepository.findByProjectIdAfter(42L, START.createdAt(), START.id(), 11)),
+                query("TaskRepository.findByAssignedUserIdAndDeletedAtIsNull",
+                        () -> taskRepository.findByAssignedUserIdAndDeletedAtIsNull(7L, firstPage)),
+                query("TaskRepository.findByAssignedUserIdAfter",
+                        () -> taskRepository.findByAssignedUserIdAfter(7L, START.createdAt(), START.id(), 11)),
+                query("TaskRepository.findByStatusAndPriorityAndDeletedAtIsNull",
+                        () -> taskRepository.findByStatusAndPriorityAndDeletedAtIsNull(
+                                Task.Status.TODO, Task.Priority.HIGH, PageRequest.of(5, 10, NEWEST_FIRST))),
+                query("TaskRepository.findByStatusAndPriorityAfter",
+                        () -> taskRepository.findByStatusAndPriorityAfter("TODO", "HIGH", MID.createdAt(), MID.id(), 11)),
+                query("TaskRepository.findSummariesByProjectIdAndDeletedAtIsNull",
+                        () -> taskRepository.findSummariesByProjectIdAndDeletedAtIsNull(42L, firstPage)),
+                query("TaskRepository.findSummariesByAssignedUserIdAndDeletedAtIsNull",
+                        () -> taskRepository.findSummariesByAssignedUserIdAndDeletedAtIsNull(7L, firstPage)),
+                query("TaskRepository.countByAssignedUserIdAndDeletedAtIsNull",
+                        () -> taskRepository.countByAssignedUserIdAndDeletedAtIsNull(7L)),
+                // CommentRepository
+                query("CommentRepository.findByTaskId", () -> commentRepository.findByTaskId(1234L, firstPage)),
+                query("CommentRepository.findByTaskIdAfter",
+                        () -> commentRepository.findByTaskIdAfter(1234L, START.createdAt(), START.id(), 11)),
+                query("CommentRepository.findByTaskIdInAfter",
+                        () -> commentRepository.findByTaskIdInAfter(List.of(1234L, 1235L, 1236L), START.createdAt(), START.id(), 21)),
+                query("CommentRepository.findViewsByTaskIdAfter",
+                        () -> commentRepository.findViewsByTaskIdAfter(1234L, START.createdAt(), START.id(), 11)),
+                query("CommentRepository.countByTaskId", () -> commentRepository.countByTaskId(1234L)),
+                // ExportRepository
+                query("ExportRepository.streamTasks(projectId)", () -> exportRepository.streamTasks(42L, null, null, null)),
+                query("ExportRepository.streamTasks(projectId, status)",
+                        () -> exportRepository.streamTasks(42L, Task.Status.TODO, null, null)),
+                query("ExportRepository.streamCommentsByProjectId",
+                        () -> exportRepository.streamCommentsByProjectId(42L, null, null)),
+                // TaskPurgeRepository
+                query("TaskPurgeRepository.purgeComments", () -> taskPurgeRepository.purgeComments(LocalDateTime.now().minusDays(7), 500)),
+                query("TaskPurgeRepository.purgeTasks", () -> taskPurgeRepository.purgeTasks(LocalDateTime.now().minusDays(7), 500)),
+                // ProjectRepository
+                query("ProjectRepository.findAllBy", () -> projectRepository.findAllBy(PageRequest.of(10, 10, NEWEST_FIRST))),
+                query("ProjectRepository.findAllAfter", () -> projectRepository.findAllAfter(START.createdAt(), START.id(), 11)),
+                query("ProjectRepository.findByOwnerId", () -> projectRepository.findByOwnerId(7L, firstPage)),
+                query("ProjectRepository.findByOwnerIdAfter",
+                        () -> projectRepository.findByOwnerIdAfter(7L, START.createdAt(), START.id(), 11)),
+                query("ProjectRepository.findSummariesByOwnerId", () -> projectRepository.findSummariesByOwnerId(7L, firstPage)),
+                query("ProjectRepository.findProjectsByUserId", () -> projectRepository.findProjectsByUserId(7L, firstPage)),
+                query("ProjectRepository.findProjectsByUserIdAfter",
+                        () -> projectRepository.findProjectsByUserIdAfter(7L, START.createdAt(), START.id(), 11)),
+                query("ProjectRepository.findUsersInProject", () -> projectRepository.findUsersInProject(42L)),
+                query("ProjectRepository.countByOwnerId", () -> projectRepository.countByOwnerId(7L)),
+                query("ProjectRepository.countProjectsByUserId", () -> projectRepository.countProjectsByUserId(7L)),
+                // ProjectTaskStatsRepository и оценки размера таблиц (итоги keyset-страниц)
+                query("ProjectTaskStatsRepository.findByProjectId", () -> projectTaskStatsRepository.findByProjectId(42L)),
+                query("ProjectTaskStatsRepository.countTasks(projectId)", () -> projectTaskStatsRepository.countTasks(42L)),
+                query("ProjectTaskStatsRepository.countTasks(status, priority)",
+                        () -> projectTaskStatsRepository.countTasks(Task.Status.TODO, Task.Priority.HIGH)),
+                query("ProjectTaskStatsRepository.findOverdueAsOf", () -> projectTaskStatsRepository.findOverdueAsOf()),
+                query("TableEstimateRepository.estimateRows", () -> tableEstimateRepository.estimateRows("tasks")),
+                // UserRepository
+                query("UserRepository.findByEmail", () -> userRepository.findByEmail("seed42@example.com")),
+                query("UserRepository.findProjectedPageAfter",
+                        () -> userRepository.findProjectedPageAfter(List.of("id", "email"), START.createdAt(), START.id(), 11))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    @DisplayName("План запроса не содержит Seq Scan по большим таблицам и внешней сортировки")
+    void queryPlan_shouldUseIndexesAndInMemorySorts(String name, Supplier<Publisher<?>> repositoryCall) {
+        captured.clear();
+        Flux.from(repositoryCall.get()).blockLast();
+        assertThat(captured).as("%s не выполнил ни одного запроса", name).isNotEmpty();
+
+        for (CapturedStatement statement : captured) {
+            JsonNode plan = explain(statement);
+
+            List<String> violations = new ArrayList<>();
+            collectViolations(plan, violations);
+
+            assertThat(violations)
+                    .as("%s%nSQL: %s%nПлан: %s", name, statement.sql(), plan.toPrettyString())
+                    .isEmpty();
+        }
+    }
+
+    private static Arguments query(String name, Supplier<Publisher<?>> repositoryCall) {
+        return Arguments.of(name, repositoryCall);
+    }
+
+    static Stream<Arguments> timeRangeQueries() {
+        return Stream.of(
+                timeRange("ExportRepository.streamTasks(createdFrom, createdTo)", "tasks", RANGE_FROM, RANGE_TO,
+                        () -> exportRepository.streamTasks(null, Task.Status.TODO, RANGE_FROM, RANGE_TO)),
+                timeRange("ExportRepository.streamTasks(projectId, createdFrom, createdTo)", "tasks", RANGE_FROM, RANGE_TO,
+                        () -> exportRepository.streamTasks(42L, null, RANGE_FROM, RANGE_TO)),
+                timeRange("ExportRepository.streamCommentsByProjectId(createdFrom, createdTo)", "comments", RANGE_FROM, RANGE_TO,
+                        () -> exportRepository.streamCommentsByProjectId(42L, RANGE_FROM, RANGE_TO)),
+                timeRange("TaskRepository.findAllAfter", "tasks", null, MID.createdAt(),
+                        () -> taskRepository.findAllAfter(MID.createdAt(), MID.id(), 11)),
+                timeRange("TaskRepository.findByStatusAndPriorityAfter", "tasks", null, MID.createdAt(),
+                        () -> taskRepository.findByStatusAndPriorityAfter("TODO", "HIGH", MID.createdAt(), MID.id(), 11)),
+                timeRange("CommentRepository.findByTaskIdAfter", "comments", null, MID.createdAt(),
+                        () -> commentRepository.findByTaskIdAfter(1234L, MID.createdAt(), MID.id(), 11))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("timeRangeQueries")
+    @DisplayName("Запрос с диапазоном created_at читает только секции за месяцы диапазона")
+    void timeRangeQuery_shouldPrunePartitions(String name, String table, LocalDateTime from, LocalDateTime to,
+                                              Supplier<Publisher<?>> repositoryCall) {
+        captured.clear();
+        Flux.from(repositoryCall.get()).blockLast();
+        assertThat(captured).as("%s не выполнил ни одного запроса", name).isNotEmpty();
+
+        for (CapturedStatement statement : captured) {
+            JsonNode plan = explain(statement);
+
+            List<String> scanned = new ArrayList<>();
+            collectScannedPartitions(plan, table, scanned);
+
+            assertThat(scanned)
+                    .as("%s%nSQL: %s%nПлан: %s", name, statement.sql(), plan.toPrettyString())
+                    .isNotEmpty()
+                    .allSatisfy(partition -> assertThat(overlaps(partition, from, to))
+                            .as("секция %s вне диапазона [%s, %s]", partition, from, to)
+                            .isTrue());
+        }
+    }
+
+    private static Arguments timeRange(String name, String table, LocalDateTime from, LocalDateTime to,
+                                       Supplier<Publisher<?>> repositoryCall) {
+        return Arguments.of(name, table, from, to, repositoryCall);
+    }
+
+    /**
+     * Выполняет EXPLAIN (ANALYZE) перехваченного запроса с теми же параметрами в транзакции,
+     * которая затем откатывается: запросы очистки удаляют строки.
+     */
+    private static JsonNode explain(CapturedStatement captured) {
+        String json = Mono.usingWhen(connectionFactory.create(),
+                        connection -> Mono.from(connection.beginTransaction())
+                                .then(Mono.defer(() -> {
+                                    Statement statement = connection.createStatement(
+                                            "explain (analyze, buffers, format json) " + captured.sql());
+                                    captured.bindings().forEach(binding -> binding.applyTo(statement));
+                                    return Mono.from(statement.execute())
+                                            .flatMap(result -> Mono.from(result.map((row, metadata) -> row.get(0, String.class))));
+                                })),
+                        connection -> Mono.from(connection.rollbackTransaction()).then(Mono.from(connection.close())),
+                        (connection, error) -> Mono.from(connection.rollbackTransaction()).then(Mono.from(connection.close())),
+                        connection -> Mono.from(connection.rollbackTransaction()).then(Mono.from(connection.close())))
+                .block();
+        try {
+            return objectMapper.readTree(json).get(0).get("Plan");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected EXPLAIN output: " + json, e);
+        }
+    }
+
+    /**
+     * Фабрика соединений, которая не выполняет запросы, а запоминает SQL и параметры, сформированные
+     * Spring Data R2DBC (derived-методы, @Query, DatabaseClient). Метаданные и прочие вызовы
+     * передаются настоящей фабрике, поэтому диалект и конвертация параметров те же, что в приложении.
+     */
+    private static ConnectionFactory capturing(ConnectionFactory delegate) {
+        return proxy(ConnectionFactory.class, (proxy, method, args) -> "create".equals(method.getName())
+                ? Mono.from(delegate.create()).map(QueryPlanRegressionTest::capturing)
+                : invoke(delegate, method, args));
+    }
+
+    private static Connection capturing(Connection delegate) {
+        return proxy(Connection.class, (proxy, method, args) -> "createStatement".equals(method.getName())
+                ? capturingStatement((String) args[0])
+                : invoke(delegate, method, args));
+    }
+
+    private static Statement capturingStatement(String sql) {
+        CapturedStatement statement = new CapturedStatement(sql, new ArrayList<>());
+        return proxy(Statement.class, (proxy, method, args) -> switch (method.getName()) {
+            case "bind" -> {
+                statement.bindings().add(new Binding(args[0], args[1], null));
+                yield proxy;
+            }
+            case "bindNull" -> {
+                statement.bindings().add(new Binding(args[0], null, (Class<?>) args[1]));
+                yield proxy;
+            }
+            case "execute" -> {
+                captured.add(statement);
+                yield Flux.empty();
+            }
+            case "toString" -> sql;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            // add, returnGeneratedValues, fetchSize
+            default -> proxy;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private record CapturedStatement(String sql, List<Binding> bindings) {
+    }
+
+    private record Binding(Object key, Object value, Class<?> nullType) {
+
+        void applyTo(Statement statement) {
+            if (key instanceof Integer index) {
+                if (nullType != null) {
+                    statement.bindNull(index, nullType);
+                } else {
+                    statement.bind(index, value);
+                }
+            } else if (nullType != null) {
+                statement.bindNull((String) key, nullType);
+            } else {
+                statement.bind((String) key, value);
+            }
+        }
+    }
+
+    /**
+     * Собирает месячные секции таблицы, которые действительно читались (не отсечены ни при планировании,
+     * ни при запуске выполнения).
+     */
+    private static void collectScannedPartitions(JsonNode node, String table, List<String> scanned) {
+        String relation = node.path("Relation Name").asText(null);
+        Matcher matcher = relation != null ? MONTHLY_PARTITION.matcher(relation) : null;
+        if (matcher != null && matcher.matches() && matcher.group(1).equals(table)
+                && node.path("Actual Loops").asLong() > 0) {
+            scanned.add(relation);
+        }
+
+        for (JsonNode child : node.path("Plans")) {
+            collectScannedPartitions(child, table, scanned);
+        }
+    }
+
+    /**
+     * Пересекается ли месяц секции с диапазоном [from, to]; null - диапазон не ограничен с этой стороны.
+     */
+    private static boolean overlaps(String partition, LocalDateTime from, LocalDateTime to) {
+        Matcher matcher = MONTHLY_PARTITION.matcher(partition);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a monthly partition: " + partition);
+        }
+        LocalDateTime start = LocalDate.of(Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)), 1)
+                .atStartOfDay();
+        LocalDateTime end = start.plusMonths(1);
+        return (from == null || end.isAfter(from)) && (to == null || !start.isAfter(to));
+    }
+
+    private static void collectViolations(JsonNode node, List<String> violations) {
+        String nodeType = node.path("Node Type").asText();
+        String relation = node.path("Relation Name").asText(null);
+
+        if ("Seq Scan".equals(nodeType) && relation != null && largeRelations.contains(relation)) {
+            violations.add("Seq Scan on " + relation);
+        }
+        if ("Disk".equals(node.path("Sort Space Type").asText(null))
+                || node.path("Sort Method").asText("").startsWith("external")) {
+            violations.add("External sort (" + node.path("Sort Method").asText() + ")");
+        }
+
+        for (JsonNode child : node.path("Plans")) {
+            collectViolations(child, violations);
+        }
+    }
+}
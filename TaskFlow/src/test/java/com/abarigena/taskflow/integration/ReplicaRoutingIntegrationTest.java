@@ -0,0 +1,236 @@
+package com.abarigena.taskflow.integration;
+
+import com.abarigena.taskflow.config.ReadWriteRoutingConnectionFactory;
+import com.abarigena.taskflow.config.ReplicaConnectionFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Маршрутизация чтения на потоковую реплику.
+ * <p>
+ * Реплика поднимается из primary через pg_basebackup и работает в режиме hot standby.
+ * Принадлежность соединения определяется по pg_is_in_recovery(): true - реплика, false - primary.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Интеграционные тесты маршрутизации чтения на реплики")
+class ReplicaRoutingIntegrationTest {
+
+    private static final DockerImageName POSTGRES = DockerImageName.parse("postgres:17");
+    private static final String DATA_DIR = "/var/lib/postgresql/data";
+    private static final Duration MAX_LAG = Duration.ofMillis(500);
+    private static final Duration MAX_RECEIPT_AGE = Duration.ofMinutes(1);
+    private static final Duration LAG_CHECK_INTERVAL = Duration.ofMillis(100);
+    private static final Duration AWAIT = Duration.ofSeconds(30);
+
+    private static final Network network = Network.newNetwork();
+
+    @Container
+    static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>(POSTGRES)
+            .withNetwork(network)
+            .withNetworkAliases("primary")
+            .withCopyToContainer(Transferable.of("echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\""),
+                    "/docker-entrypoint-initdb.d/10-replication.sh");
+
+    @Container
+    static final GenericContainer<?> replica = new GenericContainer<>(POSTGRES)
+            .withNetwork(network)
+            .dependsOn(primary)
+            .withEnv("PGPASSWORD", "test")
+            .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+            .withCommand("bash", "-c",
+                    "until pg_basebackup -h primary -U test -D " + DATA_DIR + " -R -X stream -c fast; do sleep 1; done"
+                            + " && chmod 0700 " + DATA_DIR + " && exec postgres")
+            .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\s", 1)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    private ConnectionPool primaryPool;
+    private ConnectionPool replicaPool;
+    private ReplicaConnectionFactory replicas;
+    private ReadWriteRoutingConnectionFactory routing;
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        try (java.sql.Connection connection = primary.createConnection("");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists replication_probe (id bigserial primary key, created_at timestamptz not null default now())");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        primaryPool = pool(primary.getHost(), primary.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT));
+        replicaPool = pool(replica.getHost(), replica.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT));
+
+        replicas = new ReplicaConnectionFactory(
+                List.of(new ReplicaConnectionFactory.Replica("read-0", replicaPool, replicaPool)),
+                primaryPool, MAX_LAG, MAX_RECEIPT_AGE, LAG_CHECK_INTERVAL, new SimpleMeterRegistry());
+        replicas.start();
+
+        routing = new ReadWriteRoutingConnectionFactory();
+        routing.setTargetConnectionFactories(Map.of(
+                ReadWriteRoutingConnectionFactory.Route.READ, replicas,
+                ReadWriteRoutingConnectionFactory.Route.WRITE, primaryPool));
+        routing.setDefaultTargetConnectionFactory(primaryPool);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        execute(replicaPool, "select pg_wal_replay_resume()").block();
+        replicas.dispose();
+        primaryPool.dispose();
+    }
+
+    @Test
+    @DisplayName("Read-only операции обслуживает реплика, остальные - primary")
+    void readOnlyOperations_ShouldBeServedByReplica() {
+        StepVerifier.create(awaitRoute(readOnly(), true))
+                .expectNext(true)
+                .verifyComplete();
+
+        StepVerifier.create(inRecovery(Context.empty()))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("В окне read-your-writes чтение идет в primary и сразу видит запись клиента")
+    void readYourWrites_ShouldReadFromPrimary() {
+        StepVerifier.create(awaitRoute(readOnly(), true))
+                .expectNext(true)
+                .verifyComplete();
+
+        Long id = query(routing, "insert into replication_probe default values returning id", Long.class, Context.empty())
+                .block();
+        Context pinned = readOnly().put(ReadWriteRoutingConnectionFactory.PRIMARY_PINNED_KEY, true);
+
+        StepVerifier.create(inRecovery(pinned))
+                .expectNext(false)
+                .verifyComplete();
+        StepVerifier.create(query(routing, "select count(*) from replication_probe where id = " + id, Long.class, pinned))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Отстающая реплика не получает чтений, пока не догонит primary")
+    void laggingReplica_ShouldFallBackToPrimary() {
+        StepVerifier.create(awaitRoute(readOnly(), true))
+                .expectNext(true)
+                .verifyComplete();
+
+        execute(replicaPool, "select pg_wal_replay_pause()").block();
+        // Primary продолжает писать, реплика получает WAL, но не применяет его
+        Disposable writes = Flux.interval(Duration.ofMillis(100))
+                .concatMap(tick -> execute(primaryPool, "insert into replication_probe default values"))
+                .subscribe();
+        try {
+            StepVerifier.create(awaitRoute(readOnly(), false))
+                    .expectNext(false)
+                    .verifyComplete();
+        } finally {
+            writes.dispose();
+        }
+
+        execute(replicaPool, "select pg_wal_replay_resume()").block();
+
+        StepVerifier.create(awaitRoute(readOnly(), true))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Реплика с отключенным WAL receiver не получает чтений, даже если применила весь полученный WAL")
+    void disconnectedReplica_ShouldFallBackToPrimary() {
+        StepVerifier.create(awaitRoute(readOnly(), true))
+                .expectNext(true)
+                .verifyComplete();
+
+        String primaryConninfo = query(replicaPool, "show primary_conninfo", String.class, Context.empty()).block();
+        // Без primary_conninfo WAL receiver останавливается и не переподключается; записей нет,
+        // поэтому receive и replay LSN реплики остаются равными
+        execute(replicaPool, "alter system set primary_conninfo = ''").block();
+        execute(replicaPool, "select pg_reload_conf()").block();
+        try {
+            StepVerifier.create(awaitRoute(readOnly(), false))
+                    .expectNext(false)
+                    .verifyComplete();
+        } finally {
+            execute(replicaPool, "alter system set primary_conninfo = '" + primaryConninfo.replace("'", "''") + "'").block();
+            execute(replicaPool, "select pg_reload_conf()").block();
+        }
+
+        StepVerifier.create(awaitRoute(readOnly(), true))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    private static ConnectionPool pool(String host, int port) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                String.format("r2dbc:postgresql://test:test@%s:%d/test", host, port));
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory).maxSize(4).build());
+    }
+
+    private static Context readOnly() {
+        return Context.of(ReadWriteRoutingConnectionFactory.READ_ONLY_KEY, true);
+    }
+
+    /**
+     * Опрашивает маршрут, пока соединение не окажется на нужном сервере (реплика - true, primary - false).
+     */
+    private Mono<Boolean> awaitRoute(Context context, boolean expectReplica) {
+        return Flux.interval(Duration.ZERO, LAG_CHECK_INTERVAL)
+                .concatMap(tick -> inRecovery(context))
+                .filter(inRecovery -> inRecovery == expectReplica)
+                .next()
+                .timeout(AWAIT);
+    }
+
+    private Mono<Boolean> inRecovery(Context context) {
+        return query(routing, "select pg_is_in_recovery()", Boolean.class, context);
+    }
+
+    private static <T> Mono<T> query(ConnectionFactory connectionFactory, String sql, Class<T> type, Context context) {
+        return Mono.usingWhen(connectionFactory.create(),
+                        connection -> Mono.from(connection.createStatement(sql).execute())
+                                .flatMap(result -> Mono.from(result.map((row, metadata) -> row.get(0, type)))),
+                        Connection::close)
+                .contextWrite(context);
+    }
+
+    private static Mono<Void> execute(ConnectionFactory connectionFactory, String sql) {
+        return Mono.usingWhen(connectionFactory.create(),
+                connection -> Flux.from(connection.createStatement(sql).execute()).flatMap(Result::getRowsUpdated).then(),
+                Connection::close);
+    }
+}
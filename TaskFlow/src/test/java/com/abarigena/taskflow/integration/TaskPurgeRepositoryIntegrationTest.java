@@ -0,0 +1,191 @@
+package com.abarigena.taskflow.integration;
+
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.storeSQL.repository.TaskPurgeRepository;
+import io.r2dbc.spi.ConnectionFactories;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.test.StepVerifier;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Очистка мягко удаленных задач на настоящей схеме: границы окна восстановления, размер пачки
+ * и порядок "сначала комментарии, потом задачи".
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Интеграционные тесты TaskPurgeRepository")
+class TaskPurgeRepositoryIntegrationTest {
+
+    private static final Duration RESTORE_WINDOW = Duration.ofDays(7);
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:17"));
+
+    private static Connection connection;
+    private static TaskPurgeRepository taskPurgeRepository;
+
+    private long expiredTask;
+    private long olderExpiredTask;
+    private long restorableTask;
+    private long visibleTask;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        connection = postgres.createConnection("");
+
+        R2dbcEntityTemplate template = new R2dbcEntityTemplate(ConnectionFactories.get(String.format(
+                "r2dbc:postgresql://%s:%s@%s:%d/%s", postgres.getUsername(), postgres.getPassword(),
+                postgres.getHost(), postgres.getFirstMappedPort(), postgres.getDatabaseName())));
+        taskPurgeRepository = new TaskPurgeRepository(template);
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @BeforeEach
+    void seed() throws SQLException {
+        execute("truncate comments, tasks, project_users, projects, users restart identity cascade");
+        execute("insert into users (first_name, last_name, email, password) values ('Purge', 'User', 'purge@example.com', 'x')");
+        execute("insert into projects (name, status, owner_id) select 'Purge', 'ACTIVE', min(id) from users");
+
+        expiredTask = insertTask("Expired", 3);
+        olderExpiredTask = insertTask("Older expired", 1);
+        restorableTask = insertTask("Restorable", 2);
+        visibleTask = insertTask("Visible", 2);
+        // Комментарии можно добавить только к видимой задаче, поэтому задачи удаляются после вставки
+        softDelete(expiredTask, "10 days");
+        softDelete(olderExpiredTask, "20 days");
+        softDelete(restorableTask, "6 days 23 hours");
+    }
+
+    @Test
+    @DisplayName("purgeCutoff - должен вернуть момент на окно восстановления раньше текущего времени базы")
+    void purgeCutoff_ShouldSubtractWindowFromDatabaseTime() {
+        StepVerifier.create(taskPurgeRepository.purgeCutoff(RESTORE_WINDOW))
+                .assertNext(cutoff -> assertThat(cutoff)
+                        .isCloseTo(LocalDateTime.now().minus(RESTORE_WINDOW), within(1, ChronoUnit.MINUTES)))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("purgeComments - должен удалять пачками только комментарии задач, удаленных раньше границы")
+    void purgeComments_ShouldDeleteOnlyExpiredTaskComments() throws SQLException {
+        LocalDateTime cutoff = taskPurgeRepository.purgeCutoff(RESTORE_WINDOW).block();
+
+        StepVerifier.create(taskPurgeRepository.purgeComments(cutoff, 3)).expectNext(3L).verifyComplete();
+        StepVerifier.create(taskPurgeRepository.purgeComments(cutoff, 3)).expectNext(1L).verifyComplete();
+        StepVerifier.create(taskPurgeRepository.purgeComments(cutoff, 3)).expectNext(0L).verifyComplete();
+
+        assertThat(count("comments where task_id in (" + expiredTask + ", " + olderExpiredTask + ")")).isZero();
+        assertThat(count("comments where task_id = " + restorableTask)).isEqualTo(2);
+        assertThat(count("comments where task_id = " + visibleTask)).isEqualTo(2);
+        assertThat(count("tasks")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("purgeTasks - должен удалять задачи пачками в порядке удаления и не трогать задачи в окне восстановления")
+    void purgeTasks_ShouldDeleteExpiredTasksOldestFirst() throws SQLException {
+        LocalDateTime cutoff = taskPurgeRepository.purgeCutoff(RESTORE_WINDOW).block();
+        drainComments(cutoff);
+
+        StepVerifier.create(taskPurgeRepository.purgeTasks(cutoff, 1))
+                .assertNext(task -> {
+                    assertThat(task.getId()).isEqualTo(olderExpiredTask);
+                    assertThat(task.getTitle()).isEqualTo("Older expired");
+                    assertThat(task.getDeletedBy()).isEqualTo(5L);
+                })
+                .verifyComplete();
+        StepVerifier.create(taskPurgeRepository.purgeTasks(cutoff, 10).map(Task::getId))
+                .expectNext(expiredTask)
+                .verifyComplete();
+        StepVerifier.create(taskPurgeRepository.purgeTasks(cutoff, 10)).verifyComplete();
+
+        assertThat(ids("tasks")).containsExactlyInAnyOrder(restorableTask, visibleTask);
+        assertThat(count("comments")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("purgeComments и purgeTasks - должны использовать переданную границу, а не текущее время выражения")
+    void purge_ShouldHonorGivenCutoff() throws SQLException {
+        // Граница 17 дней назад: Expired (удалена 10 дней назад) вне окна по текущему времени, но не раньше границы
+        LocalDateTime cutoff = taskPurgeRepository.purgeCutoff(RESTORE_WINDOW).block().minus(10, ChronoUnit.DAYS);
+
+        drainComments(cutoff);
+        StepVerifier.create(taskPurgeRepository.purgeTasks(cutoff, 10).map(Task::getId))
+                .expectNext(olderExpiredTask)
+                .verifyComplete();
+
+        assertThat(ids("tasks")).containsExactlyInAnyOrder(expiredTask, restorableTask, visibleTask);
+        assertThat(count("comments where task_id = " + expiredTask)).isEqualTo(3);
+    }
+
+    private static void drainComments(LocalDateTime cutoff) {
+        StepVerifier.create(taskPurgeRepository.purgeComments(cutoff, 100))
+                .assertNext(deleted -> assertThat(deleted).isPositive())
+                .verifyComplete();
+    }
+
+    private static long insertTask(String title, int comments) throws SQLException {
+        long taskId = Long.parseLong(queryString("insert into tasks (title, status, priority, project_id, created_at)" +
+                " select '" + title + "', 'TODO', 'MEDIUM', min(id), localtimestamp from projects returning id"));
+        execute("insert into comments (context, task_id, user_id, created_at)" +
+                " select 'Comment ' || g, " + taskId + ", (select min(id) from users), localtimestamp" +
+                " from generate_series(1, " + comments + ") g");
+        return taskId;
+    }
+
+    private static void softDelete(long taskId, String ago) throws SQLException {
+        execute("update tasks set deleted_at = localtimestamp - interval '" + ago + "', deleted_by = 5 where id = " + taskId);
+    }
+
+    private static long count(String from) throws SQLException {
+        return Long.parseLong(queryString("select count(*) from " + from));
+    }
+
+    private static List<Long> ids(String table) throws SQLException {
+        return List.of(queryString("select string_agg(id::text, ',') from " + table).split(","))
+                .stream().map(Long::parseLong).toList();
+    }
+
+    private static String queryString(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.abarigena.taskflow.serviceTest;
+
+import com.abarigena.taskflow.exception.SearchUnavailableException;
+import com.abarigena.taskflow.service.FailoverSearchService;
+import com.abarigena.taskflow.serviceNoSQL.OpenSearchService;
+import com.abarigena.taskflow.serviceSQL.PostgresSearchService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit тесты для FailoverSearchService")
+class FailoverSearchServiceTest {
+
+    private static final Map<String, Object> OPENSEARCH_HIT = Map.of("_id", "1", "title", "from opensearch");
+    private static final Map<String, Object> POSTGRES_HIT = Map.of("_id", "1", "title", "from postgres");
+
+    @Mock
+    private OpenSearchService openSearchService;
+    @Mock
+    private PostgresSearchService postgresSearchService;
+
+    private CircuitBreaker circuitBreaker;
+    private FailoverSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = CircuitBreaker.of("opensearch", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        searchService = new FailoverSearchService(openSearchService, postgresSearchService, circuitBreaker,
+                Duration.ofMillis(200));
+    }
+
+    @Test
+    @DisplayName("searchTasks - должен вернуть результат OpenSearch, пока он отвечает")
+    void searchTasks_OpenSearchHealthy_ShouldUseOpenSearch() {
+        when(openSearchService.searchTasks("bug", null, null, 0, 10)).thenReturn(Flux.just(OPENSEARCH_HIT));
+
+        StepVerifier.create(searchService.searchTasks("bug", null, null, 0, 10))
+                .expectNext(OPENSEARCH_HIT)
+                .verifyComplete();
+
+        verifyNoInteractions(postgresSearchService);
+    }
+
+    @Test
+    @DisplayName("searchTasks - должен искать в Postgres при ошибке или таймауте OpenSearch")
+    void searchTasks_OpenSearchFailsOrHangs_ShouldFallBackToPostgres() {
+        when(openSearchService.searchTasks("bug", null, null, 0, 10))
+                .thenReturn(Flux.error(new RuntimeException("Ошибка поиска задач")))
+                .thenReturn(Flux.from(Mono.never()));
+        when(postgresSearchService.searchTasks("bug", null, null, 0, 10)).thenReturn(Flux.just(POSTGRES_HIT));
+
+        StepVerifier.create(searchService.searchTasks("bug", null, null, 0, 10))
+                .expectNext(POSTGRES_HIT)
+                .verifyComplete();
+        StepVerifier.create(searchService.searchTasks("bug", null, null, 0, 10))
+                .expectNext(POSTGRES_HIT)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("searchComments - разомкнутый breaker не обращается к OpenSearch")
+    void searchComments_BreakerOpen_ShouldSkipOpenSearch() {
+        when(openSearchService.searchComments("note", 5L, 0, 10))
+                .thenReturn(Flux.error(new RuntimeException("Ошибка поиска комментариев")));
+        when(postgresSearchService.searchComments("note", 5L, 0, 10)).thenReturn(Flux.just(POSTGRES_HIT));
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(searchService.searchComments("note", 5L, 0, 10))
+                    .expectNext(POSTGRES_HIT)
+                    .verifyComplete();
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        // Два неудачных вызова разомкнули breaker, третий запрос сразу ушел в Postgres
+        assertThat(circuitBreaker.getMetrics().getNumberOfNotPermittedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("searchProjects - без резервного поиска должен вернуть SearchUnavailableException")
+    void searchProjects_OpenSearchFails_ShouldReturnUnavailable() {
+        when(openSearchService.searchProjects("alpha", null, 0, 10))
+                .thenReturn(Flux.error(new RuntimeException("Ошибка поиска проектов")));
+
+        StepVerifier.create(searchService.searchProjects("alpha", null, 0, 10))
+                .expectError(SearchUnavailableException.class)
+                .verify();
+    }
+}
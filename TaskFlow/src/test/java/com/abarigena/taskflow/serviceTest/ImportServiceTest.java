@@ -0,0 +1,136 @@
+package com.abarigena.taskflow.serviceTest;
+
+import com.abarigena.taskflow.dto.ImportResult;
+import com.abarigena.taskflow.serviceSQL.ImportService;
+import com.abarigena.taskflow.serviceSQL.ImportServiceImpl;
+import com.abarigena.taskflow.storeSQL.repository.ImportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit тесты для ImportServiceImpl")
+class ImportServiceTest {
+
+    @Mock
+    private ImportRepository importRepository;
+
+    private ImportServiceImpl importService;
+
+    private final List<String> copiedColumns = new ArrayList<>();
+    private final List<String> copiedRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importService = new ImportServiceImpl(importRepository, new ObjectMapper(), 100, 10, Duration.ofDays(3650));
+    }
+
+    /**
+     * Репозиторий-заглушка вычитывает поток строк так же, как COPY, и запоминает колонки и строки.
+     */
+    private void captureTaskCopy() {
+        when(importRepository.importTasks(anyList(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            copiedColumns.addAll(invocation.getArgument(0));
+            Flux<String> rows = invocation.getArgument(1);
+            return rows.doOnNext(copiedRows::add).then(Mono.fromSupplier(() -> ImportResult.builder()
+                    .received(copiedRows.size())
+                    .imported(copiedRows.size())
+                    .errors(List.of())
+                    .build()));
+        });
+    }
+
+    @Test
+    @DisplayName("CSV: колонки берутся из заголовка, пустые строки вне кавычек пропускаются")
+    void importTasksCsv_ShouldMapHeaderAndKeepQuotedLineBreaks() {
+        captureTaskCopy();
+        Flux<String> lines = Flux.just("\uFEFFprojectId,title,description", "1,First,\"two", "", "lines\"", "", "2,Second,");
+
+        StepVerifier.create(importService.importTasks(lines, ImportService.Format.CSV))
+                .assertNext(result -> assertThat(result.getReceived()).isEqualTo(4))
+                .verifyComplete();
+
+        assertThat(copiedColumns).containsExactly("project_id", "title", "description");
+        assertThat(copiedRows).containsExactly("1,First,\"two\n", "\n", "lines\"\n", "2,Second,\n");
+    }
+
+    @Test
+    @DisplayName("CSV: неизвестная или отсутствующая обязательная колонка отклоняет файл до COPY")
+    void importTasksCsv_WithInvalidHeader_ShouldFail() {
+        StepVerifier.create(importService.importTasks(Flux.just("title,owner", "Task,1"), ImportService.Format.CSV))
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                        && error.getMessage().contains("'owner'"))
+                .verify();
+        StepVerifier.create(importService.importTasks(Flux.just("title", "Task"), ImportService.Format.CSV))
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                        && error.getMessage().contains("[projectId]"))
+                .verify();
+
+        verifyNoInteractions(importRepository);
+    }
+
+    @Test
+    @DisplayName("NDJSON: объекты раскладываются по всем колонкам, некорректная строка получает причину отклонения")
+    void importTasksNdjson_ShouldConvertObjectsAndMarkMalformedLines() {
+        captureTaskCopy();
+        Flux<String> lines = Flux.just("{\"title\":\"Task, one\",\"projectId\":7,\"status\":null}", "not json", "[1]");
+
+        StepVerifier.create(importService.importTasks(lines, ImportService.Format.NDJSON))
+                .assertNext(result -> assertThat(result.getReceived()).isEqualTo(3))
+                .verifyComplete();
+
+        List<String> expectedColumns = new ArrayList<>();
+        expectedColumns.add(ImportRepository.ROW_NUMBER_COLUMN);
+        expectedColumns.addAll(ImportRepository.TASK_FIELDS.values());
+        expectedColumns.add(ImportRepository.ERROR_COLUMN);
+        assertThat(copiedColumns).isEqualTo(expectedColumns);
+        assertThat(copiedRows.get(0)).isEqualTo("1,,\"Task, one\",,,,,,,,,7,\r\n");
+        assertThat(copiedRows.get(1)).startsWith("2,,,,,,,,,,,,\"Некорректный JSON");
+        assertThat(copiedRows.get(2)).isEqualTo("3,,,,,,,,,,,,Строка не является JSON-объектом\r\n");
+    }
+
+    @Test
+    @DisplayName("NDJSON: пустые строки пропускаются, но номера строк совпадают с номерами строк файла")
+    void importTasksNdjson_ShouldNumberRowsByPhysicalLines() {
+        captureTaskCopy();
+        Flux<String> lines = Flux.just("{\"title\":\"One\",\"projectId\":7}", "", "  ", "[1]", "{\"title\":\"Two\",\"projectId\":7}");
+
+        StepVerifier.create(importService.importTasks(lines, ImportService.Format.NDJSON))
+                .assertNext(result -> assertThat(result.getReceived()).isEqualTo(3))
+                .verifyComplete();
+
+        assertThat(copiedRows).extracting(row -> row.substring(0, row.indexOf(',')))
+                .containsExactly("1", "4", "5");
+        assertThat(copiedRows.get(1)).endsWith("Строка не является JSON-объектом\r\n");
+    }
+
+    @Test
+    @DisplayName("Файл длиннее taskflow.import.max-rows отклоняется")
+    void importTasks_WhenTooManyRows_ShouldFail() {
+        captureTaskCopy();
+        Flux<String> lines = Flux.range(0, 101).map(i -> "{\"title\":\"Task " + i + "\",\"projectId\":1}");
+
+        StepVerifier.create(importService.importTasks(lines, ImportService.Format.NDJSON))
+                .expectErrorMatches(error -> error instanceof IllegalArgumentException
+                        && error.getMessage().contains("100"))
+                .verify();
+    }
+}
@@ -0,0 +1,92 @@
+package com.abarigena.taskflow.serviceTest;
+
+import com.abarigena.taskflow.dto.TotalCount;
+import com.abarigena.taskflow.service.ReactiveRedisService;
+import com.abarigena.taskflow.serviceSQL.PageTotalServiceImpl;
+import com.abarigena.taskflow.storeSQL.repository.CommentRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectTaskStatsRepository;
+import com.abarigena.taskflow.storeSQL.repository.TableEstimateRepository;
+import com.abarigena.taskflow.storeSQL.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit тесты для PageTotalServiceImpl")
+class PageTotalServiceTest {
+
+    private static final Duration CACHE_TTL = Duration.ofSeconds(30);
+
+    @Mock
+    private TableEstimateRepository tableEstimateRepository;
+    @Mock
+    private ProjectTaskStatsRepository projectTaskStatsRepository;
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ProjectRepository projectRepository;
+    @Mock
+    private ReactiveRedisService reactiveRedisService;
+
+    private PageTotalServiceImpl pageTotalService;
+
+    @BeforeEach
+    void setUp() {
+        pageTotalService = new PageTotalServiceImpl(tableEstimateRepository, projectTaskStatsRepository, taskRepository,
+                commentRepository, projectRepository, reactiveRedisService, CACHE_TTL);
+    }
+
+    @Test
+    @DisplayName("Все задачи: оценка reltuples помечается как неточная")
+    void countAllTasks_ShouldReturnEstimate() {
+        when(tableEstimateRepository.estimateRows("tasks")).thenReturn(Mono.just(12_345L));
+
+        StepVerifier.create(pageTotalService.countAllTasks())
+                .expectNext(TotalCount.estimated(12_345L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Задачи проекта: счетчик project_task_stats помечается как точный")
+    void countTasksByProjectId_ShouldReturnExactCount() {
+        when(projectTaskStatsRepository.countTasks(1L)).thenReturn(Mono.just(42L));
+
+        StepVerifier.create(pageTotalService.countTasksByProjectId(1L))
+                .expectNext(TotalCount.exact(42L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Комментарии задачи: закэшированное значение (Integer из Redis) приводится к long")
+    void countCommentsByTaskId_ShouldReadCachedNumber() {
+        when(reactiveRedisService.getOrSet(eq("count:comments:task:5"), any(), eq(CACHE_TTL), eq(Number.class)))
+                .thenReturn(Mono.just(7));
+
+        StepVerifier.create(pageTotalService.countCommentsByTaskId(5L))
+                .expectNext(TotalCount.estimated(7L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Ошибка подсчета дает пустой Mono, а не ошибку")
+    void countAllProjects_WhenEstimateFails_ShouldReturnEmpty() {
+        when(tableEstimateRepository.estimateRows("projects")).thenReturn(Mono.error(new RuntimeException("DB down")));
+
+        StepVerifier.create(pageTotalService.countAllProjects())
+                .verifyComplete();
+    }
+}
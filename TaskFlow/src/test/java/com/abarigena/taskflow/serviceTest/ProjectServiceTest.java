@@ -1,27 +1,53 @@
 package com.abarigena.taskflow.serviceTest;
 
+import com.abarigena.taskflow.dto.ProjectDeletionDto;
 import com.abarigena.taskflow.dto.ProjectDto;
+import com.abarigena.taskflow.dto.ProjectTaskStatsDto;
 import com.abarigena.taskflow.dto.UserDto;
 import com.abarigena.taskflow.exception.ResourceNotFoundException;
 import com.abarigena.taskflow.mapper.ProjectMapper;
 import com.abarigena.taskflow.mapper.UserMapper;
+import com.abarigena.taskflow.service.ReactiveRedisService;
+import com.abarigena.taskflow.service.RedisEventPublisher;
 import com.abarigena.taskflow.serviceSQL.ProjectServiceImpl;
 import com.abarigena.taskflow.storeSQL.entity.Project;
+import com.abarigena.taskflow.storeSQL.entity.ProjectDeletion;
+import com.abarigena.taskflow.storeSQL.entity.ProjectTaskStat;
+import com.abarigena.taskflow.storeSQL.entity.Task;
 import com.abarigena.taskflow.storeSQL.entity.User;
+import com.abarigena.taskflow.storeSQL.repository.PartialUpdateRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectDeletionRepository;
 import com.abarigena.taskflow.storeSQL.repository.ProjectRepository;
+import com.abarigena.taskflow.storeSQL.repository.ProjectTaskStatsRepository;
 import com.abarigena.taskflow.storeSQL.repository.UserRepository;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -30,6 +56,8 @@ import static org.mockito.Mockito.*;
 @DisplayName("Unit тесты для ProjectServiceImpl")
 class ProjectServiceTest {
 
+    private static final Map<String, Object> DELETING_EXCLUDED = Map.of("status", Project.Status.DELETING);
+
     @Mock
     private ProjectRepository projectRepository;
     @Mock
@@ -38,6 +66,16 @@ class ProjectServiceTest {
     private UserMapper userMapper;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private PartialUpdateRepository partialUpdateRepository;
+    @Mock
+    private ProjectTaskStatsRepository projectTaskStatsRepository;
+    @Mock
+    private ProjectDeletionRepository projectDeletionRepository;
+    @Mock
+    private RedisEventPublisher redisEventPublisher;
+    @Mock
+    private ReactiveRedisService reactiveRedisService;
 
     @InjectMocks
     private ProjectServiceImpl projectService;
@@ -126,6 +164,7 @@ class ProjectServiceTest {
     @Test
     @DisplayName("getProjectById - должен успешно вернуть проект по существующему ID")
     void getProjectById_ExistingId_ShouldReturnProject() {
+        missCache();
         when(projectRepository.findById(projectId)).thenReturn(Mono.just(projectEntity));
         when(projectMapper.toDto(projectEntity)).thenReturn(projectDto);
         StepVerifier.create(projectService.getProjectById(projectId)).expectNext(projectDto).verifyComplete();
@@ -138,6 +177,7 @@ class ProjectServiceTest {
     @DisplayName("getProjectById - должен вернуть ошибку ResourceNotFoundException для несуществующего ID")
     void getProjectById_NonExistingId_ShouldReturnError() {
         Long nonExistingId = 999L;
+        missCache();
         when(projectRepository.findById(nonExistingId)).thenReturn(Mono.empty());
         StepVerifier.create(projectService.getProjectById(nonExistingId)).expectError(ResourceNotFoundException.class).verify();
         verify(projectRepository).findById(nonExistingId);
@@ -179,156 +219,357 @@ class ProjectServiceTest {
     @Test
     @DisplayName("updateProject - должен успешно обновить проект по существующему ID с изменением владельца")
     void updateProject_ExistingIdAndOwnerChanged_ShouldUpdateProject() {
-        doAnswer(invocation -> {
-            ProjectDto dto = invocation.getArgument(0);
-            Project entity = invocation.getArgument(1);
-
-            if (dto.getName() != null) {
-                entity.setName(dto.getName());
-            }
-            if (dto.getDescription() != null) {
-                entity.setDescription(dto.getDescription());
-            }
-            if (dto.getStatus() != null) {
-                entity.setStatus(dto.getStatus());
-            }
-            if (dto.getOwnerId() != null) {
-                entity.setOwnerId(dto.getOwnerId());
-            }
-
-            return null;
-        }).when(projectMapper).updateEntityFromDto(any(ProjectDto.class), any(Project.class));
+        Project patch = Project.builder().name(updateProjectDto.getName()).ownerId(updateProjectDto.getOwnerId()).build();
 
-        Long newOwnerId = updateProjectDto.getOwnerId(); // 300L
-
-        when(projectRepository.findById(existingProjectId)).thenReturn(Mono.just(existingProjectEntity));
-        when(userRepository.existsById(eq(newOwnerId))).thenReturn(Mono.just(true));
-
-        when(projectRepository.save(existingProjectEntity)).thenReturn(Mono.just(updatedProjectEntity));
+        when(projectMapper.toEntity(updateProjectDto)).thenReturn(patch);
+        when(partialUpdateRepository.update(eq(Project.class), eq(existingProjectId), isNull(), same(patch), anyCollection(), eq(DELETING_EXCLUDED)))
+                .thenReturn(Mono.just(new PartialUpdateRepository.Result<>(updatedProjectEntity, Map.of())));
         when(projectMapper.toDto(updatedProjectEntity)).thenReturn(updatedProjectDto);
+        when(redisEventPublisher.publishProjectUpdated(existingProjectId)).thenReturn(Mono.empty());
 
         StepVerifier.create(projectService.updateProject(existingProjectId, updateProjectDto))
                 .expectNext(updatedProjectDto)
                 .verifyComplete();
 
-        verify(projectRepository).findById(existingProjectId);
-        verify(projectMapper).updateEntityFromDto(updateProjectDto, existingProjectEntity);
-        verify(userRepository).existsById(eq(newOwnerId));
-        verify(projectRepository).save(existingProjectEntity);
+        // Владелец проверяется внешним ключом в том же UPDATE, без findById/existsById/save
+        verify(partialUpdateRepository).update(eq(Project.class), eq(existingProjectId), isNull(), same(patch), anyCollection(), eq(DELETING_EXCLUDED));
         verify(projectMapper).toDto(updatedProjectEntity);
-
-        verifyNoMoreInteractions(projectRepository, projectMapper, userMapper, userRepository);
+        verifyNoInteractions(projectRepository, userRepository);
     }
 
     @Test
     @DisplayName("updateProject - должен вернуть ошибку ResourceNotFoundException, если новый владелец не найден")
     void updateProject_NewOwnerNotFound_ShouldReturnError() {
-        doAnswer(invocation -> {
-            ProjectDto dto = invocation.getArgument(0);
-            Project entity = invocation.getArgument(1);
-
-            if (dto.getName() != null) {
-                entity.setName(dto.getName());
-            }
-            if (dto.getDescription() != null) {
-                entity.setDescription(dto.getDescription());
-            }
-            if (dto.getStatus() != null) {
-                entity.setStatus(dto.getStatus());
-            }
-            if (dto.getOwnerId() != null) {
-                entity.setOwnerId(dto.getOwnerId());
-            }
-
-            return null;
-        }).when(projectMapper).updateEntityFromDto(any(ProjectDto.class), any(Project.class));
-
         Long newOwnerId = updateProjectDto.getOwnerId(); // 300L
-        when(projectRepository.findById(existingProjectId)).thenReturn(Mono.just(existingProjectEntity));
-        when(userRepository.existsById(eq(newOwnerId))).thenReturn(Mono.just(false));
+        String message = "insert or update on table \"projects\" violates foreign key constraint \"fk_project_owner\"";
+
+        when(projectMapper.toEntity(updateProjectDto)).thenReturn(Project.builder().ownerId(newOwnerId).build());
+        when(partialUpdateRepository.update(eq(Project.class), eq(existingProjectId), isNull(), any(Project.class), anyCollection(), eq(DELETING_EXCLUDED)))
+                .thenReturn(Mono.error(new DataIntegrityViolationException(message,
+                        new R2dbcDataIntegrityViolationException(message, "23503"))));
 
         StepVerifier.create(projectService.updateProject(existingProjectId, updateProjectDto))
                 .expectError(ResourceNotFoundException.class)
                 .verify();
 
-        verify(projectRepository).findById(existingProjectId);
-        verify(projectMapper).updateEntityFromDto(updateProjectDto, existingProjectEntity);
-        verify(userRepository).existsById(eq(newOwnerId));
-        verify(projectRepository, never()).save(any(Project.class));
         verify(projectMapper, never()).toDto(any(Project.class));
-
-        verifyNoMoreInteractions(projectRepository, projectMapper, userMapper, userRepository);
+        verifyNoInteractions(projectRepository, userRepository);
     }
 
     @Test
     @DisplayName("updateProject - должен успешно обновить проект по существующему ID без изменения владельца")
     void updateProject_ExistingIdAndOwnerNotChanged_ShouldUpdateProject() {
-        Long oldOwnerId = existingProjectEntity.getOwnerId(); // 100L
-        ProjectDto updateProjectDtoNoOwnerChange = ProjectDto.builder().name("Обновленный Проект (владелец тот же)").build();
+        ProjectDto updateProjectDtoNoOwnerChange = ProjectDto.builder().name("Обновленный Проект (владелец тот же)").version(4L).build();
+        Project patch = Project.builder().name(updateProjectDtoNoOwnerChange.getName()).build();
 
         Project updatedProjectEntityNoOwnerChange = Project.builder()
                 .id(existingProjectId).name(updateProjectDtoNoOwnerChange.getName()).description(existingProjectEntity.getDescription())
                 .status(existingProjectEntity.getStatus()).ownerId(existingProjectEntity.getOwnerId()) // Владелец старый
-                .createdAt(existingProjectEntity.getCreatedAt()).updatedAt(LocalDateTime.now())
+                .createdAt(existingProjectEntity.getCreatedAt()).updatedAt(LocalDateTime.now()).version(5L)
                 .build();
 
         ProjectDto updatedProjectDtoNoOwnerChange = ProjectDto.builder()
                 .id(updatedProjectEntityNoOwnerChange.getId()).name(updatedProjectEntityNoOwnerChange.getName())
                 .description(updatedProjectEntityNoOwnerChange.getDescription()).status(updatedProjectEntityNoOwnerChange.getStatus()).ownerId(updatedProjectEntityNoOwnerChange.getOwnerId())
                 .createdAt(updatedProjectEntityNoOwnerChange.getCreatedAt()).updatedAt(updatedProjectEntityNoOwnerChange.getUpdatedAt())
+                .version(updatedProjectEntityNoOwnerChange.getVersion())
                 .build();
 
-
-        when(projectRepository.findById(existingProjectId)).thenReturn(Mono.just(existingProjectEntity)); // projectEntity
-
-        when(userRepository.existsById(oldOwnerId)).thenReturn(Mono.just(true));
-
-        when(projectRepository.save(existingProjectEntity)).thenReturn(Mono.just(updatedProjectEntityNoOwnerChange));
+        when(projectMapper.toEntity(updateProjectDtoNoOwnerChange)).thenReturn(patch);
+        when(partialUpdateRepository.update(eq(Project.class), eq(existingProjectId), eq(4L), same(patch), anyCollection(), eq(DELETING_EXCLUDED)))
+                .thenReturn(Mono.just(new PartialUpdateRepository.Result<>(updatedProjectEntityNoOwnerChange, Map.of())));
         when(projectMapper.toDto(updatedProjectEntityNoOwnerChange)).thenReturn(updatedProjectDtoNoOwnerChange);
+        when(redisEventPublisher.publishProjectUpdated(existingProjectId)).thenReturn(Mono.empty());
 
         StepVerifier.create(projectService.updateProject(existingProjectId, updateProjectDtoNoOwnerChange)).expectNext(updatedProjectDtoNoOwnerChange).verifyComplete();
 
-        verify(projectRepository).findById(existingProjectId);
-        verify(projectMapper).updateEntityFromDto(updateProjectDtoNoOwnerChange, existingProjectEntity); // Проверяем вызов маппера
-        verify(userRepository).existsById(oldOwnerId);
-        verify(projectRepository).save(existingProjectEntity);
+        verify(partialUpdateRepository).update(eq(Project.class), eq(existingProjectId), eq(4L), same(patch), anyCollection(), eq(DELETING_EXCLUDED));
         verify(projectMapper).toDto(updatedProjectEntityNoOwnerChange);
-
-        verifyNoMoreInteractions(projectRepository, projectMapper, userMapper, userRepository);
+        verifyNoInteractions(projectRepository, userRepository);
     }
 
     @Test
     @DisplayName("updateProject - должен вернуть ошибку ResourceNotFoundException, если проект для обновления не найден")
     void updateProject_ProjectNotFound_ShouldReturnError() {
         Long nonExistingId = 999L;
-        when(projectRepository.findById(nonExistingId)).thenReturn(Mono.empty());
+        when(projectMapper.toEntity(updateProjectDto)).thenReturn(new Project());
+        when(partialUpdateRepository.update(eq(Project.class), eq(nonExistingId), isNull(), any(Project.class), anyCollection(), eq(DELETING_EXCLUDED)))
+                .thenReturn(Mono.empty());
         StepVerifier.create(projectService.updateProject(nonExistingId, updateProjectDto))
                 .expectError(ResourceNotFoundException.class)
                 .verify();
-        verify(projectRepository).findById(nonExistingId);
-        verifyNoMoreInteractions(projectMapper, userMapper, userRepository);
+        verifyNoInteractions(userMapper, userRepository);
+    }
+
+    @Test
+    @DisplayName("updateProject - должен вернуть OptimisticLockingFailureException, если версия проекта устарела")
+    void updateProject_StaleVersion_ShouldReturnConflict() {
+        updateProjectDto.setVersion(1L);
+        when(projectMapper.toEntity(updateProjectDto)).thenReturn(new Project());
+        when(partialUpdateRepository.update(eq(Project.class), eq(existingProjectId), eq(1L), any(Project.class), anyCollection(), eq(DELETING_EXCLUDED)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("stale")));
+        StepVerifier.create(projectService.updateProject(existingProjectId, updateProjectDto))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+        verify(projectMapper, never()).toDto(any(Project.class));
     }
 
     // --- Тесты для deleteProject ---
     @Test
-    @DisplayName("deleteProject - должен успешно удалить проект по существующему ID")
-    void deleteProject_ExistingId_ShouldDeleteProject() {
-        when(projectRepository.findById(projectId)).thenReturn(Mono.just(projectEntity));
-        when(projectRepository.deleteById(projectId)).thenReturn(Mono.empty());
-        StepVerifier.create(projectService.deleteProject(projectId)).verifyComplete();
-        verify(projectRepository).findById(projectId);
-        verify(projectRepository).deleteById(projectId);
-        verifyNoMoreInteractions(projectRepository, projectMapper, userMapper, userRepository);
+    @DisplayName("deleteProject - должен поставить проект в очередь удаления, не удаляя строки в запросе")
+    void deleteProject_ExistingId_ShouldQueueDeletion() {
+        ProjectDeletion deletion = ProjectDeletion.builder().projectId(projectId).requestedAt(LocalDateTime.now())
+                .tasksTotal(5L).tasksDeleted(0L).commentsDeleted(0L).membersDeleted(0L).build();
+        when(projectDeletionRepository.request(projectId)).thenReturn(Mono.just(1L));
+        when(projectDeletionRepository.findById(projectId)).thenReturn(Mono.just(deletion));
+        when(redisEventPublisher.publishProjectUpdated(projectId)).thenReturn(Mono.empty());
+
+        StepVerifier.create(projectService.deleteProject(projectId))
+                .assertNext(dto -> {
+                    assertThat(dto.getState()).isEqualTo(ProjectDeletionDto.State.PENDING);
+                    assertThat(dto.getTasksTotal()).isEqualTo(5L);
+                })
+                .verifyComplete();
+
+        verify(redisEventPublisher).publishProjectUpdated(projectId);
+        verify(redisEventPublisher, never()).publishProjectDeleted(anyLong());
+        verifyNoInteractions(projectRepository);
+    }
+
+    @Test
+    @DisplayName("deleteProject - повторный запрос должен вернуть ход уже идущего удаления")
+    void deleteProject_AlreadyDeleting_ShouldReturnProgress() {
+        ProjectDeletion deletion = ProjectDeletion.builder().projectId(projectId).requestedAt(LocalDateTime.now())
+                .startedAt(LocalDateTime.now()).tasksTotal(5L).tasksDeleted(2L).commentsDeleted(7L).membersDeleted(0L).build();
+        when(projectDeletionRepository.request(projectId)).thenReturn(Mono.just(0L));
+        when(projectDeletionRepository.findById(projectId)).thenReturn(Mono.just(deletion));
+
+        StepVerifier.create(projectService.deleteProject(projectId))
+                .assertNext(dto -> {
+                    assertThat(dto.getState()).isEqualTo(ProjectDeletionDto.State.IN_PROGRESS);
+                    assertThat(dto.getTasksDeleted()).isEqualTo(2L);
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(redisEventPublisher);
     }
 
     @Test
     @DisplayName("deleteProject - должен вернуть ошибку ResourceNotFoundException, если проект для удаления не найден")
     void deleteProject_ProjectNotFound_ShouldReturnError() {
         Long nonExistingId = 999L;
-        when(projectRepository.findById(nonExistingId)).thenReturn(Mono.empty());
+        when(projectDeletionRepository.request(nonExistingId)).thenReturn(Mono.just(0L));
+        when(projectDeletionRepository.findById(nonExistingId)).thenReturn(Mono.empty());
         StepVerifier.create(projectService.deleteProject(nonExistingId)).expectError(ResourceNotFoundException.class).verify();
-        verify(projectRepository).findById(nonExistingId);
-        verify(projectRepository, never()).deleteById(anyLong());
-        verifyNoMoreInteractions(projectRepository, projectMapper, userMapper, userRepository);
+        verifyNoInteractions(redisEventPublisher);
+    }
+
+    // --- Тесты для getProjectStats ---
+    @Test
+    @DisplayName("getProjectStats - должен собрать разрезы из строк project_task_stats без обращения к задачам")
+    void getProjectStats_ShouldAggregateStatRows() {
+        LocalDateTime overdueAsOf = LocalDateTime.now();
+        when(projectTaskStatsRepository.findOverdueAsOf()).thenReturn(Mono.just(overdueAsOf));
+        when(projectTaskStatsRepository.findByProjectId(projectId)).thenReturn(Flux.just(
+                new ProjectTaskStat(projectId, Task.Status.TODO, Task.Priority.HIGH, 3L, 2L),
+                new ProjectTaskStat(projectId, Task.Status.IN_PROGRESS, Task.Priority.HIGH, 1L, 0L),
+                new ProjectTaskStat(projectId, Task.Status.DONE, Task.Priority.LOW, 4L, 0L)));
+
+        ProjectTaskStatsDto stats = projectService.getProjectStats(projectId).block();
+
+        assertThat(stats.getTotalTasks()).isEqualTo(8L);
+        assertThat(stats.getOverdueTasks()).isEqualTo(2L);
+        assertThat(stats.getOverdueAsOf()).isEqualTo(overdueAsOf);
+        assertThat(stats.getByStatus()).containsEntry(Task.Status.TODO, 3L)
+                .containsEntry(Task.Status.IN_PROGRESS, 1L).containsEntry(Task.Status.DONE, 4L);
+        assertThat(stats.getByPriority()).containsEntry(Task.Priority.HIGH, 4L)
+                .containsEntry(Task.Priority.MEDIUM, 0L).containsEntry(Task.Priority.LOW, 4L);
+        assertThat(stats.getOverdueByPriority()).containsEntry(Task.Priority.HIGH, 2L);
+        assertThat(stats.getByStatusAndPriority().get(Task.Status.TODO)).containsEntry(Task.Priority.HIGH, 3L)
+                .containsEntry(Task.Priority.LOW, 0L);
+        verify(projectRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("getProjectStats - должен вернуть нули для проекта без задач")
+    void getProjectStats_ProjectWithoutTasks_ShouldReturnZeros() {
+        when(projectTaskStatsRepository.findOverdueAsOf()).thenReturn(Mono.just(LocalDateTime.now()));
+        when(projectTaskStatsRepository.findByProjectId(projectId)).thenReturn(Flux.empty());
+        when(projectRepository.existsById(projectId)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(projectService.getProjectStats(projectId))
+                .assertNext(stats -> {
+                    assertThat(stats.getTotalTasks()).isZero();
+                    assertThat(stats.getByStatus()).containsOnlyKeys(Task.Status.values());
+                    assertThat(stats.getByStatus().values()).containsOnly(0L);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getProjectStats - должен вернуть ошибку ResourceNotFoundException, если проект не найден")
+    void getProjectStats_ProjectNotFound_ShouldReturnError() {
+        when(projectTaskStatsRepository.findOverdueAsOf()).thenReturn(Mono.just(LocalDateTime.now()));
+        when(projectTaskStatsRepository.findByProjectId(projectId)).thenReturn(Flux.empty());
+        when(projectRepository.existsById(projectId)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(projectService.getProjectStats(projectId))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("addUsersToProject - должен добавить пользователей одним запросом и сбросить кэш участников")
+    void addUsersToProject_ShouldInsertOnceAndEvictMembers() {
+        when(projectRepository.addUsersToProject(eq(projectId), anyCollection())).thenReturn(Flux.just(participantUserId));
+        when(reactiveRedisService.evict("project:members:" + projectId)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(projectService.addUsersToProject(projectId, List.of(participantUserId, 401L, participantUserId)))
+                .assertNext(change -> {
+                    assertThat(change.getChangedUserIds()).containsExactly(participantUserId);
+                    assertThat(change.getUnchangedUserIds()).containsExactly(401L);
+                })
+                .verifyComplete();
+
+        verify(projectRepository).addUsersToProject(projectId, new LinkedHashSet<>(List.of(participantUserId, 401L)));
+        verify(projectRepository, never()).existsById(anyLong());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("addUsersToProject - в транзакции должен сбросить кэш участников только после фиксации")
+    void addUsersToProject_InTransaction_ShouldEvictMembersAfterCommit() {
+        List<String> events = new ArrayList<>();
+        when(projectRepository.addUsersToProject(eq(projectId), anyCollection())).thenReturn(Flux.just(participantUserId));
+        when(reactiveRedisService.evict("project:members:" + projectId)).thenReturn(Mono.fromSupplier(() -> {
+            events.add("evict");
+            return true;
+        }));
+
+        StepVerifier.create(projectService.addUsersToProject(projectId, List.of(participantUserId))
+                        .doOnNext(change -> events.add("changed"))
+                        .as(TransactionalOperator.create(new RecordingTransactionManager(events))::transactional))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(events).containsExactly("changed", "commit", "evict");
+    }
+
+    @Test
+    @DisplayName("addUsersToProject - должен вернуть ResourceNotFoundException по нарушению fk_project_users_project")
+    void addUsersToProject_ProjectNotFound_ShouldReturnError() {
+        String message = "insert or update on table \"project_users\" violates foreign key constraint \"fk_project_users_project\"";
+        when(projectRepository.addUsersToProject(eq(projectId), anyCollection()))
+                .thenReturn(Flux.error(new DataIntegrityViolationException(message,
+                        new R2dbcDataIntegrityViolationException(message, "23503"))));
+
+        StepVerifier.create(projectService.addUsersToProject(projectId, List.of(participantUserId)))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+
+        verifyNoInteractions(reactiveRedisService);
+    }
+
+    @Test
+    @DisplayName("deleteUsersFromProject - при отсутствии изменений должен проверить проект и не трогать кэш")
+    void deleteUsersFromProject_NothingRemoved_ShouldKeepCache() {
+        when(projectRepository.deleteUsersFromProject(eq(projectId), anyCollection())).thenReturn(Flux.empty());
+        when(projectRepository.existsById(projectId)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(projectService.deleteUsersFromProject(projectId, List.of(participantUserId)))
+                .assertNext(change -> {
+                    assertThat(change.getChangedUserIds()).isEmpty();
+                    assertThat(change.getUnchangedUserIds()).containsExactly(participantUserId);
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(reactiveRedisService);
+    }
+
+    @Test
+    @DisplayName("getUsersInProject - при закэшированном составе не должен выполнять соединение с users")
+    void getUsersInProject_CachedMembers_ShouldLoadUsersById() {
+        // Jackson возвращает небольшие числа из Redis как Integer
+        when(reactiveRedisService.setMembers("project:members:" + projectId, Number.class))
+                .thenReturn(Flux.just(0, participantUserId.intValue()));
+        when(userRepository.findAllById(List.of(participantUserId))).thenReturn(Flux.just(participantUserEntity));
+        when(userMapper.toDto(participantUserEntity)).thenReturn(participantUserDto);
+
+        StepVerifier.create(projectService.getUsersInProject(projectId))
+                .expectNext(participantUserDto)
+                .verifyComplete();
+
+        verifyNoInteractions(projectRepository);
+    }
+
+    @Test
+    @DisplayName("isUserInProject - при промахе кэша должен загрузить состав проекта в множество Redis")
+    void isUserInProject_CacheMiss_ShouldLoadMembers() {
+        String key = "project:members:" + projectId;
+        when(reactiveRedisService.exists(key)).thenReturn(Mono.just(false));
+        when(projectRepository.findUserIdsInProject(projectId)).thenReturn(Flux.just(participantUserId));
+        when(reactiveRedisService.setAdd(key, 0L, participantUserId)).thenReturn(Mono.just(2L));
+        when(reactiveRedisService.expire(eq(key), any())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(projectService.isUserInProject(projectId, participantUserId))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(reactiveRedisService).setAdd(key, 0L, participantUserId);
+        verify(projectRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("isUserInProject - при закэшированном составе должен проверить участие одной командой Redis")
+    void isUserInProject_CacheHit_ShouldUseSetIsMember() {
+        String key = "project:members:" + projectId;
+        when(reactiveRedisService.exists(key)).thenReturn(Mono.just(true));
+        when(reactiveRedisService.setIsMember(key, 401L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(projectService.isUserInProject(projectId, 401L))
+                .expectNext(false)
+                .verifyComplete();
+
+        verifyNoInteractions(projectRepository);
+    }
+
+    private void missCache() {
+        when(reactiveRedisService.getOrSet(anyString(), any(), any(Duration.class), eq(ProjectDto.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<Mono<ProjectDto>>>getArgument(1).get());
+    }
+
+    /**
+     * Менеджер транзакций без базы: только записывает фиксацию в список событий.
+     */
+    private static class RecordingTransactionManager extends AbstractReactiveTransactionManager {
+
+        private final List<String> events;
+
+        RecordingTransactionManager(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                     TransactionDefinition definition) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                                      GenericReactiveTransaction status) {
+            return Mono.fromRunnable(() -> events.add("commit"));
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                                        GenericReactiveTransaction status) {
+            return Mono.fromRunnable(() -> events.add("rollback"));
+        }
     }
-}
\ No newline at end of file
+}
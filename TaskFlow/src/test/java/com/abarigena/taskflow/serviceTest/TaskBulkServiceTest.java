@@ -0,0 +1,214 @@
+package com.abarigena.taskflow.serviceTest;
+
+import com.abarigena.taskflow.dto.BulkItemResult;
+import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.mapper.TaskHistoryMapper;
+import com.abarigena.taskflow.mapper.TaskMapper;
+import com.abarigena.taskflow.producer.RabbitProducer;
+import com.abarigena.taskflow.service.RedisEventPublisher;
+import com.abarigena.taskflow.serviceNoSQL.TaskHistoryService;
+import com.abarigena.taskflow.serviceSQL.TaskBulkServiceImpl;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.storeSQL.repository.ProjectRepository;
+import com.abarigena.taskflow.storeSQL.repository.TaskBatchRepository;
+import com.abarigena.taskflow.storeSQL.repository.TaskRepository;
+import com.abarigena.taskflow.storeSQL.repository.UserRepository;
+import com.abarigena.taskflow.utility.SecurityUtils;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit тесты для TaskBulkServiceImpl")
+class TaskBulkServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private ProjectRepository projectRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TaskMapper taskMapper;
+    @Mock
+    private TaskHistoryService taskHistoryService;
+    @Mock
+    private TaskHistoryMapper taskHistoryMapper;
+    @Mock
+    private RabbitProducer rabbitProducer;
+    @Mock
+    private RedisEventPublisher redisEventPublisher;
+    @Mock
+    private SecurityUtils securityUtils;
+    @Mock
+    private TransactionalOperator transactionalOperator;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private TaskBulkServiceImpl taskBulkService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(taskBulkService, "chunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("createTasks - должен вернуть результат по каждому элементу, проверяя ссылки одним запросом на пачку")
+    void createTasks_ShouldReportEveryItem() {
+        TaskDto valid = TaskDto.builder().title("Первая").projectId(1L).assignedUserId(10L).build();
+        TaskDto missingProject = TaskDto.builder().title("Вторая").projectId(2L).build();
+        TaskDto blankTitle = TaskDto.builder().title(" ").projectId(1L).build();
+
+        when(projectRepository.findExistingIds(any())).thenReturn(Flux.just(1L));
+        when(userRepository.findExistingIds(any())).thenReturn(Flux.just(10L));
+        when(taskMapper.toEntity(valid)).thenReturn(Task.builder().title("Первая").projectId(1L).assignedUserId(10L).build());
+        when(taskRepository.insertAll(anyList())).thenReturn(Flux.just(100L));
+        when(transactionalOperator.transactional(ArgumentMatchers.<Flux<Long>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(securityUtils.getCurrentUserId()).thenReturn(Mono.just(5L));
+        when(taskHistoryService.saveAllHistory(anyList())).thenReturn(Flux.empty());
+
+        List<BulkItemResult> results = taskBulkService.createTasks(Flux.just(valid, missingProject, blankTitle))
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(BulkItemResult::getIndex).containsExactly(0L, 1L, 2L);
+        assertThat(results.get(0).getStatus()).isEqualTo(BulkItemResult.Status.CREATED);
+        assertThat(results.get(0).getId()).isEqualTo(100L);
+        assertThat(results.get(1).getStatus()).isEqualTo(BulkItemResult.Status.FAILED);
+        assertThat(results.get(1).getError()).contains("Project");
+        assertThat(results.get(2).getStatus()).isEqualTo(BulkItemResult.Status.FAILED);
+
+        // Первая пачка (2 элемента) и вторая (1 невалидный элемент) - по одному запросу проверки проектов на пачку
+        verify(projectRepository, times(1)).findExistingIds(Set.of(1L, 2L));
+        verify(rabbitProducer).sendCreateNotifications(anyList());
+        verify(taskHistoryService).saveAllHistory(argThat(histories -> histories.size() == 1));
+    }
+
+    @Test
+    @DisplayName("createTasks - должен вернуть нарушения ограничений TaskDto как ошибки элементов, не обращаясь к базе")
+    void createTasks_ShouldReportConstraintViolationsPerItem() {
+        TaskDto emptyTitle = TaskDto.builder().title("").projectId(1L).build();
+        TaskDto empty = TaskDto.builder().build();
+
+        StepVerifier.create(taskBulkService.createTasks(Flux.just(emptyTitle, empty)))
+                .assertNext(result -> {
+                    assertThat(result.getStatus()).isEqualTo(BulkItemResult.Status.FAILED);
+                    assertThat(result.getError()).isEqualTo("title: Название не должно быть пустым");
+                })
+                .assertNext(result -> {
+                    assertThat(result.getStatus()).isEqualTo(BulkItemResult.Status.FAILED);
+                    assertThat(result.getError()).isEqualTo(
+                            "projectId: Id проекта не должно быть пустым; title: Название не должно быть пустым");
+                })
+                .verifyComplete();
+
+        verify(validator, times(2)).validate(any(TaskDto.class));
+        verifyNoInteractions(projectRepository, userRepository, taskRepository, rabbitProducer, taskHistoryService);
+    }
+
+    @Test
+    @DisplayName("updateTasks - должен вернуть FAILED для элементов без id и для несуществующих задач")
+    void updateTasks_ShouldFailMissingTasks() {
+        TaskDto withoutId = TaskDto.builder().title("Без id").build();
+        TaskDto unknown = TaskDto.builder().id(42L).title("Нет такой").build();
+
+        when(taskRepository.findByIdInAndDeletedAtIsNull(Set.of(42L))).thenReturn(Flux.empty());
+
+        StepVerifier.create(taskBulkService.updateTasks(Flux.just(withoutId, unknown)))
+                .assertNext(result -> assertThat(result.getStatus()).isEqualTo(BulkItemResult.Status.FAILED))
+                .assertNext(result -> {
+                    assertThat(result.getStatus()).isEqualTo(BulkItemResult.Status.FAILED);
+                    assertThat(result.getId()).isEqualTo(42L);
+                    assertThat(result.getError()).contains("Task not found");
+                })
+                .verifyComplete();
+
+        verify(taskRepository, never()).updateAll(anyList());
+        verifyNoInteractions(rabbitProducer, taskHistoryService);
+    }
+
+    @Test
+    @DisplayName("updateTasks - должен вернуть CONFLICT при устаревшей версии элемента и при параллельном изменении задачи")
+    void updateTasks_ShouldReportVersionConflicts() {
+        TaskDto stale = TaskDto.builder().id(1L).title("Устаревшая").version(2L).build();
+        TaskDto raced = TaskDto.builder().id(2L).title("Гонка").build();
+        Task current = Task.builder().id(1L).title("Первая").status(Task.Status.TODO).projectId(7L).version(3L).build();
+        Task changedLater = Task.builder().id(2L).title("Вторая").status(Task.Status.TODO).projectId(7L).version(5L).build();
+
+        when(taskRepository.findByIdInAndDeletedAtIsNull(Set.of(1L, 2L))).thenReturn(Flux.just(current, changedLater));
+        when(taskMapper.toDto(changedLater)).thenReturn(TaskDto.builder().id(2L).projectId(7L).build());
+        when(projectRepository.findExistingIds(Set.of(7L))).thenReturn(Flux.just(7L));
+        // Строка изменилась между чтением и UPDATE: батч ее не обновил, но она все еще существует
+        when(taskRepository.updateAll(List.of(changedLater))).thenReturn(Flux.empty());
+        when(transactionalOperator.transactional(ArgumentMatchers.<Flux<Long>>any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskRepository.findByIdInAndDeletedAtIsNull(Set.of(2L))).thenReturn(Flux.just(changedLater));
+
+        StepVerifier.create(taskBulkService.updateTasks(Flux.just(stale, raced)))
+                .assertNext(result -> {
+                    assertThat(result.getStatus()).isEqualTo(BulkItemResult.Status.CONFLICT);
+                    assertThat(result.getError()).contains("expected version 2");
+                })
+                .assertNext(result -> {
+                    assertThat(result.getStatus()).isEqualTo(BulkItemResult.Status.CONFLICT);
+                    assertThat(result.getId()).isEqualTo(2L);
+                })
+                .verifyComplete();
+
+        verify(taskMapper, never()).updateEntityFromDto(stale, current);
+        verifyNoInteractions(rabbitProducer, taskHistoryService, redisEventPublisher);
+    }
+
+    @Test
+    @DisplayName("transitionTasks - должен сменить статус одним запросом и записать историю и события пачкой")
+    void transitionTasks_ShouldUpdateOnceAndBatchSideEffects() {
+        Task moved = Task.builder().id(1L).title("Карточка").status(Task.Status.DONE).projectId(7L).build();
+        TaskDto movedDto = TaskDto.builder().id(1L).status(Task.Status.DONE).projectId(7L).build();
+
+        when(taskRepository.transitionStatus(eq(new LinkedHashSet<>(List.of(1L, 2L))), eq(Task.Status.DONE), any()))
+                .thenReturn(Flux.just(new TaskBatchRepository.StatusTransition(moved, Task.Status.IN_PROGRESS)));
+        when(transactionalOperator.transactional(ArgumentMatchers.<Flux<Long>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(securityUtils.getCurrentUserId()).thenReturn(Mono.just(5L));
+        when(taskHistoryService.saveAllHistory(anyList())).thenReturn(Flux.empty());
+        when(taskMapper.toDto(moved)).thenReturn(movedDto);
+        when(redisEventPublisher.publishTaskUpdated(movedDto)).thenReturn(Mono.empty());
+
+        StepVerifier.create(taskBulkService.transitionTasks(List.of(1L, 2L, 1L), Task.Status.DONE))
+                .assertNext(result -> {
+                    assertThat(result.getTransitionedIds()).containsExactly(1L);
+                    assertThat(result.getSkippedIds()).containsExactly(2L);
+                })
+                .verifyComplete();
+
+        verify(taskHistoryService).saveAllHistory(argThat(histories -> histories.size() == 1
+                && "IN_PROGRESS".equals(histories.get(0).getDetails().get("previousStatus"))));
+        verify(rabbitProducer).sendUpdateNotifications(anyList());
+        verify(redisEventPublisher).publishTaskUpdated(movedDto);
+        verify(taskRepository, never()).findAllById(anyCollection());
+    }
+}
@@ -0,0 +1,123 @@
+package com.abarigena.taskflow.serviceTest;
+
+import com.abarigena.taskflow.dto.TaskHistoryDto;
+import com.abarigena.taskflow.producer.RabbitProducer;
+import com.abarigena.taskflow.serviceSQL.TaskPurgeJob;
+import com.abarigena.taskflow.storeNoSQL.entity.TaskHistory;
+import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.storeSQL.repository.TaskPurgeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit тесты для TaskPurgeJob")
+class TaskPurgeJobTest {
+
+    private static final Duration RESTORE_WINDOW = Duration.ofDays(7);
+    private static final int CHUNK_SIZE = 2;
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 10, 12, 9, 30);
+    private static final String DELETE_ROUTING_KEY = "notification.task.delete";
+
+    @Mock
+    private TaskPurgeRepository taskPurgeRepository;
+    @Mock
+    private RabbitProducer rabbitProducer;
+
+    @Captor
+    private ArgumentCaptor<List<TaskHistoryDto>> notifications;
+
+    private TaskPurgeJob taskPurgeJob;
+
+    @BeforeEach
+    void setUp() {
+        taskPurgeJob = new TaskPurgeJob(taskPurgeRepository, rabbitProducer, RESTORE_WINDOW, CHUNK_SIZE,
+                Duration.ZERO, DELETE_ROUTING_KEY);
+        when(taskPurgeRepository.purgeCutoff(RESTORE_WINDOW)).thenReturn(Mono.just(CUTOFF));
+    }
+
+    @Test
+    @DisplayName("purgeDeletedTasks - должен очистить все комментарии до удаления пачки задач")
+    void purgeDeletedTasks_ShouldDrainCommentsBeforeTasks() {
+        when(taskPurgeRepository.purgeComments(CUTOFF, CHUNK_SIZE)).thenReturn(Mono.just(2L), Mono.just(1L));
+        when(taskPurgeRepository.purgeTasks(CUTOFF, CHUNK_SIZE)).thenReturn(Flux.just(task(1L)));
+
+        StepVerifier.create(taskPurgeJob.purgeDeletedTasks()).verifyComplete();
+
+        InOrder order = inOrder(taskPurgeRepository, rabbitProducer);
+        order.verify(taskPurgeRepository).purgeCutoff(RESTORE_WINDOW);
+        order.verify(taskPurgeRepository, times(2)).purgeComments(CUTOFF, CHUNK_SIZE);
+        order.verify(taskPurgeRepository).purgeTasks(CUTOFF, CHUNK_SIZE);
+        order.verify(rabbitProducer).sendDeleteNotifications(anyList(), eq(DELETE_ROUTING_KEY));
+    }
+
+    @Test
+    @DisplayName("purgeDeletedTasks - должен удалять пачки до первой неполной и отправлять уведомления на каждую пачку")
+    void purgeDeletedTasks_ShouldStopOnShortChunkAndNotifyPerChunk() {
+        when(taskPurgeRepository.purgeComments(CUTOFF, CHUNK_SIZE)).thenReturn(Mono.just(0L));
+        when(taskPurgeRepository.purgeTasks(CUTOFF, CHUNK_SIZE)).thenReturn(
+                Flux.just(task(1L), task(2L)), Flux.just(task(3L), task(4L)), Flux.just(task(5L)));
+
+        StepVerifier.create(taskPurgeJob.purgeDeletedTasks()).verifyComplete();
+
+        verify(taskPurgeRepository, times(3)).purgeTasks(CUTOFF, CHUNK_SIZE);
+        verify(rabbitProducer, times(3)).sendDeleteNotifications(notifications.capture(), eq(DELETE_ROUTING_KEY));
+        assertThat(notifications.getAllValues())
+                .extracting(chunk -> chunk.stream().map(TaskHistoryDto::getTaskId).toList())
+                .containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        assertThat(notifications.getAllValues().get(0).get(0).getAction()).isEqualTo(TaskHistory.Action.DELETE);
+    }
+
+    @Test
+    @DisplayName("purgeDeletedTasks - должен вычислить границу окна один раз и передать ее всем пачкам")
+    void purgeDeletedTasks_ShouldUseOneCutoffPerRun() {
+        when(taskPurgeRepository.purgeComments(CUTOFF, CHUNK_SIZE)).thenReturn(Mono.just(0L));
+        when(taskPurgeRepository.purgeTasks(CUTOFF, CHUNK_SIZE)).thenReturn(
+                Flux.just(task(1L), task(2L)), Flux.empty());
+
+        StepVerifier.create(taskPurgeJob.purgeDeletedTasks()).verifyComplete();
+
+        verify(taskPurgeRepository, times(1)).purgeCutoff(RESTORE_WINDOW);
+        verify(taskPurgeRepository, times(2)).purgeComments(CUTOFF, CHUNK_SIZE);
+        verify(taskPurgeRepository, times(2)).purgeTasks(CUTOFF, CHUNK_SIZE);
+        verifyNoMoreInteractions(taskPurgeRepository);
+    }
+
+    @Test
+    @DisplayName("purgeDeletedTasks - ошибка базы не должна прерывать расписание и не должна отправлять уведомления")
+    void purgeDeletedTasks_OnRepositoryError_ShouldCompleteWithoutNotifications() {
+        when(taskPurgeRepository.purgeComments(CUTOFF, CHUNK_SIZE)).thenReturn(Mono.error(new IllegalStateException("db down")));
+
+        StepVerifier.create(taskPurgeJob.purgeDeletedTasks()).verifyComplete();
+
+        verify(rabbitProducer, never()).sendDeleteNotifications(anyList(), any());
+    }
+
+    private static Task task(Long id) {
+        return Task.builder().id(id).title("Task " + id).deletedBy(5L).build();
+    }
+}
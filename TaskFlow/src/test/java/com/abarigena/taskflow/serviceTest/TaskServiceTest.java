@@ -1,15 +1,26 @@
 package com.abarigena.taskflow.serviceTest;
 
+import com.abarigena.taskflow.config.ReadWriteRoutingConnectionFactory;
 import com.abarigena.taskflow.dto.TaskDto;
+import com.abarigena.taskflow.dto.TaskSummary;
 import com.abarigena.taskflow.exception.ResourceNotFoundException;
+import com.abarigena.taskflow.mapper.TaskHistoryMapper;
 import com.abarigena.taskflow.mapper.TaskMapper;
+import com.abarigena.taskflow.producer.RabbitProducer;
+import com.abarigena.taskflow.service.ReactiveRedisService;
+import com.abarigena.taskflow.service.RedisEventPublisher;
 import com.abarigena.taskflow.serviceNoSQL.TaskHistoryService;
 import com.abarigena.taskflow.serviceSQL.TaskServiceImpl;
 import com.abarigena.taskflow.storeNoSQL.entity.TaskHistory;
 import com.abarigena.taskflow.storeSQL.entity.Task;
+import com.abarigena.taskflow.storeSQL.repository.ExportRepository;
+import com.abarigena.taskflow.storeSQL.repository.PartialUpdateRepository;
 import com.abarigena.taskflow.storeSQL.repository.ProjectRepository;
 import com.abarigena.taskflow.storeSQL.repository.TaskRepository;
 import com.abarigena.taskflow.storeSQL.repository.UserRepository;
+import com.abarigena.taskflow.utility.KeysetCursor;
+import com.abarigena.taskflow.utility.SecurityUtils;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,16 +29,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,8 +64,29 @@ class TaskServiceTest {
     @Mock
     private UserRepository userRepository;
 
-/*    @Mock
-    private TaskHistoryService taskHistoryService;*/
+    @Mock
+    private PartialUpdateRepository partialUpdateRepository;
+
+    @Mock
+    private ExportRepository exportRepository;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private RedisEventPublisher redisEventPublisher;
+
+    @Mock
+    private RabbitProducer rabbitProducer;
+
+    @Mock
+    private TaskHistoryService taskHistoryService;
+
+    @Mock
+    private TaskHistoryMapper taskHistoryMapper;
+
+    @Mock
+    private ReactiveRedisService reactiveRedisService;
 
     @InjectMocks
     private TaskServiceImpl taskService;
@@ -256,8 +295,13 @@ class TaskServiceTest {
     @Test
     @DisplayName("getTaskById - вернуть успешно задачу по существующему ID")
     void getTaskByIdTest_ShouldReturnTask() {
-        Mockito.when(taskRepository.findById(taskId))
-                .thenReturn(Mono.just(taskEntity));
+        missCache();
+        // Промах кэша читается из primary: значение живет в кэше весь TTL
+        Mockito.when(taskRepository.findByIdAndDeletedAtIsNull(taskId))
+                .thenReturn(Mono.deferContextual(context ->
+                        context.getOrDefault(ReadWriteRoutingConnectionFactory.PRIMARY_PINNED_KEY, false)
+                                ? Mono.just(taskEntity)
+                                : Mono.error(new IllegalStateException("cache filled from a replica"))));
 
         Mockito.when(taskMapper.toDto(any(Task.class)))
                 .thenReturn(taskDto);
@@ -268,7 +312,7 @@ class TaskServiceTest {
                 .expectNext(taskDto)
                 .verifyComplete();
 
-        verify(taskRepository, times(1)).findById(taskId);
+        verify(taskRepository, times(1)).findByIdAndDeletedAtIsNull(taskId);
         verify(taskMapper, times(1)).toDto(taskEntity);
         verifyNoInteractions(projectRepository, userRepository);
 
@@ -279,7 +323,8 @@ class TaskServiceTest {
     void getTaskByIdTest_ShouldReturnTaskNotFoundException() {
         Long nonExistingId = 999L;
 
-        Mockito.when(taskRepository.findById(nonExistingId))
+        missCache();
+        Mockito.when(taskRepository.findByIdAndDeletedAtIsNull(nonExistingId))
                 .thenReturn(Mono.empty());
 
         Mono<TaskDto> resultMono = taskService.getTaskById(nonExistingId);
@@ -288,7 +333,7 @@ class TaskServiceTest {
                 .expectError(ResourceNotFoundException.class)
                 .verify();
 
-        verify(taskRepository, times(1)).findById(nonExistingId);
+        verify(taskRepository, times(1)).findByIdAndDeletedAtIsNull(nonExistingId);
         verifyNoInteractions(taskMapper);
         verifyNoInteractions(projectRepository, userRepository);
     }
@@ -299,17 +344,14 @@ class TaskServiceTest {
         // 1. Маппер: DTO -> Entity для сохранения
         Mockito.when(taskMapper.toEntity(newTaskDto)).thenReturn(taskEntityToSave);
 
-        // 2. Репозиторий проекта: Проверка существования проекта
-        when(projectRepository.existsById(projectId)).thenReturn(Mono.just(true));
-
-        // 3. Репозиторий пользователя: Проверка существования назначенного пользователя
-        when(userRepository.existsById(userId)).thenReturn(Mono.just(true));
-
-        // 4. Репозиторий задач: Сохранение задачи (возвращаем Entity с ID)
+        // 2. Репозиторий задач: Сохранение задачи (возвращаем Entity с ID); ссылки проверяют внешние ключи
         when(taskRepository.save(taskEntityToSave)).thenReturn(Mono.just(savedTaskEntity));
 
-       /* // 5. Сервис истории: Сохранение истории (возвращаем Mono<Void> или Mono<TaskHistory>)
-        when(taskHistoryService.saveHistory(any(TaskHistory.class))).thenReturn(Mono.just(TaskHistory.builder().build()));*/
+        // 3. Текущий пользователь из контекста безопасности - автор записи истории
+        when(securityUtils.getCurrentUserId()).thenReturn(Mono.just(userId));
+
+        // 4. Сервис истории: Сохранение истории
+        when(taskHistoryService.saveHistory(any(TaskHistory.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
         // 6. Маппер: Сохраненная Entity -> DTO для возврата
         when(taskMapper.toDto(savedTaskEntity)).thenReturn(savedTaskDto);
@@ -321,10 +363,10 @@ class TaskServiceTest {
                 .verifyComplete();
 
         verify(taskMapper).toEntity(newTaskDto); // Проверяем, что маппер был вызван для преобразования DTO->Entity
-        verify(projectRepository).existsById(projectId); // Проверяем, что проект проверялся по ID
-        verify(userRepository).existsById(userId); // Проверяем, что пользователь проверялся по ID
         verify(taskRepository).save(taskEntityToSave); // Проверяем, что задача была сохранена
-//        verify(taskHistoryService).saveHistory(any(TaskHistory.class));
+        verify(taskHistoryService).saveHistory(argThat(history -> history.getAction() == TaskHistory.Action.CREATE
+                && userId.equals(history.getPerformedBy())));
+        verify(rabbitProducer).sendCreateNotification(any());
         verify(taskMapper).toDto(savedTaskEntity); // Проверяем, что маппер был вызван для преобразования Entity->DTO
 
         verifyNoMoreInteractions(taskRepository, taskMapper, projectRepository, userRepository);
@@ -378,9 +420,9 @@ class TaskServiceTest {
                 .build();
 
         when(taskMapper.toEntity(newTaskDtoWithoutUser)).thenReturn(taskEntityToSaveWithoutUser);
-        when(projectRepository.existsById(projectId)).thenReturn(Mono.just(true));
         when(taskRepository.save(taskEntityToSaveWithoutUser)).thenReturn(Mono.just(savedTaskEntityWithoutUser));
-//        when(taskHistoryService.saveHistory(any(TaskHistory.class))).thenReturn(Mono.just(TaskHistory.builder().build()));
+        when(securityUtils.getCurrentUserId()).thenReturn(Mono.empty());
+        when(taskHistoryService.saveHistory(any(TaskHistory.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         when(taskMapper.toDto(savedTaskEntityWithoutUser)).thenReturn(savedTaskDtoWithoutUser);
 
         Mono<TaskDto> resultMono = taskService.createTask(newTaskDtoWithoutUser);
@@ -390,67 +432,74 @@ class TaskServiceTest {
                 .verifyComplete();
 
         verify(taskMapper).toEntity(newTaskDtoWithoutUser);
-        verify(projectRepository).existsById(projectId);
-        verify(userRepository, never()).existsById(anyLong());
         verify(taskRepository).save(taskEntityToSaveWithoutUser);
-//        verify(taskHistoryService).saveHistory(any(TaskHistory.class));
+        // Без аутентифицированного пользователя автором истории записывается 0
+        verify(taskHistoryService).saveHistory(argThat(history -> history.getAction() == TaskHistory.Action.CREATE
+                && history.getPerformedBy() == 0L));
         verify(taskMapper).toDto(savedTaskEntityWithoutUser);
 
-        verifyNoMoreInteractions(taskRepository, taskMapper, projectRepository, userRepository/*, taskHistoryService*/);
+        verifyNoMoreInteractions(taskRepository, taskMapper, projectRepository, userRepository, taskHistoryService);
     }
 
     @Test
     @DisplayName("createTask - должен вернуть ошибку ResourceNotFoundException, если проект не найден")
     void createTask_ProjectNotFound_ShouldReturnError() {
         when(taskMapper.toEntity(newTaskDto)).thenReturn(taskEntityToSave);
-        when(projectRepository.existsById(projectId)).thenReturn(Mono.just(false));
-        when(userRepository.existsById(userId)).thenReturn(Mono.just(true));
+        when(taskRepository.save(taskEntityToSave)).thenReturn(Mono.error(foreignKeyViolation("fk_task_project")));
 
         Mono<TaskDto> resultMono = taskService.createTask(newTaskDto);
 
         StepVerifier.create(resultMono)
-                .expectError(ResourceNotFoundException.class)
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(ResourceNotFoundException.class);
+                    assertThat(((ResourceNotFoundException) error).getResourceName()).isEqualTo("Project");
+                    assertThat(((ResourceNotFoundException) error).getFieldValue()).isEqualTo(projectId);
+                })
                 .verify();
 
         verify(taskMapper).toEntity(newTaskDto);
-        verify(projectRepository).existsById(projectId);
-        verify(userRepository).existsById(userId);
-
-        verify(taskRepository, never()).save(any());
-       /* verify(taskHistoryService, never()).saveHistory(any());*/
+        verify(taskRepository).save(taskEntityToSave);
+        verifyNoInteractions(projectRepository, userRepository);
         verify(taskMapper, never()).toDto(any());
+    }
+
+    @Test
+    @DisplayName("createTask - должен вернуть ResourceNotFoundException, если назначенный пользователь не найден")
+    void createTask_AssignedUserNotFound_ShouldReturnError() {
+        when(taskMapper.toEntity(newTaskDto)).thenReturn(taskEntityToSave);
+        when(taskRepository.save(taskEntityToSave)).thenReturn(Mono.error(foreignKeyViolation("fk_task_assigned_user")));
+
+        StepVerifier.create(taskService.createTask(newTaskDto))
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(ResourceNotFoundException.class);
+                    assertThat(((ResourceNotFoundException) error).getResourceName()).isEqualTo("Assigned User");
+                    assertThat(((ResourceNotFoundException) error).getFieldValue()).isEqualTo(userId);
+                })
+                .verify();
+    }
 
+    private static DataIntegrityViolationException foreignKeyViolation(String constraint) {
+        String message = "insert or update on table \"tasks\" violates foreign key constraint \"" + constraint + "\"";
+        return new DataIntegrityViolationException("executeMany; " + message,
+                new R2dbcDataIntegrityViolationException(message, "23503"));
     }
 
     @Test
     @DisplayName("updateTask - должен успешно обновить задачу по существующему ID (пользователь назначен)")
     void updateTask_ExistingId_ShouldUpdateTask() {
+        Task patch = Task.builder()
+                .title(updateTaskDto.getTitle())
+                .status(updateTaskDto.getStatus())
+                .assignedUserId(updateTaskDto.getAssignedUserId())
+                .build();
 
-        Long newAssignedUserId = updateTaskDto.getAssignedUserId(); // 300L
-        Long currentProjectId = taskEntityToUpdate.getProjectId(); // 100L (из исходной сущности, не меняется)
-        Long taskId = taskEntityToUpdate.getId();
-
-        when(taskRepository.findById(taskId)).thenReturn(Mono.just(taskEntityToUpdate));
-
-        doAnswer(invocation -> {
-            // Симулируем, что маппер обновил taskEntityToUpdate
-            TaskDto dto = invocation.getArgument(0);
-            Task entity = invocation.getArgument(1);
-            entity.setTitle(dto.getTitle());
-            entity.setStatus(dto.getStatus());
-            entity.setAssignedUserId(dto.getAssignedUserId());
-            return null;
-        }).when(taskMapper).updateEntityFromDto(updateTaskDto, taskEntityToUpdate);
-
-//        when(projectRepository.existsById(currentProjectId)).thenReturn(Mono.just(true));
-
-        when(userRepository.existsById(newAssignedUserId)).thenReturn(Mono.just(true));
-
-        when(taskRepository.save(any(Task.class))).thenReturn(Mono.just(updatedTaskEntity));
-
-//        when(taskHistoryService.saveHistory(any(TaskHistory.class))).thenReturn(Mono.just(TaskHistory.builder().build()));
-
+        when(taskMapper.toEntity(updateTaskDto)).thenReturn(patch);
+        when(partialUpdateRepository.update(eq(Task.class), eq(taskId), isNull(), same(patch), anyCollection()))
+                .thenReturn(Mono.just(new PartialUpdateRepository.Result<>(updatedTaskEntity, Map.of())));
         when(taskMapper.toDto(any(Task.class))).thenReturn(updatedTaskDto);
+        when(redisEventPublisher.publishTaskUpdated(updatedTaskDto)).thenReturn(Mono.empty());
+        when(securityUtils.getCurrentUserId()).thenReturn(Mono.just(userId));
+        when(taskHistoryService.saveHistory(any(TaskHistory.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
         Mono<TaskDto> resultMono = taskService.updateTask(taskId, updateTaskDto);
 
@@ -458,15 +507,16 @@ class TaskServiceTest {
                 .expectNext(updatedTaskDto)
                 .verifyComplete();
 
-        verify(taskRepository).findById(taskId);
-        verify(taskMapper).updateEntityFromDto(updateTaskDto, taskEntityToUpdate); // Проверяем, что маппер вызван
-//        verify(projectRepository).existsById(currentProjectId);
-        verify(userRepository).existsById(newAssignedUserId);
-        verify(taskRepository).save(taskEntityToUpdate); // Проверяем, что сохранялась именно измененная Entity
-//        verify(taskHistoryService).saveHistory(any(TaskHistory.class)); // Проверяем, что история сохранялась
-        verify(taskMapper).toDto(updatedTaskEntity); // Проверяем, что маппер вызван
+        // Одно UPDATE ... RETURNING вместо findById + проверок + save
+        verify(partialUpdateRepository).update(eq(Task.class), eq(taskId), isNull(), same(patch), anyCollection());
+        assertThat(patch.getUpdatedAt()).isNotNull();
+        verify(taskMapper, atLeastOnce()).toDto(updatedTaskEntity);
+        verify(redisEventPublisher).publishTaskUpdated(updatedTaskDto);
+        verify(taskHistoryService).saveHistory(argThat(history -> history.getAction() == TaskHistory.Action.UPDATE
+                && userId.equals(history.getPerformedBy())));
+        verify(rabbitProducer).sendUpdateNotification(any());
 
-        verifyNoMoreInteractions(taskRepository, taskMapper, projectRepository, userRepository/*, taskHistoryService*/);
+        verifyNoInteractions(taskRepository, projectRepository);
     }
 
     @Test
@@ -474,7 +524,9 @@ class TaskServiceTest {
     void updateTask_TaskNotFound_ShouldReturnError() {
         Long nonExistingId = 999L;
 
-        when(taskRepository.findById(nonExistingId)).thenReturn(Mono.empty());
+        when(taskMapper.toEntity(updateTaskDto)).thenReturn(new Task());
+        when(partialUpdateRepository.update(eq(Task.class), eq(nonExistingId), isNull(), any(Task.class), anyCollection()))
+                .thenReturn(Mono.empty());
 
         Mono<TaskDto> resultMono = taskService.updateTask(nonExistingId, updateTaskDto);
 
@@ -482,69 +534,63 @@ class TaskServiceTest {
                 .expectError(ResourceNotFoundException.class)
                 .verify();
 
-        verify(taskRepository).findById(nonExistingId);
-        verifyNoMoreInteractions(taskRepository);
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
     @DisplayName("updateTask - должен вернуть ошибку ResourceNotFoundException, если новый назначенный пользователь не найден")
     void updateTask_NewAssignedUserNotFound_ShouldReturnError() {
         Long newAssignedUserId = updateTaskDto.getAssignedUserId(); // 300L
-        Long existingProjectId = taskEntityToUpdate.getProjectId();
 
-        when(taskRepository.findById(taskId)).thenReturn(Mono.just(taskEntityToUpdate));
-
-        doAnswer(invocation -> {
-            // Симулируем, что маппер обновил taskEntityToUpdate
-            TaskDto dto = invocation.getArgument(0);
-            Task entity = invocation.getArgument(1);
-            entity.setTitle(dto.getTitle());
-            entity.setStatus(dto.getStatus());
-            entity.setAssignedUserId(dto.getAssignedUserId());
-            return null;
-        }).when(taskMapper).updateEntityFromDto(updateTaskDto, taskEntityToUpdate);
-
-//        when(projectRepository.existsById(existingProjectId)).thenReturn(Mono.just(true));
-        when(userRepository.existsById(newAssignedUserId)).thenReturn(Mono.just(false));
+        when(taskMapper.toEntity(updateTaskDto)).thenReturn(Task.builder().assignedUserId(newAssignedUserId).build());
+        when(partialUpdateRepository.update(eq(Task.class), eq(taskId), isNull(), any(Task.class), anyCollection()))
+                .thenReturn(Mono.error(foreignKeyViolation("fk_task_assigned_user")));
 
         Mono<TaskDto> resultMono = taskService.updateTask(taskId, updateTaskDto);
 
         StepVerifier.create(resultMono)
-                .expectError(ResourceNotFoundException.class)
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(ResourceNotFoundException.class);
+                    assertThat(((ResourceNotFoundException) error).getFieldValue()).isEqualTo(newAssignedUserId);
+                })
                 .verify();
 
-
-        verify(taskRepository).findById(taskId);
-        verify(taskMapper).updateEntityFromDto(updateTaskDto, taskEntityToUpdate);
-//        verify(projectRepository).existsById(existingProjectId);
-        verify(userRepository).existsById(newAssignedUserId);
-
-        verify(taskRepository, never()).save(any(Task.class));
-//        verify(taskHistoryService, never()).saveHistory(any(TaskHistory.class));
         verify(taskMapper, never()).toDto(any(Task.class));
-
-        verifyNoMoreInteractions(taskRepository, taskMapper, projectRepository, userRepository/*, taskHistoryService*/);
+        verifyNoInteractions(taskRepository, projectRepository, userRepository);
     }
 
     @Test
-    @DisplayName("deleteTask - должен успешно удалить задачу по существующему ID")
-    void deleteTask_ExistingId_ShouldDeleteTask() {
+    @DisplayName("updateTask - должен передать ожидаемую версию и пробросить конфликт версий")
+    void updateTask_StaleVersion_ShouldReturnConflict() {
+        updateTaskDto.setVersion(3L);
 
-        when(taskRepository.findById(taskId)).thenReturn(Mono.just(taskEntity));
+        when(taskMapper.toEntity(updateTaskDto)).thenReturn(new Task());
+        when(partialUpdateRepository.update(eq(Task.class), eq(taskId), eq(3L), any(Task.class), anyCollection()))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("stale")));
 
-        /*when(taskHistoryService.saveHistory(any(TaskHistory.class)))
-                .thenReturn(Mono.just(TaskHistory.builder().build()));*/
+        StepVerifier.create(taskService.updateTask(taskId, updateTaskDto))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
 
-        when(taskRepository.deleteById(taskId)).thenReturn(Mono.empty());
+        verify(taskMapper, never()).toDto(any(Task.class));
+    }
+
+    @Test
+    @DisplayName("deleteTask - должен мягко удалить задачу и не отправлять уведомление в запросе")
+    void deleteTask_ExistingId_ShouldSoftDeleteTask() {
+        when(securityUtils.getCurrentUserId()).thenReturn(Mono.just(userId));
+        when(taskRepository.softDeleteById(taskId, userId)).thenReturn(Mono.just(taskEntity));
+        when(redisEventPublisher.publishTaskDeleted(taskId, taskEntity.getProjectId())).thenReturn(Mono.empty());
 
         Mono<Void> resultMono = taskService.deleteTask(taskId);
 
         StepVerifier.create(resultMono)
                 .verifyComplete();
 
-        verify(taskRepository).findById(taskId);
-//        verify(taskHistoryService).saveHistory(any(TaskHistory.class));
-        verify(taskRepository).deleteById(taskId);
+        verify(taskRepository).softDeleteById(taskId, userId);
+        verify(redisEventPublisher).publishTaskDeleted(taskId, taskEntity.getProjectId());
+        verifyNoMoreInteractions(taskRepository);
+        verifyNoInteractions(rabbitProducer);
     }
 
     @Test
@@ -552,7 +598,8 @@ class TaskServiceTest {
     void deleteTask_TaskNotFound_ShouldReturnError() {
         Long nonExistingId = 999L;
 
-        when(taskRepository.findById(nonExistingId)).thenReturn(Mono.empty());
+        when(securityUtils.getCurrentUserId()).thenReturn(Mono.empty());
+        when(taskRepository.softDeleteById(nonExistingId, 0L)).thenReturn(Mono.empty());
 
         Mono<Void> resultMono = taskService.deleteTask(nonExistingId);
 
@@ -560,14 +607,43 @@ class TaskServiceTest {
                 .expectError(ResourceNotFoundException.class)
                 .verify();
 
-        verify(taskRepository).findById(nonExistingId);
+        verify(taskRepository).softDeleteById(nonExistingId, 0L);
         verifyNoMoreInteractions(taskRepository);
+        verifyNoInteractions(redisEventPublisher);
+    }
+
+    @Test
+    @DisplayName("restoreTask - должен восстановить задачу в пределах окна восстановления")
+    void restoreTask_WithinWindow_ShouldRestoreTask() {
+        ReflectionTestUtils.setField(taskService, "restoreWindow", Duration.ofDays(7));
+        when(taskRepository.restoreById(taskId, 604_800.0)).thenReturn(Mono.just(taskEntity));
+        when(taskMapper.toDto(taskEntity)).thenReturn(taskDto);
+        when(redisEventPublisher.publishTaskUpdated(taskDto)).thenReturn(Mono.empty());
+
+        StepVerifier.create(taskService.restoreTask(taskId))
+                .expectNext(taskDto)
+                .verifyComplete();
+
+        verify(redisEventPublisher).publishTaskUpdated(taskDto);
+    }
+
+    @Test
+    @DisplayName("restoreTask - должен вернуть ошибку ResourceNotFoundException, если окно восстановления истекло")
+    void restoreTask_WindowExpired_ShouldReturnError() {
+        ReflectionTestUtils.setField(taskService, "restoreWindow", Duration.ofDays(7));
+        when(taskRepository.restoreById(taskId, 604_800.0)).thenReturn(Mono.empty());
+
+        StepVerifier.create(taskService.restoreTask(taskId))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+
+        verifyNoInteractions(taskMapper, redisEventPublisher);
     }
 
     @Test
     @DisplayName("findTasksByStatusAndPriority - должен вернуть задачи с заданным статусом и приоритетом")
     void findTasksByStatusAndPriority_ShouldReturnFilteredTasks() {
-        when(taskRepository.findByStatusAndPriority(eq(filterStatus), eq(filterPriority),
+        when(taskRepository.findByStatusAndPriorityAndDeletedAtIsNull(eq(filterStatus), eq(filterPriority),
                 eq(filterPageable)))
                 .thenReturn(Flux.fromIterable(filteredTaskList));
 
@@ -582,7 +658,7 @@ class TaskServiceTest {
                 .expectNext(filteredTaskDto2)
                 .verifyComplete();
 
-        verify(taskRepository).findByStatusAndPriority(eq(filterStatus), eq(filterPriority),
+        verify(taskRepository).findByStatusAndPriorityAndDeletedAtIsNull(eq(filterStatus), eq(filterPriority),
                 eq(filterPageable));
         verify(taskMapper).toDto(filteredTask1);
         verify(taskMapper).toDto(filteredTask2);
@@ -634,4 +710,89 @@ class TaskServiceTest {
         verifyNoInteractions(taskRepository, taskMapper, projectRepository, userRepository/*, taskHistoryService*/);
     }
 
+    @Test
+    @DisplayName("findTaskByStatusAndPriorityAfter - должен передать курсор и строковые значения фильтров в keyset-запрос")
+    void findTaskByStatusAndPriorityAfter_ShouldQueryAfterCursor() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 1, 1, 12, 0), 42L);
+        when(taskRepository.findByStatusAndPriorityAfter(filterStatus.name(), filterPriority.name(),
+                cursor.createdAt(), cursor.id(), 11))
+                .thenReturn(Flux.fromIterable(filteredTaskList));
+        when(taskMapper.toDto(filteredTask1)).thenReturn(filteredTaskDto1);
+        when(taskMapper.toDto(filteredTask2)).thenReturn(filteredTaskDto2);
+
+        StepVerifier.create(taskService.findTaskByStatusAndPriorityAfter(filterStatus, filterPriority, cursor, 11))
+                .expectNext(filteredTaskDto1)
+                .expectNext(filteredTaskDto2)
+                .verifyComplete();
+
+        verifyNoInteractions(projectRepository, userRepository);
+    }
+
+    @Test
+    @DisplayName("getAllTasksAfter - первая страница должна запрашиваться от курсора START")
+    void getAllTasksAfter_StartCursor_ShouldQueryFromTop() {
+        when(taskRepository.findAllAfter(KeysetCursor.START.createdAt(), KeysetCursor.START.id(), 3))
+                .thenReturn(Flux.just(taskEntity));
+        when(taskMapper.toDto(taskEntity)).thenReturn(taskDto);
+
+        StepVerifier.create(taskService.getAllTasksAfter(KeysetCursor.decode(null), 3))
+                .expectNext(taskDto)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getTaskSummariesByProjectId - должен вернуть краткие представления задач существующего проекта")
+    void getTaskSummariesByProjectId_ShouldReturnSummaries() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+        TaskSummary summary = new TaskSummary(taskId, "Тестовая задача", Task.Status.TODO, Task.Priority.MEDIUM, null, userId);
+        when(projectRepository.existsById(projectId)).thenReturn(Mono.just(true));
+        when(taskRepository.findSummariesByProjectIdAndDeletedAtIsNull(projectId, pageable)).thenReturn(Flux.just(summary));
+
+        StepVerifier.create(taskService.getTaskSummariesByProjectId(projectId, pageable))
+                .expectNext(summary)
+                .verifyComplete();
+
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    @DisplayName("getTaskSummariesByProjectId - должен вернуть ошибку ResourceNotFoundException, если проект не найден")
+    void getTaskSummariesByProjectId_ProjectNotFound_ShouldReturnError() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(projectRepository.existsById(projectId)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(taskService.getTaskSummariesByProjectId(projectId, pageable))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("exportTasks - должен выгрузить задачи существующего проекта")
+    void exportTasks_ShouldStreamProjectTasks() {
+        when(projectRepository.existsById(projectId)).thenReturn(Mono.just(true));
+        when(exportRepository.streamTasks(projectId, Task.Status.TODO, null, null)).thenReturn(Flux.just(taskEntity));
+        when(taskMapper.toDto(taskEntity)).thenReturn(taskDto);
+
+        StepVerifier.create(taskService.exportTasks(projectId, Task.Status.TODO, null, null))
+                .expectNext(taskDto)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("exportTasks - должен вернуть ошибку ResourceNotFoundException, если проект не найден")
+    void exportTasks_ProjectNotFound_ShouldReturnError() {
+        when(projectRepository.existsById(projectId)).thenReturn(Mono.just(false));
+        when(exportRepository.streamTasks(projectId, null, null, null)).thenReturn(Flux.never());
+
+        StepVerifier.create(taskService.exportTasks(projectId, null, null, null))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    private void missCache() {
+        when(reactiveRedisService.getOrSet(anyString(), any(), any(Duration.class), eq(TaskDto.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<Mono<TaskDto>>>getArgument(1).get());
+    }
 }
@@ -3,9 +3,13 @@ package com.abarigena.taskflow.serviceTest;
 import com.abarigena.taskflow.dto.UserDto;
 import com.abarigena.taskflow.exception.ResourceNotFoundException;
 import com.abarigena.taskflow.mapper.UserMapper;
+import com.abarigena.taskflow.service.ReactiveRedisService;
+import com.abarigena.taskflow.service.RedisEventPublisher;
 import com.abarigena.taskflow.serviceSQL.UserServiceImpl;
 import com.abarigena.taskflow.storeSQL.entity.User;
+import com.abarigena.taskflow.storeSQL.repository.PartialUpdateRepository;
 import com.abarigena.taskflow.storeSQL.repository.UserRepository;
+import com.abarigena.taskflow.utility.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,12 +24,19 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -41,6 +52,15 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private RedisEventPublisher redisEventPublisher;
+
+    @Mock
+    private PartialUpdateRepository partialUpdateRepository;
+
+    @Mock
+    private ReactiveRedisService reactiveRedisService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -95,9 +115,27 @@ class UserServiceTest {
         verify(userMapper, times(2)).toDto(any(User.class));
     }
 
+    @Test
+    @DisplayName("findUsersAfter должен передавать позицию курсора и запрошенные поля в keyset-запрос")
+    void findUsersAfter_shouldQueryByCursorPosition() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(createdAt, 42L).encode());
+        List<String> fields = List.of("email");
+
+        when(userRepository.findProjectedPageAfter(fields, createdAt, 42L, 11)).thenReturn(Flux.just(userEntity));
+        when(userMapper.toDto(userEntity)).thenReturn(userDto);
+
+        StepVerifier.create(userService.findUsersAfter(cursor, 11, fields))
+                .expectNext(userDto)
+                .verifyComplete();
+
+        verify(userRepository).findProjectedPageAfter(fields, createdAt, 42L, 11);
+    }
+
     @Test
     @DisplayName("findByEmail должен возвращать UserDto, если пользователь найден")
     void findByEmail_shouldReturnUserDto_whenUserFound() {
+        missCache();
         when(userRepository.findByEmail(anyString())).thenReturn(Mono.just(userEntity));
         when(userMapper.toDto(any(User.class))).thenReturn(userDto);
 
@@ -114,6 +152,7 @@ class UserServiceTest {
     @Test
     @DisplayName("findByEmail должен возвращать ResourceNotFoundException, если пользователь не найден")
     void findByEmail_shouldReturnResourceNotFoundException_whenUserNotFound() {
+        missCache();
         when(userRepository.findByEmail(anyString())).thenReturn(Mono.empty());
 
         Mono<UserDto> result = userService.findByEmail("nonexistent@example.com");
@@ -298,6 +337,7 @@ class UserServiceTest {
     @Test
     @DisplayName("findUserById должен возвращать UserDto, если пользователь найден")
     void findUserById_shouldReturnUserDto_whenUserFound() {
+        missCache();
         when(userRepository.findById(anyLong())).thenReturn(Mono.just(userEntity));
         when(userMapper.toDto(any(User.class))).thenReturn(userDto);
 
@@ -314,6 +354,7 @@ class UserServiceTest {
     @Test
     @DisplayName("findUserById должен возвращать ResourceNotFoundException, если пользователь не найден")
     void findUserById_shouldReturnResourceNotFoundException_whenUserNotFound() {
+        missCache();
         when(userRepository.findById(anyLong())).thenReturn(Mono.empty());
 
         Mono<UserDto> result = userService.findUserById(99L);
@@ -335,14 +376,12 @@ class UserServiceTest {
         updatedUserDto.setFirstName("Updated");
         updatedUserDto.setActive(false); // Устанавливаем активность для проверки
 
-        User existingUserEntity = new User();
-        existingUserEntity.setId(1L);
-        existingUserEntity.setEmail("test@example.com");
-        existingUserEntity.setFirstName("Test");
-        existingUserEntity.setLastName("User");
-        existingUserEntity.setActive(true); // Изначальная активность
+        User patch = new User();
+        patch.setEmail("updated@example.com");
+        patch.setFirstName("Updated");
+        patch.setActive(false);
 
-        // Сущность после применения изменений маппером и сохранения
+        // Строка, возвращенная UPDATE ... RETURNING
         User savedUserEntity = new User();
         savedUserEntity.setId(1L);
         savedUserEntity.setEmail("updated@example.com");
@@ -350,6 +389,7 @@ class UserServiceTest {
         savedUserEntity.setLastName("User"); // lastName не менялся
         savedUserEntity.setActive(false); // Активность должна измениться
         savedUserEntity.setUpdatedAt(LocalDateTime.now());
+        savedUserEntity.setVersion(2L);
 
         UserDto returnedUserDto = new UserDto();
         returnedUserDto.setId(1L);
@@ -358,11 +398,12 @@ class UserServiceTest {
         returnedUserDto.setLastName("User");
         returnedUserDto.setActive(false); // Активность должна быть false в возвращаемом DTO
         returnedUserDto.setCreatedAt(userEntity.getCreatedAt());
+        returnedUserDto.setVersion(2L);
 
-
-        when(userRepository.findById(anyLong())).thenReturn(Mono.just(existingUserEntity));
-        doNothing().when(userMapper).updateEntityFromDto(any(UserDto.class), any(User.class));
-        when(userRepository.save(any(User.class))).thenReturn(Mono.just(savedUserEntity));
+        when(userMapper.toEntity(updatedUserDto)).thenReturn(patch);
+        when(partialUpdateRepository.update(eq(User.class), eq(1L), isNull(), same(patch), anyCollection()))
+                .thenReturn(Mono.just(new PartialUpdateRepository.Result<>(savedUserEntity, Map.of("email", "test@example.com"))));
+        when(redisEventPublisher.publishUserUpdated(anyLong(), any())).thenReturn(Mono.empty());
         when(userMapper.toDto(any(User.class))).thenReturn(returnedUserDto);
 
         Mono<UserDto> result = userService.updateUser(1L, updatedUserDto);
@@ -371,9 +412,12 @@ class UserServiceTest {
                 .expectNext(returnedUserDto)
                 .verifyComplete();
 
-        verify(userRepository).findById(1L);
-        verify(userMapper).updateEntityFromDto(updatedUserDto, existingUserEntity); // Проверка, что маппер вызывался с правильными аргументами
-        verify(userRepository).save(existingUserEntity); // Проверка, что save был вызван с модифицированной сущностью
+        // Старый email приходит из того же UPDATE и передается в событие для сброса кэша
+        verify(redisEventPublisher).publishUserUpdated(1L, Map.of(
+                "oldEmail", "test@example.com",
+                "newEmail", "updated@example.com"));
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).save(any(User.class));
         verify(userMapper).toDto(savedUserEntity);
     }
 
@@ -384,7 +428,9 @@ class UserServiceTest {
         UserDto updatedUserDto = new UserDto();
         updatedUserDto.setEmail("updated@example.com");
 
-        when(userRepository.findById(anyLong())).thenReturn(Mono.empty());
+        when(userMapper.toEntity(updatedUserDto)).thenReturn(new User());
+        when(partialUpdateRepository.update(eq(User.class), eq(99L), isNull(), any(User.class), anyCollection()))
+                .thenReturn(Mono.empty());
 
         Mono<UserDto> result = userService.updateUser(99L, updatedUserDto);
 
@@ -393,8 +439,6 @@ class UserServiceTest {
                         throwable.getMessage().contains("User not found with id : '99'"))
                 .verify();
 
-        verify(userRepository).findById(99L);
-        verify(userMapper, never()).updateEntityFromDto(any(UserDto.class), any(User.class));
         verify(userRepository, never()).save(any(User.class));
         verify(userMapper, never()).toDto(any(User.class));
     }
@@ -429,4 +473,9 @@ class UserServiceTest {
         verify(userRepository).findById(99L);
         verify(userRepository, never()).deleteById(anyLong());
     }
-}
\ No newline at end of file
+
+    private void missCache() {
+        when(reactiveRedisService.getOrSet(anyString(), any(), any(Duration.class), eq(UserDto.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<Mono<UserDto>>>getArgument(1).get());
+    }
+}
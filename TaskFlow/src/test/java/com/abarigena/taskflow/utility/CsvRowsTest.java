@@ -0,0 +1,36 @@
+package com.abarigena.taskflow.utility;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Unit тесты для CsvRows")
+class CsvRowsTest {
+
+    @Test
+    @DisplayName("line - должен заключить в кавычки значения с разделителем, кавычками и переводами строк")
+    void line_ShouldQuoteSpecialCharacters() {
+        assertThat(CsvRows.line(1L, "a,b", "say \"hi\"", "two\nlines", null))
+                .isEqualTo("1,\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",\r\n");
+    }
+
+    @Test
+    @DisplayName("line - должен предварить апострофом текст, который табличный редактор примет за формулу")
+    void line_ShouldEscapeFormulas() {
+        assertThat(CsvRows.line("=HYPERLINK(\"http://evil\")", "+1", "-1", "@SUM(A1)", "\tx", "plain"))
+                .isEqualTo("\"'=HYPERLINK(\"\"http://evil\"\")\",'+1,'-1,'@SUM(A1),'\tx,plain\r\n");
+    }
+
+    @Test
+    @DisplayName("line - не должен изменять отрицательные числа")
+    void line_ShouldKeepNegativeNumbers() {
+        assertThat(CsvRows.line(-5L, -1.5)).isEqualTo("-5,-1.5\r\n");
+    }
+
+    @Test
+    @DisplayName("copyLine - должен передать значения в базу без изменений")
+    void copyLine_ShouldNotEscapeFormulas() {
+        assertThat(CsvRows.copyLine("=1+2", "-", "a,b")).isEqualTo("=1+2,-,\"a,b\"\r\n");
+    }
+}
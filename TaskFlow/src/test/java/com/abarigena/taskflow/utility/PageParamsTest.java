@@ -0,0 +1,43 @@
+package com.abarigena.taskflow.utility;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Unit тесты для PageParams")
+class PageParamsTest {
+
+    @Test
+    @DisplayName("pageable - должен разобрать поле и направление сортировки")
+    void pageable_ShouldParseSort() {
+        Pageable pageable = PageParams.pageable(2, 20, "title,ASC");
+
+        assertThat(pageable.getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getPageSize()).isEqualTo(20);
+        assertThat(pageable.getSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "title"));
+    }
+
+    @Test
+    @DisplayName("pageable - без направления или с неизвестным направлением должен сортировать по убыванию")
+    void pageable_WithoutAscDirection_ShouldSortDescending() {
+        assertThat(PageParams.pageable(0, 10, "createdAt").getSort())
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "createdAt"));
+        assertThat(PageParams.pageable(0, 10, "createdAt,up").getSort())
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    @Test
+    @DisplayName("keysetSize - должен пропустить размер от 1 до 100 и отклонить остальные")
+    void keysetSize_ShouldRejectOutOfRange() {
+        assertThat(PageParams.keysetSize(1)).isEqualTo(1);
+        assertThat(PageParams.keysetSize(PageParams.MAX_KEYSET_PAGE_SIZE)).isEqualTo(100);
+        assertThatThrownBy(() -> PageParams.keysetSize(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("'size' must be between 1 and 100");
+        assertThatThrownBy(() -> PageParams.keysetSize(101)).isInstanceOf(IllegalArgumentException.class);
+    }
+}